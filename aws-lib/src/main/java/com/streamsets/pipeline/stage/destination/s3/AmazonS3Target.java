@@ -21,6 +21,7 @@ package com.streamsets.pipeline.stage.destination.s3;
 
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.github.luben.zstd.ZstdOutputStream;
 import com.google.common.collect.Multimap;
 import com.streamsets.pipeline.api.Batch;
 import com.streamsets.pipeline.api.Record;
@@ -29,6 +30,7 @@ import com.streamsets.pipeline.api.base.BaseTarget;
 import com.streamsets.pipeline.api.el.ELEval;
 import com.streamsets.pipeline.api.el.ELVars;
 import com.streamsets.pipeline.api.impl.Utils;
+import com.streamsets.pipeline.lib.compression.StreamCompressor;
 import com.streamsets.pipeline.lib.el.ELUtils;
 import com.streamsets.pipeline.lib.generator.DataGenerator;
 import org.slf4j.Logger;
@@ -47,7 +49,6 @@ public class AmazonS3Target extends BaseTarget {
   private final static Logger LOG = LoggerFactory.getLogger(AmazonS3Target.class);
 
   private static final String EL_PREFIX = "${";
-  private static final String GZIP_EXTENSION = ".gz";
   private static final String PARTITION_TEMPLATE = "partitionTemplate";
 
   private final S3TargetConfigBean s3TargetConfigBean;
@@ -119,9 +120,17 @@ public class AmazonS3Target extends BaseTarget {
         ByRefByteArrayOutputStream bOut = new ByRefByteArrayOutputStream();
         OutputStream out = bOut;
 
-        // wrap with gzip compression output stream if required
+        // wrap with a compression output stream if required
         if(s3TargetConfigBean.compress) {
-          out = new GZIPOutputStream(bOut);
+          switch (s3TargetConfigBean.compressionCodec) {
+            case ZSTD:
+              out = new ZstdOutputStream(bOut, StreamCompressor.DEFAULT_ZSTD_LEVEL);
+              break;
+            case GZIP:
+            default:
+              out = new GZIPOutputStream(bOut);
+              break;
+          }
         }
 
         generator = s3TargetConfigBean.getGeneratorFactory().getGenerator(out);
@@ -142,7 +151,7 @@ public class AmazonS3Target extends BaseTarget {
           StringBuilder fileName = new StringBuilder();
           fileName = fileName.append(keyPrefix).append(fileCount);
           if(s3TargetConfigBean.compress) {
-            fileName = fileName.append(GZIP_EXTENSION);
+            fileName = fileName.append(s3TargetConfigBean.compressionCodec.getExtension());
           }
 
           // Avoid making a copy of the internal buffer maintained by the ByteArrayOutputStream by using
@@ -47,6 +47,12 @@ public class AmazonS3TargetUpgrader implements StageUpgrader {
         // fall through
       case 3:
         upgradeV3ToV4(configs);
+        if (toVersion == 4) {
+          break;
+        }
+        // fall through
+      case 4:
+        upgradeV4ToV5(configs);
         break;
       default:
         throw new IllegalStateException(Utils.format("Unexpected fromVersion {}", fromVersion));
@@ -117,4 +123,8 @@ public class AmazonS3TargetUpgrader implements StageUpgrader {
 
     configs.add(new Config(S3TargetConfigBean.S3_TARGET_CONFIG_BEAN_PREFIX + "partitionTemplate", ""));
   }
+
+  private void upgradeV4ToV5(List<Config> configs) {
+    configs.add(new Config(S3TargetConfigBean.S3_TARGET_CONFIG_BEAN_PREFIX + "compressionCodec", S3CompressionCodec.GZIP));
+  }
 }
@@ -0,0 +1,48 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.destination.s3;
+
+import com.streamsets.pipeline.api.GenerateResourceBundle;
+import com.streamsets.pipeline.api.Label;
+
+@GenerateResourceBundle
+public enum S3CompressionCodec implements Label {
+  GZIP("Gzip", ".gz"),
+  ZSTD("Zstandard", ".zst"),
+
+  ;
+
+  private final String label;
+  private final String extension;
+
+  S3CompressionCodec(String label, String extension) {
+    this.label = label;
+    this.extension = extension;
+  }
+
+  public String getExtension() {
+    return extension;
+  }
+
+  @Override
+  public String getLabel() {
+    return label;
+  }
+}
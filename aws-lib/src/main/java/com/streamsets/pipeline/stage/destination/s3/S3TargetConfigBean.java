@@ -83,12 +83,26 @@ public class S3TargetConfigBean {
     required = true,
     type = ConfigDef.Type.BOOLEAN,
     defaultValue = "false",
-    label = "Compress with gzip",
+    label = "Compress",
     displayPosition = 210,
     group = "S3"
   )
   public boolean compress;
 
+  @ConfigDef(
+    required = true,
+    type = ConfigDef.Type.MODEL,
+    defaultValue = "GZIP",
+    label = "Compression Codec",
+    description = "Zstandard compresses faster and better than gzip, readers must support zstd",
+    displayPosition = 215,
+    group = "S3",
+    dependsOn = "compress",
+    triggeredByValue = "true"
+  )
+  @ValueChooserModel(S3CompressionCodecChooserValues.class)
+  public S3CompressionCodec compressionCodec;
+
   @ConfigDefBean(groups = {"S3"})
   public DataGeneratorFormatConfig dataGeneratorFormatConfig;
 
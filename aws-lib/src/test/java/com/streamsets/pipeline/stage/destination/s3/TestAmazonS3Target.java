@@ -26,6 +26,7 @@ import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectInputStream;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.github.luben.zstd.ZstdInputStream;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.config.CsvHeader;
 import com.streamsets.pipeline.config.CsvMode;
@@ -193,6 +194,29 @@ public class TestAmazonS3Target {
     }
   }
 
+  @Test
+  public void testWriteTextDataWithZstdCompression() throws Exception {
+
+    String prefix = "textPrefixZstdCompression";
+    AmazonS3Target amazonS3Target = createS3targetWithTextData(prefix, "", true, S3CompressionCodec.ZSTD);
+    TargetRunner targetRunner = new TargetRunner.Builder(AmazonS3DTarget.class, amazonS3Target).build();
+    targetRunner.runInit();
+
+    targetRunner.runWrite(TestUtil.createStringRecords());
+    targetRunner.runDestroy();
+
+    ObjectListing objectListing = s3client.listObjects(BUCKET_NAME, prefix);
+    Assert.assertEquals(1, objectListing.getObjectSummaries().size());
+    S3Object object = s3client.getObject(BUCKET_NAME, objectListing.getObjectSummaries().get(0).getKey());
+    Assert.assertTrue(object.getKey().endsWith(".zst"));
+
+    List<String> stringList = IOUtils.readLines(new ZstdInputStream(object.getObjectContent()));
+    Assert.assertEquals(9, stringList.size());
+    for(int i = 0 ; i < 9; i++) {
+      Assert.assertEquals(TestUtil.TEST_STRING + i, stringList.get(i));
+    }
+  }
+
   @Test
   public void testWriteEmptyBatch() throws Exception {
 
@@ -220,6 +244,15 @@ public class TestAmazonS3Target {
   }
 
   private AmazonS3Target createS3targetWithTextData(String commonPrefix, String partition, boolean useCompression) {
+    return createS3targetWithTextData(commonPrefix, partition, useCompression, S3CompressionCodec.GZIP);
+  }
+
+  private AmazonS3Target createS3targetWithTextData(
+      String commonPrefix,
+      String partition,
+      boolean useCompression,
+      S3CompressionCodec compressionCodec
+  ) {
 
     S3Config s3Config = new S3Config();
     s3Config.setEndPointForTest("http://localhost:" + port);
@@ -232,6 +265,7 @@ public class TestAmazonS3Target {
 
     S3TargetConfigBean s3TargetConfigBean = new S3TargetConfigBean();
     s3TargetConfigBean.compress = useCompression;
+    s3TargetConfigBean.compressionCodec = compressionCodec;
     s3TargetConfigBean.dataFormat = DataFormat.TEXT;
     s3TargetConfigBean.partitionTemplate = partition;
     s3TargetConfigBean.fileNamePrefix = "sdc-";
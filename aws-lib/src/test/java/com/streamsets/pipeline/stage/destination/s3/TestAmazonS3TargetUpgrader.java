@@ -120,4 +120,16 @@ public class TestAmazonS3TargetUpgrader {
     Assert.assertTrue(configValues.containsKey("s3TargetConfigBean.s3Config.commonPrefix"));
     Assert.assertEquals("MY_COMMON_PREFIX", configValues.get("s3TargetConfigBean.s3Config.commonPrefix"));
   }
+
+  @Test
+  public void testUpgradeV4ToV5() throws StageException {
+    List<Config> configs = new ArrayList<>();
+    configs.add(new Config("s3TargetConfigBean.compress", true));
+
+    new AmazonS3TargetUpgrader().upgrade("a", "b", "c", 4, 5, configs);
+
+    Assert.assertEquals(2, configs.size());
+    Assert.assertEquals("s3TargetConfigBean.compressionCodec", configs.get(1).getName());
+    Assert.assertEquals(S3CompressionCodec.GZIP, configs.get(1).getValue());
+  }
 }
@@ -44,6 +44,9 @@ import com.streamsets.pipeline.stage.destination.hdfs.HdfsTarget;
     "configs.hdfsConfigs",
     "configs.fileType",
     "configs.seqFileCompressionType",
+    "configs.parquetRowGroupSize",
+    "configs.parquetBufferMemory",
+    "configs.parquetCommitOnBatchEnd",
     "configs.dataGeneratorFormatConfig.includeSchema",
 })
 @GenerateResourceBundle
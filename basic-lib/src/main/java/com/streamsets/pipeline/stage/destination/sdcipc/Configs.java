@@ -22,7 +22,9 @@ package com.streamsets.pipeline.stage.destination.sdcipc;
 import com.google.common.annotations.VisibleForTesting;
 import com.streamsets.pipeline.api.ConfigDef;
 import com.streamsets.pipeline.api.Stage;
+import com.streamsets.pipeline.api.ValueChooserModel;
 import com.streamsets.pipeline.api.impl.Utils;
+import com.streamsets.pipeline.lib.compression.StreamCodec;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
@@ -51,6 +53,7 @@ public class Configs {
   private static final String CONFIG_PREFIX = "config.";
   private static final String HOST_PORTS = CONFIG_PREFIX + "hostPorts";
   private static final String TRUST_STORE_FILE = CONFIG_PREFIX + "trustStoreFile";
+  private static final String COMPRESSION_CODEC = CONFIG_PREFIX + "compressionCodec";
 
   @ConfigDef(
       required = true,
@@ -166,6 +169,21 @@ public class Configs {
   )
   public boolean compression;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.MODEL,
+      defaultValue = "SNAPPY",
+      label = "Compression Codec",
+      description = "LZ4 is the fastest codec, Zstandard has the best ratio for bandwidth bound links. " +
+          "The receiving Data Collector must support the codec",
+      displayPosition = 45,
+      group = "ADVANCED",
+      dependsOn = "compression",
+      triggeredByValue = "true"
+  )
+  @ValueChooserModel(CompressionCodecChooserValues.class)
+  public StreamCodec compressionCodec;
+
   private SSLSocketFactory sslSocketFactory;
 
   public List<Stage.ConfigIssue> init(Stage.Context context) {
@@ -357,6 +375,10 @@ public class Configs {
         if (conn.getResponseCode() == HttpURLConnection.HTTP_OK) {
           if (Constants.X_SDC_PING_VALUE.equals(conn.getHeaderField(Constants.X_SDC_PING_HEADER))) {
             ok = true;
+            if (!isCompressionSupported(conn.getHeaderField(Constants.X_SDC_COMPRESSION_SUPPORTED_HEADER))) {
+              issues.add(context.createConfigIssue(Groups.ADVANCED.name(), COMPRESSION_CODEC,
+                                                   Errors.IPC_DEST_13, hostPort, compressionCodec.getLabel()));
+            }
           } else {
             issues.add(context.createConfigIssue(Groups.RPC.name(), HOST_PORTS,
                                                  Errors.IPC_DEST_12, hostPort ));
@@ -373,4 +395,30 @@ public class Configs {
     }
   }
 
+  /**
+   * Returns the codec used to compress the batches, {@link StreamCodec#NONE} if compression is disabled.
+   */
+  public StreamCodec getCompressionCodec() {
+    if (!compression) {
+      return StreamCodec.NONE;
+    }
+    return (compressionCodec == null) ? StreamCodec.SNAPPY : compressionCodec;
+  }
+
+  // receivers that don't advertise their codecs only support Snappy
+  boolean isCompressionSupported(String supportedHeader) {
+    StreamCodec codec = getCompressionCodec();
+    if (codec == StreamCodec.NONE || codec == StreamCodec.SNAPPY) {
+      return true;
+    }
+    if (supportedHeader != null) {
+      for (String supported : supportedHeader.split(",")) {
+        if (codec.getHeaderValue().equals(supported.trim())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
 }
@@ -24,6 +24,7 @@ public interface Constants {
   String X_SDC_PING_HEADER = "X-SDC-PING";
   String X_SDC_PING_VALUE = "ping";
   String X_SDC_COMPRESSION_HEADER = "X-SDC-COMPRESSION";
+  String X_SDC_COMPRESSION_SUPPORTED_HEADER = "X-SDC-COMPRESSION-SUPPORTED";
   String SNAPPY_COMPRESSION = "snappy";
   String CONTENT_TYPE_HEADER = "Content-Type";
   String APPLICATION_BINARY = "application/binary";
@@ -39,6 +39,7 @@ public enum Errors implements ErrorCode {
   IPC_DEST_11("Configuration value is empty"),
 
   IPC_DEST_12("HOST:PORT '{}' is not an SDC RPC end point"),
+  IPC_DEST_13("HOST:PORT '{}' does not support '{}' compression"),
 
   IPC_DEST_15("Could not connect to any SDC RPC destination: {}"),
 
@@ -27,10 +27,11 @@ import com.streamsets.pipeline.api.Target;
 import com.streamsets.pipeline.configurablestage.DTarget;
 
 @StageDef(
-    version = 1,
+    version = 2,
     label = "SDC RPC",
     description = "Sends records via SDC RPC to a Data Collector pipeline that uses an SDC RPC origin",
     icon="sdcipc.png",
+    upgrader = SdcIpcTargetUpgrader.class,
     onlineHelpRefUrl = "index.html#Destinations/SDC_RPCdest.html#task_nbl_r2x_dt"
 )
 @ConfigGroups(Groups.class)
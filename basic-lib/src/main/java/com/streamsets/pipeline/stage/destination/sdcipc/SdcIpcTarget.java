@@ -26,7 +26,8 @@ import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.base.BaseTarget;
 import com.streamsets.pipeline.api.ext.ContextExtensions;
 import com.streamsets.pipeline.api.ext.RecordWriter;
-import org.iq80.snappy.SnappyFramedOutputStream;
+import com.streamsets.pipeline.lib.compression.StreamCodec;
+import com.streamsets.pipeline.lib.compression.StreamCompressor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,6 +46,8 @@ public class SdcIpcTarget extends BaseTarget {
   final List<String> standByHostPorts;
   final List<String> activeHostPorts;
   int lastActive;
+  // reused by all batches, it keeps the compression buffers
+  private StreamCompressor compressor;
 
   public SdcIpcTarget(Configs config) {
     this.config = config;
@@ -59,6 +62,7 @@ public class SdcIpcTarget extends BaseTarget {
     issues.addAll(config.init(getContext()));
     if (issues.isEmpty()) {
       initializeHostPortsLists();
+      compressor = new StreamCompressor(config.getCompressionCodec());
     }
     return issues;
   }
@@ -133,13 +137,10 @@ public class SdcIpcTarget extends BaseTarget {
       LOG.debug("Writing out batch '{}' retry '{}'", batch.getSourceOffset(), retryCount);
       try {
         conn = createWriteConnection(retryCount > 0);
-        if (config.compression) {
-          conn.setRequestProperty(Constants.X_SDC_COMPRESSION_HEADER, Constants.SNAPPY_COMPRESSION);
-        }
-        OutputStream os = conn.getOutputStream();
-        if (config.compression) {
-          os = new SnappyFramedOutputStream(os);
+        if (compressor.getCodec() != StreamCodec.NONE) {
+          conn.setRequestProperty(Constants.X_SDC_COMPRESSION_HEADER, compressor.getCodec().getHeaderValue());
         }
+        OutputStream os = compressor.compress(conn.getOutputStream());
         RecordWriter writer = ext.createRecordWriter(os);
         Iterator<Record> it = batch.getRecords();
         while (it.hasNext()) {
@@ -25,7 +25,8 @@ import com.streamsets.pipeline.api.ext.ContextExtensions;
 import com.streamsets.pipeline.api.ext.RecordReader;
 import com.streamsets.pipeline.api.impl.Utils;
 import com.streamsets.pipeline.stage.destination.sdcipc.Constants;
-import org.iq80.snappy.SnappyFramedInputStream;
+import com.streamsets.pipeline.lib.compression.StreamCodec;
+import com.streamsets.pipeline.lib.compression.StreamCompressor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,7 +37,9 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 
 @SuppressWarnings({"squid:S2226", "squid:S1989", "squid:S1948"})
@@ -51,6 +54,8 @@ public class IpcServlet extends HttpServlet {
   private volatile boolean batchCancelled;
   private volatile boolean shuttingDown;
   private volatile boolean inPost;
+  // posts are serialized, a single decompressor per codec reuses its buffers across batches
+  private final Map<StreamCodec, StreamCompressor> decompressors = new EnumMap<>(StreamCodec.class);
 
   public IpcServlet(Stage.Context context, Configs configs, BlockingQueue<List<Record>> queue) {
     this.context = context;
@@ -59,6 +64,15 @@ public class IpcServlet extends HttpServlet {
     this.queue = queue;
   }
 
+  private StreamCompressor getDecompressor(StreamCodec codec) {
+    StreamCompressor decompressor = decompressors.get(codec);
+    if (decompressor == null) {
+      decompressor = new StreamCompressor(codec);
+      decompressors.put(codec, decompressor);
+    }
+    return decompressor;
+  }
+
   @Override
   protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
     String appId = req.getHeader(Constants.X_SDC_APPLICATION_ID_HEADER);
@@ -68,6 +82,7 @@ public class IpcServlet extends HttpServlet {
     } else {
       LOG.debug("Validation from '{}', OK", req.getRemoteAddr());
       resp.setHeader(Constants.X_SDC_PING_HEADER, Constants.X_SDC_PING_VALUE);
+      resp.setHeader(Constants.X_SDC_COMPRESSION_SUPPORTED_HEADER, StreamCodec.getSupportedHeaderValues());
       resp.setStatus(HttpServletResponse.SC_OK);
     }
   }
@@ -96,15 +111,14 @@ public class IpcServlet extends HttpServlet {
             InputStream is = in;
             boolean processRequest = true;
             if (compression != null) {
-              switch (compression) {
-                case Constants.SNAPPY_COMPRESSION:
-                  is = new SnappyFramedInputStream(is, true);
-                  break;
-                default:
-                  LOG.warn("Invalid compression '{}' in request, returning error", compression);
-                  resp.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
-                                 "Unsupported compression: " + compression);
-                  processRequest = false;
+              StreamCodec codec = StreamCodec.forHeaderValue(compression);
+              if (codec != null) {
+                is = getDecompressor(codec).decompress(is);
+              } else {
+                LOG.warn("Invalid compression '{}' in request, returning error", compression);
+                resp.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
+                               "Unsupported compression: " + compression);
+                processRequest = false;
               }
             }
             if (processRequest) {
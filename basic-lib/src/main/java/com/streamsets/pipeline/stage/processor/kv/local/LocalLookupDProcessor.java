@@ -28,9 +28,10 @@ import com.streamsets.pipeline.configurablestage.DProcessor;
 import com.streamsets.pipeline.stage.processor.kv.LookupProcessor;
 
 @StageDef(
-    version = 1,
+    version = 2,
     label = "Static Lookup",
     description = "Performs KV lookups to enrich records.",
+    upgrader = LocalLookupUpgrader.class,
     icon = "dedup.png",
     onlineHelpRefUrl = "index.html#Processors/LocalLookup.html#task_xk1_z4r_pv"
 )
@@ -0,0 +1,54 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.kv.local;
+
+import com.streamsets.pipeline.api.Config;
+import com.streamsets.pipeline.api.StageUpgrader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestLocalLookupUpgrader {
+
+  @Test
+  public void testV1ToV2() throws Exception {
+    List<Config> configs = new ArrayList<>();
+    configs.add(new Config("conf.cache.enabled", true));
+
+    StageUpgrader upgrader = new LocalLookupUpgrader();
+    upgrader.upgrade("a", "b", "c", 1, 2, configs);
+
+    Map<String, Object> values = new HashMap<>();
+    for (Config config : configs) {
+      values.put(config.getName(), config.getValue());
+    }
+    Assert.assertEquals(7, configs.size());
+    Assert.assertEquals(-1, values.get("conf.cache.maxWeight"));
+    Assert.assertEquals(0, values.get("conf.cache.refreshTime"));
+    Assert.assertEquals(2, values.get("conf.cache.refreshThreads"));
+    Assert.assertEquals(-1, values.get("conf.cache.missingKeyExpirationTime"));
+    Assert.assertEquals(false, values.get("conf.cache.snapshotEnabled"));
+    Assert.assertEquals("", values.get("conf.cache.snapshotFile"));
+  }
+}
@@ -20,8 +20,10 @@
 package com.streamsets.pipeline;
 
 import java.util.List;
-import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.streamsets.pipeline.api.Source;
@@ -42,7 +44,8 @@ import com.streamsets.pipeline.configurablestage.DSource;
 public class EmbeddedSDCPool {
   private static final Logger LOG = LoggerFactory.getLogger(EmbeddedSDCPool.class);
   private static final boolean IS_TRACE_ENABLED = LOG.isTraceEnabled();
-  private final ConcurrentLinkedDeque<EmbeddedSDC> instanceQueue = new ConcurrentLinkedDeque<>();
+  // blocking so that a checkout waiting for an instance is signalled as soon as it is checked in
+  private final BlockingDeque<EmbeddedSDC> instanceQueue = new LinkedBlockingDeque<>();
   private final List<EmbeddedSDC> instances = new CopyOnWriteArrayList<>();
   private final Properties properties;
   private boolean infinitePoolSize;
@@ -181,22 +184,17 @@ public class EmbeddedSDCPool {
     EmbeddedSDC embeddedSDC = null;
     if (timeout < 0) throw new IllegalArgumentException("Timeout shouldn't be less than zero");
     long startTime = System.currentTimeMillis();
-    long endTime = startTime;
     long diff = 0;
-    int counter = 1000;
     while (diff < timeout) {
       Utils.checkState(open, "Not open");
-      embeddedSDC = instanceQueue.poll();
+      // as we want to print messages every second
+      embeddedSDC = instanceQueue.poll(Math.min(1000, timeout - diff), TimeUnit.MILLISECONDS);
       if (embeddedSDC != null) {
         break;
       }
-      Thread.sleep(50);
-      endTime = System.currentTimeMillis();
-      diff = endTime - startTime;
-      if (diff > counter) {
+      diff = System.currentTimeMillis() - startTime;
+      if (diff < timeout) {
         LOG.warn("Have been waiting for sdc for " + diff + "ms");
-        // as we want to print messages every second
-        counter = counter + 1000;
       }
     }
     return embeddedSDC;
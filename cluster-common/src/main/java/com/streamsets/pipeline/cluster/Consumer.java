@@ -19,6 +19,7 @@
  */
 package com.streamsets.pipeline.cluster;
 
+import com.codahale.metrics.Timer;
 import com.google.common.base.Throwables;
 import com.streamsets.pipeline.impl.OffsetAndResult;
 import com.streamsets.pipeline.api.impl.Utils;
@@ -32,10 +33,15 @@ import java.util.concurrent.TimeUnit;
  * Implements the consumer side of the cluster producer consumer pattern.
  * Ensures that each take is followed by a subsequent commit and stops
  * attempting to consume messages when the producer indicates it has
- * completed.
+ * completed. Waits for batches and control messages without polling,
+ * the producer signals the data channel for both.
  */
 public class Consumer {
   private static final Logger LOG = LoggerFactory.getLogger(Consumer.class);
+  // upper bound of a single wait, threads are signalled so this only bounds the wait if a signal is missed
+  private static final long MAX_WAIT_MILLIS = 1000;
+  // time given to a put racing with the producer completion to hand off its batch
+  private static final long COMPLETION_WAIT_MILLIS = 10;
   private final ControlChannel controlChannel;
   private final DataChannel dataChannel;
   private boolean running;
@@ -43,13 +49,23 @@ public class Consumer {
   private volatile Throwable producerError;
   private volatile Throwable consumerError;
   private String lastCommittedOffset;
+  private volatile Timer takeWaitTimer;
 
   public Consumer(ControlChannel controlChannel, DataChannel dataChannel) {
     this.controlChannel = controlChannel;
     this.dataChannel = dataChannel;
+    controlChannel.attach(dataChannel);
     this.running = true;
     this.batchCommitted = true;
     this.lastCommittedOffset = "";
+    this.takeWaitTimer = new Timer();
+  }
+
+  /**
+   * Sets the timer recording the time spent waiting for batches.
+   */
+  public void setWaitTimer(Timer takeWaitTimer) {
+    this.takeWaitTimer = Utils.checkNotNull(takeWaitTimer, "takeWaitTimer");
   }
 
   /**
@@ -66,12 +82,14 @@ public class Consumer {
     }
     try {
       Utils.checkState(batchCommitted, "Cannot take messages when last batch is uncommitted");
+      long start = System.currentTimeMillis();
       while (running) {
         for (ControlChannel.Message controlMessage : controlChannel.getConsumerMessages()) {
           switch (controlMessage.getType()) {
             case PRODUCER_COMPLETE:
               // producer is complete, empty channel and afterwards return null
               running = false;
+              LOG.trace("Producer complete");
               break;
             case PRODUCER_ERROR:
               running = false;
@@ -83,13 +101,24 @@ public class Consumer {
               throw new IllegalStateException(msg);
           }
         }
-        OffsetAndResult<Map.Entry> batch = dataChannel.take(10, TimeUnit.MILLISECONDS);
+        if (!running) {
+          break;
+        }
+        OffsetAndResult<Map.Entry> batch = dataChannel.take(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
         LOG.trace("Received batch: {}", batch);
         if (batch != null) {
+          takeWaitTimer.update(System.currentTimeMillis() - start, TimeUnit.MILLISECONDS);
           batchCommitted = false; // got a new batch
           return batch;
         }
       }
+      // once the producer is complete only the batches already in the channel are returned
+      OffsetAndResult<Map.Entry> batch = dataChannel.take(COMPLETION_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+      if (batch != null) {
+        LOG.trace("Received batch after producer completion: {}", batch);
+        batchCommitted = false;
+        return batch;
+      }
       LOG.trace("Returning null");
       return null;
     } catch (Throwable throwable) {
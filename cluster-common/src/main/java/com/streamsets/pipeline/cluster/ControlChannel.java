@@ -25,23 +25,40 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Provides a bi-directional control channel between two threads, one producing
  * and the other consuming. Both threads can queue multiple control messages
  * for the corresponding thread.
+ * <p/>
+ * Threads are signalled when a message is queued for them, the producer can wait for its messages with
+ * {@link #awaitProducerMessages(long, TimeUnit)} and a thread waiting on the attached {@link DataChannel} is woken
+ * up.
  */
 public class ControlChannel {
   private static final Logger LOG = LoggerFactory.getLogger(ControlChannel.class);
-  private final BlockingQueue<Message> producerQueue = new ArrayBlockingQueue<>(10);
-  private final BlockingQueue<Message> consumerQueue = new ArrayBlockingQueue<>(10);
+  // unbounded as the producer can have as many commits pending as batches in flight
+  private final BlockingQueue<Message> producerQueue = new LinkedBlockingQueue<>();
+  private final BlockingQueue<Message> consumerQueue = new LinkedBlockingQueue<>();
+  private final ReentrantLock producerLock = new ReentrantLock();
+  private final Condition producerMessagesAvailable = producerLock.newCondition();
+  private volatile DataChannel dataChannel;
+
+  // the data channel whose waiting threads are woken up by control messages
+  void attach(DataChannel dataChannel) {
+    this.dataChannel = dataChannel;
+  }
 
   public void producerComplete() {
     LOG.info("Producer complete");
     try {
       consumerQueue.put(new Message(MessageType.PRODUCER_COMPLETE));
+      signalConsumer();
     } catch (InterruptedException e) {
       LOG.info("Interrupted while queuing '{}'", MessageType.PRODUCER_COMPLETE.name());
       Thread.currentThread().interrupt();
@@ -49,12 +66,39 @@ public class ControlChannel {
   }
 
   public List<Message> getProducerMessages() {
+    DataChannel channel = dataChannel;
+    if (channel != null) {
+      // cleared before draining, a message queued after the drain wakes the producer up again
+      channel.clearProducerWakeUp();
+    }
     List<Message> result = new ArrayList<>();
     producerQueue.drainTo(result);
     return result;
   }
 
+  /**
+   * Waits up to the given time for messages for the producer.
+   *
+   * @return the messages, empty if there were none within the given time.
+   */
+  public List<Message> awaitProducerMessages(long timeout, TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    producerLock.lockInterruptibly();
+    try {
+      while (producerQueue.isEmpty() && nanos > 0) {
+        nanos = producerMessagesAvailable.awaitNanos(nanos);
+      }
+      return getProducerMessages();
+    } finally {
+      producerLock.unlock();
+    }
+  }
+
   public List<Message> getConsumerMessages() {
+    DataChannel channel = dataChannel;
+    if (channel != null) {
+      channel.clearConsumerWakeUp();
+    }
     List<Message> result = new ArrayList<>();
     consumerQueue.drainTo(result);
     return result;
@@ -63,7 +107,7 @@ public class ControlChannel {
   public void consumerError(Throwable throwable) {
     LOG.trace("Consumer Error: {}", throwable, throwable);
     try {
-      producerQueue.put(new Message(MessageType.CONSUMER_ERROR, throwable));
+      putProducerMessage(new Message(MessageType.CONSUMER_ERROR, throwable));
     } catch (InterruptedException e) {
       LOG.info("Interrupted while queuing '{}': {}", MessageType.CONSUMER_ERROR.name(), throwable, throwable);
       Thread.currentThread().interrupt();
@@ -74,6 +118,7 @@ public class ControlChannel {
     LOG.trace("Producer Error: {}", throwable, throwable);
     try {
       consumerQueue.put(new Message(MessageType.PRODUCER_ERROR, throwable));
+      signalConsumer();
     } catch (InterruptedException e) {
       LOG.info("Interrupted while queuing '{}': {}", MessageType.PRODUCER_ERROR.name(), throwable, throwable);
       Thread.currentThread().interrupt();
@@ -92,13 +137,34 @@ public class ControlChannel {
     }
     LOG.trace("Commit Offset: '{}'", offsetValue);
     try {
-      producerQueue.put(new Message(MessageType.CONSUMER_COMMIT, offsetValue));
+      putProducerMessage(new Message(MessageType.CONSUMER_COMMIT, offsetValue));
     } catch (InterruptedException e) {
       LOG.info("Interrupted while queuing '{}'", MessageType.CONSUMER_COMMIT.name(), offsetValue);
       Thread.currentThread().interrupt();
     }
   }
 
+  private void putProducerMessage(Message message) throws InterruptedException {
+    producerLock.lockInterruptibly();
+    try {
+      producerQueue.put(message);
+      producerMessagesAvailable.signalAll();
+    } finally {
+      producerLock.unlock();
+    }
+    DataChannel channel = dataChannel;
+    if (channel != null) {
+      channel.wakeUpProducer();
+    }
+  }
+
+  private void signalConsumer() {
+    DataChannel channel = dataChannel;
+    if (channel != null) {
+      channel.wakeUpConsumer();
+    }
+  }
+
   private static class NullOffset {
     @Override
     public String toString() {
@@ -19,25 +19,139 @@
  */
 package com.streamsets.pipeline.cluster;
 
+import com.streamsets.pipeline.api.impl.Utils;
 import com.streamsets.pipeline.impl.OffsetAndResult;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Map;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Implements a uni-directional data flow from producer to consumer.
+ * <p/>
+ * The capacity of the channel is the number of batches it can queue. The {@link Producer} waits for every batch to be
+ * committed before handing off the next one, so the default capacity of one batch is all it needs.
+ * Waiting threads are signalled when a batch is queued or taken, and can be woken up by the {@link ControlChannel}
+ * when a control message is sent to them.
  */
 public class DataChannel {
+  private static final int DEFAULT_CAPACITY = 1;
 
-  private final BlockingQueue<OffsetAndResult<Map.Entry>> dataQueue = new ArrayBlockingQueue<>(1);
+  private final int capacity;
+  private final Deque<OffsetAndResult<Map.Entry>> dataQueue;
+  private final ReentrantLock lock;
+  private final Condition notEmpty;
+  private final Condition notFull;
+  // wake ups are kept until the woken side reads its control messages or waits again, so they are not lost if they
+  // happen while it is not waiting
+  private boolean producerWakeUp;
+  private boolean consumerWakeUp;
 
+  public DataChannel() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public DataChannel(int capacity) {
+    Utils.checkArgument(capacity > 0, "capacity must be greater than zero");
+    this.capacity = capacity;
+    dataQueue = new ArrayDeque<>(capacity);
+    lock = new ReentrantLock();
+    notEmpty = lock.newCondition();
+    notFull = lock.newCondition();
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Queues the batch, waiting up to the given time for space in the channel.
+   *
+   * @return <code>true</code> if the batch was queued, <code>false</code> if the time elapsed or the producer was
+   * woken up before there was space.
+   */
   public boolean offer(OffsetAndResult<Map.Entry> batch, long timeout, TimeUnit unit) throws InterruptedException {
-    return dataQueue.offer(batch, timeout, unit);
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (dataQueue.size() == capacity) {
+        if (producerWakeUp || nanos <= 0) {
+          producerWakeUp = false;
+          return false;
+        }
+        nanos = notFull.awaitNanos(nanos);
+      }
+      dataQueue.addLast(batch);
+      notEmpty.signal();
+      return true;
+    } finally {
+      lock.unlock();
+    }
   }
 
+  /**
+   * Takes the next batch, waiting up to the given time for one.
+   *
+   * @return the next batch, or <code>null</code> if the time elapsed or the consumer was woken up before there was a
+   * batch.
+   */
   public OffsetAndResult<Map.Entry> take(long timeout, TimeUnit unit) throws InterruptedException {
-    return dataQueue.poll(timeout, unit);
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (dataQueue.isEmpty()) {
+        if (consumerWakeUp || nanos <= 0) {
+          consumerWakeUp = false;
+          return null;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+      }
+      OffsetAndResult<Map.Entry> batch = dataQueue.removeFirst();
+      notFull.signal();
+      return batch;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  void clearProducerWakeUp() {
+    lock.lock();
+    try {
+      producerWakeUp = false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  void clearConsumerWakeUp() {
+    lock.lock();
+    try {
+      consumerWakeUp = false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  void wakeUpProducer() {
+    lock.lock();
+    try {
+      producerWakeUp = true;
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  void wakeUpConsumer() {
+    lock.lock();
+    try {
+      consumerWakeUp = true;
+      notEmpty.signalAll();
+    } finally {
+      lock.unlock();
+    }
   }
 }
@@ -19,28 +19,53 @@
  */
 package com.streamsets.pipeline.cluster;
 
+import com.codahale.metrics.Timer;
 import com.google.common.base.Throwables;
 import com.streamsets.pipeline.impl.OffsetAndResult;
 import com.streamsets.pipeline.api.impl.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Implements the producer side of the cluster producer consumer pattern.
+ * <p/>
+ * {@link #put} returns only once its batch has been committed. Spark marks a partition as done when the cluster
+ * function returns, so a batch still in flight at that point could be lost if the consumer later fails it.
  */
 public class Producer {
   private static final Logger LOG = LoggerFactory.getLogger(Producer.class);
+  // upper bound of a single wait, threads are signalled so this only bounds the wait if a signal is missed
+  private static final long MAX_WAIT_MILLIS = 1000;
   private final ControlChannel controlChannel;
   private final DataChannel dataChannel;
+  // expected offsets of the batches handed off and not committed yet, in hand off order
+  private final Deque<Object> inFlightOffsets;
   private volatile Throwable consumerError;
   private volatile Throwable producerError;
+  private volatile Timer queueWaitTimer;
+  private volatile Timer commitWaitTimer;
 
   public Producer(ControlChannel controlChannel, DataChannel dataChannel) {
     this.controlChannel = controlChannel;
     this.dataChannel = dataChannel;
+    controlChannel.attach(dataChannel);
+    inFlightOffsets = new ArrayDeque<>();
+    queueWaitTimer = new Timer();
+    commitWaitTimer = new Timer();
+  }
+
+  /**
+   * Sets the timers recording the time spent waiting for space in the data channel and for commits.
+   */
+  public void setWaitTimers(Timer queueWaitTimer, Timer commitWaitTimer) {
+    this.queueWaitTimer = Utils.checkNotNull(queueWaitTimer, "queueWaitTimer");
+    this.commitWaitTimer = Utils.checkNotNull(commitWaitTimer, "commitWaitTimer");
   }
 
   /**
@@ -51,10 +76,9 @@ public class Producer {
   }
 
   /**
-   * Queues the batch for the consumer and waits until the consumer
-   * successfully commits the batch. While waiting processes any
-   * control messages from the consumer. Throws an exception
-   * when the consumer has indicated it encountered an error.
+   * Queues the batch for the consumer and waits until the consumer successfully
+   * commits it. While waiting processes any control messages from the consumer.
+   * Throws an exception when the consumer has indicated it encountered an error.
    */
   public void put(OffsetAndResult<Map.Entry> batch) throws InterruptedException {
     if (consumerError != null) {
@@ -68,41 +92,22 @@ public class Producer {
       if (!batch.getResult().isEmpty()) {
         expectedOffset = batch.getResult().get(batch.getResult().size() - 1).getKey(); // get the last one
       }
-      while (!dataChannel.offer(batch, 10, TimeUnit.MILLISECONDS)) {
-        for (ControlChannel.Message controlMessage : controlChannel.getProducerMessages()) {
-          switch (controlMessage.getType()) {
-            case CONSUMER_ERROR:
-              Throwable throwable = (Throwable) controlMessage.getPayload();
-              consumerError = throwable;
-              throw new ConsumerRuntimeException(Utils.format("Consumer encountered error: {}", throwable), throwable);
-            default:
-              String msg = Utils.format("Illegal control message type: '{}'", controlMessage.getType());
-              throw new IllegalStateException(msg);
-          }
-        }
+      long start = System.currentTimeMillis();
+      // the offer returns early if the consumer sent a control message
+      processMessages(controlChannel.getProducerMessages());
+      while (!dataChannel.offer(batch, MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+        processMessages(controlChannel.getProducerMessages());
       }
-      // now wait for offset commit
-      while (true) {
-        for (ControlChannel.Message controlMessage : controlChannel.getProducerMessages()) {
-          switch (controlMessage.getType()) {
-            case CONSUMER_COMMIT:
-              if (!controlMessage.getPayload().equals(expectedOffset)) {
-                LOG.warn("Expected offset: '{}' and found: '{}'", expectedOffset, controlMessage.getPayload());
-              } else if (LOG.isTraceEnabled()) {
-                LOG.trace("Commit of: '{}'", controlMessage.getPayload());
-              }
-              return;
-            case CONSUMER_ERROR:
-              Throwable throwable = (Throwable) controlMessage.getPayload();
-              consumerError = throwable;
-              throw new ConsumerRuntimeException(Utils.format("Consumer encountered error: {}", throwable), throwable);
-            default:
-              throw new IllegalStateException(Utils.format("Illegal control message type: '{}'",
-                controlMessage.getType()));
-          }
-        }
-        TimeUnit.MILLISECONDS.sleep(10);
+      inFlightOffsets.addLast(expectedOffset);
+      long queued = System.currentTimeMillis();
+      queueWaitTimer.update(queued - start, TimeUnit.MILLISECONDS);
+
+      // now wait for the offset commit, a consumer error on the batch is thrown from here
+      processMessages(controlChannel.getProducerMessages());
+      while (!inFlightOffsets.isEmpty()) {
+        processMessages(controlChannel.awaitProducerMessages(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS));
       }
+      commitWaitTimer.update(System.currentTimeMillis() - queued, TimeUnit.MILLISECONDS);
     } catch (Throwable throwable) {
       controlChannel.producerComplete();
       if (!(throwable instanceof ConsumerRuntimeException)) {
@@ -117,6 +122,30 @@ public class Producer {
     }
   }
 
+  private void processMessages(List<ControlChannel.Message> controlMessages) {
+    for (ControlChannel.Message controlMessage : controlMessages) {
+      switch (controlMessage.getType()) {
+        case CONSUMER_COMMIT:
+          Object expectedOffset = inFlightOffsets.pollFirst();
+          if (expectedOffset == null) {
+            LOG.warn("Found commit of: '{}' without batches in flight", controlMessage.getPayload());
+          } else if (!controlMessage.getPayload().equals(expectedOffset)) {
+            LOG.warn("Expected offset: '{}' and found: '{}'", expectedOffset, controlMessage.getPayload());
+          } else if (LOG.isTraceEnabled()) {
+            LOG.trace("Commit of: '{}'", controlMessage.getPayload());
+          }
+          break;
+        case CONSUMER_ERROR:
+          Throwable throwable = (Throwable) controlMessage.getPayload();
+          consumerError = throwable;
+          throw new ConsumerRuntimeException(Utils.format("Consumer encountered error: {}", throwable), throwable);
+        default:
+          throw new IllegalStateException(Utils.format("Illegal control message type: '{}'",
+            controlMessage.getType()));
+      }
+    }
+  }
+
   public boolean inErrorState() {
     return consumerError != null || producerError != null;
   }
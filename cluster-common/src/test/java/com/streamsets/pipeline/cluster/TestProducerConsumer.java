@@ -19,6 +19,7 @@
  */
 package com.streamsets.pipeline.cluster;
 
+import com.codahale.metrics.Timer;
 import com.google.common.base.Throwables;
 import com.streamsets.pipeline.impl.OffsetAndResult;
 import org.junit.After;
@@ -121,6 +122,60 @@ public class TestProducerConsumer {
     Assert.assertSame(producerError, getError(take(true)));
   }
 
+  @Test(timeout = 5000)
+  public void testPutWaitsForCommit() throws Exception {
+    dataChannel = new DataChannel(2);
+    producer = new Producer(controlChannel, dataChannel);
+    consumer = new Consumer(controlChannel, dataChannel);
+
+    // even with room in the channel the put returns only once its batch is committed
+    Future<?> putFuture = put(1);
+    try {
+      putFuture.get(200, TimeUnit.MILLISECONDS);
+      Assert.fail();
+    } catch (TimeoutException ex) {
+      // expected
+    }
+    Assert.assertEquals(createBatch(1), take(true).get());
+    putFuture.get();
+  }
+
+  @Test(timeout = 5000)
+  public void testPutThrowsConsumerErrorOfItsBatch() throws Exception {
+    Future<?> putFuture = put(1);
+    consumer.take();
+    RuntimeException consumerError = new RuntimeException();
+    consumer.error(consumerError);
+    Assert.assertSame(consumerError, getError(putFuture));
+  }
+
+  @Test(timeout = 5000)
+  public void testWaitTimers() throws Exception {
+    Timer queueWaitTimer = new Timer();
+    Timer commitWaitTimer = new Timer();
+    Timer takeWaitTimer = new Timer();
+    producer.setWaitTimers(queueWaitTimer, commitWaitTimer);
+    consumer.setWaitTimer(takeWaitTimer);
+    Future<List<Map.Entry>> takeFuture = take(true);
+    put(1).get();
+    Assert.assertEquals(createBatch(1), takeFuture.get());
+    Assert.assertEquals(1, queueWaitTimer.getCount());
+    Assert.assertEquals(1, commitWaitTimer.getCount());
+    Assert.assertEquals(1, takeWaitTimer.getCount());
+  }
+
+  @Test(timeout = 5000)
+  public void testProducerErrorWakesUpConsumer() throws Exception {
+    Future<List<Map.Entry>> takeFuture = take(true);
+    // let the consumer wait for a batch
+    Thread.sleep(100);
+    RuntimeException producerError = new RuntimeException();
+    long start = System.currentTimeMillis();
+    controlChannel.producerError(producerError);
+    Assert.assertSame(producerError, getError(takeFuture));
+    Assert.assertTrue(System.currentTimeMillis() - start < 500);
+  }
+
   private Throwable getError(Future future) throws InterruptedException {
     try {
       future.get();
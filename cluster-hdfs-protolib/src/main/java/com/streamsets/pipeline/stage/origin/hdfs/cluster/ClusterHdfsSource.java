@@ -257,6 +257,9 @@ public class ClusterHdfsSource extends BaseSource implements OffsetCommitter, Er
 
     parserFactory = conf.dataFormatConfig.getParserFactory();
 
+    producer.setWaitTimers(getContext().createTimer("handOffQueueWait"), getContext().createTimer("handOffCommitWait"));
+    consumer.setWaitTimer(getContext().createTimer("handOffTakeWait"));
+
     LOG.info("Issues: " + issues);
     return issues;
   }
@@ -84,6 +84,8 @@ public class ClusterKafkaSource extends BaseKafkaSource implements OffsetCommitt
   @Override
   protected List<ConfigIssue> init() {
     List<ConfigIssue> errors = super.init();
+    producer.setWaitTimers(getContext().createTimer("handOffQueueWait"), getContext().createTimer("handOffCommitWait"));
+    consumer.setWaitTimer(getContext().createTimer("handOffTakeWait"));
     if (errors.isEmpty()) {
       LOG.info("Successfully initialized Spark Kafka Consumer");
     }
@@ -15,11 +15,10 @@
  */
 package com.streamsets.pipeline.lib.parser.shaded.org.aicer.grok.util;
 
-import com.streamsets.pipeline.lib.parser.shaded.com.google.code.regexp.MatchResult;
-import com.streamsets.pipeline.lib.parser.shaded.com.google.code.regexp.Matcher;
 import com.streamsets.pipeline.lib.parser.shaded.com.google.code.regexp.Pattern;
 import com.streamsets.pipeline.lib.parser.shaded.org.aicer.grok.dictionary.GrokDictionary;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -45,17 +44,27 @@ public final class Grok {
    * @return A map of group names mapped to their extracted values or null if there are no matches
    */
   public Map<String, String> extractNamedGroups(final CharSequence rawData) {
-    Matcher matcher = compiledPattern.matcher(rawData);
+    // use the standard matcher directly, the named matcher runs the expression a second time to collect the groups
+    java.util.regex.Matcher matcher = compiledPattern.pattern().matcher(rawData);
     if (matcher.find()) {
-      MatchResult r = matcher.toMatchResult();
-      if (r != null && r.namedGroups() != null) {
-        return r.namedGroups();
+      Map<String, String> result = new LinkedHashMap<String, String>();
+      for (String groupName : compiledPattern.groupNames()) {
+        // named pattern indexes are 0-based, capture groups start at 1
+        result.put(groupName, matcher.group(compiledPattern.indexOf(groupName) + 1));
       }
+      return result;
     }
 
     return null;
   }
 
+  /**
+   * Returns the compiled named pattern
+   */
+  public Pattern getPattern() {
+    return compiledPattern;
+  }
+
   private static final void displayResults(final Map<String, String> results) {
     if (results != null) {
       for(Map.Entry<String, String> entry : results.entrySet()) {
@@ -0,0 +1,41 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.compression;
+
+import java.io.IOException;
+
+/**
+ * Compresses and decompresses whole blocks between caller provided buffers, so that the buffers can be reused.
+ */
+interface BlockCodec {
+
+  int maxCompressedLength(int length);
+
+  /**
+   * Compresses {@code length} bytes of {@code src} into {@code dst} and returns the compressed length.
+   */
+  int compress(byte[] src, int length, byte[] dst) throws IOException;
+
+  /**
+   * Decompresses {@code compressedLength} bytes of {@code src} into the first {@code length} bytes of {@code dst}.
+   */
+  void decompress(byte[] src, int compressedLength, byte[] dst, int length) throws IOException;
+
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.compression;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import java.io.IOException;
+
+class Lz4BlockCodec implements BlockCodec {
+  // compressors and decompressors are stateless and thread safe
+  private static final LZ4Factory FACTORY = LZ4Factory.fastestInstance();
+
+  private final LZ4Compressor compressor = FACTORY.fastCompressor();
+  private final LZ4FastDecompressor decompressor = FACTORY.fastDecompressor();
+
+  @Override
+  public int maxCompressedLength(int length) {
+    return compressor.maxCompressedLength(length);
+  }
+
+  @Override
+  public int compress(byte[] src, int length, byte[] dst) throws IOException {
+    try {
+      return compressor.compress(src, 0, length, dst, 0, dst.length);
+    } catch (LZ4Exception ex) {
+      throw new IOException("LZ4 compression failed: " + ex.toString(), ex);
+    }
+  }
+
+  @Override
+  public void decompress(byte[] src, int compressedLength, byte[] dst, int length) throws IOException {
+    try {
+      int read = decompressor.decompress(src, 0, dst, 0, length);
+      if (read != compressedLength) {
+        throw new IOException("Corrupted LZ4 block, expected " + compressedLength + " bytes, read " + read);
+      }
+    } catch (LZ4Exception ex) {
+      throw new IOException("Corrupted LZ4 block: " + ex.toString(), ex);
+    }
+  }
+
+}
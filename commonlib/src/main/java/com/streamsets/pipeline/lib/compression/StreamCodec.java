@@ -0,0 +1,82 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.compression;
+
+import com.streamsets.pipeline.api.GenerateResourceBundle;
+import com.streamsets.pipeline.api.Label;
+
+/**
+ * Compression codecs for record streams. The header value identifies the codec on the wire, i.e. in the SDC RPC
+ * compression header.
+ */
+@GenerateResourceBundle
+public enum StreamCodec implements Label {
+  NONE("None", null),
+  SNAPPY("Snappy", "snappy"),
+  LZ4("LZ4", "lz4"),
+  ZSTD("Zstandard", "zstd"),
+  ;
+
+  private final String label;
+  private final String headerValue;
+
+  StreamCodec(String label, String headerValue) {
+    this.label = label;
+    this.headerValue = headerValue;
+  }
+
+  @Override
+  public String getLabel() {
+    return label;
+  }
+
+  public String getHeaderValue() {
+    return headerValue;
+  }
+
+  /**
+   * Returns the codec for the given header value, or null if the value does not name a known codec.
+   */
+  public static StreamCodec forHeaderValue(String headerValue) {
+    for (StreamCodec codec : values()) {
+      if (codec.headerValue != null && codec.headerValue.equals(headerValue)) {
+        return codec;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the comma separated header values of all the codecs, used to advertise the supported codecs.
+   */
+  public static String getSupportedHeaderValues() {
+    StringBuilder sb = new StringBuilder();
+    for (StreamCodec codec : values()) {
+      if (codec.headerValue != null) {
+        if (sb.length() > 0) {
+          sb.append(',');
+        }
+        sb.append(codec.headerValue);
+      }
+    }
+    return sb.toString();
+  }
+
+}
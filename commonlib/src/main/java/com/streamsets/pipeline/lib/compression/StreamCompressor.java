@@ -0,0 +1,268 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.compression;
+
+import com.streamsets.pipeline.api.impl.Utils;
+import org.iq80.snappy.SnappyFramedInputStream;
+import org.iq80.snappy.SnappyFramedOutputStream;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Wraps record streams with a {@link StreamCodec}.
+ * <p/>
+ * LZ4 and Zstandard streams are written as a sequence of blocks, each one prefixed by its uncompressed and compressed
+ * lengths and the stream ends with an empty block. The block buffers belong to the compressor and are reused by all
+ * the streams it creates, so a compressor must be used for one stream at a time, i.e. one per batch. Snappy uses the
+ * Snappy framing format for compatibility with previous versions.
+ */
+public class StreamCompressor {
+  public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+  public static final int DEFAULT_ZSTD_LEVEL = 3;
+  // upper limit for blocks read from a stream, protects from corrupted lengths
+  static final int MAX_BLOCK_SIZE = 8 * 1024 * 1024;
+
+  private final StreamCodec codec;
+  private final BlockCodec blockCodec;
+  private final int blockSize;
+  private byte[] rawBuffer;
+  private byte[] compressedBuffer;
+
+  public StreamCompressor(StreamCodec codec) {
+    this(codec, DEFAULT_BLOCK_SIZE, null);
+  }
+
+  /**
+   * @param codec codec to use.
+   * @param blockSize uncompressed size of the blocks written by LZ4 and Zstandard streams.
+   * @param dictionary Zstandard dictionary, null if none. Both ends of a stream must use the same dictionary.
+   */
+  public StreamCompressor(StreamCodec codec, int blockSize, byte[] dictionary) {
+    Utils.checkNotNull(codec, "codec");
+    Utils.checkArgument(blockSize > 0 && blockSize <= MAX_BLOCK_SIZE,
+        "blockSize must be between 1 and " + MAX_BLOCK_SIZE);
+    Utils.checkArgument(dictionary == null || codec == StreamCodec.ZSTD, "Only Zstandard supports dictionaries");
+    this.codec = codec;
+    this.blockSize = blockSize;
+    switch (codec) {
+      case LZ4:
+        blockCodec = new Lz4BlockCodec();
+        break;
+      case ZSTD:
+        blockCodec = new ZstdBlockCodec(DEFAULT_ZSTD_LEVEL, dictionary);
+        break;
+      default:
+        blockCodec = null;
+        break;
+    }
+  }
+
+  public StreamCodec getCodec() {
+    return codec;
+  }
+
+  public OutputStream compress(OutputStream os) throws IOException {
+    switch (codec) {
+      case NONE:
+        return os;
+      case SNAPPY:
+        return new SnappyFramedOutputStream(os);
+      default:
+        ensureBuffers(blockSize);
+        return new BlockOutputStream(os);
+    }
+  }
+
+  public InputStream decompress(InputStream is) throws IOException {
+    switch (codec) {
+      case NONE:
+        return is;
+      case SNAPPY:
+        return new SnappyFramedInputStream(is, true);
+      default:
+        ensureBuffers(blockSize);
+        return new BlockInputStream(is);
+    }
+  }
+
+  private void ensureBuffers(int size) {
+    if (rawBuffer == null || rawBuffer.length < size) {
+      rawBuffer = new byte[size];
+      compressedBuffer = new byte[blockCodec.maxCompressedLength(size)];
+    }
+  }
+
+  private static void writeInt(OutputStream os, int value) throws IOException {
+    os.write(value >>> 24);
+    os.write(value >>> 16);
+    os.write(value >>> 8);
+    os.write(value);
+  }
+
+  private static int readInt(InputStream is) throws IOException {
+    int b1 = is.read();
+    int b2 = is.read();
+    int b3 = is.read();
+    int b4 = is.read();
+    if ((b1 | b2 | b3 | b4) < 0) {
+      throw new EOFException("Unexpected end of compressed stream");
+    }
+    return (b1 << 24) | (b2 << 16) | (b3 << 8) | b4;
+  }
+
+  private static void readFully(InputStream is, byte[] buffer, int length) throws IOException {
+    int offset = 0;
+    while (offset < length) {
+      int read = is.read(buffer, offset, length - offset);
+      if (read < 0) {
+        throw new EOFException("Unexpected end of compressed stream");
+      }
+      offset += read;
+    }
+  }
+
+  private class BlockOutputStream extends OutputStream {
+    private final OutputStream os;
+    private int count;
+    private boolean closed;
+
+    BlockOutputStream(OutputStream os) {
+      this.os = os;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      if (count == blockSize) {
+        writeBlock();
+      }
+      rawBuffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      while (len > 0) {
+        if (count == blockSize) {
+          writeBlock();
+        }
+        int n = Math.min(len, blockSize - count);
+        System.arraycopy(b, off, rawBuffer, count, n);
+        count += n;
+        off += n;
+        len -= n;
+      }
+    }
+
+    private void writeBlock() throws IOException {
+      if (count > 0) {
+        int compressedLength = blockCodec.compress(rawBuffer, count, compressedBuffer);
+        writeInt(os, count);
+        writeInt(os, compressedLength);
+        os.write(compressedBuffer, 0, compressedLength);
+        count = 0;
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      writeBlock();
+      os.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (!closed) {
+        closed = true;
+        try {
+          writeBlock();
+          writeInt(os, 0);
+          os.flush();
+        } finally {
+          os.close();
+        }
+      }
+    }
+  }
+
+  private class BlockInputStream extends InputStream {
+    private final InputStream is;
+    private int length;
+    private int position;
+    private boolean eof;
+
+    BlockInputStream(InputStream is) {
+      this.is = is;
+    }
+
+    private boolean readBlock() throws IOException {
+      while (!eof && position == length) {
+        int rawLength = readInt(is);
+        if (rawLength == 0) {
+          eof = true;
+        } else {
+          int compressedLength = readInt(is);
+          if (rawLength < 0 || rawLength > MAX_BLOCK_SIZE || compressedLength < 0 ||
+              compressedLength > blockCodec.maxCompressedLength(rawLength)) {
+            throw new IOException(Utils.format("Corrupted compressed stream, invalid block lengths '{}' '{}'",
+                rawLength, compressedLength));
+          }
+          ensureBuffers(rawLength);
+          readFully(is, compressedBuffer, compressedLength);
+          blockCodec.decompress(compressedBuffer, compressedLength, rawBuffer, rawLength);
+          length = rawLength;
+          position = 0;
+        }
+      }
+      return !eof;
+    }
+
+    @Override
+    public int read() throws IOException {
+      return readBlock() ? rawBuffer[position++] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      if (!readBlock()) {
+        return -1;
+      }
+      int n = Math.min(len, length - position);
+      System.arraycopy(rawBuffer, position, b, off, n);
+      position += n;
+      return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+      return length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+      is.close();
+    }
+  }
+
+}
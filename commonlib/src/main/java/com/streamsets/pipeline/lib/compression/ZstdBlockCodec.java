@@ -0,0 +1,83 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.compression;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+
+import java.io.IOException;
+
+/**
+ * Zstandard block codec. A dictionary trained on typical records makes small blocks, i.e. small batches, compress
+ * much better; both ends must use the same dictionary. The dictionary is digested once and reused for every block.
+ */
+class ZstdBlockCodec implements BlockCodec {
+  private final int level;
+  private final ZstdDictCompress compressDict;
+  private final ZstdDictDecompress decompressDict;
+
+  ZstdBlockCodec(int level, byte[] dictionary) {
+    this.level = level;
+    if (dictionary != null) {
+      compressDict = new ZstdDictCompress(dictionary, level);
+      decompressDict = new ZstdDictDecompress(dictionary);
+    } else {
+      compressDict = null;
+      decompressDict = null;
+    }
+  }
+
+  @Override
+  public int maxCompressedLength(int length) {
+    return (int) Zstd.compressBound(length);
+  }
+
+  @Override
+  public int compress(byte[] src, int length, byte[] dst) throws IOException {
+    long size;
+    if (compressDict != null) {
+      size = Zstd.compressFastDict(dst, 0, src, 0, length, compressDict);
+    } else {
+      size = Zstd.compressByteArray(dst, 0, dst.length, src, 0, length, level);
+    }
+    if (Zstd.isError(size)) {
+      throw new IOException("Zstandard compression failed: " + Zstd.getErrorName(size));
+    }
+    return (int) size;
+  }
+
+  @Override
+  public void decompress(byte[] src, int compressedLength, byte[] dst, int length) throws IOException {
+    long size;
+    if (decompressDict != null) {
+      size = Zstd.decompressFastDict(dst, 0, src, 0, compressedLength, decompressDict);
+    } else {
+      size = Zstd.decompressByteArray(dst, 0, length, src, 0, compressedLength);
+    }
+    if (Zstd.isError(size)) {
+      throw new IOException("Corrupted Zstandard block: " + Zstd.getErrorName(size));
+    }
+    if (size != length) {
+      throw new IOException("Corrupted Zstandard block, expected " + length + " bytes, got " + size);
+    }
+  }
+
+}
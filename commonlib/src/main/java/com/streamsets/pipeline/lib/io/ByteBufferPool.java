@@ -0,0 +1,76 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.io;
+
+import com.streamsets.pipeline.api.impl.Utils;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Pool of equally sized read buffers shared by the readers of a {@link MultiFileReader}.
+ * <p/>
+ * Readers hold a buffer only while they have unread data in it, so the memory used by a reader of an idle file is
+ * returned to the pool and the total memory depends on the number of files being read at the same time instead of
+ * on the number of files tailed.
+ */
+public class ByteBufferPool {
+  private final int bufferSize;
+  private final BlockingQueue<ByteBuffer> buffers;
+
+  /**
+   * @param bufferSize size of the buffers.
+   * @param maxPooled maximum number of idle buffers kept in the pool, released buffers above it are discarded.
+   */
+  public ByteBufferPool(int bufferSize, int maxPooled) {
+    Utils.checkArgument(bufferSize > 0, "bufferSize must be greater than zero");
+    Utils.checkArgument(maxPooled > 0, "maxPooled must be greater than zero");
+    this.bufferSize = bufferSize;
+    buffers = new ArrayBlockingQueue<>(maxPooled);
+  }
+
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  /**
+   * Returns a cleared buffer, from the pool if there is one.
+   */
+  public ByteBuffer acquire() {
+    ByteBuffer buffer = buffers.poll();
+    return (buffer != null) ? buffer : ByteBuffer.allocate(bufferSize);
+  }
+
+  /**
+   * Returns a buffer to the pool, the buffer must not be used after this call.
+   */
+  public void release(ByteBuffer buffer) {
+    if (buffer != null && buffer.capacity() == bufferSize) {
+      buffer.clear();
+      buffers.offer(buffer);
+    }
+  }
+
+  int getPooledCount() {
+    return buffers.size();
+  }
+
+}
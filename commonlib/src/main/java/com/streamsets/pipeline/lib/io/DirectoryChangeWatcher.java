@@ -0,0 +1,185 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks changes (file creation, modification and deletion) in the directories of the tailed files using a
+ * {@link WatchService} (inotify on Linux).
+ * <p/>
+ * Every batch of events is given an increasing sequence number and each directory records the sequence of its last
+ * change, a reader that found no data at sequence N only needs to be read again once its directory changed after N.
+ * <p/>
+ * If the platform has no watch service, or a directory cannot be registered, the directory is reported as always
+ * changed and callers fall back to polling.
+ */
+class DirectoryChangeWatcher implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(DirectoryChangeWatcher.class);
+  private static final String POLLING_WATCH_SERVICE = "PollingWatchService";
+
+  private final WatchService watchService;
+  private final Map<Path, WatchKey> keys;
+  private final Map<WatchKey, Path> dirs;
+  private final Map<Path, Long> lastChanges;
+  private long sequence;
+
+  DirectoryChangeWatcher() {
+    WatchService service;
+    try {
+      service = FileSystems.getDefault().newWatchService();
+      if (service.getClass().getName().endsWith(POLLING_WATCH_SERVICE)) {
+        // the JDK polls directories every few seconds on platforms without native support, that is slower than
+        // polling the files ourselves
+        LOG.debug("Watch service is not native, falling back to polling");
+        service.close();
+        service = null;
+      }
+    } catch (IOException | UnsupportedOperationException ex) {
+      LOG.warn("Watch service not available, falling back to polling: {}", ex.toString(), ex);
+      service = null;
+    }
+    watchService = service;
+    keys = new HashMap<>();
+    dirs = new HashMap<>();
+    lastChanges = new HashMap<>();
+    sequence = 1;
+  }
+
+  public boolean isAvailable() {
+    return watchService != null;
+  }
+
+  /**
+   * Returns the current sequence, changes after this call will have a greater sequence.
+   */
+  public long getSequence() {
+    return sequence;
+  }
+
+  /**
+   * Returns the sequence of the last change of the directory, {@link Long#MAX_VALUE} if the directory is not
+   * watched.
+   */
+  public long getLastChange(Path dir) {
+    if (!isWatched(dir)) {
+      return Long.MAX_VALUE;
+    }
+    Long lastChange = lastChanges.get(dir);
+    return (lastChange == null) ? 0 : lastChange;
+  }
+
+  // registers the directory if not registered yet, returns if the directory is being watched.
+  private boolean isWatched(Path dir) {
+    if (watchService == null || dir == null) {
+      return false;
+    }
+    WatchKey key = keys.get(dir);
+    if (key == null || !key.isValid()) {
+      try {
+        key = dir.register(
+            watchService,
+            StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY,
+            StandardWatchEventKinds.ENTRY_DELETE
+        );
+        keys.put(dir, key);
+        dirs.put(key, dir);
+        LOG.debug("Watching directory '{}'", dir);
+      } catch (IOException | ClosedWatchServiceException ex) {
+        LOG.debug("Could not watch directory '{}', polling it: {}", dir, ex.toString());
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Waits up to the given time for changes and records all the pending ones.
+   *
+   * @return <code>false</code> if the thread was interrupted while waiting, <code>true</code> otherwise.
+   */
+  public boolean await(long waitMillis) {
+    try {
+      WatchKey key = (waitMillis > 0) ? watchService.poll(waitMillis, TimeUnit.MILLISECONDS) : watchService.poll();
+      if (key != null) {
+        sequence++;
+        while (key != null) {
+          record(key);
+          key = watchService.poll();
+        }
+      }
+      return true;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return false;
+    } catch (ClosedWatchServiceException ex) {
+      return true;
+    }
+  }
+
+  private void record(WatchKey key) {
+    Path dir = dirs.get(key);
+    boolean overflow = false;
+    for (WatchEvent<?> event : key.pollEvents()) {
+      overflow |= event.kind() == StandardWatchEventKinds.OVERFLOW;
+    }
+    if (overflow) {
+      // events were lost, all directories may have changed
+      for (Path watched : keys.keySet()) {
+        lastChanges.put(watched, sequence);
+      }
+    } else if (dir != null) {
+      lastChanges.put(dir, sequence);
+    }
+    if (!key.reset()) {
+      // the directory is gone, it is registered again if it is created again
+      keys.remove(dir);
+      dirs.remove(key);
+      lastChanges.remove(dir);
+    }
+  }
+
+  @Override
+  public void close() {
+    if (watchService != null) {
+      try {
+        watchService.close();
+      } catch (IOException ex) {
+        LOG.warn("Could not close watch service: {}", ex.toString(), ex);
+      }
+    }
+  }
+
+}
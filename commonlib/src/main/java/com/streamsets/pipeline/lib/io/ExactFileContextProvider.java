@@ -44,12 +44,23 @@ public class ExactFileContextProvider extends BaseFileContextProvider {
       PostProcessingOptions postProcessing,
       String archiveDir,
       FileEventPublisher eventPublisher
+  ) throws IOException {
+    this(fileInfos, charset, new ByteBufferPool(maxLineLength, 1), postProcessing, archiveDir, eventPublisher);
+  }
+
+  public ExactFileContextProvider(
+      List<MultiFileInfo> fileInfos,
+      Charset charset,
+      ByteBufferPool bufferPool,
+      PostProcessingOptions postProcessing,
+      String archiveDir,
+      FileEventPublisher eventPublisher
   ) throws IOException {
     super();
     fileContexts = new ArrayList<>();
     fileKeys = new LinkedHashSet<>();
     for (MultiFileInfo dirInfo : fileInfos) {
-      fileContexts.add(new FileContext(dirInfo, charset, maxLineLength, postProcessing, archiveDir, eventPublisher));
+      fileContexts.add(new FileContext(dirInfo, charset, bufferPool, postProcessing, archiveDir, eventPublisher));
       if (fileKeys.contains(dirInfo.getFileKey())) {
         throw new IOException(Utils.format("File '{}' already specified, it cannot be added more than once",
             dirInfo.getFileKey()));
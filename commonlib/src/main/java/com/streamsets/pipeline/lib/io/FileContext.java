@@ -40,7 +40,7 @@ public class FileContext {
   private final MultiFileInfo multiFileInfo;
   private final LiveDirectoryScanner scanner;
   private final Charset charset;
-  private final int maxLineLength;
+  private final ByteBufferPool bufferPool;
   private final PostProcessingOptions postProcessing;
   private final String archiveDir;
   private final FileEventPublisher eventPublisher;
@@ -54,10 +54,15 @@ public class FileContext {
 
   public FileContext(MultiFileInfo multiFileInfo, Charset charset, int maxLineLength,
       PostProcessingOptions postProcessing, String archiveDir, FileEventPublisher eventPublisher) throws IOException {
+    this(multiFileInfo, charset, new ByteBufferPool(maxLineLength, 1), postProcessing, archiveDir, eventPublisher);
+  }
+
+  public FileContext(MultiFileInfo multiFileInfo, Charset charset, ByteBufferPool bufferPool,
+      PostProcessingOptions postProcessing, String archiveDir, FileEventPublisher eventPublisher) throws IOException {
     open = true;
     this.multiFileInfo = multiFileInfo;
     this.charset = charset;
-    this.maxLineLength = maxLineLength;
+    this.bufferPool = bufferPool;
     this.postProcessing = postProcessing;
     this.archiveDir = archiveDir;
     this.eventPublisher = eventPublisher;
@@ -81,6 +86,11 @@ public class FileContext {
     return reader != null;
   }
 
+  // the directory being scanned, used to match directory change events with the file context.
+  public Path getDirectory() {
+    return dir;
+  }
+
   // a file context is active while its parent directory exists.
   public boolean isActive() {
     return Files.exists(dir);
@@ -117,7 +127,7 @@ public class FileContext {
       }
       if (currentFile != null) {
         reader = new SingleLineLiveFileReader(getRollMode(), getMultiFileInfo().getTag(), currentFile, charset,
-                                              fileOffset, maxLineLength);
+                                              fileOffset, bufferPool);
         if (!multiFileInfo.getMultiLineMainLinePatter().isEmpty()) {
           reader = new MultiLineLiveFileReader(getMultiFileInfo().getTag(), reader,
                                                Pattern.compile(multiFileInfo.getMultiLineMainLinePatter()));
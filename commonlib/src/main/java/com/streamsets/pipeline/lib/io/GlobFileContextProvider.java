@@ -108,7 +108,7 @@ public class GlobFileContextProvider extends BaseFileContextProvider {
 
   private final List<GlobFileInfo> globFileInfos;
   private final Charset charset;
-  private final int maxLineLength;
+  private final ByteBufferPool bufferPool;
   private final PostProcessingOptions postProcessing;
   private final String archiveDir;
   private final FileEventPublisher eventPublisher;
@@ -129,6 +129,19 @@ public class GlobFileContextProvider extends BaseFileContextProvider {
       PostProcessingOptions postProcessing,
       String archiveDir,
       FileEventPublisher eventPublisher) throws IOException {
+    this(allowForLateDirectoryCreation, fileInfos, scanIntervalSecs, charset, new ByteBufferPool(maxLineLength, 1),
+        postProcessing, archiveDir, eventPublisher);
+  }
+
+  public GlobFileContextProvider(
+      boolean allowForLateDirectoryCreation,
+      List<MultiFileInfo> fileInfos,
+      int scanIntervalSecs,
+      Charset charset,
+      ByteBufferPool bufferPool,
+      PostProcessingOptions postProcessing,
+      String archiveDir,
+      FileEventPublisher eventPublisher) throws IOException {
     super();
     // if scan interval is zero the GlobFileInfo will work synchronously and it won't require an executor
     globFileInfos = new CopyOnWriteArrayList<GlobFileInfo>();
@@ -137,7 +150,7 @@ public class GlobFileContextProvider extends BaseFileContextProvider {
     this.allowForLateDirectoryCreation = allowForLateDirectoryCreation;
     this.scanIntervalSecs = scanIntervalSecs;
     this.charset = charset;
-    this.maxLineLength = maxLineLength;
+    this.bufferPool = bufferPool;
     this.postProcessing = postProcessing;
     this.archiveDir = archiveDir;
     this.eventPublisher = eventPublisher;
@@ -168,7 +181,7 @@ public class GlobFileContextProvider extends BaseFileContextProvider {
           new FileContext(
               fileInfo,
               charset,
-              maxLineLength,
+              bufferPool,
               postProcessing,
               archiveDir,
               eventPublisher
@@ -218,7 +231,7 @@ public class GlobFileContextProvider extends BaseFileContextProvider {
         FileContext fileContext = new FileContext(
             globfileInfo.getFileInfo(path),
             charset,
-            maxLineLength,
+            bufferPool,
             postProcessing,
             archiveDir,
             eventPublisher
@@ -31,6 +31,7 @@ import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * The <code>MultiFileReader</code> is a Reader that allows to read multiple files in a 'tail -f' mode while
@@ -39,7 +40,13 @@ import java.util.Map;
  * It builds on top of the {@link SingleLineLiveFileReader} adding support for reading data from multiple files in different
  * directories.
  * <p/>
- * Directories are read in round-robin fashion to avoid starvation.
+ * Directories are read in round-robin fashion to avoid starvation. A file that produced a number of chunks (the
+ * quota) since the last {@link #setOffsets(java.util.Map)} is read again only if no other file has data.
+ * <p/>
+ * When the platform supports it, the directories are watched for changes. A file that had no data is not read again
+ * until its directory changes, until the next batch starts or until the periodic full sweep, and the reader waits
+ * for directory changes instead of sleeping when no file has data. All readers share a pool of read buffers, a
+ * reader holds a buffer only while it has unread data.
  * <p/>
  * The usage pattern is:
  * <p/>
@@ -59,9 +66,21 @@ public class MultiFileReader implements Closeable {
   private static final Logger LOG = LoggerFactory.getLogger(MultiFileReader.class);
 
   private final static long MAX_YIELD_TIME = Integer.parseInt(System.getProperty("MultiFileReader.yield.ms", "500"));
+  private final static boolean WATCH = Boolean.parseBoolean(System.getProperty("MultiFileReader.watch", "true"));
+  private final static long SWEEP_TIME = Integer.parseInt(System.getProperty("MultiFileReader.sweep.ms", "5000"));
+  private final static int FILE_QUOTA = Integer.parseInt(System.getProperty("MultiFileReader.file.quota", "10"));
+  private final static int MAX_POOLED_BUFFERS =
+      Integer.parseInt(System.getProperty("MultiFileReader.pooled.buffers", "16"));
 
   private final FileContextProvider fileContextProvider;
   private final List<FileEvent> events;
+  // null if directory changes are not watched
+  private final DirectoryChangeWatcher watcher;
+  // file contexts that had no data, with the watcher sequence at the time they were read
+  private final Map<FileContext, Long> idleSince;
+  // chunks read from each file context since the last setOffsets()
+  private final Map<FileContext, Integer> chunksInBatch;
+  private long lastSweep;
   private boolean open;
 
   /**
@@ -101,6 +120,8 @@ public class MultiFileReader implements Closeable {
       }
     };
 
+    ByteBufferPool bufferPool = new ByteBufferPool(maxLineLength, Math.min(fileInfos.size(), MAX_POOLED_BUFFERS));
+
     //We assume ExactFileContextProvider has fileInfo which are exact and present.
     //We are using GlobFileInfo during FileTailSource which will allow for late Directory creation/ supports wild cards.
     fileContextProvider = (globbing)? new GlobFileContextProvider(
@@ -108,19 +129,26 @@ public class MultiFileReader implements Closeable {
         fileInfos,
         scanIntervalSecs,
         charset,
-        maxLineLength,
+        bufferPool,
         postProcessing,
         archiveDir,
         eventPublisher
     ) : new ExactFileContextProvider(
         fileInfos,
         charset,
-        maxLineLength,
+        bufferPool,
         postProcessing,
         archiveDir,
         eventPublisher
     );
 
+    DirectoryChangeWatcher changeWatcher = (WATCH) ? new DirectoryChangeWatcher() : null;
+    watcher = (changeWatcher != null && changeWatcher.isAvailable()) ? changeWatcher : null;
+    // file contexts are dropped by the provider when purged
+    idleSince = new WeakHashMap<>();
+    chunksInBatch = new WeakHashMap<>();
+    lastSweep = System.currentTimeMillis();
+
     open = true;
   }
 
@@ -137,8 +165,11 @@ public class MultiFileReader implements Closeable {
   public void setOffsets(Map<String, String> offsets) throws IOException {
     Utils.checkState(open, "Not open");
     fileContextProvider.setOffsets(offsets);
-    // we reset the events on every setOffsets().
+    // we reset the events and the file quotas on every setOffsets().
     events.clear();
+    chunksInBatch.clear();
+    // every batch starts with a full sweep, changes not seen yet by the watcher are picked up there
+    lastSweep = 0;
   }
 
   /**
@@ -179,6 +210,35 @@ public class MultiFileReader implements Closeable {
     return (remaining > 0) ? remaining : 0;
   }
 
+  private boolean isOverQuota(FileContext fileContext) {
+    Integer chunks = chunksInBatch.get(fileContext);
+    return chunks != null && chunks >= FILE_QUOTA;
+  }
+
+  // a file context must be read if it may have data: it had data last time or its directory changed since then
+  private boolean isReady(FileContext fileContext) {
+    if (watcher == null) {
+      return true;
+    }
+    Long since = idleSince.get(fileContext);
+    return since == null || watcher.getLastChange(fileContext.getDirectory()) > since;
+  }
+
+  // a full sweep reads all file contexts regardless of directory changes, in case some change was missed
+  private boolean isSweepDue() {
+    long now = System.currentTimeMillis();
+    if (watcher == null || now - lastSweep >= SWEEP_TIME) {
+      lastSweep = now;
+      return true;
+    }
+    return false;
+  }
+
+  // waits for directory changes, or sleeps if they are not watched, returns false if interrupted
+  private boolean waitForChanges(long waitMillis) {
+    return (watcher != null) ? watcher.await(waitMillis) : ThreadUtil.sleep(waitMillis);
+  }
+
   /**
    * Reads the next {@link LiveFileChunk} from the directories waiting the specified time for one.
    *
@@ -191,41 +251,21 @@ public class MultiFileReader implements Closeable {
     long startTime = System.currentTimeMillis();
     LiveFileChunk chunk = null;
     boolean exit = false;
+    if (watcher != null) {
+      // record the changes since the last call
+      watcher.await(0);
+    }
+    boolean sweep = isSweepDue();
+    boolean relaxQuota = false;
+    boolean skippedOverQuota = false;
     fileContextProvider.startNewLoop();
     while (!exit) {
       if (!fileContextProvider.didFullLoop()) {
         FileContext fileContext = fileContextProvider.next();
-        try {
-          LiveFileReader reader = fileContext.getReader();
-          if (reader != null) {
-            if (reader.hasNext()) {
-              chunk = reader.next(0);
-              if (LOG.isTraceEnabled()) {
-                LOG.trace("next(): directory '{}', file '{}', offset '{}' got data '{}'",
-                    fileContext.getMultiFileInfo().getFileFullPath(),
-                    reader.getLiveFile(), reader.getOffset(), chunk != null);
-              }
-            } else {
-              if (LOG.isTraceEnabled()) {
-                LOG.trace("next(): directory '{}', file '{}', offset '{}' EOF reached",
-                    fileContext.getMultiFileInfo().getFileFullPath(),
-                    reader.getLiveFile(), reader.getOffset());
-              }
-            }
-            fileContext.releaseReader(false);
-          } else {
-            if (LOG.isTraceEnabled()) {
-              LOG.trace("next(): directory '{}', no reader available",
-                  fileContext.getMultiFileInfo().getFileFullPath());
-            }
-          }
-        } catch (IOException ex) {
-          LOG.warn("Error while reading file: {}", ex.toString(), ex);
-          try {
-            fileContext.releaseReader(true);
-          } catch (IOException ex1) {
-            LOG.warn("Error while releasing reader in error: {}", ex1.toString(), ex1);
-          }
+        if (!relaxQuota && isOverQuota(fileContext)) {
+          skippedOverQuota = true;
+        } else if (sweep || isReady(fileContext)) {
+          chunk = read(fileContext);
         }
       }
 
@@ -234,11 +274,19 @@ public class MultiFileReader implements Closeable {
       if (!exit) {
         // if we looped thru all dir contexts in this call we yield CPU
         if (fileContextProvider.didFullLoop()) {
-          exit = isTimeout(startTime, waitMillis);
-          if (!exit && LOG.isTraceEnabled()) {
-            LOG.trace("next(): looped through all directories, yielding CPU");
+          if (skippedOverQuota && !relaxQuota) {
+            // only the files over their quota may have data, loop again through all of them
+            relaxQuota = true;
+          } else {
+            exit = isTimeout(startTime, waitMillis);
+            if (!exit && LOG.isTraceEnabled()) {
+              LOG.trace("next(): looped through all directories, yielding CPU");
+            }
+            exit = exit || !waitForChanges(Math.min(getRemainingWaitTime(startTime, waitMillis), MAX_YIELD_TIME));
+            relaxQuota = false;
+            skippedOverQuota = false;
           }
-          exit = exit || !ThreadUtil.sleep(Math.min(getRemainingWaitTime(startTime, waitMillis), MAX_YIELD_TIME));
+          sweep = isSweepDue();
           fileContextProvider.startNewLoop();
         }
       }
@@ -246,6 +294,57 @@ public class MultiFileReader implements Closeable {
     return chunk;
   }
 
+  // reads a chunk from the file context, returns null if the file context had no data
+  private LiveFileChunk read(FileContext fileContext) {
+    LiveFileChunk chunk = null;
+    // changes after this point make the file context ready again
+    long sequence = (watcher != null) ? watcher.getSequence() : 0;
+    boolean error = false;
+    try {
+      LiveFileReader reader = fileContext.getReader();
+      if (reader != null) {
+        if (reader.hasNext()) {
+          chunk = reader.next(0);
+          if (LOG.isTraceEnabled()) {
+            LOG.trace("next(): directory '{}', file '{}', offset '{}' got data '{}'",
+                fileContext.getMultiFileInfo().getFileFullPath(),
+                reader.getLiveFile(), reader.getOffset(), chunk != null);
+          }
+        } else {
+          if (LOG.isTraceEnabled()) {
+            LOG.trace("next(): directory '{}', file '{}', offset '{}' EOF reached",
+                fileContext.getMultiFileInfo().getFileFullPath(),
+                reader.getLiveFile(), reader.getOffset());
+          }
+        }
+        fileContext.releaseReader(false);
+      } else {
+        if (LOG.isTraceEnabled()) {
+          LOG.trace("next(): directory '{}', no reader available",
+              fileContext.getMultiFileInfo().getFileFullPath());
+        }
+      }
+    } catch (IOException ex) {
+      error = true;
+      LOG.warn("Error while reading file: {}", ex.toString(), ex);
+      try {
+        fileContext.releaseReader(true);
+      } catch (IOException ex1) {
+        LOG.warn("Error while releasing reader in error: {}", ex1.toString(), ex1);
+      }
+    }
+    if (chunk != null) {
+      Integer chunks = chunksInBatch.get(fileContext);
+      chunksInBatch.put(fileContext, (chunks == null) ? 1 : chunks + 1);
+      idleSince.remove(fileContext);
+    } else if (error) {
+      idleSince.remove(fileContext);
+    } else {
+      idleSince.put(fileContext, sequence);
+    }
+    return chunk;
+  }
+
   /**
    * Determines the offset lag for each active file being read.
    *
@@ -273,6 +372,9 @@ public class MultiFileReader implements Closeable {
     if (open) {
       open = false;
       fileContextProvider.close();
+      if (watcher != null) {
+        watcher.close();
+      }
     }
   }
 }
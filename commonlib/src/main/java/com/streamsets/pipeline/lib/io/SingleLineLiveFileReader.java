@@ -68,8 +68,9 @@ public class SingleLineLiveFileReader implements LiveFileReader {
 
   private final SeekableByteChannel channel;
 
-  private final ByteBuffer buffer;
-  private final byte[] chunkBytes;
+  private final ByteBufferPool bufferPool;
+  // acquired from the pool while there is unread data in it, null otherwise
+  private ByteBuffer buffer;
 
   private boolean open;
   private long lastLiveFileRefresh;
@@ -101,16 +102,30 @@ public class SingleLineLiveFileReader implements LiveFileReader {
   public SingleLineLiveFileReader(RollMode rollMode, String tag, LiveFile file, Charset charset, long offset,
       int maxLineLen)
       throws IOException {
+    this(rollMode, tag, file, charset, offset, new ByteBufferPool(maxLineLen, 1));
+  }
+
+  /**
+   * Creates a <code>SingleLiveFileReader</code> that takes its read buffer from a pool shared with other readers.
+   * The buffer size of the pool is the maximum line length.
+   *
+   * @see #SingleLineLiveFileReader(RollMode, String, LiveFile, Charset, long, int)
+   */
+  public SingleLineLiveFileReader(RollMode rollMode, String tag, LiveFile file, Charset charset, long offset,
+      ByteBufferPool bufferPool)
+      throws IOException {
     Utils.checkNotNull(rollMode, "rollMode");
     Utils.checkNotNull(file, "file");
     Utils.checkNotNull(charset, "charset");
-    Utils.checkArgument(maxLineLen > 1, "maxLineLen must greater than 1");
+    Utils.checkNotNull(bufferPool, "bufferPool");
+    Utils.checkArgument(bufferPool.getBufferSize() > 1, "maxLineLen must greater than 1");
     validateCharset(charset, '\n', "\\n");
     validateCharset(charset, '\r', "\\r");
     this.rollMode = rollMode;
     this.tag = tag;
     this.originalFile = file;
     this.charset = charset;
+    this.bufferPool = bufferPool;
 
     this.offset = Math.abs(offset);
     truncateMode = offset < 0;
@@ -145,9 +160,6 @@ public class SingleLineLiveFileReader implements LiveFileReader {
     }
     LOG.debug("File '{}', positioned at offset '{}'", currentFile, offset);
 
-    buffer = ByteBuffer.allocate(maxLineLen);
-    chunkBytes = new byte[maxLineLen];
-
     lastPosCheckedForEol = 0;
   }
 
@@ -155,6 +167,7 @@ public class SingleLineLiveFileReader implements LiveFileReader {
     if (open) {
       try {
         open = false;
+        releaseBuffer(true);
         channel.close();
       } catch (IOException ex) {
         //NOP
@@ -162,6 +175,25 @@ public class SingleLineLiveFileReader implements LiveFileReader {
     }
   }
 
+  private void acquireBuffer() {
+    if (buffer == null) {
+      buffer = bufferPool.acquire();
+      lastPosCheckedForEol = 0;
+    }
+  }
+
+  // returns the buffer to the pool if it has no unread data, or unconditionally if forced (on close)
+  private void releaseBuffer(boolean force) {
+    if (buffer != null && (force || buffer.position() == 0)) {
+      bufferPool.release(buffer);
+      buffer = null;
+    }
+  }
+
+  private int getBufferedBytes() {
+    return (buffer == null) ? 0 : buffer.position();
+  }
+
   private void validateCharset(Charset charset, char c, String cStr) {
     ByteBuffer bf = charset.encode("" + c);
     if (bf.limit() != 1) {
@@ -197,7 +229,7 @@ public class SingleLineLiveFileReader implements LiveFileReader {
   public boolean hasNext() throws IOException {
     Utils.checkState(open, Utils.formatL("LiveFileReader for '{}' is not open", currentFile));
     // the buffer is dirty, or the file is still live, or the channel pos is less than the file length
-    return (buffer.position() > 0) || !isEof();
+    return (getBufferedBytes() > 0) || !isEof();
   }
 
   @Override
@@ -206,6 +238,7 @@ public class SingleLineLiveFileReader implements LiveFileReader {
     Utils.checkState(open, Utils.formatL("LiveFileReader for '{}' is not open", currentFile));
     LiveFileChunk liveFileChunk = null;
     long start = System.currentTimeMillis() + waitMillis;
+    acquireBuffer();
     try {
       while (true) {
         if (!hasNext()) {
@@ -239,7 +272,8 @@ public class SingleLineLiveFileReader implements LiveFileReader {
           break;
         }
       }
-      offset = channel.position() - buffer.position();
+      offset = channel.position() - getBufferedBytes();
+      releaseBuffer(false);
       return liveFileChunk;
     } catch (IOException ex) {
       closeChannel();
@@ -251,6 +285,7 @@ public class SingleLineLiveFileReader implements LiveFileReader {
   public void close() throws IOException {
     if (open) {
       open = false;
+      releaseBuffer(true);
       channel.close();
     }
   }
@@ -304,6 +339,8 @@ public class SingleLineLiveFileReader implements LiveFileReader {
         if (lastEolIdx > -1) {
           // we have an EOL in the buffer or we are at the end of the file
           int chunkSize = lastEolIdx - buffer.position();
+          // the lines of the chunk reference its bytes, they must not be shared with other chunks
+          byte[] chunkBytes = new byte[chunkSize];
           buffer.get(chunkBytes, 0, chunkSize);
           // create reader with exactly the chunk
           liveFileChunk = new LiveFileChunk(tag, currentFile, charset, chunkBytes, offset, chunkSize, false);
@@ -311,6 +348,7 @@ public class SingleLineLiveFileReader implements LiveFileReader {
           // buffer is full and we don't have an EOL, return truncated chunk and go into truncate mode.
           // we have an EOL in the buffer or we are at the end of the file
           int chunkSize = buffer.limit() - buffer.position();
+          byte[] chunkBytes = new byte[chunkSize];
           buffer.get(chunkBytes, 0, chunkSize);
           // create reader with exactly the chunk
           liveFileChunk = new LiveFileChunk(tag, currentFile, charset, chunkBytes, offset, chunkSize, true);
@@ -26,12 +26,11 @@ import com.streamsets.pipeline.lib.parser.DataParserException;
 import com.streamsets.pipeline.lib.parser.shaded.org.aicer.grok.util.Grok;
 
 import java.io.IOException;
-import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class GrokParser extends LogCharDataParser {
 
-  private final Grok compiledPattern;
+  private final LogLinePattern.LineMatcher matcher;
   private final String formatName;
 
   public GrokParser(Stage.Context context,
@@ -45,26 +44,43 @@ public class GrokParser extends LogCharDataParser {
                     String formatName,
                     StringBuilder currentLine,
                     StringBuilder previousLine
+  ) throws IOException {
+    this(context, readerId, reader, readerOffset, maxObjectLen, retainOriginalText, maxStackTraceLines,
+        LogLinePattern.forGrok(compiledPattern), formatName, currentLine, previousLine);
+  }
+
+  public GrokParser(Stage.Context context,
+                    String readerId,
+                    OverrunReader reader,
+                    long readerOffset,
+                    int maxObjectLen,
+                    boolean retainOriginalText,
+                    int maxStackTraceLines,
+                    LogLinePattern pattern,
+                    String formatName,
+                    StringBuilder currentLine,
+                    StringBuilder previousLine
   ) throws IOException {
     super(context, readerId, reader, readerOffset, maxObjectLen, retainOriginalText, maxStackTraceLines, currentLine, previousLine);
-    this.compiledPattern = compiledPattern;
+    this.matcher = pattern.matcher();
     this.formatName = formatName;
   }
 
   @Override
   public Map<String, Field> parseLogLine(StringBuilder logLine) throws DataParserException {
-    Map<String, String> namedGroupToValuesMap = compiledPattern.extractNamedGroups(logLine.toString());
-    if(namedGroupToValuesMap == null) {
+    Map<String, Field> map = matchLogLine(logLine);
+    if(map == null) {
       //Did not match
       handleNoMatch(logLine.toString());
     }
-    Map<String, Field> map = new LinkedHashMap<>();
-    for(Map.Entry<String, String> e : namedGroupToValuesMap.entrySet()) {
-      map.put(e.getKey(), Field.create(e.getValue()));
-    }
     return map;
   }
 
+  @Override
+  protected Map<String, Field> matchLogLine(StringBuilder logLine) {
+    return matcher.match(logLine);
+  }
+
   protected void handleNoMatch(String logLine) throws DataParserException {
     throw new DataParserException(Errors.LOG_PARSER_03, logLine, formatName);
   }
@@ -205,30 +205,30 @@ public abstract class LogCharDataParser extends AbstractDataParser {
     int read = readLine(multilineLog);
     int numberOfLinesRead = 0;
     while (read > -1) {
-      try {
-        Map<String, Field> stringFieldMap = parseLogLine(multilineLog);
+      //Stack trace lines are expected not to match, check them without building an exception per line
+      Map<String, Field> stringFieldMap = matchLogLine(multilineLog);
+      //is this the first line being read? Yes -> parse it, failing with the parser's error if it does not match
+      if (stringFieldMap == null && (previousLine.length() == 0 || maxStackTraceLines == -1)) {
+        stringFieldMap = parseLogLine(multilineLog);
+      }
+      if (stringFieldMap != null) {
         fieldsFromLogLine.putAll(stringFieldMap);
         currentLine.append(multilineLog);
         //If the line can be parsed successfully, do not read further
         //This line will be used in the current record if this is the first line being read
         //or stored for the next round if there is a line from the previous round.
         break;
-      } catch (DataParserException e) {
-        //is this the first line being read? Yes -> throw exception
-        if (previousLine.length() == 0 || maxStackTraceLines == -1) {
-          throw e;
-        }
-        //otherwise read until we get a line that matches pattern
-        if(numberOfLinesRead < maxStackTraceLines) {
-          if(numberOfLinesRead != 0) {
-            stackTrace.append("\n");
-          }
-          stackTrace.append(multilineLog.toString());
+      }
+      //otherwise read until we get a line that matches pattern
+      if(numberOfLinesRead < maxStackTraceLines) {
+        if(numberOfLinesRead != 0) {
+          stackTrace.append("\n");
         }
-        numberOfLinesRead++;
-        multilineLog.setLength(0);
-        read = readLine(multilineLog);
+        stackTrace.append(multilineLog.toString());
       }
+      numberOfLinesRead++;
+      multilineLog.setLength(0);
+      read = readLine(multilineLog);
     }
     return read;
   }
@@ -236,6 +236,18 @@ public abstract class LogCharDataParser extends AbstractDataParser {
 
   protected abstract Map<String, Field> parseLogLine(StringBuilder sb) throws DataParserException;
 
+  /**
+   * Returns the fields of the given line or <code>null</code> if the line does not match the log format.
+   * Parsers should override it to avoid creating an exception for every non matching line.
+   */
+  protected Map<String, Field> matchLogLine(StringBuilder sb) {
+    try {
+      return parseLogLine(sb);
+    } catch (DataParserException ex) {
+      return null;
+    }
+  }
+
   @Override
   public String getOffset() {
     return String.valueOf(currentOffset);
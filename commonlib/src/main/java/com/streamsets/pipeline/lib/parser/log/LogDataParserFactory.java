@@ -106,7 +106,7 @@ public class LogDataParserFactory extends DataParserFactory {
   private final String log4jCustomLogFormat;
   private final OnParseError onParseError;
   private final int maxStackTraceLength;
-  private final Map<String, Object> regexToPatternMap;
+  private final Map<String, LogLinePattern> regexToPatternMap;
   private final StringBuilder currentLine;
   private final StringBuilder previousLine;
 
@@ -163,7 +163,7 @@ public class LogDataParserFactory extends DataParserFactory {
             ImmutableList.of(Constants.GROK_APACHE_ERROR_LOG_PATTERNS_FILE_NAME)), "Apache Error Log Format", currentLine, previousLine);
         case REGEX:
           return new RegexParser(context, id, reader, offset, maxObjectLen, retainOriginalText,
-            createPattern(regex), fieldPathToGroup, currentLine, previousLine);
+            createPattern(regex), currentLine, previousLine);
         case GROK:
           return new GrokParser(context, id, reader, offset, maxObjectLen, retainOriginalText,
             getMaxStackTraceLines(), createGrok(grokPattern, grokDictionaries), "Grok Format", currentLine, previousLine);
@@ -181,9 +181,9 @@ public class LogDataParserFactory extends DataParserFactory {
   }
 
   @VisibleForTesting
-  private Grok createGrok(String grokPattern, List<String> dictionaries) {
+  private LogLinePattern createGrok(String grokPattern, List<String> dictionaries) {
     if(regexToPatternMap.containsKey(grokPattern)) {
-      return (Grok) regexToPatternMap.get(grokPattern);
+      return regexToPatternMap.get(grokPattern);
     }
     GrokDictionary grokDictionary = new GrokDictionary();
     //Add grok patterns and Java patterns by default
@@ -199,16 +199,17 @@ public class LogDataParserFactory extends DataParserFactory {
     // Resolve all expressions loaded
     grokDictionary.bind();
     Grok grok = grokDictionary.compileExpression(grokPattern);
-    regexToPatternMap.put(grokPattern, grok);
-    return grok;
+    LogLinePattern pattern = LogLinePattern.forGrok(grok);
+    regexToPatternMap.put(grokPattern, pattern);
+    return pattern;
   }
 
   @VisibleForTesting
-  private Pattern createPattern(String regex) {
+  private LogLinePattern createPattern(String regex) {
     if(regexToPatternMap.containsKey(regex)) {
-      return (Pattern) regexToPatternMap.get(regex);
+      return regexToPatternMap.get(regex);
     }
-    Pattern pattern = Pattern.compile(regex);
+    LogLinePattern pattern = LogLinePattern.forRegex(Pattern.compile(regex), fieldPathToGroup);
     regexToPatternMap.put(regex, pattern);
     return pattern;
   }
@@ -0,0 +1,224 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.parser.log;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.lib.parser.shaded.org.aicer.grok.util.Grok;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A log line pattern compiled once per stage.
+ * <p/>
+ * Capture group indexes are resolved up front and the regular expression is analyzed for a leading
+ * <code>^</code> anchor and the literal text that follows it. Anchored patterns are matched with
+ * {@link Matcher#lookingAt()} instead of scanning every offset of the line, and lines that do not start with the
+ * literal prefix are rejected without running the regular expression at all, which is the common case for the
+ * stack trace lines that follow a log4j message.
+ * <p/>
+ * Only user supplied expressions starting with <code>^</code> take the fast path. The built-in grok formats (common
+ * and combined log format, Apache error log, log4j) and grok expressions without an explicit anchor match anywhere in
+ * the line, anchoring them would reject lines they accept today, so they are matched with {@link Matcher#find()}.
+ * <p/>
+ * The pattern is immutable, parsers get their own {@link LineMatcher} via {@link #matcher()}.
+ */
+public final class LogLinePattern {
+  private static final String META_CHARS = ".[]{}()*+?^$|\\";
+  private static final int NO_ANALYSIS_FLAGS = Pattern.CASE_INSENSITIVE | Pattern.COMMENTS | Pattern.LITERAL |
+      Pattern.MULTILINE | Pattern.UNICODE_CASE | Pattern.CANON_EQ;
+
+  private final Pattern pattern;
+  private final String[] fieldNames;
+  private final int[] groups;
+  private final boolean anchored;
+  private final String literalPrefix;
+
+  private LogLinePattern(Pattern pattern, String[] fieldNames, int[] groups) {
+    this.pattern = pattern;
+    this.fieldNames = fieldNames;
+    this.groups = groups;
+    String regex = pattern.pattern();
+    anchored = (pattern.flags() & NO_ANALYSIS_FLAGS) == 0 && regex.startsWith("^") && !hasTopLevelAlternation(regex);
+    literalPrefix = (anchored) ? getLiteralPrefix(regex, 1) : "";
+  }
+
+  public static LogLinePattern forGrok(Grok grok) {
+    com.streamsets.pipeline.lib.parser.shaded.com.google.code.regexp.Pattern namedPattern = grok.getPattern();
+    List<String> names = namedPattern.groupNames();
+    String[] fieldNames = new String[names.size()];
+    int[] groups = new int[names.size()];
+    for (int i = 0; i < fieldNames.length; i++) {
+      fieldNames[i] = names.get(i);
+      // named pattern indexes are 0-based, capture groups start at 1
+      groups[i] = namedPattern.indexOf(fieldNames[i]) + 1;
+    }
+    return new LogLinePattern(namedPattern.pattern(), fieldNames, groups);
+  }
+
+  public static LogLinePattern forRegex(Pattern pattern, Map<String, Integer> fieldToGroupMap) {
+    String[] fieldNames = new String[fieldToGroupMap.size()];
+    int[] groups = new int[fieldToGroupMap.size()];
+    int i = 0;
+    for (Map.Entry<String, Integer> entry : fieldToGroupMap.entrySet()) {
+      fieldNames[i] = entry.getKey();
+      groups[i] = entry.getValue();
+      i++;
+    }
+    return new LogLinePattern(pattern, fieldNames, groups);
+  }
+
+  public Pattern getPattern() {
+    return pattern;
+  }
+
+  @VisibleForTesting
+  boolean isAnchored() {
+    return anchored;
+  }
+
+  @VisibleForTesting
+  String getLiteralPrefix() {
+    return literalPrefix;
+  }
+
+  public LineMatcher matcher() {
+    return new LineMatcher();
+  }
+
+  /**
+   * Matches lines against the pattern reusing a single {@link Matcher}. Not thread safe.
+   */
+  public final class LineMatcher {
+    private final Matcher matcher;
+
+    private LineMatcher() {
+      matcher = pattern.matcher("");
+    }
+
+    /**
+     * Returns the captured fields of the given line or <code>null</code> if the line does not match.
+     */
+    public Map<String, Field> match(CharSequence line) {
+      if (!startsWithLiteralPrefix(line)) {
+        return null;
+      }
+      matcher.reset(line);
+      boolean matched = (anchored) ? matcher.lookingAt() : matcher.find();
+      Map<String, Field> fields = null;
+      if (matched) {
+        fields = new LinkedHashMap<>(fieldNames.length * 2);
+        for (int i = 0; i < fieldNames.length; i++) {
+          fields.put(fieldNames[i], Field.create(matcher.group(groups[i])));
+        }
+      }
+      // don't hold on to the line, callers reuse their buffers
+      matcher.reset("");
+      return fields;
+    }
+
+    private boolean startsWithLiteralPrefix(CharSequence line) {
+      int len = literalPrefix.length();
+      if (line.length() < len) {
+        return false;
+      }
+      for (int i = 0; i < len; i++) {
+        if (line.charAt(i) != literalPrefix.charAt(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  // an alternation outside of any group or character class makes the leading '^' apply to the first branch only
+  static boolean hasTopLevelAlternation(String regex) {
+    int depth = 0;
+    boolean inClass = false;
+    for (int i = 0; i < regex.length(); i++) {
+      char c = regex.charAt(i);
+      if (c == '\\') {
+        if (i + 1 < regex.length() && regex.charAt(i + 1) == 'Q') {
+          int end = regex.indexOf("\\E", i + 2);
+          if (end == -1) {
+            return false;
+          }
+          i = end + 1;
+        } else {
+          i++;
+        }
+      } else if (inClass) {
+        if (c == ']') {
+          inClass = false;
+        }
+      } else if (c == '[') {
+        inClass = true;
+        // a ']' right after '[' or '[^' is a literal
+        if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') {
+          i++;
+        }
+        if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+          i++;
+        }
+      } else if (c == '(') {
+        depth++;
+      } else if (c == ')') {
+        depth--;
+      } else if (c == '|' && depth == 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // literal text starting at the given position, up to the first regular expression construct
+  static String getLiteralPrefix(String regex, int start) {
+    StringBuilder prefix = new StringBuilder();
+    int i = start;
+    while (i < regex.length()) {
+      char c = regex.charAt(i);
+      int next;
+      if (c == '\\') {
+        if (i + 1 >= regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+          // character classes, back references, \Q quoting, etc.
+          break;
+        }
+        c = regex.charAt(i + 1);
+        next = i + 2;
+      } else if (META_CHARS.indexOf(c) > -1 || Character.isSurrogate(c)) {
+        break;
+      } else {
+        next = i + 1;
+      }
+      if (next < regex.length() && "?*{".indexOf(regex.charAt(next)) > -1) {
+        // the character is optional or repeated a variable number of times
+        break;
+      }
+      prefix.append(c);
+      i = next;
+    }
+    return prefix.toString();
+  }
+
+}
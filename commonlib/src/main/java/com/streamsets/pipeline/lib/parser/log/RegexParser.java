@@ -25,15 +25,13 @@ import com.streamsets.pipeline.lib.io.OverrunReader;
 import com.streamsets.pipeline.lib.parser.DataParserException;
 
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class RegexParser extends LogCharDataParser {
 
   private final Pattern pattern;
-  private final Map<String, Integer> fieldToGroupMap;
+  private final LogLinePattern.LineMatcher matcher;
 
   public RegexParser(Stage.Context context,
                      String readerId,
@@ -45,25 +43,37 @@ public class RegexParser extends LogCharDataParser {
                      Map<String, Integer> fieldToGroupMap,
                      StringBuilder currentLine,
                      StringBuilder previousLine
+  ) throws IOException {
+    this(context, readerId, reader, readerOffset, maxObjectLen, retainOriginalText,
+        LogLinePattern.forRegex(pattern, fieldToGroupMap), currentLine, previousLine);
+  }
+
+  public RegexParser(Stage.Context context,
+                     String readerId,
+                     OverrunReader reader,
+                     long readerOffset,
+                     int maxObjectLen,
+                     boolean retainOriginalText,
+                     LogLinePattern pattern,
+                     StringBuilder currentLine,
+                     StringBuilder previousLine
   ) throws IOException {
     super(context, readerId, reader, readerOffset, maxObjectLen, retainOriginalText, -1, currentLine, previousLine);
-    this.fieldToGroupMap = fieldToGroupMap;
-    this.pattern = pattern;
+    this.pattern = pattern.getPattern();
+    this.matcher = pattern.matcher();
   }
 
   @Override
   protected Map<String, Field> parseLogLine(StringBuilder sb) throws DataParserException {
-    Matcher m = pattern.matcher(sb.toString());
-    if (!m.find()) {
-      if (!m.find()) {
-        throw new DataParserException(Errors.LOG_PARSER_03, sb.toString(), "Regular Expression - " + pattern.pattern());
-      }
-    }
-
-    Map<String, Field> map = new HashMap<>();
-    for(Map.Entry<String, Integer> e : fieldToGroupMap.entrySet()) {
-      map.put(e.getKey(), Field.create(m.group(e.getValue())));
+    Map<String, Field> map = matchLogLine(sb);
+    if (map == null) {
+      throw new DataParserException(Errors.LOG_PARSER_03, sb.toString(), "Regular Expression - " + pattern.pattern());
     }
     return map;
   }
+
+  @Override
+  protected Map<String, Field> matchLogLine(StringBuilder sb) {
+    return matcher.match(sb);
+  }
 }
@@ -0,0 +1,129 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.compression;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+public class TestStreamCompressor {
+
+  private static byte[] createData(int size) {
+    StringBuilder sb = new StringBuilder();
+    Random random = new Random(0);
+    while (sb.length() < size) {
+      sb.append("{\"id\":").append(random.nextInt(1000)).append(",\"name\":\"record\"}\n");
+    }
+    return sb.substring(0, size).getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static byte[] compress(StreamCompressor compressor, byte[] data) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try (OutputStream os = compressor.compress(baos)) {
+      // mix single byte and array writes
+      os.write(data[0]);
+      os.write(data, 1, data.length - 1);
+    }
+    return baos.toByteArray();
+  }
+
+  private static byte[] decompress(StreamCompressor compressor, byte[] data) throws IOException {
+    try (InputStream is = compressor.decompress(new ByteArrayInputStream(data))) {
+      return IOUtils.toByteArray(is);
+    }
+  }
+
+  private void testRoundTrip(StreamCodec codec, int blockSize, int dataSize) throws IOException {
+    StreamCompressor compressor = new StreamCompressor(codec, blockSize, null);
+    StreamCompressor decompressor = new StreamCompressor(codec, blockSize, null);
+    // the compressors are reused across streams, as they are across batches
+    for (int i = 0; i < 3; i++) {
+      byte[] data = createData(dataSize + i);
+      byte[] compressed = compress(compressor, data);
+      if (codec != StreamCodec.NONE && blockSize == StreamCompressor.DEFAULT_BLOCK_SIZE) {
+        Assert.assertTrue(compressed.length < data.length);
+      }
+      Assert.assertArrayEquals(data, decompress(decompressor, compressed));
+    }
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    for (StreamCodec codec : StreamCodec.values()) {
+      testRoundTrip(codec, StreamCompressor.DEFAULT_BLOCK_SIZE, 1000);
+      testRoundTrip(codec, StreamCompressor.DEFAULT_BLOCK_SIZE, 200 * 1000);
+    }
+  }
+
+  @Test
+  public void testBlocks() throws IOException {
+    testRoundTrip(StreamCodec.LZ4, 100, 1000);
+    testRoundTrip(StreamCodec.ZSTD, 100, 1000);
+  }
+
+  @Test
+  public void testLargerBlocksThanReader() throws IOException {
+    byte[] data = createData(100 * 1000);
+    byte[] compressed = compress(new StreamCompressor(StreamCodec.LZ4, 100 * 1000, null), data);
+    Assert.assertArrayEquals(data, decompress(new StreamCompressor(StreamCodec.LZ4, 1000, null), compressed));
+  }
+
+  @Test
+  public void testZstdDictionary() throws IOException {
+    byte[] dictionary = createData(4 * 1024);
+    byte[] data = createData(200);
+    StreamCompressor withDictionary = new StreamCompressor(StreamCodec.ZSTD, 1024, dictionary);
+    byte[] compressed = compress(withDictionary, data);
+    Assert.assertTrue(compressed.length < compress(new StreamCompressor(StreamCodec.ZSTD), data).length);
+    Assert.assertArrayEquals(data, decompress(new StreamCompressor(StreamCodec.ZSTD, 1024, dictionary), compressed));
+  }
+
+  @Test(expected = IOException.class)
+  public void testTruncatedStream() throws IOException {
+    StreamCompressor compressor = new StreamCompressor(StreamCodec.LZ4);
+    byte[] compressed = compress(compressor, createData(1000));
+    decompress(compressor, Arrays.copyOf(compressed, compressed.length - 10));
+  }
+
+  @Test(expected = IOException.class)
+  public void testInvalidBlockLength() throws IOException {
+    byte[] corrupted = {(byte) 0x7F, 0, 0, 0, 0, 0, 0, 1};
+    decompress(new StreamCompressor(StreamCodec.ZSTD), corrupted);
+  }
+
+  @Test
+  public void testHeaderValues() {
+    Assert.assertEquals(StreamCodec.LZ4, StreamCodec.forHeaderValue("lz4"));
+    Assert.assertEquals(StreamCodec.ZSTD, StreamCodec.forHeaderValue("zstd"));
+    Assert.assertNull(StreamCodec.forHeaderValue("foo"));
+    Assert.assertNull(StreamCodec.forHeaderValue(null));
+    Assert.assertEquals("snappy,lz4,zstd", StreamCodec.getSupportedHeaderValues());
+  }
+
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.io;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class TestByteBufferPool {
+
+  @Test
+  public void testAcquireRelease() {
+    ByteBufferPool pool = new ByteBufferPool(10, 2);
+    Assert.assertEquals(10, pool.getBufferSize());
+    Assert.assertEquals(0, pool.getPooledCount());
+
+    ByteBuffer b1 = pool.acquire();
+    ByteBuffer b2 = pool.acquire();
+    ByteBuffer b3 = pool.acquire();
+    Assert.assertEquals(10, b1.capacity());
+    Assert.assertNotSame(b1, b2);
+
+    b1.put((byte) 1);
+    pool.release(b1);
+    pool.release(b2);
+    // the pool is full, the buffer is discarded
+    pool.release(b3);
+    Assert.assertEquals(2, pool.getPooledCount());
+
+    ByteBuffer b4 = pool.acquire();
+    Assert.assertSame(b1, b4);
+    Assert.assertEquals(0, b4.position());
+    Assert.assertEquals(10, b4.limit());
+    Assert.assertEquals(1, pool.getPooledCount());
+  }
+
+  @Test
+  public void testReleaseOtherSize() {
+    ByteBufferPool pool = new ByteBufferPool(10, 2);
+    pool.release(ByteBuffer.allocate(5));
+    pool.release(null);
+    Assert.assertEquals(0, pool.getPooledCount());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidSize() {
+    new ByteBufferPool(0, 1);
+  }
+
+}
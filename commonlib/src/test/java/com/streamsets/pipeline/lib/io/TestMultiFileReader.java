@@ -372,4 +372,42 @@ public class TestMultiFileReader {
 
   }
 
+  @Test
+  public void testFileQuota() throws Exception {
+    File file1 = new File(testDir1, "f1.txt");
+    File file2 = new File(testDir2, "f2.txt");
+    String[] lines = new String[15];
+    for (int i = 0; i < lines.length; i++) {
+      lines[i] = "f1." + (10 + i);
+    }
+    Files.write(file1.toPath(), Arrays.asList(lines), UTF8);
+    Files.write(file2.toPath(), new byte[0]);
+    MultiFileInfo di1 = new MultiFileInfo("tag1", file1.getPath(), FileRollMode.REVERSE_COUNTER, "", "", "");
+    MultiFileInfo di2 = new MultiFileInfo("tag2", file2.getPath(), FileRollMode.REVERSE_COUNTER, "", "", "");
+    // the buffer fits a single line, every chunk has one line
+    MultiFileReader mdr = new MultiFileReader(Arrays.asList(di1, di2), UTF8, 10, PostProcessingOptions.NONE, null,
+                                              false, 0, false);
+    mdr.setOffsets(new HashMap<String, String>());
+
+    // f2 has no data, f1 gets all the reads, also over its quota
+    for (int i = 0; i < 12; i++) {
+      LiveFileChunk chunk = mdr.next(0);
+      Assert.assertNotNull(chunk);
+      Assert.assertEquals("tag1", chunk.getTag());
+    }
+
+    Files.write(file2.toPath(), Arrays.asList("f2.00", "f2.01"), UTF8, StandardOpenOption.APPEND);
+    // give the directory watcher time to see the change
+    Thread.sleep(200);
+    // f1 is over its quota for the batch, f2 is read until it has no data
+    Assert.assertEquals("f2.00\n", mdr.next(1000).getLines().get(0).getText());
+    Assert.assertEquals("f2.01\n", mdr.next(1000).getLines().get(0).getText());
+    Assert.assertEquals("f1.22\n", mdr.next(0).getLines().get(0).getText());
+
+    // a new batch resets the quotas
+    mdr.setOffsets(mdr.getOffsets());
+    Assert.assertEquals("f1.23\n", mdr.next(0).getLines().get(0).getText());
+    mdr.close();
+  }
+
 }
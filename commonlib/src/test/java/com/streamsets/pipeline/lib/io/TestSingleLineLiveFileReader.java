@@ -33,6 +33,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
@@ -597,4 +598,33 @@ public class TestSingleLineLiveFileReader {
     lfr.close();
   }
 
+  @Test
+  public void testPooledBuffer() throws Exception {
+    Path file = createFile(Arrays.asList("Hello1\n", "Hel"));
+    LiveFile lf = new LiveFile(file);
+    ByteBufferPool pool = new ByteBufferPool(10, 1);
+    LiveFileReader lfr = new SingleLineLiveFileReader(
+        LogRollModeFactory.REVERSE_COUNTER.get(file.getFileName().toString(), ""), null, lf, StandardCharsets.UTF_8,
+        0, pool);
+    Assert.assertEquals(0, pool.getPooledCount());
+
+    LiveFileChunk chunk = lfr.next(0);
+    Assert.assertNotNull(chunk);
+    Assert.assertEquals("Hello1\n", readChunk(chunk));
+    Assert.assertEquals(7, lfr.getOffset());
+    // the incomplete line is kept in the buffer
+    Assert.assertEquals(0, pool.getPooledCount());
+
+    Files.write(file, Arrays.asList("lo2"), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    chunk = lfr.next(0);
+    Assert.assertNotNull(chunk);
+    Assert.assertEquals("Hello2\n", readChunk(chunk));
+    Assert.assertEquals(14, lfr.getOffset());
+    // no unread data, the buffer is back in the pool
+    Assert.assertEquals(1, pool.getPooledCount());
+
+    lfr.close();
+    Assert.assertEquals(1, pool.getPooledCount());
+  }
+
 }
@@ -0,0 +1,166 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.parser.log;
+
+import com.google.common.collect.ImmutableMap;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.lib.parser.shaded.org.aicer.grok.dictionary.GrokDictionary;
+import com.streamsets.pipeline.lib.parser.shaded.org.aicer.grok.util.Grok;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares {@link LogLinePattern} with matching every line through {@link Grok#extractNamedGroups(CharSequence)} or
+ * a new {@link Pattern#matcher(CharSequence)}, the way grok and regex log lines were parsed before.
+ * <p/>
+ * Not a unit test, run its main method on the test classpath, the optional argument is the number of measured
+ * rounds. Each round parses a mix of log lines and the stack trace lines that follow them, which is what the parsers
+ * see when they read ahead for multi line messages.
+ */
+public class LogLinePatternBenchmark {
+  private static final int LINES = 10000;
+  private static final int WARM_UP_ROUNDS = 20;
+
+  private static final String[] CLF_LINES = {
+      "127.0.0.1 - frank [10/Oct/2000:13:55:36 -0700] \"GET /apache_pb.gif HTTP/1.0\" 200 2326",
+      "192.168.1.12 - - [10/Oct/2000:13:55:37 -0700] \"POST /login HTTP/1.1\" 302 512",
+      "not a log line",
+  };
+
+  private static final String[] ANCHORED_LINES = {
+      "[ERROR] 2016-05-10 10:12:01,123 Pipeline failed",
+      "\tat com.streamsets.pipeline.Foo.bar(Foo.java:42)",
+      "\tat com.streamsets.pipeline.Foo.baz(Foo.java:21)",
+      "\tat java.lang.Thread.run(Thread.java:745)",
+  };
+
+  private static final String ANCHORED_REGEX = "^\\[(\\w+)\\] (\\S+ \\S+) (.*)";
+  private static final Map<String, Integer> ANCHORED_GROUPS = ImmutableMap.of("level", 1, "time", 2, "message", 3);
+
+  private interface LineParser {
+    Map<String, Field> parse(CharSequence line);
+  }
+
+  private static List<String> createLines(String[] samples) {
+    List<String> lines = new ArrayList<>(LINES);
+    for (int i = 0; i < LINES; i++) {
+      lines.add(samples[i % samples.length]);
+    }
+    return lines;
+  }
+
+  private static Grok createGrok(String expression) {
+    GrokDictionary grokDictionary = new GrokDictionary();
+    ClassLoader cl = LogLinePatternBenchmark.class.getClassLoader();
+    grokDictionary.addDictionary(cl.getResourceAsStream(Constants.GROK_PATTERNS_FILE_NAME));
+    grokDictionary.addDictionary(cl.getResourceAsStream(Constants.GROK_JAVA_LOG_PATTERNS_FILE_NAME));
+    grokDictionary.bind();
+    return grokDictionary.compileExpression(expression);
+  }
+
+  private static LineParser grokParser(final Grok grok) {
+    return new LineParser() {
+      @Override
+      public Map<String, Field> parse(CharSequence line) {
+        Map<String, String> groups = grok.extractNamedGroups(line.toString());
+        if (groups == null) {
+          return null;
+        }
+        Map<String, Field> fields = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : groups.entrySet()) {
+          fields.put(entry.getKey(), Field.create(entry.getValue()));
+        }
+        return fields;
+      }
+    };
+  }
+
+  private static LineParser regexParser(final Pattern pattern, final Map<String, Integer> fieldToGroupMap) {
+    return new LineParser() {
+      @Override
+      public Map<String, Field> parse(CharSequence line) {
+        Matcher matcher = pattern.matcher(line.toString());
+        if (!matcher.find()) {
+          return null;
+        }
+        Map<String, Field> fields = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : fieldToGroupMap.entrySet()) {
+          fields.put(entry.getKey(), Field.create(matcher.group(entry.getValue())));
+        }
+        return fields;
+      }
+    };
+  }
+
+  private static LineParser logLineParser(LogLinePattern pattern) {
+    final LogLinePattern.LineMatcher matcher = pattern.matcher();
+    return new LineParser() {
+      @Override
+      public Map<String, Field> parse(CharSequence line) {
+        return matcher.match(line);
+      }
+    };
+  }
+
+  private static int parseAll(LineParser parser, List<String> lines) {
+    int matches = 0;
+    for (String line : lines) {
+      if (parser.parse(line) != null) {
+        matches++;
+      }
+    }
+    return matches;
+  }
+
+  private static void run(String name, LineParser parser, List<String> lines, int rounds) {
+    int matches = 0;
+    for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+      matches += parseAll(parser, lines);
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < rounds; i++) {
+      matches += parseAll(parser, lines);
+    }
+    double nanosPerLine = (double) (System.nanoTime() - start) / ((long) rounds * lines.size());
+    // print the matches so the parsing can't be optimized away
+    System.out.println(String.format("%-40s %10.1f ns/line (%d matches)", name, nanosPerLine, matches));
+  }
+
+  public static void main(String[] args) {
+    int rounds = (args.length > 0) ? Integer.parseInt(args[0]) : 100;
+
+    Grok grok = createGrok("%{COMMONAPACHELOG}");
+    List<String> clfLines = createLines(CLF_LINES);
+    run("grok, Grok.extractNamedGroups", grokParser(grok), clfLines, rounds);
+    run("grok, LogLinePattern", logLineParser(LogLinePattern.forGrok(grok)), clfLines, rounds);
+
+    Pattern anchored = Pattern.compile(ANCHORED_REGEX);
+    List<String> anchoredLines = createLines(ANCHORED_LINES);
+    run("anchored regex, Pattern.matcher", regexParser(anchored, ANCHORED_GROUPS), anchoredLines, rounds);
+    run("anchored regex, LogLinePattern", logLineParser(LogLinePattern.forRegex(anchored, ANCHORED_GROUPS)),
+        anchoredLines, rounds);
+  }
+
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.parser.log;
+
+import com.google.common.collect.ImmutableMap;
+import com.streamsets.pipeline.api.Field;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.regex.Pattern;
+
+public class TestLogLinePattern {
+
+  private static LogLinePattern create(String regex) {
+    return LogLinePattern.forRegex(Pattern.compile(regex), ImmutableMap.of("a", 1));
+  }
+
+  @Test
+  public void testAnalysis() {
+    LogLinePattern pattern = create("^\\[INFO\\] (\\S+)");
+    Assert.assertTrue(pattern.isAnchored());
+    Assert.assertEquals("[INFO] ", pattern.getLiteralPrefix());
+
+    // optional last character is not part of the prefix
+    pattern = create("^abc?(\\d+)");
+    Assert.assertTrue(pattern.isAnchored());
+    Assert.assertEquals("ab", pattern.getLiteralPrefix());
+
+    pattern = create("^\\d+ (\\S+)");
+    Assert.assertTrue(pattern.isAnchored());
+    Assert.assertEquals("", pattern.getLiteralPrefix());
+
+    // the anchor only applies to the first branch
+    pattern = create("^abc|(def)");
+    Assert.assertFalse(pattern.isAnchored());
+    Assert.assertEquals("", pattern.getLiteralPrefix());
+
+    pattern = create("^(abc|def) [|]");
+    Assert.assertTrue(pattern.isAnchored());
+
+    pattern = LogLinePattern.forRegex(Pattern.compile("^abc (\\d+)", Pattern.CASE_INSENSITIVE),
+        ImmutableMap.of("a", 1));
+    Assert.assertFalse(pattern.isAnchored());
+
+    pattern = create("abc (\\d+)");
+    Assert.assertFalse(pattern.isAnchored());
+  }
+
+  @Test
+  public void testMatch() {
+    LogLinePattern.LineMatcher matcher = create("^\\[INFO\\] (\\S+)").matcher();
+    StringBuilder line = new StringBuilder("[INFO] hello world");
+    Map<String, Field> fields = matcher.match(line);
+    Assert.assertNotNull(fields);
+    Assert.assertEquals("hello", fields.get("a").getValueAsString());
+
+    // rejected by the literal prefix and by the expression, matcher is reused
+    Assert.assertNull(matcher.match("\tat com.streamsets.Foo.bar(Foo.java:1)"));
+    Assert.assertNull(matcher.match("[INFO]"));
+
+    line.setLength(0);
+    line.append("[INFO] again");
+    fields = matcher.match(line);
+    Assert.assertNotNull(fields);
+    Assert.assertEquals("again", fields.get("a").getValueAsString());
+
+    // unanchored patterns still match anywhere in the line
+    matcher = create("INFO (\\S+)").matcher();
+    fields = matcher.match("2016-01-01 INFO started");
+    Assert.assertNotNull(fields);
+    Assert.assertEquals("started", fields.get("a").getValueAsString());
+  }
+
+}
@@ -19,7 +19,7 @@
  */
 package com.streamsets.datacollector.config;
 
-import com.streamsets.datacollector.stagelibrary.StageLibraryTask;
+import com.streamsets.datacollector.stagelibrary.StageLibraryIndex;
 import com.streamsets.pipeline.api.ChooserValues;
 
 import java.util.ArrayList;
@@ -31,9 +31,9 @@ public class ErrorHandlingChooserValues implements ChooserValues {
   private static List<String> values;
   private static List<String> labels;
 
-  private static List<String> getOptions(List<StageDefinition> errorStageDefinitions, boolean value) {
+  private static List<String> getOptions(List<StageLibraryIndex.Stage> errorStageDefinitions, boolean value) {
     List<String> list = new ArrayList<>();
-    for (StageDefinition def : errorStageDefinitions) {
+    for (StageLibraryIndex.Stage def : errorStageDefinitions) {
       if (value) {
         list.add(def.getLibrary() + "::" + def.getName() + "::" + def.getVersion());
       } else {
@@ -43,17 +43,17 @@ public class ErrorHandlingChooserValues implements ChooserValues {
     return list;
   }
 
-  public static void setErrorHandlingOptions(StageLibraryTask stageLibraryTask) {
-    List<StageDefinition> errorStageDefinitions = new ArrayList<>();
-    for (StageDefinition def : stageLibraryTask.getStages()) {
+  public static void setErrorHandlingOptions(List<StageLibraryIndex.Stage> stages) {
+    List<StageLibraryIndex.Stage> errorStageDefinitions = new ArrayList<>();
+    for (StageLibraryIndex.Stage def : stages) {
       if (def.getType() == StageType.TARGET && def.isErrorStage()) {
         errorStageDefinitions.add(def);
       }
     }
 
-    Collections.sort(errorStageDefinitions, new Comparator<StageDefinition>() {
+    Collections.sort(errorStageDefinitions, new Comparator<StageLibraryIndex.Stage>() {
       @Override
-      public int compare(StageDefinition o1, StageDefinition o2) {
+      public int compare(StageLibraryIndex.Stage o1, StageLibraryIndex.Stage o2) {
         return o1.getLabel().compareToIgnoreCase(o2.getLabel());
       }
     });
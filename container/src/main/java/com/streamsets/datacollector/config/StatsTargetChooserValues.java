@@ -19,7 +19,7 @@
  */
 package com.streamsets.datacollector.config;
 
-import com.streamsets.datacollector.stagelibrary.StageLibraryTask;
+import com.streamsets.datacollector.stagelibrary.StageLibraryIndex;
 import com.streamsets.pipeline.api.ChooserValues;
 
 import java.util.ArrayList;
@@ -31,9 +31,9 @@ public class StatsTargetChooserValues implements ChooserValues {
   private static List<String> values;
   private static List<String> labels;
 
-  private static List<String> getOptions(List<StageDefinition> aggregatorStageDefs, boolean value) {
+  private static List<String> getOptions(List<StageLibraryIndex.Stage> aggregatorStageDefs, boolean value) {
     List<String> list = new ArrayList<>();
-    for (StageDefinition def : aggregatorStageDefs) {
+    for (StageLibraryIndex.Stage def : aggregatorStageDefs) {
       if (value) {
         list.add(def.getLibrary() + "::" + def.getName() + "::" + def.getVersion());
       } else {
@@ -43,17 +43,17 @@ public class StatsTargetChooserValues implements ChooserValues {
     return list;
   }
 
-  public static void setStatsTargetOptions(StageLibraryTask stageLibraryTask) {
-    List<StageDefinition> stageDefinitions = new ArrayList<>();
-    for (StageDefinition def : stageLibraryTask.getStages()) {
+  public static void setStatsTargetOptions(List<StageLibraryIndex.Stage> stages) {
+    List<StageLibraryIndex.Stage> stageDefinitions = new ArrayList<>();
+    for (StageLibraryIndex.Stage def : stages) {
       if (def.getType() == StageType.TARGET && def.isStatsAggregatorStage()) {
         stageDefinitions.add(def);
       }
     }
 
-    Collections.sort(stageDefinitions, new Comparator<StageDefinition>() {
+    Collections.sort(stageDefinitions, new Comparator<StageLibraryIndex.Stage>() {
       @Override
-      public int compare(StageDefinition o1, StageDefinition o2) {
+      public int compare(StageLibraryIndex.Stage o1, StageLibraryIndex.Stage o2) {
         return o1.getLabel().compareToIgnoreCase(o2.getLabel());
       }
     });
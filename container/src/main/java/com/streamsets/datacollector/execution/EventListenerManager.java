@@ -26,6 +26,8 @@ import com.streamsets.datacollector.alerts.AlertEventListener;
 import com.streamsets.datacollector.execution.alerts.AlertInfo;
 import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.metrics.MetricsEventListener;
+import com.streamsets.datacollector.metrics.MetricsPayload;
+import com.streamsets.datacollector.metrics.MetricsSubscriber;
 import com.streamsets.dc.execution.manager.standalone.ThreadUsage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -162,4 +164,29 @@ public class EventListenerManager {
     }
   }
 
+  /**
+   * Notifies the metrics listeners of a pipeline. Subscribers pick their part of the payload, the other listeners
+   * get all the metrics. Payloads are serialized once and shared between listeners.
+   */
+  public void broadcastMetrics(String pipelineName, MetricsPayload payload) {
+    if(metricsEventListenerMap.containsKey(pipelineName) && metricsEventListenerMap.get(pipelineName).size() > 0) {
+      List<MetricsEventListener> metricsEventListenerListCopy;
+      synchronized (metricsEventListenerMap) {
+        metricsEventListenerListCopy = new ArrayList(metricsEventListenerMap.get(pipelineName));
+      }
+
+      for(MetricsEventListener metricsEventListener : metricsEventListenerListCopy) {
+        try {
+          if (metricsEventListener instanceof MetricsSubscriber) {
+            ((MetricsSubscriber) metricsEventListener).notification(payload);
+          } else {
+            metricsEventListener.notification(payload.getJson());
+          }
+        } catch(Exception ex) {
+          LOG.warn("Error while notifying metrics, {}", ex.toString(), ex);
+        }
+      }
+    }
+  }
+
 }
@@ -126,6 +126,12 @@ public interface Runner {
   // delegates to the ErrorStore
   public List<Record> getErrorRecords(String stage, int max) throws PipelineRunnerException, PipelineStoreException;
 
+  // returns a page of error records for a given stage, skipping the offset most recent ones and
+  // filtered by error code if not null
+  // delegates to the ErrorStore
+  public List<Record> getErrorRecords(String stage, String errorCode, int offset, int max)
+    throws PipelineRunnerException, PipelineStoreException;
+
   // returns pipeline error for a give stage
   // delegates to the ErrorStore
   public List<ErrorMessage> getErrorMessages(String stage, int max) throws PipelineRunnerException, PipelineStoreException;
@@ -20,9 +20,11 @@
 package com.streamsets.datacollector.execution;
 
 import com.streamsets.datacollector.util.PipelineException;
+import com.streamsets.pipeline.api.Record;
 
 import java.io.Closeable;
 import java.io.InputStream;
+import java.util.List;
 
 public interface Snapshot extends Closeable {
 
@@ -30,4 +32,8 @@ public interface Snapshot extends Closeable {
 
   public InputStream getOutput() throws PipelineException;
 
+  // returns a page of the records of a stage in a batch, from the given lane or, if the lane is null, the error
+  // records of the stage
+  public List<Record> getRecords(int batch, String stage, String lane, int offset, int max) throws PipelineException;
+
 }
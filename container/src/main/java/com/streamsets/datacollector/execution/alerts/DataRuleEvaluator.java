@@ -56,6 +56,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 
+/**
+ * Evaluates a data rule over the records sampled for it.
+ * <p/>
+ * An evaluator is meant to be long lived, it keeps the EL evaluators and the metrics of its rule and is reused for
+ * every batch until the rules configuration changes.
+ */
 public class DataRuleEvaluator {
 
   private static final Logger LOG = LoggerFactory.getLogger(DataRuleEvaluator.class);
@@ -112,6 +118,15 @@ public class DataRuleEvaluator {
   private final String rev;
   private final MetricRegistryJson metricRegistryJson;
   private final BlockingQueue<Record> statsQueue;
+  private final ELEvaluator conditionEvaluator;
+  private final ELEvaluator alertTextEvaluator;
+  private final int sampledRecordsToRetain;
+  private final double threshold;
+  private final boolean validThreshold;
+  private String evaluatedRecordCounterLane;
+  private Counter evaluatedRecordCounter;
+  private Counter matchingRecordCounter;
+  private Meter matchingRecordMeter;
 
   public DataRuleEvaluator(
       String name,
@@ -135,6 +150,27 @@ public class DataRuleEvaluator {
     this.alertManager = alertManager;
     this.metricRegistryJson = metricRegistryJson;
     this.statsQueue = statsQueue;
+    conditionEvaluator = new ELEvaluator("el", RuleELRegistry.getRuleELs(dataRuleDefinition.getFamily()));
+    alertTextEvaluator = new ELEvaluator("alertInfo", RuleELRegistry.getRuleELs(RuleELRegistry.ALERT));
+
+    int maxSize = configuration.get(
+        Constants.SAMPLED_RECORDS_MAX_CACHE_SIZE_KEY,
+        Constants.SAMPLED_RECORDS_MAX_CACHE_SIZE_DEFAULT);
+    sampledRecordsToRetain = Math.min(dataRuleDefinition.getSamplingRecordsToRetain(), maxSize);
+
+    double thresholdValue = 0;
+    boolean valid = true;
+    if (dataRuleDefinition.isAlertEnabled()) {
+      try {
+        thresholdValue = Double.parseDouble(dataRuleDefinition.getThresholdValue());
+      } catch (NumberFormatException e) {
+        //Soft error for now as we don't want this alert to stop other rules
+        LOG.error("Error interpreting threshold '{}' as a number", dataRuleDefinition.getThresholdValue(), e);
+        valid = false;
+      }
+    }
+    threshold = thresholdValue;
+    validThreshold = valid;
   }
 
   public void evaluateRule(List<Record> sampleRecords, String lane,
@@ -151,73 +187,24 @@ public class DataRuleEvaluator {
       //cache all sampled records for this data rule definition in an evicting queue
       EvictingQueue<SampledRecord> sampledRecords = ruleToSampledRecordsMap.get(dataRuleDefinition.getId());
       if (sampledRecords == null) {
-        int maxSize = configuration.get(
-            Constants.SAMPLED_RECORDS_MAX_CACHE_SIZE_KEY,
-            Constants.SAMPLED_RECORDS_MAX_CACHE_SIZE_DEFAULT);
-        int size = dataRuleDefinition.getSamplingRecordsToRetain();
-        if (size > maxSize) {
-          size = maxSize;
-        }
-        sampledRecords = EvictingQueue.create(size);
+        sampledRecords = EvictingQueue.create(sampledRecordsToRetain);
         ruleToSampledRecordsMap.put(dataRuleDefinition.getId(), sampledRecords);
       }
-      //Meter
       //evaluate sample set of records for condition
-      int matchingRecordCount = 0;
-      int evaluatedRecordCount = 0;
+      int evaluatedRecordCount = sampleRecords.size();
       List<String> alertTextForMatchRecords = new ArrayList<>();
-      for (Record r : sampleRecords) {
-        evaluatedRecordCount++;
-        //evaluate
-        boolean success = evaluate(elVars, r, dataRuleDefinition.getCondition(), dataRuleDefinition.getId());
-        if (success) {
-          alertTextForMatchRecords.add(resolveAlertText(elVars, dataRuleDefinition));
-          sampledRecords.add(new SampledRecord(r, true));
-          matchingRecordCount++;
-        } else {
-          sampledRecords.add(new SampledRecord(r, false));
-        }
-      }
+      int matchingRecordCount = evaluateRecords(elVars, sampleRecords, sampledRecords, alertTextForMatchRecords);
 
       if (dataRuleDefinition.isAlertEnabled()) {
-        //Keep the counters and meters ready before execution
         //batch record counter - cummulative sum of records per batch
-        Counter evaluatedRecordCounter =
-            MetricsConfigurator.getCounter(metrics, LaneResolver.getPostFixedLaneForObserver(
-                lane));
-        if (evaluatedRecordCounter == null) {
-          evaluatedRecordCounter = MetricsConfigurator.createCounter(metrics, LaneResolver.getPostFixedLaneForObserver(
-              lane), name, rev);
-          if (metricRegistryJson != null) {
-            CounterJson counterJson =
-              metricRegistryJson.getCounters().get(
-                LaneResolver.getPostFixedLaneForObserver(lane) + MetricsConfigurator.COUNTER_SUFFIX);
-            evaluatedRecordCounter.inc(counterJson.getCount());
-          }
-        }
+        Counter evaluatedRecordCounter = getEvaluatedRecordCounter(lane);
         //counter for the matching records - cummulative sum of records that match criteria
-        Counter matchingRecordCounter =
-            MetricsConfigurator.getCounter(metrics, USER_PREFIX + dataRuleDefinition.getId());
-        if (matchingRecordCounter == null) {
-          matchingRecordCounter =
-            MetricsConfigurator.createCounter(metrics, USER_PREFIX + dataRuleDefinition.getId(), name, rev);
-          if (metricRegistryJson != null) {
-            CounterJson counterJson =
-              metricRegistryJson.getCounters().get(
-                USER_PREFIX + dataRuleDefinition.getId() + MetricsConfigurator.COUNTER_SUFFIX);
-            matchingRecordCounter.inc(counterJson.getCount());
-          }
-        }
+        Counter matchingRecordCounter = getMatchingRecordCounter();
 
         evaluatedRecordCounter.inc(evaluatedRecordCount);
         matchingRecordCounter.inc(matchingRecordCount);
 
-        double threshold;
-        try {
-          threshold = Double.parseDouble(dataRuleDefinition.getThresholdValue());
-        } catch (NumberFormatException e) {
-          //Soft error for now as we don't want this alert to stop other rules
-          LOG.error("Error interpreting threshold '{}' as a number", dataRuleDefinition.getThresholdValue(), e);
+        if (!validThreshold) {
           return;
         }
         switch (dataRuleDefinition.getThresholdType()) {
@@ -287,24 +274,83 @@ public class DataRuleEvaluator {
       }
 
       if (dataRuleDefinition.isMeterEnabled() && matchingRecordCount > 0) {
-        Meter meter = MetricsConfigurator.getMeter(metrics, USER_PREFIX + dataRuleDefinition.getId());
-        if (meter == null) {
-          meter = MetricsConfigurator.createMeter(metrics, USER_PREFIX + dataRuleDefinition.getId(), name ,rev);
+        getMatchingRecordMeter().mark(matchingRecordCount);
+      }
+    }
+  }
+
+  /**
+   * Evaluates the rule condition over all the given records with the same variables, the alert text of a matching
+   * record is resolved right after its evaluation as drift rules set the alert info while evaluating.
+   *
+   * @return the number of matching records.
+   */
+  private int evaluateRecords(
+      ELVariables elVars,
+      List<Record> records,
+      EvictingQueue<SampledRecord> sampledRecords,
+      List<String> alertTexts
+  ) {
+    String condition = dataRuleDefinition.getCondition();
+    String id = dataRuleDefinition.getId();
+    int matchingRecordCount = 0;
+    for (Record record : records) {
+      if (evaluate(elVars, record, condition, id)) {
+        alertTexts.add(resolveAlertText(elVars, dataRuleDefinition));
+        sampledRecords.add(new SampledRecord(record, true));
+        matchingRecordCount++;
+      } else {
+        sampledRecords.add(new SampledRecord(record, false));
+      }
+    }
+    return matchingRecordCount;
+  }
+
+  private Counter getEvaluatedRecordCounter(String lane) {
+    String counterName = LaneResolver.getPostFixedLaneForObserver(lane);
+    if (evaluatedRecordCounter == null || !counterName.equals(evaluatedRecordCounterLane)) {
+      // the lane counter is shared by all the rules of the lane
+      evaluatedRecordCounter = getOrCreateCounter(counterName);
+      evaluatedRecordCounterLane = counterName;
+    }
+    return evaluatedRecordCounter;
+  }
+
+  private Counter getMatchingRecordCounter() {
+    if (matchingRecordCounter == null) {
+      matchingRecordCounter = getOrCreateCounter(USER_PREFIX + dataRuleDefinition.getId());
+    }
+    return matchingRecordCounter;
+  }
+
+  private Counter getOrCreateCounter(String counterName) {
+    Counter counter = MetricsConfigurator.getCounter(metrics, counterName);
+    if (counter == null) {
+      counter = MetricsConfigurator.createCounter(metrics, counterName, name, rev);
+      if (metricRegistryJson != null) {
+        CounterJson counterJson = metricRegistryJson.getCounters().get(counterName + MetricsConfigurator.COUNTER_SUFFIX);
+        if (counterJson != null) {
+          counter.inc(counterJson.getCount());
         }
-        meter.mark(matchingRecordCount);
       }
     }
+    return counter;
+  }
+
+  private Meter getMatchingRecordMeter() {
+    if (matchingRecordMeter == null) {
+      matchingRecordMeter = MetricsConfigurator.getMeter(metrics, USER_PREFIX + dataRuleDefinition.getId());
+      if (matchingRecordMeter == null) {
+        matchingRecordMeter = MetricsConfigurator.createMeter(metrics, USER_PREFIX + dataRuleDefinition.getId(), name ,rev);
+      }
+    }
+    return matchingRecordMeter;
   }
 
   @VisibleForTesting
   boolean evaluate(ELVariables elVars, Record record, String el, String id) {
     try {
-      return AlertsUtil.evaluateRecord(
-        record,
-        el,
-        elVars,
-        new ELEvaluator("el", RuleELRegistry.getRuleELs(dataRuleDefinition.getFamily()))
-      );
+      return AlertsUtil.evaluateRecord(record, el, elVars, conditionEvaluator);
     } catch (ObserverException e) {
       //A faulty condition should not take down rest of the alerts with it.
       //Log and it and continue for now
@@ -324,8 +370,7 @@ public class DataRuleEvaluator {
       if (alertText == null) {
         alertText = "";
       }
-      ELEvaluator elEval = new ELEvaluator("alertInfo", RuleELRegistry.getRuleELs(RuleELRegistry.ALERT));
-      return elEval.eval(elVars, alertText, String.class);
+      return alertTextEvaluator.eval(elVars, alertText, String.class);
     } catch (ELEvalException e) {
       //A faulty el alerttext should not take down rest of the alerts with it.
       //Log and it and continue for now
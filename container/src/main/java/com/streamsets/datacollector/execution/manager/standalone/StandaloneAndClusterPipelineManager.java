@@ -19,6 +19,8 @@
  */
 package com.streamsets.datacollector.execution.manager.standalone;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
@@ -61,11 +63,17 @@ import javax.inject.Inject;
 import javax.inject.Named;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class StandaloneAndClusterPipelineManager extends AbstractTask implements Manager, PreviewerListener  {
 
@@ -94,12 +102,23 @@ public class StandaloneAndClusterPipelineManager extends AbstractTask implements
   private final long runnerExpiryInterval;
   private ScheduledFuture<?> runnerExpiryFuture;
   private static final String NAME_AND_REV_SEPARATOR = "::";
+  static final String RECOVERY_THREADS = "pipeline.recovery.threads";
+  static final int DEFAULT_RECOVERY_THREADS = 4;
+  static final String RECOVERY_TIMEOUT = "pipeline.recovery.timeout.ms";
+  static final long DEFAULT_RECOVERY_TIMEOUT = 2 * 60 * 1000;
+  static final String RECOVERY_TIMER = "pipeline.recovery.timer";
+  static final String RECOVERY_TIMEOUTS_COUNTER = "pipeline.recovery.timeouts.counter";
+  private final int recoveryThreads;
+  private final long recoveryTimeout;
+  private volatile SafeScheduledExecutorService recoveryExecutor;
 
   public StandaloneAndClusterPipelineManager(ObjectGraph objectGraph) {
     super(PIPELINE_MANAGER);
     this.objectGraph = objectGraph;
     this.objectGraph.inject(this);
     runnerExpiryInterval = this.configuration.get(RUNNER_EXPIRY_INTERVAL, DEFAULT_RUNNER_EXPIRY_INTERVAL);
+    recoveryThreads = Math.max(1, this.configuration.get(RECOVERY_THREADS, DEFAULT_RECOVERY_THREADS));
+    recoveryTimeout = this.configuration.get(RECOVERY_TIMEOUT, DEFAULT_RECOVERY_TIMEOUT);
     eventListenerManager.addStateEventListener(resourceManager);
     MetricsConfigurator.registerJmxMetrics(runtimeInfo.getMetrics());
   }
@@ -211,25 +230,7 @@ public class StandaloneAndClusterPipelineManager extends AbstractTask implements
     } catch (PipelineStoreException ex) {
       throw new RuntimeException("Cannot load the list of pipelines from StateStore", ex);
     }
-    for (PipelineInfo pipelineInfo : pipelineInfoList) {
-      String name = pipelineInfo.getName();
-      String rev = pipelineInfo.getLastRev();
-      try {
-        PipelineState pipelineState = pipelineStateStore.getState(name, rev);
-        // Create runner if active
-        if (pipelineState.getStatus().isActive()) {
-          ExecutionMode executionMode = pipelineState.getExecutionMode();
-          Runner runner = getRunner(pipelineState.getUser(), name, rev, executionMode);
-          runner.prepareForDataCollectorStart();
-          if (runner.getState().getStatus() == PipelineStatus.DISCONNECTED) {
-            runnerCache.put(getNameAndRevString(name, rev), new RunnerInfo(runner, executionMode));
-            runner.onDataCollectorStart();
-          }
-        }
-      } catch (Exception ex) {
-        LOG.error(Utils.format("Error while processing pipeline '{}::{}'", name, rev), ex);
-      }
-    }
+    recoverPipelines(pipelineInfoList);
 
     runnerExpiryFuture = managerExecutor.schedule(new Runnable() {
       @Override
@@ -249,6 +250,120 @@ public class StandaloneAndClusterPipelineManager extends AbstractTask implements
     }, runnerExpiryInterval, TimeUnit.MILLISECONDS);
   }
 
+  /**
+   * Restarts the pipelines which were active when the data collector went down. Runners are created up front, in
+   * priority order, and then prepared and started on a bounded pool of <code>pipeline.recovery.threads</code>
+   * threads. Runners are put in the runner cache before their recovery is submitted, so a request for a pipeline which
+   * is still recovering gets the recovering runner rather than creating a second one.
+   * <p/>
+   * <code>pipeline.recovery.timeout.ms</code> only bounds how long start-up waits for each pipeline, the recovery
+   * itself is not cancelled. A pipeline which does not come back in time is left to finish recovering in the
+   * background, its status is reported by its runner through the {@link PipelineStateStore}.
+   */
+  private void recoverPipelines(List<PipelineInfo> pipelineInfoList) {
+    List<PipelineState> activeStates = new ArrayList<>();
+    for (PipelineInfo pipelineInfo : pipelineInfoList) {
+      String name = pipelineInfo.getName();
+      String rev = pipelineInfo.getLastRev();
+      try {
+        PipelineState pipelineState = pipelineStateStore.getState(name, rev);
+        if (pipelineState.getStatus().isActive()) {
+          activeStates.add(pipelineState);
+        }
+      } catch (Exception ex) {
+        LOG.error(Utils.format("Error while processing pipeline '{}::{}'", name, rev), ex);
+      }
+    }
+    if (activeStates.isEmpty()) {
+      return;
+    }
+    Collections.sort(activeStates, RECOVERY_ORDER);
+
+    final Timer recoveryTimer = runtimeInfo.getMetrics().timer(RECOVERY_TIMER);
+    Counter timeoutsCounter = runtimeInfo.getMetrics().counter(RECOVERY_TIMEOUTS_COUNTER);
+    long start = System.currentTimeMillis();
+    recoveryExecutor = new SafeScheduledExecutorService(Math.min(recoveryThreads, activeStates.size()),
+      "PipelineRecovery");
+    Map<String, Future<?>> futures = new LinkedHashMap<>();
+    try {
+      for (PipelineState pipelineState : activeStates) {
+        final String name = pipelineState.getName();
+        final String rev = pipelineState.getRev();
+        try {
+          final ExecutionMode executionMode = pipelineState.getExecutionMode();
+          final Runner runner = getRunner(pipelineState.getUser(), name, rev, executionMode);
+          final String nameAndRev = getNameAndRevString(name, rev);
+          final RunnerInfo runnerInfo = new RunnerInfo(runner, executionMode);
+          runnerCache.put(nameAndRev, runnerInfo);
+          futures.put(nameAndRev, recoveryExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+              Timer.Context context = recoveryTimer.time();
+              try {
+                runner.prepareForDataCollectorStart();
+                if (runner.getState().getStatus() == PipelineStatus.DISCONNECTED) {
+                  runner.onDataCollectorStart();
+                } else {
+                  // nothing to recover, leave it to getRunner() to create a runner when the pipeline is requested
+                  runnerCache.asMap().remove(nameAndRev, runnerInfo);
+                }
+              } catch (Exception ex) {
+                LOG.error(Utils.format("Error while processing pipeline '{}::{}'", name, rev), ex);
+              } finally {
+                long elapsed = TimeUnit.NANOSECONDS.toMillis(context.stop());
+                LOG.debug("Recovery of pipeline '{}::{}' took '{}' ms", name, rev, elapsed);
+              }
+            }
+          }));
+        } catch (Exception ex) {
+          LOG.error(Utils.format("Error while processing pipeline '{}::{}'", name, rev), ex);
+        }
+      }
+      // the timeout bounds the whole recovery, not each pipeline
+      long deadline = start + recoveryTimeout;
+      for (Map.Entry<String, Future<?>> entry : futures.entrySet()) {
+        try {
+          entry.getValue().get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+          timeoutsCounter.inc();
+          LOG.warn("Pipeline '{}' did not recover within '{}' ms of start-up, continuing in the background",
+            entry.getKey(), recoveryTimeout);
+        } catch (ExecutionException ex) {
+          LOG.error(Utils.format("Error while processing pipeline '{}'", entry.getKey()), ex);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          LOG.warn("Interrupted while waiting for the recovery of pipeline '{}'", entry.getKey());
+          break;
+        }
+      }
+    } finally {
+      // let pipelines which timed out complete their recovery
+      recoveryExecutor.shutdown();
+    }
+    LOG.info("Recovered '{}' active pipelines in '{}' ms", futures.size(), System.currentTimeMillis() - start);
+  }
+
+  /**
+   * Cluster pipelines go first as reconnecting to the cluster manager is the slowest part of a recovery, ties are
+   * broken by name so that the order is stable across restarts.
+   */
+  private static final Comparator<PipelineState> RECOVERY_ORDER = new Comparator<PipelineState>() {
+    @Override
+    public int compare(PipelineState s1, PipelineState s2) {
+      boolean cluster1 = isClusterMode(s1.getExecutionMode());
+      boolean cluster2 = isClusterMode(s2.getExecutionMode());
+      if (cluster1 != cluster2) {
+        return cluster1 ? -1 : 1;
+      }
+      return s1.getName().compareTo(s2.getName());
+    }
+  };
+
+  private static boolean isClusterMode(ExecutionMode executionMode) {
+    return executionMode != null && executionMode != ExecutionMode.STANDALONE &&
+      executionMode != ExecutionMode.SLAVE;
+  }
+
   @VisibleForTesting
   boolean isRunnerPresent(String name, String rev) {
      return runnerCache.getIfPresent(getNameAndRevString(name, rev)) == null? false: true;
@@ -268,6 +383,9 @@ public class StandaloneAndClusterPipelineManager extends AbstractTask implements
 
   @Override
   public void stopTask() {
+    if (recoveryExecutor != null) {
+      recoveryExecutor.shutdownNow();
+    }
     for (RunnerInfo runnerInfo : runnerCache.asMap().values()) {
       Runner runner = runnerInfo.runner;
       try {
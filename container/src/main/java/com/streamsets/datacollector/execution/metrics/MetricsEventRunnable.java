@@ -22,6 +22,7 @@ package com.streamsets.datacollector.execution.metrics;
 
 import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.streamsets.datacollector.callback.CallbackInfo;
 import com.streamsets.datacollector.config.PipelineConfiguration;
 import com.streamsets.datacollector.execution.EventListenerManager;
@@ -31,6 +32,7 @@ import com.streamsets.datacollector.execution.runner.cluster.SlaveCallbackManage
 import com.streamsets.datacollector.execution.runner.common.ThreadHealthReporter;
 import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.main.RuntimeInfo;
+import com.streamsets.datacollector.metrics.MetricsPayload;
 import com.streamsets.datacollector.restapi.bean.CounterJson;
 import com.streamsets.datacollector.restapi.bean.MeterJson;
 import com.streamsets.datacollector.restapi.bean.MetricRegistryJson;
@@ -75,6 +77,11 @@ public class MetricsEventRunnable implements Runnable {
   private final RuntimeInfo runtimeInfo;
   private BlockingQueue<Record> statsQueue;
   private PipelineConfiguration pipelineConfiguration;
+  // metrics sent on the previous tick, to compute deltas
+  private ObjectNode previousMetrics;
+  // aggregated slave metrics, updated as slaves report new metrics
+  private final Map<String, CounterJson> aggregatedCounters;
+  private final Map<String, MeterJson> aggregatedMeters;
 
   @Inject
   public MetricsEventRunnable(
@@ -89,6 +96,8 @@ public class MetricsEventRunnable implements Runnable {
       RuntimeInfo runtimeInfo
   ) {
     slaveMetrics = new ConcurrentHashMap<>();
+    aggregatedCounters = new HashMap<>();
+    aggregatedMeters = new HashMap<>();
     this.threadHealthReporter = threadHealthReporter;
     this.eventListenerManager = eventListenerManager;
     this.slaveCallbackManager = slaveCallbackManager;
@@ -128,19 +137,23 @@ public class MetricsEventRunnable implements Runnable {
       if (hasMetricEventListeners(state) || isStatAggregationEnabled()) {
         // compute aggregated metrics in case of cluster mode pipeline
         // get individual pipeline metrics if non cluster mode pipeline
-        String metricsJSONStr;
+        ObjectNode metrics;
         if (state.getExecutionMode() == ExecutionMode.CLUSTER_BATCH
           || state.getExecutionMode() == ExecutionMode.CLUSTER_YARN_STREAMING
           || state.getExecutionMode() == ExecutionMode.CLUSTER_MESOS_STREAMING) {
           MetricRegistryJson metricRegistryJson = getAggregatedMetrics();
-          metricsJSONStr = objectMapper.writer().writeValueAsString(metricRegistryJson);
+          metrics = objectMapper.valueToTree(metricRegistryJson);
         } else {
-          metricsJSONStr = objectMapper.writer().writeValueAsString(metricRegistry);
+          metrics = objectMapper.valueToTree(metricRegistry);
         }
+        // serialized payloads are cached in the payload and shared by all listeners for this tick
+        MetricsPayload payload = new MetricsPayload(objectMapper, metrics, previousMetrics);
+        previousMetrics = metrics;
         if (hasMetricEventListeners(state)) {
-          eventListenerManager.broadcastMetrics(name, metricsJSONStr);
+          eventListenerManager.broadcastMetrics(name, payload);
         }
         if (isStatAggregationEnabled()) {
+          String metricsJSONStr = payload.getJson();
           AggregatorUtil.enqueStatsRecord(
             AggregatorUtil.createMetricJsonRecord(
                 runtimeInfo.getId(),
@@ -153,109 +166,110 @@ public class MetricsEventRunnable implements Runnable {
           );
         }
       }
-    } catch (IOException ex) {
+    } catch (IOException | IllegalArgumentException ex) {
       LOG.warn("Error while serializing metrics, {}", ex.toString(), ex);
     } catch (PipelineStoreException ex) {
       LOG.warn("Error while fetching status of pipeline,  {}", ex.toString(), ex);
     }
   }
 
-  public MetricRegistryJson getAggregatedMetrics() {
-    MetricRegistryJson aggregatedMetrics = new MetricRegistryJson();
-    Map<String, CounterJson> aggregatedCounters = null;
-    Map<String, MeterJson> aggregatedMeters = null;
+  /**
+   * Returns the sum of the counters and meters of all the slaves. Only the contribution of slaves that reported
+   * new metrics since the last call is recomputed.
+   */
+  public synchronized MetricRegistryJson getAggregatedMetrics() {
     List<String> slaves = new ArrayList<>();
 
     for(CallbackInfo callbackInfo : slaveCallbackManager.getSlaveCallbackList()) {
       slaves.add(callbackInfo.getSdcURL());
       MetricRegistryJson metricRegistryJson = callbackInfo.getMetricRegistryJson();
       if(metricRegistryJson != null) {
-        slaveMetrics.put(callbackInfo.getSdcSlaveToken(), callbackInfo.getMetricRegistryJson());
+        MetricRegistryJson previous = slaveMetrics.put(callbackInfo.getSdcSlaveToken(), metricRegistryJson);
+        if (previous != metricRegistryJson) {
+          if (previous != null) {
+            aggregate(previous, -1);
+          }
+          aggregate(metricRegistryJson, 1);
+        }
       }
     }
 
-    for(Map.Entry<String, MetricRegistryJson> entry: slaveMetrics.entrySet()) {
-      MetricRegistryJson metrics = entry.getValue();
-
-      Map<String, CounterJson> slaveCounters = metrics.getCounters();
-      Map<String, MeterJson> slaveMeters = metrics.getMeters();
-
-      if(aggregatedCounters == null) {
-        //First Slave Metrics
-
-        aggregatedCounters = new HashMap<>();
-        aggregatedMeters = new HashMap<>();
-
-        for(Map.Entry<String, CounterJson> counterJsonEntry: slaveCounters.entrySet()) {
-          CounterJson slaveCounter = counterJsonEntry.getValue();
-          CounterJson aggregatedCounter = new CounterJson();
-          aggregatedCounter.setCount(slaveCounter.getCount());
-          aggregatedCounters.put(counterJsonEntry.getKey(), aggregatedCounter);
-        }
+    // copies, the aggregated values keep changing as slaves report
+    Map<String, CounterJson> counters = null;
+    Map<String, MeterJson> meters = null;
+    if (!slaveMetrics.isEmpty()) {
+      counters = new HashMap<>();
+      for (Map.Entry<String, CounterJson> entry : aggregatedCounters.entrySet()) {
+        CounterJson counter = new CounterJson();
+        counter.setCount(entry.getValue().getCount());
+        counters.put(entry.getKey(), counter);
+      }
+      meters = new HashMap<>();
+      for (Map.Entry<String, MeterJson> entry : aggregatedMeters.entrySet()) {
+        MeterJson meter = new MeterJson();
+        add(meter, entry.getValue(), 1);
+        meters.put(entry.getKey(), meter);
+      }
+    }
 
-        for(Map.Entry<String, MeterJson> meterJsonEntry: slaveMeters.entrySet()) {
-          MeterJson slaveMeter = meterJsonEntry.getValue();
-          MeterJson aggregatedMeter = new MeterJson();
-          aggregatedMeter.setCount( slaveMeter.getCount());
-          aggregatedMeter.setM1_rate(slaveMeter.getM1_rate());
-          aggregatedMeter.setM5_rate(slaveMeter.getM5_rate());
-          aggregatedMeter.setM15_rate(slaveMeter.getM15_rate());
-          aggregatedMeter.setM30_rate(slaveMeter.getM30_rate());
-          aggregatedMeter.setH1_rate(slaveMeter.getH1_rate());
-          aggregatedMeter.setH6_rate(slaveMeter.getH6_rate());
-          aggregatedMeter.setH12_rate(slaveMeter.getH12_rate());
-          aggregatedMeter.setH24_rate(slaveMeter.getH24_rate());
-          aggregatedMeter.setMean_rate(slaveMeter.getMean_rate());
-          aggregatedMeters.put(meterJsonEntry.getKey(), aggregatedMeter);
-        }
+    MetricRegistryJson aggregatedMetrics = new MetricRegistryJson();
+    aggregatedMetrics.setCounters(counters);
+    aggregatedMetrics.setMeters(meters);
+    aggregatedMetrics.setSlaves(slaves);
 
-      } else {
-        //Otherwise add to the aggregated Metrics
-        for(Map.Entry<String, CounterJson> counterJsonEntry : aggregatedCounters.entrySet()) {
-          CounterJson aggregatedCounter = counterJsonEntry.getValue();
-          CounterJson slaveCounter = slaveCounters.get(counterJsonEntry.getKey());
+    return aggregatedMetrics;
+  }
 
-          if(aggregatedCounter != null && slaveCounter != null) {
-            aggregatedCounter.setCount(aggregatedCounter.getCount() + slaveCounter.getCount());
-          }
+  /**
+   * Adds (sign 1) or removes (sign -1) the counters and meters of a slave to the aggregated metrics.
+   */
+  private void aggregate(MetricRegistryJson metrics, int sign) {
+    if (metrics.getCounters() != null) {
+      for (Map.Entry<String, CounterJson> entry : metrics.getCounters().entrySet()) {
+        CounterJson aggregatedCounter = aggregatedCounters.get(entry.getKey());
+        if (aggregatedCounter == null) {
+          aggregatedCounter = new CounterJson();
+          aggregatedCounters.put(entry.getKey(), aggregatedCounter);
         }
-
-        for(Map.Entry<String, MeterJson> meterJsonEntry : aggregatedMeters.entrySet()) {
-          MeterJson aggregatedMeter = meterJsonEntry.getValue();
-          MeterJson slaveMeter = slaveMeters.get(meterJsonEntry.getKey());
-
-          if(aggregatedMeter != null && slaveMeter != null) {
-            aggregatedMeter.setCount(aggregatedMeter.getCount() + slaveMeter.getCount());
-
-            aggregatedMeter.setM1_rate(aggregatedMeter.getM1_rate() + slaveMeter.getM1_rate());
-            aggregatedMeter.setM5_rate(aggregatedMeter.getM5_rate() + slaveMeter.getM5_rate());
-            aggregatedMeter.setM15_rate(aggregatedMeter.getM15_rate() + slaveMeter.getM15_rate());
-            aggregatedMeter.setM30_rate(aggregatedMeter.getM30_rate() + slaveMeter.getM30_rate());
-
-            aggregatedMeter.setH1_rate(aggregatedMeter.getH1_rate() + slaveMeter.getH1_rate());
-            aggregatedMeter.setH6_rate(aggregatedMeter.getH6_rate() + slaveMeter.getH6_rate());
-            aggregatedMeter.setH12_rate(aggregatedMeter.getH12_rate() + slaveMeter.getH12_rate());
-            aggregatedMeter.setH24_rate(aggregatedMeter.getH24_rate() + slaveMeter.getH24_rate());
-
-            aggregatedMeter.setMean_rate(aggregatedMeter.getMean_rate() + slaveMeter.getMean_rate());
-          }
+        aggregatedCounter.setCount(aggregatedCounter.getCount() + sign * entry.getValue().getCount());
+      }
+    }
+    if (metrics.getMeters() != null) {
+      for (Map.Entry<String, MeterJson> entry : metrics.getMeters().entrySet()) {
+        MeterJson aggregatedMeter = aggregatedMeters.get(entry.getKey());
+        if (aggregatedMeter == null) {
+          aggregatedMeter = new MeterJson();
+          aggregatedMeters.put(entry.getKey(), aggregatedMeter);
         }
+        add(aggregatedMeter, entry.getValue(), sign);
       }
     }
+  }
 
-    aggregatedMetrics.setCounters(aggregatedCounters);
-    aggregatedMetrics.setMeters(aggregatedMeters);
-    aggregatedMetrics.setSlaves(slaves);
+  private static void add(MeterJson aggregatedMeter, MeterJson slaveMeter, int sign) {
+    aggregatedMeter.setCount(aggregatedMeter.getCount() + sign * slaveMeter.getCount());
 
-    return aggregatedMetrics;
+    aggregatedMeter.setM1_rate(aggregatedMeter.getM1_rate() + sign * slaveMeter.getM1_rate());
+    aggregatedMeter.setM5_rate(aggregatedMeter.getM5_rate() + sign * slaveMeter.getM5_rate());
+    aggregatedMeter.setM15_rate(aggregatedMeter.getM15_rate() + sign * slaveMeter.getM15_rate());
+    aggregatedMeter.setM30_rate(aggregatedMeter.getM30_rate() + sign * slaveMeter.getM30_rate());
+
+    aggregatedMeter.setH1_rate(aggregatedMeter.getH1_rate() + sign * slaveMeter.getH1_rate());
+    aggregatedMeter.setH6_rate(aggregatedMeter.getH6_rate() + sign * slaveMeter.getH6_rate());
+    aggregatedMeter.setH12_rate(aggregatedMeter.getH12_rate() + sign * slaveMeter.getH12_rate());
+    aggregatedMeter.setH24_rate(aggregatedMeter.getH24_rate() + sign * slaveMeter.getH24_rate());
+
+    aggregatedMeter.setMean_rate(aggregatedMeter.getMean_rate() + sign * slaveMeter.getMean_rate());
   }
 
   public int getScheduledDelay() {
     return scheduledDelay;
   }
 
-  public void clearSlaveMetrics() {
+  public synchronized void clearSlaveMetrics() {
     this.slaveMetrics.clear();
+    this.aggregatedCounters.clear();
+    this.aggregatedMeters.clear();
   }
 
   private boolean isStatAggregationEnabled() {
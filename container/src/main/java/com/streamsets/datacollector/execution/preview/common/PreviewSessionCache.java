@@ -0,0 +1,207 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.preview.common;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.streamsets.datacollector.config.PipelineConfiguration;
+import com.streamsets.datacollector.config.StageConfiguration;
+import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.datacollector.runner.StageOutput;
+import com.streamsets.datacollector.util.Configuration;
+import com.streamsets.datacollector.util.ElUtil;
+import com.streamsets.datacollector.util.PipelineConfigurationUtil;
+import com.streamsets.pipeline.api.Record;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps, for a short time, the stage outputs of the last single batch preview of each pipeline.
+ * <p/>
+ * When the same pipeline is previewed again with the same preview settings, the stages whose configuration did not
+ * change and whose input comes only from unchanged stages replay their previous output instead of running. In
+ * particular the origin sample is reused, so iterating on a downstream stage neither reads the origin nor
+ * initializes it again. Only the edited stages and the stages downstream of them run.
+ * <p/>
+ * Sessions expire after <code>preview.session.ttl.ms</code> without use, sessions are disabled if it is zero. The
+ * output of a preview with more than <code>preview.session.max.records</code> records is not kept.
+ */
+public class PreviewSessionCache {
+  private static final Logger LOG = LoggerFactory.getLogger(PreviewSessionCache.class);
+
+  public static final String TTL_KEY = "preview.session.ttl.ms";
+  public static final long TTL_DEFAULT = 0;
+  public static final String MAX_RECORDS_KEY = "preview.session.max.records";
+  public static final int MAX_RECORDS_DEFAULT = 10000;
+  public static final String MAX_SESSIONS_KEY = "preview.session.max.sessions";
+  public static final int MAX_SESSIONS_DEFAULT = 20;
+
+  private static class Session {
+    private final String settings;
+    private final Map<String, String> stageHashes;
+    private final Map<String, StageOutput> stageOutputs;
+
+    private Session(String settings, Map<String, String> stageHashes, Map<String, StageOutput> stageOutputs) {
+      this.settings = settings;
+      this.stageHashes = stageHashes;
+      this.stageOutputs = stageOutputs;
+    }
+  }
+
+  private final int maxRecords;
+  private final Cache<String, Session> sessions;
+
+  @Inject
+  public PreviewSessionCache(Configuration configuration) {
+    long ttl = configuration.get(TTL_KEY, TTL_DEFAULT);
+    maxRecords = configuration.get(MAX_RECORDS_KEY, MAX_RECORDS_DEFAULT);
+    if (ttl > 0) {
+      sessions = CacheBuilder.newBuilder()
+          .expireAfterAccess(ttl, TimeUnit.MILLISECONDS)
+          .maximumSize(configuration.get(MAX_SESSIONS_KEY, MAX_SESSIONS_DEFAULT))
+          .build();
+    } else {
+      sessions = null;
+    }
+  }
+
+  public boolean isEnabled() {
+    return sessions != null;
+  }
+
+  private static String getSessionKey(String name, String rev) {
+    return name + "::" + rev;
+  }
+
+  /**
+   * Returns the preview settings that must match for a session to be reused.
+   */
+  public static String getSettings(int batchSize, boolean skipTargets, String endStage) {
+    return batchSize + "::" + skipTargets + "::" + endStage;
+  }
+
+  private static Map<String, String> getStageHashes(PipelineConfiguration pipelineConf) {
+    Map<String, Object> context = Collections.<String, Object>singletonMap(
+        "constants",
+        new TreeMap<>(ElUtil.getConstants(pipelineConf))
+    );
+    Map<String, String> hashes = new HashMap<>();
+    for (StageConfiguration stageConf : pipelineConf.getStages()) {
+      String hash = PipelineConfigurationUtil.getStageHash(stageConf, context);
+      if (hash != null) {
+        hashes.put(stageConf.getInstanceName(), hash);
+      }
+    }
+    return hashes;
+  }
+
+  /**
+   * Returns copies of the previous outputs of the stages of the given pipeline configuration which can be replayed,
+   * an empty list if there is no session for the pipeline or its settings differ.
+   */
+  public List<StageOutput> getReplayableOutputs(String name, String rev, String settings,
+                                                PipelineConfiguration pipelineConf) {
+    List<StageOutput> outputs = new ArrayList<>();
+    Session session = (sessions == null) ? null : sessions.getIfPresent(getSessionKey(name, rev));
+    if (session != null && session.settings.equals(settings)) {
+      Map<String, String> hashes = getStageHashes(pipelineConf);
+      Set<String> changedLanes = new HashSet<>();
+      // stages are sorted, the lanes of a changed stage are known before the stages reading them are checked
+      for (StageConfiguration stageConf : pipelineConf.getStages()) {
+        String instanceName = stageConf.getInstanceName();
+        String hash = hashes.get(instanceName);
+        StageOutput output = session.stageOutputs.get(instanceName);
+        if (hash != null && hash.equals(session.stageHashes.get(instanceName)) && output != null &&
+            !stageConf.getOutputLanes().isEmpty() && Collections.disjoint(stageConf.getInputLanes(), changedLanes)) {
+          outputs.add(copy(output));
+        } else {
+          changedLanes.addAll(stageConf.getOutputLanes());
+        }
+      }
+      LOG.debug("Pipeline '{}::{}' preview replays {} of {} stages", name, rev, outputs.size(),
+          pipelineConf.getStages().size());
+    }
+    return outputs;
+  }
+
+  /**
+   * Keeps the stage outputs of a single batch preview of the given pipeline configuration.
+   */
+  public void put(String name, String rev, String settings, PipelineConfiguration pipelineConf,
+                  List<StageOutput> batchOutput) {
+    if (sessions != null) {
+      String key = getSessionKey(name, rev);
+      int records = 0;
+      Map<String, StageOutput> outputs = new HashMap<>();
+      for (StageOutput output : batchOutput) {
+        for (List<Record> laneRecords : output.getOutput().values()) {
+          records += laneRecords.size();
+        }
+        if (output.getErrorRecords() != null) {
+          records += output.getErrorRecords().size();
+        }
+        outputs.put(output.getInstanceName(), output);
+      }
+      if (records <= maxRecords) {
+        sessions.put(key, new Session(settings, getStageHashes(pipelineConf), outputs));
+      } else {
+        LOG.debug("Pipeline '{}::{}' preview output has '{}' records, not keeping it", name, rev, records);
+        sessions.invalidate(key);
+      }
+    }
+  }
+
+  public void invalidate(String name, String rev) {
+    if (sessions != null) {
+      sessions.invalidate(getSessionKey(name, rev));
+    }
+  }
+
+  @VisibleForTesting
+  long size() {
+    return (sessions == null) ? 0 : sessions.size();
+  }
+
+  // the records of a replayed output go through the stages downstream, which may modify them
+  private static StageOutput copy(StageOutput output) {
+    Map<String, List<Record>> lanes = new HashMap<>();
+    for (Map.Entry<String, List<Record>> entry : output.getOutput().entrySet()) {
+      List<Record> records = new ArrayList<>(entry.getValue().size());
+      for (Record record : entry.getValue()) {
+        records.add(((RecordImpl) record).clone());
+      }
+      lanes.put(entry.getKey(), records);
+    }
+    return new StageOutput(output.getInstanceName(), lanes, output.getErrorRecords(), output.getStageErrors());
+  }
+
+}
@@ -21,7 +21,9 @@ package com.streamsets.datacollector.execution.preview.common.dagger;
 
 import com.streamsets.datacollector.execution.executor.ExecutorModule;
 import com.streamsets.datacollector.execution.manager.PreviewerProvider;
+import com.streamsets.datacollector.execution.preview.common.PreviewSessionCache;
 import com.streamsets.datacollector.execution.preview.common.PreviewerProviderImpl;
+import com.streamsets.datacollector.util.Configuration;
 
 import dagger.Module;
 import dagger.Provides;
@@ -29,9 +31,9 @@ import dagger.Provides;
 import javax.inject.Singleton;
 
 /**
- * Provides a singleton instance of PreviewerProvider.
+ * Provides singleton instances of PreviewerProvider and PreviewSessionCache.
  */
-@Module(injects = PreviewerProvider.class, includes = {ExecutorModule.class})
+@Module(injects = PreviewerProvider.class, library = true, includes = {ExecutorModule.class})
 public class PreviewerProviderModule {
 
   @Provides @Singleton
@@ -39,4 +41,9 @@ public class PreviewerProviderModule {
     return previewerProvider;
   }
 
+  @Provides @Singleton
+  public PreviewSessionCache providePreviewSessionCache(Configuration configuration) {
+    return new PreviewSessionCache(configuration);
+  }
+
 }
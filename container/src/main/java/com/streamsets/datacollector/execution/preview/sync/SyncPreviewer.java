@@ -32,6 +32,7 @@ import com.streamsets.datacollector.execution.PreviewerListener;
 import com.streamsets.datacollector.execution.RawPreview;
 import com.streamsets.datacollector.execution.preview.common.PreviewError;
 import com.streamsets.datacollector.execution.preview.common.PreviewOutputImpl;
+import com.streamsets.datacollector.execution.preview.common.PreviewSessionCache;
 import com.streamsets.datacollector.execution.preview.common.RawPreviewImpl;
 import com.streamsets.datacollector.main.RuntimeInfo;
 import com.streamsets.datacollector.runner.PipelineRuntimeException;
@@ -50,6 +51,7 @@ import com.streamsets.datacollector.util.ContainerError;
 import com.streamsets.datacollector.util.PipelineException;
 import com.streamsets.datacollector.validation.Issue;
 import com.streamsets.datacollector.validation.Issues;
+import com.streamsets.datacollector.validation.StageValidationCache;
 import com.streamsets.pipeline.api.RawSourcePreviewer;
 import com.streamsets.pipeline.api.StageException;
 
@@ -83,6 +85,7 @@ public class SyncPreviewer implements Previewer {
   @Inject StageLibraryTask stageLibrary;
   @Inject PipelineStoreTask pipelineStore;
   @Inject RuntimeInfo runtimeInfo;
+  @Inject PreviewSessionCache previewSessions;
   private volatile PreviewStatus previewStatus;
   private volatile PreviewOutput previewOutput;
   private volatile PreviewPipeline previewPipeline;
@@ -180,7 +183,18 @@ public class SyncPreviewer implements Previewer {
     changeState(PreviewStatus.RUNNING, null);
     try {
       previewPipeline = buildPreviewPipeline(batches, batchSize, stopStage, skipTargets);
-      PreviewPipelineOutput output = previewPipeline.run(stagesOverride);
+      PreviewPipelineOutput output;
+      if (previewSessions.isEnabled() && batches == 1 && stagesOverride.isEmpty()) {
+        // single batch previews without overrides replay the unchanged stages of the previous preview
+        String settings = PreviewSessionCache.getSettings(batchSize, skipTargets, stopStage);
+        PipelineConfiguration pipelineConf = previewPipeline.getPipelineConfiguration();
+        output = previewPipeline.replay(previewSessions.getReplayableOutputs(name, rev, settings, pipelineConf));
+        if (output.getBatchesOutput().size() == 1) {
+          previewSessions.put(name, rev, settings, pipelineConf, output.getBatchesOutput().get(0));
+        }
+      } else {
+        output = previewPipeline.run(stagesOverride);
+      }
       changeState(PreviewStatus.FINISHED, new PreviewOutputImpl(PreviewStatus.FINISHED, output.getIssues(),
         output.getBatchesOutput(), null));
     } catch (PipelineRuntimeException e) {
@@ -270,8 +284,15 @@ public class SyncPreviewer implements Previewer {
     SourceOffsetTracker tracker = new PreviewSourceOffsetTracker(null);
     PreviewPipelineRunner runner = new PreviewPipelineRunner(name, rev, runtimeInfo, tracker, batchSize, batches,
       skipTargets);
-    return new PreviewPipelineBuilder(stageLibrary, configuration, name, rev, pipelineConf, endStageInstanceName)
-      .build(runner);
+    return new PreviewPipelineBuilder(
+        stageLibrary,
+        configuration,
+        name,
+        rev,
+        pipelineConf,
+        endStageInstanceName,
+        StageValidationCache.get(runtimeInfo, configuration)
+    ).build(runner);
   }
 
   private RawSourcePreviewer createRawSourcePreviewer(
@@ -475,6 +475,11 @@ public class ClusterRunner extends AbstractRunner {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public List<Record> getErrorRecords(String stage, String errorCode, int offset, int max) {
+    throw new UnsupportedOperationException();
+  }
+
   @Override
   public List<ErrorMessage> getErrorMessages(String stage, int max) {
     throw new UnsupportedOperationException();
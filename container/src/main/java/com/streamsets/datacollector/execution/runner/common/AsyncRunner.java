@@ -178,6 +178,12 @@ public class AsyncRunner implements Runner, PipelineInfo {
     return runner.getErrorRecords(stage, max);
   }
 
+  @Override
+  public List<Record> getErrorRecords(String stage, String errorCode, int offset, int max)
+    throws PipelineRunnerException, PipelineStoreException {
+    return runner.getErrorRecords(stage, errorCode, offset, max);
+  }
+
   @Override
   public List<ErrorMessage> getErrorMessages(String stage, int max) throws PipelineRunnerException,
     PipelineStoreException {
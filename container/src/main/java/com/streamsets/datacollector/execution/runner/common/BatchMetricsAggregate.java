@@ -0,0 +1,173 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.runner.common;
+
+import com.streamsets.datacollector.runner.StagePipe;
+import com.streamsets.datacollector.util.AggregatorUtil;
+import com.streamsets.pipeline.api.Record;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch metrics sent to the statistics aggregator, accumulated in pre-allocated primitive counters.
+ * <p/>
+ * The runner adds every batch and only converts the accumulated values to a metric record when the statistics are
+ * shipped, several batches can be coalesced into a single record whose batch count is the number of batches.
+ * Not thread safe, it is used by the pipeline runner thread only.
+ */
+final class BatchMetricsAggregate {
+  private final StagePipe[] stagePipes;
+  private final String[] stageNames;
+  private final List<List<String>> stageOutputLanes;
+
+  private final long[] processingTime;
+  private final long[] inputRecords;
+  private final long[] outputRecords;
+  private final long[] errorRecords;
+  private final long[] stageErrors;
+  private final long[][] outputRecordsPerLane;
+
+  private int batchCount;
+  private long firstBatchTime;
+  private long batchDuration;
+  private long batchInputRecords;
+  private long batchOutputRecords;
+  private long batchErrorRecords;
+  private long batchErrors;
+
+  BatchMetricsAggregate(List<StagePipe> pipes) {
+    int stages = pipes.size();
+    stagePipes = pipes.toArray(new StagePipe[stages]);
+    stageNames = new String[stages];
+    stageOutputLanes = new ArrayList<>(stages);
+    processingTime = new long[stages];
+    inputRecords = new long[stages];
+    outputRecords = new long[stages];
+    errorRecords = new long[stages];
+    stageErrors = new long[stages];
+    outputRecordsPerLane = new long[stages][];
+    for (int i = 0; i < stages; i++) {
+      stageNames[i] = stagePipes[i].getStage().getInfo().getInstanceName();
+      List<String> lanes = stagePipes[i].getStage().getConfiguration().getOutputLanes();
+      stageOutputLanes.add(lanes);
+      outputRecordsPerLane[i] = new long[lanes.size()];
+    }
+  }
+
+  /**
+   * Adds the metrics of the batch the stage pipes just processed.
+   */
+  void addBatch(long duration, int inputRecords, int outputRecords, int errorRecords, int errors) {
+    if (batchCount == 0) {
+      firstBatchTime = System.currentTimeMillis();
+    }
+    batchCount++;
+    batchDuration += duration;
+    batchInputRecords += inputRecords;
+    batchOutputRecords += outputRecords;
+    batchErrorRecords += errorRecords;
+    batchErrors += errors;
+    for (int i = 0; i < stagePipes.length; i++) {
+      StagePipe pipe = stagePipes[i];
+      processingTime[i] += pipe.getBatchProcessingTime();
+      this.inputRecords[i] += pipe.getBatchInputRecords();
+      this.outputRecords[i] += pipe.getBatchOutputRecords();
+      this.errorRecords[i] += pipe.getBatchErrorRecords();
+      stageErrors[i] += pipe.getBatchStageErrors();
+      int[] laneRecords = pipe.getBatchOutputRecordsPerLane();
+      long[] laneTotals = outputRecordsPerLane[i];
+      for (int j = 0; j < laneTotals.length && j < laneRecords.length; j++) {
+        laneTotals[j] += laneRecords[j];
+      }
+    }
+  }
+
+  int getBatchCount() {
+    return batchCount;
+  }
+
+  /**
+   * Time in milliseconds the first batch not yet converted to a record was added.
+   */
+  long getFirstBatchTime() {
+    return firstBatchTime;
+  }
+
+  /**
+   * Converts the accumulated batches into a metric record and resets the counters.
+   *
+   * @return the metric record or null if no batch was added since the last conversion.
+   */
+  Record toRecord() {
+    if (batchCount == 0) {
+      return null;
+    }
+    Map<String, Object> stageBatchMetrics = new HashMap<>();
+    for (int i = 0; i < stageNames.length; i++) {
+      Map<String, Object> stageMetrics = new HashMap<>();
+      stageMetrics.put(AggregatorUtil.PROCESSING_TIME, processingTime[i]);
+      stageMetrics.put(AggregatorUtil.INPUT_RECORDS, (int) inputRecords[i]);
+      stageMetrics.put(AggregatorUtil.ERROR_RECORDS, (int) errorRecords[i]);
+      stageMetrics.put(AggregatorUtil.OUTPUT_RECORDS, (int) outputRecords[i]);
+      stageMetrics.put(AggregatorUtil.STAGE_ERROR, (int) stageErrors[i]);
+      Map<String, Integer> lanes = new HashMap<>();
+      List<String> laneNames = stageOutputLanes.get(i);
+      for (int j = 0; j < laneNames.size(); j++) {
+        lanes.put(laneNames.get(j), (int) outputRecordsPerLane[i][j]);
+      }
+      stageMetrics.put(AggregatorUtil.OUTPUT_RECORDS_PER_LANE, lanes);
+      stageBatchMetrics.put(stageNames[i], stageMetrics);
+    }
+
+    Map<String, Object> pipelineBatchMetrics = new HashMap<>();
+    pipelineBatchMetrics.put(AggregatorUtil.PIPELINE_BATCH_DURATION, batchDuration);
+    pipelineBatchMetrics.put(AggregatorUtil.BATCH_COUNT, batchCount);
+    pipelineBatchMetrics.put(AggregatorUtil.BATCH_INPUT_RECORDS, (int) batchInputRecords);
+    pipelineBatchMetrics.put(AggregatorUtil.BATCH_OUTPUT_RECORDS, (int) batchOutputRecords);
+    pipelineBatchMetrics.put(AggregatorUtil.BATCH_ERROR_RECORDS, (int) batchErrorRecords);
+    pipelineBatchMetrics.put(AggregatorUtil.BATCH_ERRORS, (int) batchErrors);
+    pipelineBatchMetrics.put(AggregatorUtil.STAGE_BATCH_METRICS, stageBatchMetrics);
+    Record record = AggregatorUtil.createMetricRecord(pipelineBatchMetrics);
+    reset();
+    return record;
+  }
+
+  private void reset() {
+    batchCount = 0;
+    batchDuration = 0;
+    batchInputRecords = 0;
+    batchOutputRecords = 0;
+    batchErrorRecords = 0;
+    batchErrors = 0;
+    for (int i = 0; i < stageNames.length; i++) {
+      processingTime[i] = 0;
+      inputRecords[i] = 0;
+      outputRecords[i] = 0;
+      errorRecords[i] = 0;
+      stageErrors[i] = 0;
+      for (int j = 0; j < outputRecordsPerLane[i].length; j++) {
+        outputRecordsPerLane[i][j] = 0;
+      }
+    }
+  }
+}
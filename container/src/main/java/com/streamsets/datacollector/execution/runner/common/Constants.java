@@ -38,6 +38,14 @@ public class Constants {
   public static final int MAX_ERROR_RECORDS_PER_STAGE_DEFAULT = 100;
   public static final String MAX_PIPELINE_ERRORS_KEY = "production.maxPipelineErrors";
   public static final int MAX_PIPELINE_ERRORS_DEFAULT = 100;
+  public static final String ERROR_STORE_ENABLED_KEY = "production.errorStore.enabled";
+  public static final boolean ERROR_STORE_ENABLED_DEFAULT = false;
+  public static final String ERROR_STORE_MAX_SIZE_MB_KEY = "production.errorStore.maxSizeMB";
+  public static final int ERROR_STORE_MAX_SIZE_MB_DEFAULT = 512;
+  public static final String ERROR_STORE_RETENTION_HOURS_KEY = "production.errorStore.retentionHours";
+  public static final int ERROR_STORE_RETENTION_HOURS_DEFAULT = 24;
+  public static final String ERROR_STORE_MAX_PENDING_KEY = "production.errorStore.maxPending";
+  public static final int ERROR_STORE_MAX_PENDING_DEFAULT = 100000;
   public static final String OBSERVER_QUEUE_SIZE_KEY = "observer.queue.size";
   public static final int OBSERVER_QUEUE_SIZE_DEFAULT = 100;
   public static final String SNAPSHOT_MAX_BATCH_SIZE_KEY = "snapshot.maxBatchSize";
@@ -51,6 +59,10 @@ public class Constants {
   public static final int STATS_AGGREGATOR_QUEUE_SIZE_DEFAULT = 1000;
   public static final String MAX_STATS_REQUEST_OFFER_WAIT_TIME_MS_KEY = "stats.queue.offer.max.wait.time.ms";
   public static final int MAX_STATS_REQUEST_OFFER_WAIT_TIME_MS_DEFAULT = 0;
+  public static final String STATS_AGGREGATOR_COALESCE_BATCHES_KEY = "stats.aggregator.coalesce.batches";
+  public static final int STATS_AGGREGATOR_COALESCE_BATCHES_DEFAULT = 1;
+  public static final String STATS_AGGREGATOR_COALESCE_INTERVAL_MS_KEY = "stats.aggregator.coalesce.interval.ms";
+  public static final long STATS_AGGREGATOR_COALESCE_INTERVAL_MS_DEFAULT = 5000;
 
   public static final String STOP_PIPELINE_MESSAGE = "Requested via REST API";
 
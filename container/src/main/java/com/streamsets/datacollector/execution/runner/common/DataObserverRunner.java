@@ -58,6 +58,8 @@ public class DataObserverRunner {
   private MetricRegistryJson metricRegistryJson;
   private final Map<String, Object> pipelineELContext;
   private BlockingQueue<Record> startsAggregatorQueue;
+  // Evaluators of the current rules configuration by rule id, discarded on every configuration change
+  private final Map<String, DataRuleEvaluator> ruleIdToEvaluatorMap;
 
   public DataObserverRunner(String name, String rev, MetricRegistry metrics, AlertManager alertManager,
                             Configuration configuration) {
@@ -68,10 +70,12 @@ public class DataObserverRunner {
     this.name = name;
     this.rev = rev;
     this.pipelineELContext = new HashMap<>();
+    this.ruleIdToEvaluatorMap = new HashMap<>();
   }
 
   public void setStatsQueue(BlockingQueue<Record> startsAggregatorQueue) {
     this.startsAggregatorQueue = startsAggregatorQueue;
+    ruleIdToEvaluatorMap.clear();
   }
 
   public void handleDataRulesEvaluationRequest(DataRulesEvaluationRequest dataRulesEvaluationRequest) {
@@ -89,19 +93,7 @@ public class DataObserverRunner {
           List<Record> sampledRecords = ruleIdToSampledRecords.get(dataRuleDefinition.getId());
           if(dataRuleDefinition.isEnabled()  && sampledRecords != null && sampledRecords.size() > 0) {
             //evaluate rule only if it is enabled and there are sampled records.
-            DataRuleEvaluator dataRuleEvaluator = new DataRuleEvaluator(
-                name,
-                rev,
-                metrics,
-                alertManager,
-                rulesConfigurationChangeRequest.getRuleDefinitions().getEmailIds(),
-                pipelineELContext,
-                dataRuleDefinition,
-                configuration,
-                metricRegistryJson,
-                startsAggregatorQueue
-            );
-            dataRuleEvaluator.evaluateRule(sampledRecords, lane, ruleToSampledRecordsMap);
+            getDataRuleEvaluator(dataRuleDefinition).evaluateRule(sampledRecords, lane, ruleToSampledRecordsMap);
           } else if (!dataRuleDefinition.isEnabled()) {
             //If data rule is disabled, clear the sampled records for that rule
             EvictingQueue<SampledRecord> records = ruleToSampledRecordsMap.get(dataRuleDefinition.getId());
@@ -114,9 +106,43 @@ public class DataObserverRunner {
     }
   }
 
+  private DataRuleEvaluator getDataRuleEvaluator(DataRuleDefinition dataRuleDefinition) {
+    DataRuleEvaluator dataRuleEvaluator = ruleIdToEvaluatorMap.get(dataRuleDefinition.getId());
+    if (dataRuleEvaluator == null) {
+      dataRuleEvaluator = new DataRuleEvaluator(
+          name,
+          rev,
+          metrics,
+          alertManager,
+          rulesConfigurationChangeRequest.getRuleDefinitions().getEmailIds(),
+          pipelineELContext,
+          dataRuleDefinition,
+          configuration,
+          metricRegistryJson,
+          startsAggregatorQueue
+      );
+      ruleIdToEvaluatorMap.put(dataRuleDefinition.getId(), dataRuleEvaluator);
+    }
+    return dataRuleEvaluator;
+  }
+
   public void handleConfigurationChangeRequest(RulesConfigurationChangeRequest rulesConfigurationChangeRequest) {
     //update config changes
     this.rulesConfigurationChangeRequest = rulesConfigurationChangeRequest;
+    //evaluators hold the rule definitions and email ids, they are recreated on demand with the new configuration
+    ruleIdToEvaluatorMap.clear();
+
+    //clear the sampled records of disabled rules, batches with no enabled rules are not sent for evaluation
+    if (rulesConfigurationChangeRequest.getLaneToDataRuleMap() != null) {
+      for (List<DataRuleDefinition> definitions : rulesConfigurationChangeRequest.getLaneToDataRuleMap().values()) {
+        for (DataRuleDefinition dataRuleDefinition : definitions) {
+          EvictingQueue<SampledRecord> records = ruleToSampledRecordsMap.get(dataRuleDefinition.getId());
+          if (!dataRuleDefinition.isEnabled() && records != null) {
+            records.clear();
+          }
+        }
+      }
+    }
 
     //remove metrics for changed / deleted rules
     for(String ruleId : rulesConfigurationChangeRequest.getRulesToRemove().keySet()) {
@@ -190,6 +216,12 @@ public class DataObserverRunner {
 
   public void setMetricRegistryJson(MetricRegistryJson metricRegistryJson) {
     this.metricRegistryJson = metricRegistryJson;
+    ruleIdToEvaluatorMap.clear();
+  }
+
+  @VisibleForTesting
+  int getDataRuleEvaluatorCount() {
+    return ruleIdToEvaluatorMap.size();
   }
 
 }
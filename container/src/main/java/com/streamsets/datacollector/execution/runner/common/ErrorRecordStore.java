@@ -0,0 +1,458 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.runner.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
+import com.streamsets.datacollector.restapi.bean.BeanHelper;
+import com.streamsets.datacollector.restapi.bean.ErrorMessageJson;
+import com.streamsets.datacollector.restapi.bean.RecordJson;
+import com.streamsets.datacollector.util.Configuration;
+import com.streamsets.datacollector.util.PipelineDirectoryUtil;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.impl.ErrorMessage;
+import com.streamsets.pipeline.api.impl.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the error records and error messages of a pipeline run on disk.
+ * <p/>
+ * Errors are appended to size bounded segment files as length prefixed JSON, the positions are indexed in memory
+ * per stage and, for error records, per error code. Oldest segments are deleted once the store exceeds its size or
+ * retention time. {@link #append(Map, Map)} only queues the errors, they are written by the store's background
+ * thread and by the readers, which flush the queue before reading.
+ * <p/>
+ * {@link #init()} must be called before the run starts and {@link #close()} once it ends, the errors remain readable
+ * after closing.
+ */
+public class ErrorRecordStore {
+  private static final Logger LOG = LoggerFactory.getLogger(ErrorRecordStore.class);
+
+  static final String ERRORS_DIR = "errors";
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final long SEGMENT_SIZE = 16 * 1024 * 1024;
+  private static final long FLUSH_DELAY_MILLIS = 1000;
+  // positions are the segment id in the high bits and the offset in the segment in the low bits
+  private static final int OFFSET_BITS = 40;
+  private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+
+  private final File dir;
+  private final long segmentSize;
+  private final long maxSize;
+  private final long retentionMillis;
+  private final int maxPending;
+  private final ObjectMapper json;
+
+  private final ConcurrentLinkedQueue<Entry> pending = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pendingCount = new AtomicInteger();
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong droppedSinceFlush = new AtomicLong();
+  private volatile ScheduledExecutorService writer;
+
+  // guarded by this
+  private final Deque<Segment> segments = new ArrayDeque<>();
+  private final Map<String, Positions> recordIndex = new HashMap<>();
+  private final Map<String, Map<String, Positions>> recordsByErrorCodeIndex = new HashMap<>();
+  private final Map<String, Positions> messageIndex = new HashMap<>();
+  private long nextSegmentId;
+  private long totalSize;
+
+  public ErrorRecordStore(File pipelineDir, Configuration configuration) {
+    this(
+        new File(new File(pipelineDir, ERRORS_DIR), String.valueOf(System.currentTimeMillis())),
+        SEGMENT_SIZE,
+        configuration.get(Constants.ERROR_STORE_MAX_SIZE_MB_KEY, Constants.ERROR_STORE_MAX_SIZE_MB_DEFAULT)
+            * 1024L * 1024,
+        TimeUnit.HOURS.toMillis(
+            configuration.get(Constants.ERROR_STORE_RETENTION_HOURS_KEY, Constants.ERROR_STORE_RETENTION_HOURS_DEFAULT)
+        ),
+        configuration.get(Constants.ERROR_STORE_MAX_PENDING_KEY, Constants.ERROR_STORE_MAX_PENDING_DEFAULT)
+    );
+  }
+
+  @VisibleForTesting
+  ErrorRecordStore(File dir, long segmentSize, long maxSize, long retentionMillis, int maxPending) {
+    this.dir = dir;
+    this.segmentSize = segmentSize;
+    this.maxSize = maxSize;
+    this.retentionMillis = retentionMillis;
+    this.maxPending = maxPending;
+    json = ObjectMapperFactory.getOneLine();
+  }
+
+  /**
+   * Removes the errors of the previous runs of the pipeline, creates the run directory and starts the writer.
+   */
+  public void init() throws IOException {
+    // errors of previous runs are not kept, as it was done with the in memory queues
+    File[] previousRuns = dir.getParentFile().listFiles();
+    if (previousRuns != null) {
+      for (File previousRun : previousRuns) {
+        PipelineDirectoryUtil.deleteAll(previousRun);
+      }
+    }
+    if (!dir.mkdirs()) {
+      throw new IOException(Utils.format("Could not create directory '{}'", dir.getAbsolutePath()));
+    }
+    writer = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("Error Record Store Writer").setDaemon(true).build()
+    );
+  }
+
+  /**
+   * Stops the writer and writes the errors still queued.
+   */
+  public void close() {
+    ScheduledExecutorService executor = writer;
+    writer = null;
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+    flush();
+  }
+
+  /**
+   * Queues the errors of a batch, never blocks. Errors are dropped if the writer falls too far behind.
+   */
+  public void append(Map<String, List<Record>> errorRecords, Map<String, List<ErrorMessage>> errorMessages) {
+    for (Map.Entry<String, List<Record>> e : errorRecords.entrySet()) {
+      for (Record record : e.getValue()) {
+        offer(new Entry(e.getKey(), record, null));
+      }
+    }
+    for (Map.Entry<String, List<ErrorMessage>> e : errorMessages.entrySet()) {
+      for (ErrorMessage errorMessage : e.getValue()) {
+        offer(new Entry(e.getKey(), null, errorMessage));
+      }
+    }
+    ScheduledExecutorService executor = writer;
+    if (executor != null && pendingCount.get() > 0 && flushScheduled.compareAndSet(false, true)) {
+      try {
+        executor.schedule(new Runnable() {
+          @Override
+          public void run() {
+            flushScheduled.set(false);
+            flush();
+          }
+        }, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException ex) {
+        // closed meanwhile, the close or the next read writes the errors
+        flushScheduled.set(false);
+      }
+    }
+  }
+
+  private void offer(Entry entry) {
+    if (pendingCount.incrementAndGet() > maxPending) {
+      pendingCount.decrementAndGet();
+      dropped.incrementAndGet();
+      droppedSinceFlush.incrementAndGet();
+    } else {
+      pending.add(entry);
+    }
+  }
+
+  /**
+   * Returns a page of the error records of a stage, oldest first.
+   *
+   * @param stage stage instance name.
+   * @param errorCode only return records with this error code, all records if null.
+   * @param offset number of most recent records to skip.
+   * @param max maximum number of records to return.
+   */
+  public synchronized List<Record> getErrorRecords(String stage, String errorCode, int offset, int max) {
+    flush();
+    Positions positions;
+    if (errorCode == null) {
+      positions = recordIndex.get(stage);
+    } else {
+      Map<String, Positions> byErrorCode = recordsByErrorCodeIndex.get(stage);
+      positions = byErrorCode == null ? null : byErrorCode.get(errorCode);
+    }
+    List<Record> records = new ArrayList<>();
+    for (RecordJson recordJson : read(positions, offset, max, RecordJson.class)) {
+      records.add(recordJson.getRecord());
+    }
+    return records;
+  }
+
+  /**
+   * Returns the most recent error messages of a stage, oldest first.
+   */
+  public synchronized List<ErrorMessage> getErrorMessages(String stage, int max) {
+    flush();
+    return read(messageIndex.get(stage), 0, max, ErrorMessage.class);
+  }
+
+  public synchronized int getErrorRecordCount(String stage) {
+    flush();
+    Positions positions = recordIndex.get(stage);
+    return positions == null ? 0 : positions.size();
+  }
+
+  /**
+   * Number of errors dropped because the writer could not keep up.
+   */
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+
+  private <T> List<T> read(Positions positions, int offset, int max, Class<T> klass) {
+    if (positions == null || positions.size() <= offset || max <= 0) {
+      return Collections.emptyList();
+    }
+    int end = positions.size() - offset;
+    int start = Math.max(0, end - max);
+    List<T> values = new ArrayList<>(end - start);
+    RandomAccessFile file = null;
+    long fileSegmentId = -1;
+    try {
+      for (int i = start; i < end; i++) {
+        long position = positions.get(i);
+        long segmentId = position >>> OFFSET_BITS;
+        if (segmentId != fileSegmentId) {
+          if (file != null) {
+            file.close();
+          }
+          file = new RandomAccessFile(getSegmentFile(segmentId), "r");
+          fileSegmentId = segmentId;
+        }
+        file.seek(position & OFFSET_MASK);
+        byte[] bytes = new byte[file.readInt()];
+        file.readFully(bytes);
+        values.add(json.readValue(bytes, klass));
+      }
+    } catch (IOException ex) {
+      LOG.warn("Could not read errors from '{}': {}", dir, ex.toString(), ex);
+    } finally {
+      if (file != null) {
+        try {
+          file.close();
+        } catch (IOException ex) {
+          LOG.debug("Could not close error segment: {}", ex.toString(), ex);
+        }
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Writes the queued errors and applies the retention policy.
+   */
+  @VisibleForTesting
+  synchronized void flush() {
+    long droppedCount = droppedSinceFlush.getAndSet(0);
+    if (droppedCount > 0) {
+      LOG.warn("Dropped {} errors, the error store could not keep up", droppedCount);
+    }
+    if (!pending.isEmpty()) {
+      if (!dir.exists()) {
+        // a newer run of the pipeline took over the errors directory
+        pending.clear();
+        pendingCount.set(0);
+        return;
+      }
+      DataOutputStream out = null;
+      Segment segment = segments.peekLast();
+      try {
+        Entry entry;
+        while ((entry = pending.poll()) != null) {
+          pendingCount.decrementAndGet();
+          byte[] bytes = json.writeValueAsBytes(
+              entry.record != null ? BeanHelper.wrapRecord(entry.record) : new ErrorMessageJson(entry.errorMessage)
+          );
+          if (segment == null || (segment.size > 0 && segment.size + 4 + bytes.length > segmentSize)) {
+            if (out != null) {
+              out.close();
+            }
+            segment = new Segment(nextSegmentId++);
+            segments.addLast(segment);
+            out = null;
+          }
+          if (out == null) {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(segment.file, true)));
+          }
+          index(entry, (segment.id << OFFSET_BITS) | segment.size);
+          out.writeInt(bytes.length);
+          out.write(bytes);
+          segment.size += 4 + bytes.length;
+          totalSize += 4 + bytes.length;
+          segment.lastWrite = System.currentTimeMillis();
+        }
+      } catch (IOException ex) {
+        LOG.warn("Could not write errors to '{}': {}", dir, ex.toString(), ex);
+      } finally {
+        if (out != null) {
+          try {
+            out.close();
+          } catch (IOException ex) {
+            LOG.warn("Could not write errors to '{}': {}", dir, ex.toString(), ex);
+          }
+        }
+      }
+    }
+    applyRetention();
+  }
+
+  private void index(Entry entry, long position) {
+    if (entry.record != null) {
+      getPositions(recordIndex, entry.stage).add(position);
+      String errorCode = entry.record.getHeader().getErrorCode();
+      if (errorCode != null) {
+        Map<String, Positions> byErrorCode = recordsByErrorCodeIndex.get(entry.stage);
+        if (byErrorCode == null) {
+          byErrorCode = new HashMap<>();
+          recordsByErrorCodeIndex.put(entry.stage, byErrorCode);
+        }
+        getPositions(byErrorCode, errorCode).add(position);
+      }
+    } else {
+      getPositions(messageIndex, entry.stage).add(position);
+    }
+  }
+
+  private static Positions getPositions(Map<String, Positions> index, String key) {
+    Positions positions = index.get(key);
+    if (positions == null) {
+      positions = new Positions();
+      index.put(key, positions);
+    }
+    return positions;
+  }
+
+  private void applyRetention() {
+    long expired = System.currentTimeMillis() - retentionMillis;
+    boolean deleted = false;
+    while (!segments.isEmpty() && (totalSize > maxSize || segments.peekFirst().lastWrite < expired)) {
+      Segment segment = segments.removeFirst();
+      totalSize -= segment.size;
+      if (!segment.file.delete()) {
+        LOG.warn("Could not delete error segment '{}'", segment.file);
+      }
+      deleted = true;
+    }
+    if (deleted) {
+      long firstPosition = segments.isEmpty() ? Long.MAX_VALUE : segments.peekFirst().id << OFFSET_BITS;
+      trim(recordIndex, firstPosition);
+      trim(messageIndex, firstPosition);
+      for (Map<String, Positions> byErrorCode : recordsByErrorCodeIndex.values()) {
+        trim(byErrorCode, firstPosition);
+      }
+    }
+  }
+
+  private static void trim(Map<String, Positions> index, long firstPosition) {
+    for (Positions positions : index.values()) {
+      positions.removeBefore(firstPosition);
+    }
+  }
+
+  private File getSegmentFile(long id) {
+    return new File(dir, SEGMENT_PREFIX + id);
+  }
+
+  private static class Entry {
+    private final String stage;
+    private final Record record;
+    private final ErrorMessage errorMessage;
+
+    Entry(String stage, Record record, ErrorMessage errorMessage) {
+      this.stage = stage;
+      this.record = record;
+      this.errorMessage = errorMessage;
+    }
+  }
+
+  private class Segment {
+    private final long id;
+    private final File file;
+    private long size;
+    private long lastWrite;
+
+    Segment(long id) {
+      this.id = id;
+      this.file = getSegmentFile(id);
+    }
+  }
+
+  /**
+   * Growable list of ascending positions, 8 bytes per indexed error.
+   */
+  private static class Positions {
+    private long[] values = new long[16];
+    private int start;
+    private int end;
+
+    int size() {
+      return end - start;
+    }
+
+    long get(int i) {
+      return values[start + i];
+    }
+
+    void add(long position) {
+      if (end == values.length) {
+        if (start > values.length / 2) {
+          System.arraycopy(values, start, values, 0, end - start);
+          end -= start;
+          start = 0;
+        } else {
+          values = Arrays.copyOf(values, values.length * 2);
+        }
+      }
+      values[end++] = position;
+    }
+
+    void removeBefore(long position) {
+      while (start < end && values[start] < position) {
+        start++;
+      }
+    }
+  }
+
+}
@@ -19,8 +19,11 @@
  */
 package com.streamsets.datacollector.execution.runner.common;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.annotations.VisibleForTesting;
 import com.streamsets.datacollector.config.DataRuleDefinition;
+import com.streamsets.datacollector.metrics.MetricsConfigurator;
 import com.streamsets.datacollector.record.RecordImpl;
 import com.streamsets.datacollector.runner.Observer;
 import com.streamsets.datacollector.runner.Pipe;
@@ -33,6 +36,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -48,6 +52,8 @@ import java.util.concurrent.TimeUnit;
 public class ProductionObserver implements Observer {
 
   private static final Logger LOG = LoggerFactory.getLogger(ProductionObserver.class);
+  private static final String DROPPED_REQUESTS_COUNTER = "observer.droppedRequests";
+  private static final String DROPPED_RECORDS_COUNTER = "observer.droppedRecords";
 
   private final com.streamsets.datacollector.util.Configuration configuration;
   private BlockingQueue<Object> observeRequests;
@@ -71,10 +77,40 @@ public class ProductionObserver implements Observer {
   /*Contains integers between 0 and 99 and n random numbers are selected by shuffling this list and picking the first
   n*/
   private final List<Integer> randomNumberSampleSpace;
+  /*Data rules evaluation requests, and the sampled records they carried, dropped because the observer queue was full*/
+  private final Counter droppedRequestsCounter;
+  private final Counter droppedRecordsCounter;
 
   @Inject
+  public ProductionObserver(
+      @Named("name") String name,
+      @Named("rev") String rev,
+      Configuration configuration,
+      MetricsObserverRunner metricsObserverRunner,
+      MetricRegistry metrics
+  ) {
+    this(
+        configuration,
+        metricsObserverRunner,
+        MetricsConfigurator.createCounter(metrics, DROPPED_REQUESTS_COUNTER, name, rev),
+        MetricsConfigurator.createCounter(metrics, DROPPED_RECORDS_COUNTER, name, rev)
+    );
+  }
+
+  @VisibleForTesting
   public ProductionObserver(Configuration configuration, MetricsObserverRunner metricsObserverRunner) {
+    this(configuration, metricsObserverRunner, new Counter(), new Counter());
+  }
+
+  private ProductionObserver(
+      Configuration configuration,
+      MetricsObserverRunner metricsObserverRunner,
+      Counter droppedRequestsCounter,
+      Counter droppedRecordsCounter
+  ) {
     this.configuration = configuration;
+    this.droppedRequestsCounter = droppedRequestsCounter;
+    this.droppedRecordsCounter = droppedRecordsCounter;
     this.metricsObserverRunner = metricsObserverRunner;
     this.laneToMaxRecordIndexMap = new HashMap<>();
     this.ruleIdToRecordIndexMap = new HashMap<>();
@@ -123,19 +159,25 @@ public class ProductionObserver implements Observer {
     Map<String, Map<String, List<Record>>> laneToRecordsMap = new HashMap<>();
     Map<String, List<Record>> ruleIdToRecordsMap = new HashMap<>();
     Map<String, Integer> laneToRecordsSizeMap = new HashMap<>();
+    int sampledRecordCount = 0;
     for(Map.Entry<String, List<Record>> entry : snapshot.entrySet()) {
       String lane = entry.getKey();
       List<Record> allRecords = entry.getValue();
       laneToRecordsSizeMap.put(lane, allRecords.size());
       List<DataRuleDefinition> dataRuleDefinitions = currentConfig.getLaneToDataRuleMap().get(lane);
-      if(dataRuleDefinitions != null) {
+      if(dataRuleDefinitions != null && hasEnabledRule(dataRuleDefinitions)) {
         Map<String, List<Record>> sampleRecords = getSampleRecords(dataRuleDefinitions, allRecords, lane);
         for(Map.Entry<String, List<Record>> e : sampleRecords.entrySet()) {
           ruleIdToRecordsMap.put(e.getKey(), e.getValue());
+          sampledRecordCount += e.getValue().size();
         }
       }
       laneToRecordsMap.put(lane, ruleIdToRecordsMap);
     }
+    if (sampledRecordCount == 0) {
+      //nothing to evaluate, don't take a slot in the observer queue
+      return;
+    }
     boolean offered;
     try {
       offered = observeRequests.offer(new DataRulesEvaluationRequest(laneToRecordsMap, laneToRecordsSizeMap),
@@ -145,12 +187,31 @@ public class ProductionObserver implements Observer {
       offered = false;
     }
     if(!offered) {
+      droppedRequestsCounter.inc();
+      droppedRecordsCounter.inc(sampledRecordCount);
       LOG.error("Dropping DataRules Evaluation Request as observer queue is full. " +
         "Please resize the observer queue or decrease the sampling percentage.");
       //reconfigure queue size or tune sampling %
     }
   }
 
+  private static boolean hasEnabledRule(List<DataRuleDefinition> dataRuleDefinitions) {
+    for (DataRuleDefinition dataRuleDefinition : dataRuleDefinitions) {
+      if (dataRuleDefinition.isEnabled()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public long getDroppedRequestCount() {
+    return droppedRequestsCounter.getCount();
+  }
+
+  public long getDroppedRecordCount() {
+    return droppedRecordsCounter.getCount();
+  }
+
   @Override
   public void setConfiguration(RulesConfigurationChangeRequest rulesConfigurationChangeRequest) {
     this.newConfig = rulesConfigurationChangeRequest;
@@ -185,6 +246,7 @@ public class ProductionObserver implements Observer {
 
       rule 2 will pick up M numbers from the set of N numbers generated for rule1.
       This way we clone only N% of records and both rules share the same cloned records.
+      Disabled rules are not evaluated, they don't take part in the sampling and their records are not cloned.
 
       rule1 evaluates all sampled records and rule2 will evaluate its share of records from the same list.
 
@@ -226,9 +288,12 @@ public class ProductionObserver implements Observer {
     //Go over all records for this lane and determine if it needs to be cloned.
     for(Record record : allRecords) {
       if(recordIndexToPickup.contains(recordCounter)) {
-        //needs to be cloned
-        Record recordClone = ((RecordImpl) record).clone();
+        //cloned once, the first time an enabled rule picks it up, as downstream stages may modify the record
+        Record recordClone = null;
         for(DataRuleDefinition d : dataRuleDefinitions) {
+          if (!d.isEnabled()) {
+            continue;
+          }
           //for every rule in this lane, check the integers generated for it to see if this record needs to be
           //sampled
           Set<Integer> recordsToPickup;
@@ -248,6 +313,9 @@ public class ProductionObserver implements Observer {
               sampledRecords = new ArrayList<>();
               sampledRecordsMap.put(d.getId(), sampledRecords);
             }
+            if (recordClone == null) {
+              recordClone = ((RecordImpl) record).clone();
+            }
             sampledRecords.add(recordClone);
           }
         }
@@ -272,7 +340,7 @@ public class ProductionObserver implements Observer {
     //Max percentage
     double percentage = 0;
     for(DataRuleDefinition dataRuleDefinition : dataRuleDefinitions) {
-      if (dataRuleDefinition.getSamplingPercentage() > percentage) {
+      if (dataRuleDefinition.isEnabled() && dataRuleDefinition.getSamplingPercentage() > percentage) {
         percentage = dataRuleDefinition.getSamplingPercentage();
       }
     }
@@ -215,6 +215,10 @@ public class ProductionPipeline {
     return pipelineRunner.getErrorRecords(instanceName, size);
   }
 
+  public List<Record> getErrorRecords(String instanceName, String errorCode, int offset, int size) {
+    return pipelineRunner.getErrorRecords(instanceName, errorCode, offset, size);
+  }
+
   public List<ErrorMessage> getErrorMessages(String instanceName, int size) {
     return pipelineRunner.getErrorMessages(instanceName, size);
   }
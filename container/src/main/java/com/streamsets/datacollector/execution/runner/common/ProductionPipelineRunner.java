@@ -60,6 +60,7 @@ import com.streamsets.datacollector.runner.production.PipelineErrorNotificationR
 import com.streamsets.datacollector.runner.production.StatsAggregationHandler;
 import com.streamsets.datacollector.util.AggregatorUtil;
 import com.streamsets.datacollector.util.ContainerError;
+import com.streamsets.datacollector.util.PipelineDirectoryUtil;
 import com.streamsets.datacollector.util.PipelineException;
 import com.streamsets.pipeline.api.ErrorListener;
 import com.streamsets.pipeline.api.OffsetCommitTrigger;
@@ -74,6 +75,7 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -101,6 +103,11 @@ public class ProductionPipelineRunner implements PipelineRunner {
   private final String revision;
 
   private final Timer batchProcessingTimer;
+  // batch latency and its breakdown by stage type, null if latency histograms are disabled
+  private final Timer batchLatencyTimer;
+  private final Timer batchOriginLatencyTimer;
+  private final Timer batchProcessorsLatencyTimer;
+  private final Timer batchTargetsLatencyTimer;
   private final Meter batchCountMeter;
   private final Histogram batchInputRecordsHistogram;
   private final Histogram batchOutputRecordsHistogram;
@@ -132,12 +139,17 @@ public class ProductionPipelineRunner implements PipelineRunner {
   private BlockingQueue<Object> observeRequests;
   private Observer observer;
   private BlockingQueue<Record> statsAggregatorRequests;
+  // batch metrics not yet sent to the statistics aggregator, created on the first batch
+  private BatchMetricsAggregate batchMetricsAggregate;
   private final List<BatchListener> batchListenerList = new CopyOnWriteArrayList<>();
   private final Object errorRecordsMutex;
+  /*Keeps errors on disk instead of in the queues above, null if disabled*/
+  private final ErrorRecordStore errorRecordStore;
   private MemoryLimitConfiguration memoryLimitConfiguration;
   private long lastMemoryLimitNotification;
   private ThreadHealthReporter threadHealthReporter;
-  private final List<List<StageOutput>> capturedBatches = new ArrayList<>();
+  /*number of batches of the snapshot in progress already written to the snapshot store*/
+  private int capturedBatches;
 
   @Inject
   public ProductionPipelineRunner(@Named("name") String pipelineName, @Named ("rev") String revision,
@@ -154,9 +166,32 @@ public class ProductionPipelineRunner implements PipelineRunner {
     stageToErrorRecordsMap = new HashMap<>();
     stageToErrorMessagesMap = new HashMap<>();
     errorRecordsMutex = new Object();
+    if (configuration.get(Constants.ERROR_STORE_ENABLED_KEY, Constants.ERROR_STORE_ENABLED_DEFAULT)) {
+      errorRecordStore = new ErrorRecordStore(
+          PipelineDirectoryUtil.getPipelineDir(runtimeInfo, pipelineName, revision),
+          configuration
+      );
+    } else {
+      errorRecordStore = null;
+    }
 
     MetricsConfigurator.registerPipeline(pipelineName, revision);
     batchProcessingTimer = MetricsConfigurator.createTimer(metrics, "pipeline.batchProcessing", pipelineName, revision);
+    if (configuration.get(StagePipe.LATENCY_HISTOGRAMS_KEY, StagePipe.LATENCY_HISTOGRAMS_DEFAULT)) {
+      batchLatencyTimer = MetricsConfigurator.createLatencyTimer(metrics, "pipeline.batchLatency", pipelineName,
+        revision);
+      batchOriginLatencyTimer = MetricsConfigurator.createLatencyTimer(metrics, "pipeline.batchOriginLatency",
+        pipelineName, revision);
+      batchProcessorsLatencyTimer = MetricsConfigurator.createLatencyTimer(metrics, "pipeline.batchProcessorsLatency",
+        pipelineName, revision);
+      batchTargetsLatencyTimer = MetricsConfigurator.createLatencyTimer(metrics, "pipeline.batchTargetsLatency",
+        pipelineName, revision);
+    } else {
+      batchLatencyTimer = null;
+      batchOriginLatencyTimer = null;
+      batchProcessorsLatencyTimer = null;
+      batchTargetsLatencyTimer = null;
+    }
     batchCountMeter = MetricsConfigurator.createMeter(metrics, "pipeline.batchCount", pipelineName, revision);
     batchInputRecordsHistogram = MetricsConfigurator.createHistogram5Min(metrics, "pipeline.inputRecordsPerBatch",
       pipelineName, revision);
@@ -263,25 +298,45 @@ public class ProductionPipelineRunner implements PipelineRunner {
 
     OffsetCommitTrigger offsetCommitTrigger = getOffsetCommitTrigger(pipes);
 
-    while (!offsetTracker.isFinished() && !stop) {
-      if (threadHealthReporter != null) {
-        threadHealthReporter.reportHealth(ProductionPipelineRunnable.RUNNABLE_NAME, -1, System.currentTimeMillis());
-      }
+    if (errorRecordStore != null) {
       try {
-        for (BatchListener batchListener : batchListenerList) {
-          batchListener.preBatch();
+        errorRecordStore.init();
+      } catch (IOException ex) {
+        throw new PipelineRuntimeException(ContainerError.CONTAINER_0702, ex.toString(), ex);
+      }
+    }
+    try {
+      while (!offsetTracker.isFinished() && !stop) {
+        if (threadHealthReporter != null) {
+          threadHealthReporter.reportHealth(ProductionPipelineRunnable.RUNNABLE_NAME, -1, System.currentTimeMillis());
         }
-        runBatch(pipes, badRecordsHandler, statsAggregationHandler, offsetCommitTrigger);
-        for (BatchListener batchListener : batchListenerList) {
-          batchListener.postBatch();
+        try {
+          for (BatchListener batchListener : batchListenerList) {
+            batchListener.preBatch();
+          }
+          runBatch(pipes, badRecordsHandler, statsAggregationHandler, offsetCommitTrigger);
+          for (BatchListener batchListener : batchListenerList) {
+            batchListener.postBatch();
+          }
+        } catch (Throwable throwable) {
+          sendPipelineErrorNotificationRequest(throwable);
+          errorNotification(pipes, throwable);
+          Throwables.propagateIfInstanceOf(throwable, StageException.class);
+          Throwables.propagateIfInstanceOf(throwable, PipelineRuntimeException.class);
+          Throwables.propagate(throwable);
         }
-      } catch (Throwable throwable) {
-        sendPipelineErrorNotificationRequest(throwable);
-        errorNotification(pipes, throwable);
-        Throwables.propagateIfInstanceOf(throwable, StageException.class);
-        Throwables.propagateIfInstanceOf(throwable, PipelineRuntimeException.class);
-        Throwables.propagate(throwable);
       }
+    } finally {
+      if (errorRecordStore != null) {
+        errorRecordStore.close();
+      }
+    }
+    // ship the batches still being coalesced
+    if (isStatsAggregationEnabled() && batchMetricsAggregate != null && batchMetricsAggregate.getBatchCount() > 0) {
+      AggregatorUtil.enqueStatsRecord(batchMetricsAggregate.toRecord(), statsAggregatorRequests, configuration);
+      List<Record> stats = new ArrayList<>();
+      statsAggregatorRequests.drainTo(stats);
+      statsAggregationHandler.handle(sourceOffset, stats);
     }
   }
 
@@ -360,7 +415,7 @@ public class ProductionPipelineRunner implements PipelineRunner {
     synchronized (this) {
       this.snapshotBatchSize = 0;
       this.batchesToCapture = 0;
-      capturedBatches.clear();
+      capturedBatches = 0;
     }
   }
 
@@ -389,10 +444,14 @@ public class ProductionPipelineRunner implements PipelineRunner {
     }
     ((FullPipeBatch) pipeBatch).setRateLimiter(rateLimiter);
     long start = System.currentTimeMillis();
+    long startNanos = System.nanoTime();
+    // time spent in the origin (including waiting for data), in processors and in destinations
+    long originNanos = 0;
+    long processorsNanos = 0;
+    long targetsNanos = 0;
     sourceOffset = pipeBatch.getPreviousOffset();
     long lastBatchTime = offsetTracker.getLastBatchTime();
     Map<String, Long> memoryConsumedByStage = new HashMap<>();
-    Map<String, Object> stageBatchMetrics = new HashMap<>();
     for (Pipe pipe : pipes) {
       //set the last batch time in the stage context of each pipe
       ((StageContext)pipe.getStage().getContext()).setLastBatchTime(lastBatchTime);
@@ -406,8 +465,17 @@ public class ProductionPipelineRunner implements PipelineRunner {
       pipe.process(pipeBatch);
       if (pipe instanceof StagePipe) {
         memoryConsumedByStage.put(pipe.getStage().getInfo().getInstanceName(), ((StagePipe)pipe).getMemoryConsumed());
-        if (isStatsAggregationEnabled()) {
-          stageBatchMetrics.put(pipe.getStage().getInfo().getInstanceName(), ((StagePipe) pipe).getBatchMetrics());
+        long stageNanos = ((StagePipe) pipe).getProcessingTimeNanos();
+        switch (pipe.getStage().getDefinition().getType()) {
+          case SOURCE:
+            originNanos += stageNanos;
+            break;
+          case TARGET:
+            targetsNanos += stageNanos;
+            break;
+          default:
+            processorsNanos += stageNanos;
+            break;
         }
       }
     }
@@ -424,6 +492,12 @@ public class ProductionPipelineRunner implements PipelineRunner {
 
     long batchDuration = System.currentTimeMillis() - start;
     batchProcessingTimer.update(batchDuration, TimeUnit.MILLISECONDS);
+    if (batchLatencyTimer != null) {
+      batchLatencyTimer.update(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+      batchOriginLatencyTimer.update(originNanos, TimeUnit.NANOSECONDS);
+      batchProcessorsLatencyTimer.update(processorsNanos, TimeUnit.NANOSECONDS);
+      batchTargetsLatencyTimer.update(targetsNanos, TimeUnit.NANOSECONDS);
+    }
     batchCountMeter.mark();
     batchInputRecordsHistogram.update(pipeBatch.getInputRecords());
     batchOutputRecordsHistogram.update(pipeBatch.getOutputRecords());
@@ -435,20 +509,7 @@ public class ProductionPipelineRunner implements PipelineRunner {
     batchErrorMessagesMeter.mark(pipeBatch.getErrorMessages());
 
     if (isStatsAggregationEnabled()) {
-      Map<String, Object> pipelineBatchMetrics = new HashMap<>();
-      pipelineBatchMetrics.put(AggregatorUtil.PIPELINE_BATCH_DURATION, batchDuration);
-      pipelineBatchMetrics.put(AggregatorUtil.BATCH_COUNT, 1);
-      pipelineBatchMetrics.put(AggregatorUtil.BATCH_INPUT_RECORDS, pipeBatch.getInputRecords());
-      pipelineBatchMetrics.put(AggregatorUtil.BATCH_OUTPUT_RECORDS, pipeBatch.getOutputRecords());
-      pipelineBatchMetrics.put(AggregatorUtil.BATCH_ERROR_RECORDS, pipeBatch.getErrorRecords());
-      pipelineBatchMetrics.put(AggregatorUtil.BATCH_ERRORS, pipeBatch.getErrorMessages());
-      pipelineBatchMetrics.put(AggregatorUtil.STAGE_BATCH_METRICS, stageBatchMetrics);
-
-      AggregatorUtil.enqueStatsRecord(
-          AggregatorUtil.createMetricRecord(pipelineBatchMetrics),
-          statsAggregatorRequests,
-          configuration
-      );
+      aggregateBatchMetrics(pipes, batchDuration, pipeBatch);
     }
 
     newSourceOffset = offsetTracker.getOffset();
@@ -457,7 +518,9 @@ public class ProductionPipelineRunner implements PipelineRunner {
       if(batchCaptured && batchesToCapture > 0) {
         List<StageOutput> snapshot = pipeBatch.getSnapshotsOfAllStagesOutput();
         if (!snapshot.isEmpty()) {
-          capturedBatches.add(snapshot);
+          // written right away so only the batch being captured is kept in memory
+          snapshotStore.appendBatch(pipelineName, revision, snapshotName, snapshot);
+          capturedBatches++;
         }
         /*
          * Reset the capture snapshot variable only after capturing the snapshot
@@ -467,9 +530,9 @@ public class ProductionPipelineRunner implements PipelineRunner {
         if (batchesToCapture == 0) {
           snapshotBatchSize = 0;
           batchesToCapture = 0;
-          if (!capturedBatches.isEmpty()) {
-            snapshotStore.save(pipelineName, revision, snapshotName, capturedBatches);
-            capturedBatches.clear();
+          if (capturedBatches > 0) {
+            snapshotStore.save(pipelineName, revision, snapshotName, Collections.<List<StageOutput>>emptyList());
+            capturedBatches = 0;
           }
         }
       }
@@ -478,7 +541,11 @@ public class ProductionPipelineRunner implements PipelineRunner {
     //Retain X number of error records per stage
     Map<String, List<Record>> errorRecords = pipeBatch.getErrorSink().getErrorRecords();
     Map<String, List<ErrorMessage>> errorMessages = pipeBatch.getErrorSink().getStageErrors();
-    retainErrorsInMemory(errorRecords, errorMessages);
+    if (errorRecordStore != null) {
+      errorRecordStore.append(errorRecords, errorMessages);
+    } else {
+      retainErrorsInMemory(errorRecords, errorMessages);
+    }
 
     // Write Pipeline data rule and drift rule results to aggregator target
     if (isStatsAggregationEnabled()) {
@@ -488,6 +555,41 @@ public class ProductionPipelineRunner implements PipelineRunner {
     }
   }
 
+  /**
+   * Adds the batch to the metrics not yet sent to the statistics aggregator. They are converted to a record and
+   * queued once the configured number of batches is coalesced or the coalescing interval elapses.
+   */
+  private void aggregateBatchMetrics(Pipe[] pipes, long batchDuration, PipeBatch pipeBatch) {
+    if (batchMetricsAggregate == null) {
+      List<StagePipe> stagePipes = new ArrayList<>();
+      for (Pipe pipe : pipes) {
+        if (pipe instanceof StagePipe) {
+          stagePipes.add((StagePipe) pipe);
+        }
+      }
+      batchMetricsAggregate = new BatchMetricsAggregate(stagePipes);
+    }
+    batchMetricsAggregate.addBatch(
+        batchDuration,
+        pipeBatch.getInputRecords(),
+        pipeBatch.getOutputRecords(),
+        pipeBatch.getErrorRecords(),
+        pipeBatch.getErrorMessages()
+    );
+    int coalesceBatches = configuration.get(
+        Constants.STATS_AGGREGATOR_COALESCE_BATCHES_KEY,
+        Constants.STATS_AGGREGATOR_COALESCE_BATCHES_DEFAULT
+    );
+    long coalesceInterval = configuration.get(
+        Constants.STATS_AGGREGATOR_COALESCE_INTERVAL_MS_KEY,
+        Constants.STATS_AGGREGATOR_COALESCE_INTERVAL_MS_DEFAULT
+    );
+    if (batchMetricsAggregate.getBatchCount() >= coalesceBatches ||
+        System.currentTimeMillis() - batchMetricsAggregate.getFirstBatchTime() >= coalesceInterval) {
+      AggregatorUtil.enqueStatsRecord(batchMetricsAggregate.toRecord(), statsAggregatorRequests, configuration);
+    }
+  }
+
   private RecordImpl getSourceRecord(Record record) {
     return (RecordImpl) ((RecordImpl)record).getHeader().getSourceRecord();
   }
@@ -593,6 +695,9 @@ public class ProductionPipelineRunner implements PipelineRunner {
 
   @SuppressWarnings("unchecked")
   public List<Record> getErrorRecords(String instanceName, int size) {
+    if (errorRecordStore != null) {
+      return errorRecordStore.getErrorRecords(instanceName, null, 0, size);
+    }
     synchronized (errorRecordsMutex) {
       if (stageToErrorRecordsMap == null || stageToErrorRecordsMap.isEmpty()
         || stageToErrorRecordsMap.get(instanceName) == null || stageToErrorRecordsMap.get(instanceName).isEmpty()) {
@@ -606,7 +711,33 @@ public class ProductionPipelineRunner implements PipelineRunner {
     }
   }
 
+  /**
+   * Returns a page of the error records of a stage, oldest first, skipping the <code>offset</code> most recent ones.
+   * If <code>errorCode</code> is not null only the records with that error code are returned.
+   */
+  public List<Record> getErrorRecords(String instanceName, String errorCode, int offset, int size) {
+    if (errorRecordStore != null) {
+      return errorRecordStore.getErrorRecords(instanceName, errorCode, offset, size);
+    }
+    List<Record> records = new ArrayList<>();
+    synchronized (errorRecordsMutex) {
+      EvictingQueue<Record> errorRecordList = stageToErrorRecordsMap.get(instanceName);
+      if (errorRecordList != null) {
+        for (Record record : errorRecordList) {
+          if (errorCode == null || errorCode.equals(record.getHeader().getErrorCode())) {
+            records.add(record);
+          }
+        }
+      }
+    }
+    int end = Math.max(0, records.size() - offset);
+    return records.subList(Math.max(0, end - size), end);
+  }
+
   public List<ErrorMessage> getErrorMessages(String instanceName, int size) {
+    if (errorRecordStore != null) {
+      return errorRecordStore.getErrorMessages(instanceName, size);
+    }
     synchronized (errorRecordsMutex) {
       if (stageToErrorMessagesMap == null || stageToErrorMessagesMap.isEmpty()
         || stageToErrorMessagesMap.get(instanceName) == null || stageToErrorMessagesMap.get(instanceName).isEmpty()) {
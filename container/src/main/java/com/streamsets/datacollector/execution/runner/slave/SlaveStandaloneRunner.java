@@ -182,6 +182,12 @@ public class SlaveStandaloneRunner implements Runner, PipelineInfo  {
     return standaloneRunner.getErrorRecords(stage, max);
   }
 
+  @Override
+  public List<Record> getErrorRecords(String stage, String errorCode, int offset, int max)
+    throws PipelineRunnerException, PipelineStoreException {
+    return standaloneRunner.getErrorRecords(stage, errorCode, offset, max);
+  }
+
   @Override
   public List<ErrorMessage> getErrorMessages(String stage, int max) throws PipelineRunnerException,
     PipelineStoreException {
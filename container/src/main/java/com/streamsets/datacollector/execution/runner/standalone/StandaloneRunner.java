@@ -418,6 +418,13 @@ public class StandaloneRunner extends AbstractRunner implements StateListener {
     return prodPipeline.getErrorRecords(stage, max);
   }
 
+  @Override
+  public List<Record> getErrorRecords(String stage, String errorCode, int offset, int max)
+    throws PipelineRunnerException, PipelineStoreException {
+    checkState(getState().getStatus().isActive(), ContainerError.CONTAINER_0106);
+    return prodPipeline.getErrorRecords(stage, errorCode, offset, max);
+  }
+
   @Override
   public List<ErrorMessage> getErrorMessages(String stage, int max) throws PipelineRunnerException, PipelineStoreException {
     checkState(getState().getStatus().isActive(), ContainerError.CONTAINER_0106);
@@ -19,16 +19,25 @@
  */
 package com.streamsets.datacollector.execution.snapshot.common;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.streamsets.datacollector.execution.Snapshot;
 import com.streamsets.datacollector.execution.SnapshotInfo;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
+import com.streamsets.datacollector.restapi.bean.SnapshotDataJson;
+import com.streamsets.datacollector.restapi.bean.StageOutputJson;
 import com.streamsets.datacollector.runner.PipelineRuntimeException;
+import com.streamsets.datacollector.runner.StageOutput;
 import com.streamsets.datacollector.util.ContainerError;
+import com.streamsets.pipeline.api.Record;
 
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 public class SnapshotImpl implements Snapshot, Closeable {
 
@@ -60,6 +69,39 @@ public class SnapshotImpl implements Snapshot, Closeable {
     return null;
   }
 
+  // snapshots stored as a single JSON file have to be loaded to read a page of records
+  @Override
+  public List<Record> getRecords(int batch, String stage, String lane, int offset, int max)
+    throws PipelineRuntimeException {
+    if (snapshotFile == null) {
+      return Collections.emptyList();
+    }
+    List<List<StageOutput>> batches;
+    try (InputStream in = new FileInputStream(snapshotFile)) {
+      Map<String, List<List<StageOutputJson>>> snapshotJson = ObjectMapperFactory.get().readValue(
+          in,
+          new TypeReference<Map<String, List<List<StageOutputJson>>>>() {}
+      );
+      batches = new SnapshotDataJson(snapshotJson.get("snapshotBatches")).getSnapshotData().getSnapshotBatches();
+    } catch (IOException ex) {
+      throw new PipelineRuntimeException(ContainerError.CONTAINER_0600, snapshotInfo.getId(), snapshotInfo.getName(),
+        snapshotInfo.getRev(), ex.toString(), ex);
+    }
+    if (batch < 0 || batch >= batches.size()) {
+      return Collections.emptyList();
+    }
+    for (StageOutput stageOutput : batches.get(batch)) {
+      if (stageOutput.getInstanceName().equals(stage)) {
+        List<Record> records = lane == null ? stageOutput.getErrorRecords() : stageOutput.getOutput().get(lane);
+        if (records == null || offset < 0 || offset >= records.size()) {
+          return Collections.emptyList();
+        }
+        return records.subList(offset, Math.min(records.size(), offset + max));
+      }
+    }
+    return Collections.emptyList();
+  }
+
   @Override
   public void close() throws IOException {
     snapshotInfo = null;
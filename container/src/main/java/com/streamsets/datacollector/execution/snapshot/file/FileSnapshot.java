@@ -0,0 +1,78 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.snapshot.file;
+
+import com.streamsets.datacollector.execution.Snapshot;
+import com.streamsets.datacollector.execution.SnapshotInfo;
+import com.streamsets.datacollector.util.PipelineException;
+import com.streamsets.pipeline.api.Record;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Snapshot written batch by batch by the {@link FileSnapshotStore}.
+ */
+class FileSnapshot implements Snapshot {
+  private final FileSnapshotStore store;
+  private final String name;
+  private final String rev;
+  private final String id;
+  private SnapshotInfo snapshotInfo;
+  private InputStream output;
+
+  FileSnapshot(FileSnapshotStore store, SnapshotInfo snapshotInfo, String name, String rev, String id) {
+    this.store = store;
+    this.snapshotInfo = snapshotInfo;
+    this.name = name;
+    this.rev = rev;
+    this.id = id;
+  }
+
+  @Override
+  public SnapshotInfo getInfo() {
+    return snapshotInfo;
+  }
+
+  @Override
+  public InputStream getOutput() throws PipelineException {
+    if (snapshotInfo != null) {
+      output = store.getOutput(name, rev, id);
+      return output;
+    }
+    return null;
+  }
+
+  @Override
+  public List<Record> getRecords(int batch, String stage, String lane, int offset, int max)
+      throws PipelineException {
+    return store.getRecords(name, rev, id, batch, stage, lane, offset, max);
+  }
+
+  @Override
+  public void close() throws IOException {
+    snapshotInfo = null;
+    if (output != null) {
+      output.close();
+      output = null;
+    }
+  }
+}
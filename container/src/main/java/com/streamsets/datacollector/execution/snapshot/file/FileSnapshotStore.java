@@ -19,16 +19,20 @@
  */
 package com.streamsets.datacollector.execution.snapshot.file;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
 import com.streamsets.datacollector.execution.Snapshot;
 import com.streamsets.datacollector.execution.SnapshotInfo;
 import com.streamsets.datacollector.execution.SnapshotStore;
-import com.streamsets.datacollector.execution.snapshot.common.SnapshotData;
 import com.streamsets.datacollector.execution.snapshot.common.SnapshotImpl;
 import com.streamsets.datacollector.execution.snapshot.common.SnapshotInfoImpl;
 import com.streamsets.datacollector.io.DataStore;
 import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.main.RuntimeInfo;
+import com.streamsets.datacollector.record.io.KryoRecordReader;
+import com.streamsets.datacollector.record.io.KryoRecordWriter;
+import com.streamsets.datacollector.restapi.bean.BeanHelper;
 import com.streamsets.datacollector.restapi.bean.SnapshotDataJson;
 import com.streamsets.datacollector.restapi.bean.SnapshotInfoJson;
 import com.streamsets.datacollector.runner.PipelineRuntimeException;
@@ -38,11 +42,19 @@ import com.streamsets.datacollector.util.ContainerError;
 import com.streamsets.datacollector.util.LockCache;
 import com.streamsets.datacollector.util.PipelineDirectoryUtil;
 import com.streamsets.datacollector.util.PipelineException;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.ext.RecordReader;
+import com.streamsets.pipeline.api.ext.RecordWriter;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.io.output.CountingOutputStream;
 
 import javax.inject.Inject;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
@@ -50,10 +62,23 @@ import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
+/**
+ * Stores snapshots in the pipeline run directory.
+ * <p/>
+ * Each batch is written as soon as it is captured, as gzip compressed Kryo records, together with an index so a
+ * page of the records of a stage can be read without loading the snapshot. The JSON export is generated from the
+ * batch files on first request. Snapshots saved before as a single JSON file are still readable.
+ */
 public class FileSnapshotStore implements SnapshotStore {
   private static final String SNAPSHOT_FILE_NAME = "snapshot.json";
   private static final String INFO_FILE_NAME = "info.json";
+  private static final String INDEX_FILE_NAME = "index.json";
+  private static final String BATCH_FILE_PREFIX = "batch-";
+  static final int CHUNK_RECORDS = 1000;
   private final LockCache<String> lockCache;
   private final RuntimeInfo runtimeInfo;
   private final ObjectMapper json;
@@ -69,6 +94,8 @@ public class FileSnapshotStore implements SnapshotStore {
   public SnapshotInfo create(String user, String name, String rev, String id, String label) throws PipelineException {
     synchronized (lockCache.getLock(name)) {
       PipelineDirectoryUtil.createPipelineSnapshotDir(runtimeInfo, name, rev, id);
+      // a recapture (or a capture after a cancelled one) must not inherit the batches of the previous capture
+      clearSnapshotData(name, rev, id);
       SnapshotInfo snapshotInfo = new SnapshotInfoImpl(user, id, label, name, rev, System.currentTimeMillis(), true);
       persistSnapshotInfo(snapshotInfo);
       return snapshotInfo;
@@ -83,7 +110,7 @@ public class FileSnapshotStore implements SnapshotStore {
       if (existingInfo == null) {
         throw new PipelineException(ContainerError.CONTAINER_0605);
       }
-      persistSnapshot(name, rev, id, snapshotBatches);
+      appendBatches(name, rev, id, snapshotBatches);
       SnapshotInfo updatedSnapshotInfo =
         new SnapshotInfoImpl(existingInfo.getUser(), id, existingInfo.getLabel(), name, rev, System.currentTimeMillis(),
             false);
@@ -92,6 +119,17 @@ public class FileSnapshotStore implements SnapshotStore {
     }
   }
 
+  @Override
+  public void appendBatch(String name, String rev, String id, List<StageOutput> snapshotBatch)
+    throws PipelineException {
+    synchronized (lockCache.getLock(name)) {
+      if (getInfo(name, rev, id) == null) {
+        throw new PipelineException(ContainerError.CONTAINER_0605);
+      }
+      appendBatches(name, rev, id, Collections.singletonList(snapshotBatch));
+    }
+  }
+
   @Override
   public SnapshotInfo updateLabel(String name, String rev, String id, String snapshotLabel) throws PipelineException {
     synchronized (lockCache.getLock(name)) {
@@ -117,6 +155,9 @@ public class FileSnapshotStore implements SnapshotStore {
   public Snapshot get(String name, String rev, String id) throws PipelineException {
     synchronized (lockCache.getLock(name)) {
       SnapshotInfo info = getInfo(name, rev, id);
+      if (getPipelineSnapshotIndexFile(name, rev, id).exists()) {
+        return new FileSnapshot(this, info, name, rev, id);
+      }
       File data = getData(name, rev, id);
       return new SnapshotImpl(info, data);
     }
@@ -193,6 +234,10 @@ public class FileSnapshotStore implements SnapshotStore {
       SNAPSHOT_FILE_NAME);
   }
 
+  private File getPipelineSnapshotIndexFile(String name, String rev, String id) {
+    return new File(PipelineDirectoryUtil.getPipelineSnapshotDir(runtimeInfo, name, rev, id), INDEX_FILE_NAME);
+  }
+
   private File getPipelineSnapshotInfoFile(String name, String rev, String id) {
     return new File(PipelineDirectoryUtil.getPipelineSnapshotDir(runtimeInfo, name, rev, id),
       INFO_FILE_NAME);
@@ -212,17 +257,234 @@ public class FileSnapshotStore implements SnapshotStore {
     }
   }
 
-  private void persistSnapshot(String name, String rev, String id, List<List<StageOutput>> snapshotBatches)
+  /**
+   * Returns the JSON export of a snapshot written batch by batch, generating it if needed.
+   */
+  InputStream getOutput(String name, String rev, String id) throws PipelineException {
+    synchronized (lockCache.getLock(name)) {
+      File exportFile = getPipelineSnapshotFile(name, rev, id);
+      if (!exportFile.exists()) {
+        SnapshotIndex index = readIndex(name, rev, id);
+        if (index == null) {
+          return null;
+        }
+        DataStore dataStore = new DataStore(exportFile);
+        try (OutputStream out = dataStore.getOutputStream()) {
+          exportJson(PipelineDirectoryUtil.getPipelineSnapshotDir(runtimeInfo, name, rev, id), index, out);
+          dataStore.commit(out);
+        } catch (IOException e) {
+          throw new PipelineRuntimeException(ContainerError.CONTAINER_0600, id, name, rev, e.toString(), e);
+        } finally {
+          dataStore.release();
+        }
+      }
+      try {
+        return new FileInputStream(exportFile);
+      } catch (IOException e) {
+        throw new PipelineRuntimeException(ContainerError.CONTAINER_0600, id, name, rev, e.toString(), e);
+      }
+    }
+  }
+
+  /**
+   * Returns a page of the records of a lane of a stage in a batch of a snapshot written batch by batch.
+   *
+   * @param lane lane name, or null for the error records of the stage.
+   */
+  List<Record> getRecords(String name, String rev, String id, int batch, String stage, String lane, int offset,
+      int max) throws PipelineException {
+    synchronized (lockCache.getLock(name)) {
+      SnapshotIndex index = readIndex(name, rev, id);
+      if (index == null || batch < 0 || batch >= index.getBatches().size()) {
+        return Collections.emptyList();
+      }
+      SnapshotIndex.Batch indexBatch = index.getBatches().get(batch);
+      SnapshotIndex.Stage indexStage = indexBatch.getStage(stage);
+      if (indexStage == null) {
+        return Collections.emptyList();
+      }
+      SnapshotIndex.Section section = lane == null ? indexStage.getErrorRecords() : indexStage.getOutput().get(lane);
+      File batchFile = new File(PipelineDirectoryUtil.getPipelineSnapshotDir(runtimeInfo, name, rev, id),
+          indexBatch.getFile());
+      try {
+        return readRecords(batchFile, section, offset, max);
+      } catch (IOException e) {
+        throw new PipelineRuntimeException(ContainerError.CONTAINER_0600, id, name, rev, e.toString(), e);
+      }
+    }
+  }
+
+  private void clearSnapshotData(String name, String rev, String id) throws PipelineRuntimeException {
+    File snapshotDir = PipelineDirectoryUtil.getPipelineSnapshotDir(runtimeInfo, name, rev, id);
+    File[] dataFiles = snapshotDir.listFiles(new FilenameFilter() {
+      @Override
+      public boolean accept(File dir, String fileName) {
+        return fileName.equals(INDEX_FILE_NAME) || fileName.equals(SNAPSHOT_FILE_NAME) ||
+            fileName.startsWith(BATCH_FILE_PREFIX);
+      }
+    });
+    if (dataFiles != null) {
+      for (File dataFile : dataFiles) {
+        if (!dataFile.delete()) {
+          throw new PipelineRuntimeException(ContainerError.CONTAINER_0603, id, name, rev,
+              "Could not delete '" + dataFile + "'");
+        }
+      }
+    }
+  }
+
+  private SnapshotIndex readIndex(String name, String rev, String id) throws PipelineRuntimeException {
+    File indexFile = getPipelineSnapshotIndexFile(name, rev, id);
+    if (!indexFile.exists()) {
+      return null;
+    }
+    try (InputStream in = new FileInputStream(indexFile)) {
+      return json.readValue(in, SnapshotIndex.class);
+    } catch (IOException e) {
+      throw new PipelineRuntimeException(ContainerError.CONTAINER_0600, id, name, rev, e.toString(), e);
+    }
+  }
+
+  private void appendBatches(String name, String rev, String id, List<List<StageOutput>> snapshotBatches)
     throws PipelineRuntimeException {
-    DataStore dataStore = new DataStore(getPipelineSnapshotFile(name, rev, id));
-    try (OutputStream out = dataStore.getOutputStream()) {
-      json.writeValue(out, new SnapshotDataJson(new SnapshotData(snapshotBatches)));
-      dataStore.commit(out);
+    File snapshotDir = PipelineDirectoryUtil.getPipelineSnapshotDir(runtimeInfo, name, rev, id);
+    SnapshotIndex index = readIndex(name, rev, id);
+    if (index == null) {
+      index = new SnapshotIndex();
+    }
+    DataStore dataStore = new DataStore(getPipelineSnapshotIndexFile(name, rev, id));
+    try {
+      for (List<StageOutput> snapshotBatch : snapshotBatches) {
+        index.getBatches().add(writeBatch(snapshotDir, index.getBatches().size(), snapshotBatch));
+      }
+      try (OutputStream out = dataStore.getOutputStream()) {
+        json.writeValue(out, index);
+        dataStore.commit(out);
+      }
     } catch (IOException e) {
       throw new PipelineRuntimeException(ContainerError.CONTAINER_0603, id, name, rev, e.toString(), e);
     } finally {
       dataStore.release();
     }
+    // the JSON export, if any, is outdated
+    File exportFile = getPipelineSnapshotFile(name, rev, id);
+    if (exportFile.exists() && !exportFile.delete()) {
+      throw new PipelineRuntimeException(ContainerError.CONTAINER_0603, id, name, rev, "Could not delete " + exportFile);
+    }
+  }
+
+  private SnapshotIndex.Batch writeBatch(File snapshotDir, int batchIndex, List<StageOutput> snapshotBatch)
+    throws IOException {
+    SnapshotIndex.Batch batch = new SnapshotIndex.Batch();
+    batch.setFile(BATCH_FILE_PREFIX + batchIndex);
+    try (CountingOutputStream out = new CountingOutputStream(
+        new BufferedOutputStream(new FileOutputStream(new File(snapshotDir, batch.getFile())))
+    )) {
+      for (StageOutput stageOutput : snapshotBatch) {
+        SnapshotIndex.Stage stage = new SnapshotIndex.Stage();
+        stage.setInstanceName(stageOutput.getInstanceName());
+        for (Map.Entry<String, List<Record>> lane : stageOutput.getOutput().entrySet()) {
+          stage.getOutput().put(lane.getKey(), writeRecords(out, lane.getValue()));
+        }
+        stage.setErrorRecords(writeRecords(out, stageOutput.getErrorRecords()));
+        if (stageOutput.getStageErrors() != null) {
+          stage.setStageErrors(BeanHelper.wrapErrorMessages(stageOutput.getStageErrors()));
+        }
+        batch.getStages().add(stage);
+      }
+    }
+    return batch;
+  }
+
+  private SnapshotIndex.Section writeRecords(CountingOutputStream out, List<Record> records) throws IOException {
+    SnapshotIndex.Section section = new SnapshotIndex.Section();
+    if (records != null) {
+      section.setCount(records.size());
+      for (List<Record> chunk : Lists.partition(records, CHUNK_RECORDS)) {
+        section.getChunks().add(out.getByteCount());
+        // each chunk is a complete gzip member, closing it must not close the batch file
+        RecordWriter writer = new KryoRecordWriter(new GZIPOutputStream(new CloseShieldOutputStream(out)));
+        try {
+          for (Record record : chunk) {
+            writer.write(record);
+          }
+        } finally {
+          writer.close();
+        }
+      }
+    }
+    return section;
+  }
+
+  private List<Record> readRecords(File batchFile, SnapshotIndex.Section section, int offset, int max)
+    throws IOException {
+    List<Record> records = new ArrayList<>();
+    if (section == null || offset < 0 || offset >= section.getCount() || max <= 0) {
+      return records;
+    }
+    int chunk = offset / CHUNK_RECORDS;
+    int count = Math.min(max, section.getCount() - offset);
+    try (FileInputStream in = new FileInputStream(batchFile)) {
+      in.getChannel().position(section.getChunks().get(chunk));
+      // consecutive chunks are consecutive gzip members, GZIPInputStream reads through them
+      RecordReader reader = new KryoRecordReader(new GZIPInputStream(new BufferedInputStream(in)), 0);
+      try {
+        for (int skip = offset - chunk * CHUNK_RECORDS; skip > 0; skip--) {
+          reader.readRecord();
+        }
+        Record record;
+        while (records.size() < count && (record = reader.readRecord()) != null) {
+          records.add(record);
+        }
+      } finally {
+        reader.close();
+      }
+    }
+    return records;
+  }
+
+  /**
+   * Writes the snapshot in the format of {@link SnapshotDataJson}, reading one chunk of records at a time.
+   */
+  private void exportJson(File snapshotDir, SnapshotIndex index, OutputStream out) throws IOException {
+    JsonGenerator generator = json.getFactory().createGenerator(out);
+    generator.writeStartObject();
+    generator.writeArrayFieldStart("snapshotBatches");
+    for (SnapshotIndex.Batch batch : index.getBatches()) {
+      File batchFile = new File(snapshotDir, batch.getFile());
+      generator.writeStartArray();
+      for (SnapshotIndex.Stage stage : batch.getStages()) {
+        generator.writeStartObject();
+        generator.writeStringField("instanceName", stage.getInstanceName());
+        generator.writeObjectFieldStart("output");
+        for (Map.Entry<String, SnapshotIndex.Section> lane : stage.getOutput().entrySet()) {
+          generator.writeFieldName(lane.getKey());
+          exportRecords(generator, batchFile, lane.getValue());
+        }
+        generator.writeEndObject();
+        generator.writeFieldName("errorRecords");
+        exportRecords(generator, batchFile, stage.getErrorRecords());
+        generator.writeObjectField("stageErrors", stage.getStageErrors());
+        generator.writeEndObject();
+      }
+      generator.writeEndArray();
+    }
+    generator.writeEndArray();
+    generator.writeEndObject();
+    generator.flush();
+  }
+
+  private void exportRecords(JsonGenerator generator, File batchFile, SnapshotIndex.Section section)
+    throws IOException {
+    generator.writeStartArray();
+    if (section != null) {
+      for (int offset = 0; offset < section.getCount(); offset += CHUNK_RECORDS) {
+        for (Record record : readRecords(batchFile, section, offset, CHUNK_RECORDS)) {
+          generator.writeObject(BeanHelper.wrapRecord(record));
+        }
+      }
+    }
+    generator.writeEndArray();
   }
 
 }
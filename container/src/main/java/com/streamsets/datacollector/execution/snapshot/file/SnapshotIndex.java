@@ -0,0 +1,138 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.snapshot.file;
+
+import com.streamsets.datacollector.restapi.bean.ErrorMessageJson;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of a snapshot written batch by batch. It is stored as JSON next to the batch files and gives, for every
+ * stage and lane, the number of records and the offsets of the compressed chunks holding them.
+ */
+public class SnapshotIndex {
+  private List<Batch> batches = new ArrayList<>();
+
+  public List<Batch> getBatches() {
+    return batches;
+  }
+
+  public void setBatches(List<Batch> batches) {
+    this.batches = batches;
+  }
+
+  public static class Batch {
+    private String file;
+    private List<Stage> stages = new ArrayList<>();
+
+    public String getFile() {
+      return file;
+    }
+
+    public void setFile(String file) {
+      this.file = file;
+    }
+
+    public List<Stage> getStages() {
+      return stages;
+    }
+
+    public void setStages(List<Stage> stages) {
+      this.stages = stages;
+    }
+
+    public Stage getStage(String instanceName) {
+      for (Stage stage : stages) {
+        if (stage.getInstanceName().equals(instanceName)) {
+          return stage;
+        }
+      }
+      return null;
+    }
+  }
+
+  public static class Stage {
+    private String instanceName;
+    private Map<String, Section> output = new LinkedHashMap<>();
+    private Section errorRecords;
+    private List<ErrorMessageJson> stageErrors = new ArrayList<>();
+
+    public String getInstanceName() {
+      return instanceName;
+    }
+
+    public void setInstanceName(String instanceName) {
+      this.instanceName = instanceName;
+    }
+
+    public Map<String, Section> getOutput() {
+      return output;
+    }
+
+    public void setOutput(Map<String, Section> output) {
+      this.output = output;
+    }
+
+    public Section getErrorRecords() {
+      return errorRecords;
+    }
+
+    public void setErrorRecords(Section errorRecords) {
+      this.errorRecords = errorRecords;
+    }
+
+    public List<ErrorMessageJson> getStageErrors() {
+      return stageErrors;
+    }
+
+    public void setStageErrors(List<ErrorMessageJson> stageErrors) {
+      this.stageErrors = stageErrors;
+    }
+  }
+
+  /**
+   * Records of a lane, or the error records, of a stage. Each chunk is a separate gzip member holding up to
+   * {@link FileSnapshotStore#CHUNK_RECORDS} Kryo encoded records.
+   */
+  public static class Section {
+    private int count;
+    private List<Long> chunks = new ArrayList<>();
+
+    public int getCount() {
+      return count;
+    }
+
+    public void setCount(int count) {
+      this.count = count;
+    }
+
+    public List<Long> getChunks() {
+      return chunks;
+    }
+
+    public void setChunks(List<Long> chunks) {
+      this.chunks = chunks;
+    }
+  }
+
+}
@@ -52,7 +52,9 @@ import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.io.Reader;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -65,6 +67,8 @@ public class FilePipelineStateStore implements PipelineStateStore {
   public static final String STATE_FILE_HISTORY = "pipelineStateHistory.json";
   public static final String STATE = "state";
   private static final Logger LOG = LoggerFactory.getLogger(FilePipelineStateStore.class);
+  private static final int MAX_RECENT_HISTORY = 100;
+  private static final int HISTORY_BLOCK_SIZE = 8192;
 
   @Inject
   public FilePipelineStateStore(RuntimeInfo runtimeInfo, Configuration conf) {
@@ -169,6 +173,15 @@ public class FilePipelineStateStore implements PipelineStateStore {
     if (!pipelineDirExists(pipelineName, rev) || !pipelineStateHistoryFileExists(pipelineName, rev)) {
       return Collections.emptyList();
     }
+    if (!fromBeginning) {
+      try {
+        return BeanHelper.unwrapPipelineStatesNewAPI(
+            readRecentHistory(getPipelineStateHistoryFile(pipelineName, rev), MAX_RECENT_HISTORY)
+        );
+      } catch (IOException e) {
+        throw new PipelineStoreException(ContainerError.CONTAINER_0115, pipelineName, rev, e.toString(), e);
+      }
+    }
     try (Reader reader = new FileReader(getPipelineStateHistoryFile(pipelineName, rev))){
       ObjectMapper objectMapper = ObjectMapperFactory.get();
       JsonParser jsonParser = objectMapper.getFactory().createParser(reader);
@@ -176,17 +189,59 @@ public class FilePipelineStateStore implements PipelineStateStore {
         objectMapper.readValues(jsonParser, PipelineStateJson.class);
       List<PipelineStateJson> pipelineStateJsons = pipelineStateMappingIterator.readAll();
       Collections.reverse(pipelineStateJsons);
-      if (fromBeginning) {
-        return BeanHelper.unwrapPipelineStatesNewAPI(pipelineStateJsons);
-      } else {
-        int toIndex = pipelineStateJsons.size() > 100 ? 100 : pipelineStateJsons.size();
-        return BeanHelper.unwrapPipelineStatesNewAPI(pipelineStateJsons.subList(0, toIndex));
-      }
+      return BeanHelper.unwrapPipelineStatesNewAPI(pipelineStateJsons);
     } catch (IOException e) {
       throw new PipelineStoreException(ContainerError.CONTAINER_0115, pipelineName, rev, e.toString(), e);
     }
   }
 
+  /**
+   * Reads the most recent states of the history file, newest first, parsing only those.
+   * <p/>
+   * Each state is a top level JSON object starting at the beginning of a line, nested lines are indented, so the
+   * states are found by scanning the file backwards for a new line followed by '{'.
+   */
+  private List<PipelineStateJson> readRecentHistory(File historyFile, int maxStates) throws IOException {
+    List<PipelineStateJson> states = new ArrayList<>();
+    ObjectMapper objectMapper = ObjectMapperFactory.get();
+    try (RandomAccessFile raf = new RandomAccessFile(historyFile, "r")) {
+      long stateEnd = raf.length();
+      byte[] block = new byte[HISTORY_BLOCK_SIZE];
+      long blockStart = stateEnd;
+      // byte following the one being checked, in file order
+      int following = -1;
+      while (blockStart > 0 && states.size() < maxStates) {
+        int len = (int) Math.min(HISTORY_BLOCK_SIZE, blockStart);
+        blockStart -= len;
+        raf.seek(blockStart);
+        raf.readFully(block, 0, len);
+        for (int i = len - 1; i >= 0 && states.size() < maxStates; i--) {
+          long stateStart = -1;
+          if (block[i] == '\n' && following == '{') {
+            stateStart = blockStart + i + 1;
+          } else if (blockStart + i == 0 && block[i] == '{') {
+            stateStart = 0;
+          }
+          if (stateStart > -1) {
+            states.add(readState(raf, objectMapper, stateStart, stateEnd));
+            stateEnd = stateStart;
+          }
+          following = block[i];
+        }
+      }
+    }
+    return states;
+  }
+
+  private PipelineStateJson readState(RandomAccessFile raf, ObjectMapper objectMapper, long start, long end)
+      throws IOException {
+    byte[] bytes = new byte[(int) (end - start)];
+    raf.seek(start);
+    raf.readFully(bytes);
+    // the history is written by log4j with the platform encoding
+    return objectMapper.readValue(new String(bytes), PipelineStateJson.class);
+  }
+
   @Override
   public void deleteHistory(String pipelineName, String rev) {
     for (File f : getHistoryStateFiles(pipelineName, rev)) {
@@ -207,7 +262,8 @@ public class FilePipelineStateStore implements PipelineStateStore {
     PipelineStateJson pipelineStateJson = BeanHelper.wrapPipelineState(pipelineState);
     String pipelineString;
     try {
-      pipelineString = ObjectMapperFactory.get().writeValueAsString(pipelineStateJson);
+      // one line per state, makes the history file easier to read from its end
+      pipelineString = ObjectMapperFactory.getOneLine().writeValueAsString(pipelineStateJson);
     } catch (JsonProcessingException e) {
       throw new PipelineStoreException(ContainerError.CONTAINER_0210, e.toString(), e);
     }
@@ -0,0 +1,255 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.log;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import com.streamsets.datacollector.io.DataStore;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
+import com.streamsets.pipeline.lib.parser.shaded.org.aicer.grok.util.Grok;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the SDC log, it splits the log in blocks of about <code>BLOCK_SIZE</code> bytes, each starting with a log
+ * message, and keeps the pipelines and severities of the messages in each block. Filtered log queries only read the
+ * blocks which may have matching messages.
+ * <p/>
+ * The index is brought up to date incrementally before every query and persisted, a log file which was rotated is
+ * detected by its first line and indexed again from the beginning.
+ */
+public class LogIndex {
+  private static final Logger LOG = LoggerFactory.getLogger(LogIndex.class);
+  static final int BLOCK_SIZE = 64 * 1024;
+  private static final int FINGERPRINT_SIZE = 256;
+
+  private final File logFile;
+  private final Grok grok;
+  private final File indexFile;
+  private final int blockSize;
+  private final ObjectMapper json;
+  private IndexJson index;
+
+  public LogIndex(File logFile, Grok grok, File indexFile) {
+    this(logFile, grok, indexFile, BLOCK_SIZE);
+  }
+
+  @VisibleForTesting
+  LogIndex(File logFile, Grok grok, File indexFile, int blockSize) {
+    this.logFile = logFile;
+    this.grok = grok;
+    this.indexFile = indexFile;
+    this.blockSize = blockSize;
+    json = ObjectMapperFactory.getOneLine();
+  }
+
+  /**
+   * Returns, newest first, the parts of the log before <code>endingOffset</code> which may have messages of the given
+   * pipeline and severity, a <code>null</code> pipeline or severity matches any. The part of the log written after the
+   * last complete block is always returned.
+   */
+  public synchronized List<Block> getBlocks(String pipeline, String severity, long endingOffset) throws IOException {
+    refresh();
+    List<Block> blocks = new ArrayList<>();
+    if (endingOffset > index.length) {
+      blocks.add(new Block(index.length, endingOffset));
+    }
+    for (int i = index.blocks.size() - 1; i >= 0; i--) {
+      BlockJson block = index.blocks.get(i);
+      if (block.start < endingOffset &&
+          (pipeline == null || block.pipelines.contains(pipeline)) &&
+          (severity == null || block.severities.contains(severity))) {
+        blocks.add(new Block(block.start, Math.min(block.end, endingOffset)));
+      }
+    }
+    return blocks;
+  }
+
+  @VisibleForTesting
+  synchronized long getIndexedLength() {
+    return (index == null) ? 0 : index.length;
+  }
+
+  private void refresh() throws IOException {
+    if (index == null) {
+      index = load();
+    }
+    String fingerprint = getFingerprint();
+    if (!fingerprint.equals(index.fingerprint) || logFile.length() < index.length) {
+      LOG.debug("Log file '{}' changed, indexing it from the beginning", logFile);
+      index = new IndexJson();
+      index.fingerprint = fingerprint;
+    }
+    long length = index.length;
+    if (logFile.length() - length > blockSize) {
+      indexFrom(length);
+      if (index.length > length) {
+        save();
+      }
+    }
+  }
+
+  private void indexFrom(long offset) throws IOException {
+    try (FileInputStream is = new FileInputStream(logFile)) {
+      is.getChannel().position(offset);
+      byte[] buffer = new byte[64 * 1024];
+      ByteArrayOutputStream line = new ByteArrayOutputStream(1024);
+      BlockJson block = newBlock(offset);
+      long lineStart = offset;
+      int read;
+      while ((read = is.read(buffer)) != -1) {
+        int from = 0;
+        for (int i = 0; i < read; i++) {
+          if (buffer[i] == '\n') {
+            line.write(buffer, from, i - from);
+            block = indexLine(line, lineStart, block);
+            lineStart += line.size() + 1;
+            line.reset();
+            from = i + 1;
+          }
+        }
+        line.write(buffer, from, read - from);
+      }
+    }
+  }
+
+  // returns the block the following lines go to, a message starting past the block size closes the current block
+  private BlockJson indexLine(ByteArrayOutputStream line, long lineStart, BlockJson block) {
+    Map<String, String> message = grok.extractNamedGroups(new String(line.toByteArray(), StandardCharsets.UTF_8));
+    if (message != null) {
+      if (lineStart - block.start >= blockSize) {
+        block.end = lineStart;
+        index.blocks.add(block);
+        index.length = lineStart;
+        block = newBlock(lineStart);
+      }
+      addIfNotNull(block.pipelines, message.get("s-entity"));
+      addIfNotNull(block.severities, message.get("severity"));
+    }
+    return block;
+  }
+
+  private static BlockJson newBlock(long start) {
+    BlockJson block = new BlockJson();
+    block.start = start;
+    return block;
+  }
+
+  private static void addIfNotNull(Set<String> set, String value) {
+    if (value != null) {
+      set.add(value);
+    }
+  }
+
+  private String getFingerprint() throws IOException {
+    byte[] buffer = new byte[FINGERPRINT_SIZE];
+    int len = 0;
+    if (logFile.exists()) {
+      try (RandomAccessFile raf = new RandomAccessFile(logFile, "r")) {
+        int read = 0;
+        while (len < buffer.length && read != -1) {
+          read = raf.read(buffer, len, buffer.length - len);
+          len += Math.max(0, read);
+        }
+      }
+    }
+    for (int i = 0; i < len; i++) {
+      if (buffer[i] == '\n') {
+        len = i;
+        break;
+      }
+    }
+    return new String(buffer, 0, len, StandardCharsets.UTF_8);
+  }
+
+  private IndexJson load() {
+    if (indexFile.exists()) {
+      try (InputStream is = new DataStore(indexFile).getInputStream()) {
+        return json.readValue(is, IndexJson.class);
+      } catch (IOException ex) {
+        LOG.warn("Could not read log index '{}', indexing the log again: {}", indexFile, ex.toString(), ex);
+      }
+    }
+    return new IndexJson();
+  }
+
+  private void save() {
+    if (!indexFile.getParentFile().exists() && !indexFile.getParentFile().mkdirs()) {
+      LOG.warn("Could not create directory for log index '{}'", indexFile);
+      return;
+    }
+    DataStore dataStore = new DataStore(indexFile);
+    try (OutputStream os = dataStore.getOutputStream()) {
+      json.writeValue(os, index);
+      dataStore.commit(os);
+    } catch (IOException ex) {
+      LOG.warn("Could not save log index '{}': {}", indexFile, ex.toString(), ex);
+    } finally {
+      dataStore.release();
+    }
+  }
+
+  public static class Block {
+    private final long start;
+    private final long end;
+
+    Block(long start, long end) {
+      this.start = start;
+      this.end = end;
+    }
+
+    public long getStart() {
+      return start;
+    }
+
+    public long getEnd() {
+      return end;
+    }
+  }
+
+  // persisted form of the index
+  static class IndexJson {
+    public String fingerprint = "";
+    public long length;
+    public List<BlockJson> blocks = new ArrayList<>();
+  }
+
+  static class BlockJson {
+    public long start;
+    public long end;
+    public Set<String> pipelines = new HashSet<>();
+    public Set<String> severities = new HashSet<>();
+  }
+
+}
@@ -41,6 +41,8 @@ public class LogUtils {
       "log4j.appender.streamsets.layout.ConversionPattern";
   public static final String LOG4J_APPENDER_STDERR_LAYOUT_CONVERSION_PATTERN = "log4j.appender.stderr.layout.ConversionPattern";
   public static final String LOG4J_GROK_ATTR = "log4j.grok";
+  public static final String LOG_INDEX_ATTR = "log.index";
+  private static final String LOG_INDEX_DIR = "log-index";
   public static final String LOG4J_CONVERSION_PATTERN = "%d{ISO8601} [user:%X{s-user}] [pipeline:%X{s-entity}] [thread:%t] %-5p %c{1} - %m%n";
 
   private LogUtils() {}
@@ -124,14 +126,7 @@ public class LogUtils {
       }
 
       if (logPattern != null) {
-        String grokPattern = Log4jHelper.translateLog4jLayoutToGrok(logPattern);
-        GrokDictionary grokDictionary = new GrokDictionary();
-        grokDictionary.addDictionary(LogUtils.class.getClassLoader().
-            getResourceAsStream(Constants.GROK_PATTERNS_FILE_NAME));
-        grokDictionary.addDictionary(LogUtils.class.getClassLoader().getResourceAsStream(
-            Constants.GROK_JAVA_LOG_PATTERNS_FILE_NAME));
-        grokDictionary.bind();
-        logFileGrok = grokDictionary.compileExpression(grokPattern);
+        logFileGrok = compileLogGrok(logPattern);
         runtimeInfo.setAttribute(LOG4J_GROK_ATTR, logFileGrok);
       } else {
         throw new IllegalStateException("Cannot find log4j layout conversion pattern");
@@ -141,6 +136,35 @@ public class LogUtils {
     return logFileGrok;
   }
 
+  @VisibleForTesting
+  static Grok compileLogGrok(String logPattern) throws DataParserException {
+    String grokPattern = Log4jHelper.translateLog4jLayoutToGrok(logPattern);
+    GrokDictionary grokDictionary = new GrokDictionary();
+    grokDictionary.addDictionary(LogUtils.class.getClassLoader().
+        getResourceAsStream(Constants.GROK_PATTERNS_FILE_NAME));
+    grokDictionary.addDictionary(LogUtils.class.getClassLoader().getResourceAsStream(
+        Constants.GROK_JAVA_LOG_PATTERNS_FILE_NAME));
+    grokDictionary.bind();
+    return grokDictionary.compileExpression(grokPattern);
+  }
+
+  /**
+   * Returns the index of the SDC log, created the first time and kept as a RuntimeInfo attribute so it is shared by
+   * all requests. The index is persisted in the <code>log-index</code> directory of the data dir.
+   */
+  public static LogIndex getLogIndex(RuntimeInfo runtimeInfo) throws IOException, DataParserException {
+    synchronized (LogUtils.class) {
+      LogIndex logIndex = runtimeInfo.getAttribute(LOG_INDEX_ATTR);
+      if (logIndex == null) {
+        File logFile = new File(getLogFile(runtimeInfo));
+        File indexFile = new File(new File(runtimeInfo.getDataDir(), LOG_INDEX_DIR), logFile.getName() + ".json");
+        logIndex = new LogIndex(logFile, getLogGrok(runtimeInfo), indexFile);
+        runtimeInfo.setAttribute(LOG_INDEX_ATTR, logIndex);
+      }
+      return logIndex;
+    }
+  }
+
   @VisibleForTesting
   static String resolveValue(String str) {
     while (str.contains("${")) {
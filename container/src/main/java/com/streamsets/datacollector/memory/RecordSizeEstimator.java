@@ -0,0 +1,156 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.memory;
+
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estimates the heap retained by records from their shape: number of fields, their types and the length of
+ * strings and byte arrays. The estimate ignores sharing between records, it is meant for memory limits and
+ * not as an exact measurement.
+ * <p/>
+ * To stay within an overhead budget only a sample of the records of a batch is measured. The sample shrinks
+ * when estimating took longer than the allowed fraction of the stage processing time and grows back otherwise.
+ */
+public class RecordSizeEstimator {
+  // record, header and header attributes map
+  static final int RECORD_OVERHEAD = 256;
+  static final int FIELD_OVERHEAD = 32;
+  static final int STRING_OVERHEAD = 40;
+  static final int ARRAY_OVERHEAD = 16;
+  static final int COLLECTION_OVERHEAD = 48;
+  static final int ENTRY_OVERHEAD = 32;
+  static final int REFERENCE_SIZE = 8;
+  static final int BOXED_SIZE = 16;
+  static final int BIG_DECIMAL_SIZE = 64;
+
+  private final double overheadBudget;
+  private final int maxSamples;
+  private int samples;
+
+  /**
+   * @param overheadBudget fraction of the stage processing time that estimating may take.
+   * @param maxSamples maximum number of records measured per batch.
+   */
+  public RecordSizeEstimator(double overheadBudget, int maxSamples) {
+    this.overheadBudget = overheadBudget;
+    this.maxSamples = Math.max(1, maxSamples);
+    this.samples = this.maxSamples;
+  }
+
+  int getSamples() {
+    return samples;
+  }
+
+  /**
+   * Estimates the size of all the given records by measuring a sample of them.
+   *
+   * @param lanes records of a batch, by lane.
+   * @param processingTimeNanos time the stage took to process the batch, used to enforce the overhead budget.
+   * @return estimated size in bytes.
+   */
+  public long estimate(Collection<List<Record>> lanes, long processingTimeNanos) {
+    int total = 0;
+    for (List<Record> records : lanes) {
+      total += records.size();
+    }
+    if (total == 0) {
+      return 0;
+    }
+
+    long start = System.nanoTime();
+    int stride = Math.max(1, total / samples);
+    int index = 0;
+    int measured = 0;
+    long measuredSize = 0;
+    for (List<Record> records : lanes) {
+      for (Record record : records) {
+        if (index++ % stride == 0) {
+          measuredSize += estimate(record);
+          measured++;
+        }
+      }
+    }
+    long elapsed = System.nanoTime() - start;
+
+    if (elapsed > processingTimeNanos * overheadBudget) {
+      samples = Math.max(1, samples / 2);
+    } else if (samples < maxSamples) {
+      samples = Math.min(maxSamples, samples * 2);
+    }
+    return measuredSize * total / measured;
+  }
+
+  public static long estimate(Record record) {
+    long size = RECORD_OVERHEAD + estimate(record.get());
+    String sourceId = record.getHeader().getSourceId();
+    if (sourceId != null) {
+      size += STRING_OVERHEAD + 2L * sourceId.length();
+    }
+    return size;
+  }
+
+  @SuppressWarnings("unchecked")
+  static long estimate(Field field) {
+    if (field == null) {
+      return 0;
+    }
+    long size = FIELD_OVERHEAD;
+    Object value = field.getValue();
+    if (value == null) {
+      return size;
+    }
+    switch (field.getType()) {
+      case STRING:
+        size += STRING_OVERHEAD + 2L * ((String) value).length();
+        break;
+      case BYTE_ARRAY:
+        size += ARRAY_OVERHEAD + ((byte[]) value).length;
+        break;
+      case MAP:
+      case LIST_MAP:
+        Map<String, Field> map = (Map<String, Field>) value;
+        size += COLLECTION_OVERHEAD;
+        for (Map.Entry<String, Field> entry : map.entrySet()) {
+          size += ENTRY_OVERHEAD + STRING_OVERHEAD + 2L * entry.getKey().length() + estimate(entry.getValue());
+        }
+        break;
+      case LIST:
+        List<Field> list = (List<Field>) value;
+        size += COLLECTION_OVERHEAD;
+        for (Field element : list) {
+          size += REFERENCE_SIZE + estimate(element);
+        }
+        break;
+      case DECIMAL:
+        size += BIG_DECIMAL_SIZE;
+        break;
+      default:
+        size += BOXED_SIZE;
+        break;
+    }
+    return size;
+  }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.memory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Reads the number of bytes allocated by the current thread from the JVM. Reading the counter is cheap
+ * enough to do around every stage invocation, unlike walking the heap.
+ */
+public class ThreadAllocationCounter {
+  private static final Logger LOG = LoggerFactory.getLogger(ThreadAllocationCounter.class);
+  private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = createThreadMXBean();
+
+  private ThreadAllocationCounter() {}
+
+  private static com.sun.management.ThreadMXBean createThreadMXBean() {
+    try {
+      ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+      if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadMXBean;
+        if (bean.isThreadAllocatedMemorySupported()) {
+          if (!bean.isThreadAllocatedMemoryEnabled()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+          }
+          return bean;
+        }
+      }
+    } catch (LinkageError | RuntimeException ex) {
+      LOG.debug("Thread allocated memory is not available: {}", ex.toString(), ex);
+    }
+    LOG.info("Thread allocated memory is not supported by this JVM, allocated bytes will not be reported");
+    return null;
+  }
+
+  public static boolean isSupported() {
+    return THREAD_MX_BEAN != null;
+  }
+
+  /**
+   * Returns the total number of bytes allocated by the current thread so far, or -1 if not supported.
+   */
+  public static long getAllocatedBytes() {
+    if (THREAD_MX_BEAN == null) {
+      return -1;
+    }
+    return THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+}
@@ -0,0 +1,266 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.metrics;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import com.google.common.annotations.VisibleForTesting;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Reservoir for latencies in nanoseconds that keeps counts in log-linear buckets, in the manner of HdrHistogram,
+ * instead of samples.
+ * <p/>
+ * Values are bucketed with a relative error under 1/64 up to {@link #MAX_TRACKABLE_VALUE}, larger values are
+ * counted in the last bucket. Recording is a bucket increment, it doesn't allocate nor lock, so it is cheap enough
+ * to leave on for every batch. Counts are kept in slices covering a fraction of the window, the oldest slice is
+ * reset as time moves on so snapshots always reflect the last window and tail latencies are not decayed away.
+ * <p/>
+ * Each slice holds {@link #BUCKET_COUNT} int counts, about 20 KB per reservoir with the default 4 slices.
+ */
+public class LatencyReservoir implements Reservoir {
+  // 2^6 sub buckets per power of two
+  private static final int SUB_BUCKET_BITS = 6;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+  // ~4.8 hours in nanoseconds
+  static final long MAX_TRACKABLE_VALUE = (1L << 44) - 1;
+  static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE_VALUE) + 1;
+  private static final int DEFAULT_SLICES = 4;
+
+  private final Clock clock;
+  private final long sliceNanos;
+  // a slice covers a fraction of the window, an int count cannot overflow
+  private final AtomicIntegerArray[] counts;
+  private final AtomicLongArray maxs;
+  private final AtomicLong currentSlice;
+
+  public LatencyReservoir(long window, TimeUnit windowUnit) {
+    this(window, windowUnit, DEFAULT_SLICES, Clock.defaultClock());
+  }
+
+  @VisibleForTesting
+  LatencyReservoir(long window, TimeUnit windowUnit, int slices, Clock clock) {
+    this.clock = clock;
+    this.sliceNanos = Math.max(1, windowUnit.toNanos(window) / slices);
+    counts = new AtomicIntegerArray[slices];
+    for (int i = 0; i < slices; i++) {
+      counts[i] = new AtomicIntegerArray(BUCKET_COUNT);
+    }
+    maxs = new AtomicLongArray(slices);
+    currentSlice = new AtomicLong(clock.getTick() / sliceNanos);
+  }
+
+  @VisibleForTesting
+  static int bucketIndex(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) Math.max(0, value);
+    }
+    value = Math.min(value, MAX_TRACKABLE_VALUE);
+    int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+    return shift * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift);
+  }
+
+  /**
+   * Returns the value in the middle of the range covered by the bucket.
+   */
+  @VisibleForTesting
+  static long bucketValue(int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+    long lowest = ((long) (index - shift * SUB_BUCKET_HALF_COUNT)) << shift;
+    return lowest + ((1L << shift) >> 1);
+  }
+
+  @Override
+  public int size() {
+    return getSnapshot().size();
+  }
+
+  @Override
+  public void update(long value) {
+    int slice = rotate();
+    counts[slice].incrementAndGet(bucketIndex(value));
+    long max;
+    while (value > (max = maxs.get(slice)) && !maxs.compareAndSet(slice, max, value)) {
+      // retry
+    }
+  }
+
+  /**
+   * Resets the slices that fell out of the window and returns the slice for the current time. A value recorded
+   * concurrently with a reset may be lost, which is acceptable for metrics.
+   */
+  private int rotate() {
+    long now = clock.getTick() / sliceNanos;
+    long current = currentSlice.get();
+    if (now > current && currentSlice.compareAndSet(current, now)) {
+      long stale = Math.min(now - current, counts.length);
+      for (long i = 0; i < stale; i++) {
+        int slice = (int) ((now - i) % counts.length);
+        AtomicIntegerArray sliceCounts = counts[slice];
+        for (int j = 0; j < BUCKET_COUNT; j++) {
+          if (sliceCounts.get(j) != 0) {
+            sliceCounts.set(j, 0);
+          }
+        }
+        maxs.set(slice, 0);
+      }
+    }
+    return (int) (Math.max(now, currentSlice.get()) % counts.length);
+  }
+
+  @Override
+  public Snapshot getSnapshot() {
+    rotate();
+    long[] merged = new long[BUCKET_COUNT];
+    long total = 0;
+    for (AtomicIntegerArray sliceCounts : counts) {
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+        long count = sliceCounts.get(i);
+        merged[i] += count;
+        total += count;
+      }
+    }
+    long max = 0;
+    for (int i = 0; i < maxs.length(); i++) {
+      max = Math.max(max, maxs.get(i));
+    }
+    return new LatencySnapshot(merged, total, max);
+  }
+
+  /**
+   * Immutable view of the bucket counts of the window.
+   */
+  static class LatencySnapshot extends Snapshot {
+    private final long[] counts;
+    private final long total;
+    private final long max;
+
+    LatencySnapshot(long[] counts, long total, long max) {
+      this.counts = counts;
+      this.total = total;
+      this.max = max;
+    }
+
+    @Override
+    public double getValue(double quantile) {
+      if (quantile < 0.0 || quantile > 1.0 || Double.isNaN(quantile)) {
+        throw new IllegalArgumentException(quantile + " is not in [0..1]");
+      }
+      if (total == 0) {
+        return 0.0;
+      }
+      long rank = Math.max(1, (long) Math.ceil(quantile * total));
+      long seen = 0;
+      for (int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        if (seen >= rank) {
+          // the highest bucket is reported with the exact max
+          return seen == total ? max : Math.min(bucketValue(i), max);
+        }
+      }
+      return max;
+    }
+
+    @Override
+    public long[] getValues() {
+      long[] values = new long[(int) Math.min(total, Integer.MAX_VALUE)];
+      int pos = 0;
+      for (int i = 0; i < counts.length && pos < values.length; i++) {
+        for (long j = 0; j < counts[i] && pos < values.length; j++) {
+          values[pos++] = Math.min(bucketValue(i), max);
+        }
+      }
+      return values;
+    }
+
+    @Override
+    public int size() {
+      return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long getMax() {
+      return max;
+    }
+
+    @Override
+    public double getMean() {
+      if (total == 0) {
+        return 0;
+      }
+      double sum = 0;
+      for (int i = 0; i < counts.length; i++) {
+        if (counts[i] != 0) {
+          sum += (double) counts[i] * Math.min(bucketValue(i), max);
+        }
+      }
+      return sum / total;
+    }
+
+    @Override
+    public long getMin() {
+      for (int i = 0; i < counts.length; i++) {
+        if (counts[i] != 0) {
+          return Math.min(bucketValue(i), max);
+        }
+      }
+      return 0;
+    }
+
+    @Override
+    public double getStdDev() {
+      if (total <= 1) {
+        return 0;
+      }
+      double mean = getMean();
+      double variance = 0;
+      for (int i = 0; i < counts.length; i++) {
+        if (counts[i] != 0) {
+          double diff = Math.min(bucketValue(i), max) - mean;
+          variance += counts[i] * diff * diff;
+        }
+      }
+      return Math.sqrt(variance / (total - 1));
+    }
+
+    @Override
+    public void dump(OutputStream output) {
+      try (PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+        for (long value : getValues()) {
+          out.printf("%d%n", value);
+        }
+      }
+    }
+  }
+
+}
@@ -63,9 +63,24 @@ public class MetricsConfigurator {
   //and user-libs stages fail otherwise due to lesser privileges
   public static Timer createTimer(MetricRegistry metrics, String name, final String pipelineName,
                                   final String pipelineRev) {
+    return createTimer(metrics, name, new Timer(new SlidingTimeWindowReservoir(60, TimeUnit.SECONDS)), pipelineName,
+        pipelineRev);
+  }
+
+  /**
+   * Creates a timer whose percentiles and max are computed from bucketed counts of every value recorded in the
+   * last minute, see {@link LatencyReservoir}. Meant for latencies recorded in nanoseconds.
+   */
+  public static Timer createLatencyTimer(MetricRegistry metrics, String name, final String pipelineName,
+                                         final String pipelineRev) {
+    return createTimer(metrics, name, new Timer(new LatencyReservoir(60, TimeUnit.SECONDS)), pipelineName,
+        pipelineRev);
+  }
+
+  private static Timer createTimer(MetricRegistry metrics, String name, final Timer timer, final String pipelineName,
+                                   final String pipelineRev) {
     final String timerName = metricName(name, TIMER_SUFFIX);
     final String jmxNamePrefix = jmxNamePrefix(pipelineName, pipelineRev);
-    final Timer timer = new Timer(new SlidingTimeWindowReservoir(60, TimeUnit.SECONDS));
     final MetricRegistry metricRegistry = sdcMetrics;
     if (metricRegistry != null && runningPipelines.contains(jmxNamePrefix)) {
       AccessController.doPrivileged(new PrivilegedAction<Void>() {
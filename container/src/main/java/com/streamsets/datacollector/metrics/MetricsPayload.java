@@ -0,0 +1,199 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.metrics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Joiner;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Metrics of a pipeline for one refresh tick, shared by all the metrics listeners of the pipeline.
+ * <p/>
+ * The metrics are kept as a JSON tree with one object per metric type (gauges, counters, meters...) mapping metric
+ * names to values. Listeners can ask for a subset of the metrics, selected by metric name prefix, and for the
+ * metrics that changed since the previous tick only. Each distinct payload is serialized once per tick no matter
+ * how many listeners ask for it.
+ */
+public class MetricsPayload {
+  public static final String DELTA = "delta";
+  public static final String REMOVED = "removed";
+  private static final String FULL = "full:";
+  private static final String CHANGES = "delta:";
+
+  private final ObjectMapper objectMapper;
+  private final ObjectNode metrics;
+  private final ObjectNode previousMetrics;
+  private final ConcurrentMap<String, String> cache;
+
+  /**
+   * @param objectMapper mapper used to serialize the payloads.
+   * @param metrics metrics of this tick.
+   * @param previousMetrics metrics of the previous tick, null if this is the first one.
+   */
+  public MetricsPayload(ObjectMapper objectMapper, ObjectNode metrics, ObjectNode previousMetrics) {
+    this.objectMapper = objectMapper;
+    this.metrics = metrics;
+    this.previousMetrics = previousMetrics;
+    this.cache = new ConcurrentHashMap<>();
+  }
+
+  public ObjectNode getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Returns all the metrics as JSON, as expected by listeners that don't filter.
+   */
+  public String getJson() throws JsonProcessingException {
+    return getJson(null);
+  }
+
+  /**
+   * Returns the metrics whose names start with one of the given prefixes.
+   *
+   * @param prefixes metric name prefixes, null or empty for all metrics.
+   */
+  public String getJson(Collection<String> prefixes) throws JsonProcessingException {
+    Set<String> filter = toFilter(prefixes);
+    String key = FULL + Joiner.on(',').join(filter);
+    String json = cache.get(key);
+    if (json == null) {
+      json = objectMapper.writer().writeValueAsString(filter.isEmpty() ? metrics : select(filter));
+      cache.putIfAbsent(key, json);
+    }
+    return json;
+  }
+
+  /**
+   * Returns the metrics that were added or changed since the previous tick, plus the names of removed metrics,
+   * restricted to the given prefixes. Returns the full payload if there is no previous tick.
+   *
+   * @param prefixes metric name prefixes, null or empty for all metrics.
+   */
+  public String getDeltaJson(Collection<String> prefixes) throws JsonProcessingException {
+    if (previousMetrics == null) {
+      return getJson(prefixes);
+    }
+    Set<String> filter = toFilter(prefixes);
+    String key = CHANGES + Joiner.on(',').join(filter);
+    String json = cache.get(key);
+    if (json == null) {
+      json = objectMapper.writer().writeValueAsString(diff(filter));
+      cache.putIfAbsent(key, json);
+    }
+    return json;
+  }
+
+  private ObjectNode select(Set<String> filter) {
+    ObjectNode selected = JsonNodeFactory.instance.objectNode();
+    Iterator<Map.Entry<String, JsonNode>> types = metrics.fields();
+    while (types.hasNext()) {
+      Map.Entry<String, JsonNode> type = types.next();
+      if (type.getValue().isObject()) {
+        ObjectNode selectedOfType = selected.putObject(type.getKey());
+        Iterator<Map.Entry<String, JsonNode>> values = type.getValue().fields();
+        while (values.hasNext()) {
+          Map.Entry<String, JsonNode> value = values.next();
+          if (matches(filter, value.getKey())) {
+            selectedOfType.set(value.getKey(), value.getValue());
+          }
+        }
+      } else {
+        // version and other top level values
+        selected.set(type.getKey(), type.getValue());
+      }
+    }
+    return selected;
+  }
+
+  private ObjectNode diff(Set<String> filter) {
+    ObjectNode delta = JsonNodeFactory.instance.objectNode();
+    delta.put(DELTA, true);
+    ArrayNode removed = delta.putArray(REMOVED);
+    Iterator<Map.Entry<String, JsonNode>> types = metrics.fields();
+    while (types.hasNext()) {
+      Map.Entry<String, JsonNode> type = types.next();
+      if (!type.getValue().isObject()) {
+        continue;
+      }
+      JsonNode previousOfType = previousMetrics.get(type.getKey());
+      ObjectNode changedOfType = delta.putObject(type.getKey());
+      Iterator<Map.Entry<String, JsonNode>> values = type.getValue().fields();
+      while (values.hasNext()) {
+        Map.Entry<String, JsonNode> value = values.next();
+        if (matches(filter, value.getKey())) {
+          JsonNode previousValue = previousOfType == null ? null : previousOfType.get(value.getKey());
+          if (!value.getValue().equals(previousValue)) {
+            changedOfType.set(value.getKey(), value.getValue());
+          }
+        }
+      }
+    }
+    Iterator<Map.Entry<String, JsonNode>> previousTypes = previousMetrics.fields();
+    while (previousTypes.hasNext()) {
+      Map.Entry<String, JsonNode> previousType = previousTypes.next();
+      JsonNode currentOfType = metrics.get(previousType.getKey());
+      Iterator<String> names = previousType.getValue().fieldNames();
+      while (names.hasNext()) {
+        String name = names.next();
+        if (matches(filter, name) && (currentOfType == null || !currentOfType.has(name))) {
+          removed.add(name);
+        }
+      }
+    }
+    return delta;
+  }
+
+  private static Set<String> toFilter(Collection<String> prefixes) {
+    Set<String> filter = new TreeSet<>();
+    if (prefixes != null) {
+      for (String prefix : prefixes) {
+        if (!prefix.isEmpty()) {
+          filter.add(prefix);
+        }
+      }
+    }
+    return filter;
+  }
+
+  private static boolean matches(Set<String> filter, String name) {
+    if (filter.isEmpty()) {
+      return true;
+    }
+    for (String prefix : filter) {
+      if (name.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -19,6 +19,7 @@
  */
 package com.streamsets.datacollector.restapi;
 
+import com.streamsets.datacollector.log.LogIndex;
 import com.streamsets.datacollector.log.LogStreamer;
 import com.streamsets.datacollector.log.LogUtils;
 import com.streamsets.datacollector.main.RuntimeInfo;
@@ -60,12 +61,14 @@ public class LogResource {
   public static final String X_SDC_LOG_PREVIOUS_OFFSET_HEADER = "X-SDC-LOG-PREVIOUS-OFFSET";
   private final String logFile;
   private final Grok logFileGrok;
+  private final LogIndex logIndex;
 
   @Inject
   public LogResource(RuntimeInfo runtimeInfo) throws RuntimeException {
     try {
       logFile = LogUtils.getLogFile(runtimeInfo);
       logFileGrok = LogUtils.getLogGrok(runtimeInfo);
+      logIndex = LogUtils.getLogIndex(runtimeInfo);
     } catch (Exception ex) {
       throw new RuntimeException(ex);
     }
@@ -90,9 +93,12 @@ public class LogResource {
 
     List<Map<String, String>> logData = new ArrayList<>();
 
-    LogStreamer streamer = new LogStreamer(logFile, offset, 50 * 1024);
     ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-    streamer.stream(outputStream);
+    long previousOffset;
+    try (LogStreamer streamer = new LogStreamer(logFile, offset, 50 * 1024)) {
+      streamer.stream(outputStream);
+      previousOffset = streamer.getNewEndingOffset();
+    }
 
     if(extraMessage != null) {
       outputStream.write(extraMessage.getBytes(StandardCharsets.UTF_8));
@@ -105,21 +111,27 @@ public class LogResource {
 
 
     if((severity != null || pipeline != null) && logData.size() < 50) {
-      //For filtering try to fetch more log data until it we get at least 50 lines of log data or it reaches top
-      offset = streamer.getNewEndingOffset();
-      while (offset != 0 && logData.size() < 50) {
-        streamer = new LogStreamer(logFile, offset, 50 * 1024);
+      //For filtering fetch the older parts of the log the index says may have matching log data, until we get at
+      //least 50 lines of log data or it reaches top
+      offset = previousOffset;
+      previousOffset = 0;
+      for (LogIndex.Block block : logIndex.getBlocks(pipeline, severity, offset)) {
         outputStream = new ByteArrayOutputStream();
-        streamer.stream(outputStream);
+        try (LogStreamer streamer = new LogStreamer(logFile, block.getEnd(), block.getEnd() - block.getStart())) {
+          streamer.stream(outputStream);
+        }
 
-        //merge last message if it is part of new messages
         if(logData.size() > 0 && logData.get(0).get("timestamp") == null && logData.get(0).get("exception") != null) {
-          outputStream.write(logData.get(0).get("exception").getBytes(StandardCharsets.UTF_8));
+          if (block.getEnd() == offset) {
+            //merge last message if it is part of new messages
+            outputStream.write(logData.get(0).get("exception").getBytes(StandardCharsets.UTF_8));
+          }
+          //otherwise the message starts in a part of the log skipped by the index, it is filtered out
           logData.remove(0);
         }
 
         bufferedReader = new BufferedReader(new InputStreamReader(
-            new ByteArrayInputStream(outputStream.toByteArray())));
+            new ByteArrayInputStream(outputStream.toByteArray()), StandardCharsets.UTF_8));
 
         List<Map<String, String>> tempLogData = new ArrayList<>();
         fetchLogData(bufferedReader, tempLogData, pipeline, severity);
@@ -128,12 +140,16 @@ public class LogResource {
         tempLogData.addAll(logData);
         logData = tempLogData;
 
-        offset = streamer.getNewEndingOffset();
+        offset = block.getStart();
+        if (logData.size() >= 50) {
+          previousOffset = offset;
+          break;
+        }
       }
     }
 
     return Response.ok().type(MediaType.APPLICATION_JSON).entity(logData).
-        header(X_SDC_LOG_PREVIOUS_OFFSET_HEADER, streamer.getNewEndingOffset()).build();
+        header(X_SDC_LOG_PREVIOUS_OFFSET_HEADER, previousOffset).build();
   }
 
   private File[] getLogFiles() throws IOException {
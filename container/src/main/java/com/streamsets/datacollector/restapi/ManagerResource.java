@@ -23,6 +23,7 @@ import com.streamsets.datacollector.execution.Manager;
 import com.streamsets.datacollector.execution.PipelineState;
 import com.streamsets.datacollector.execution.PipelineStatus;
 import com.streamsets.datacollector.execution.Runner;
+import com.streamsets.datacollector.execution.Snapshot;
 import com.streamsets.datacollector.execution.SnapshotInfo;
 import com.streamsets.datacollector.execution.alerts.AlertInfo;
 import com.streamsets.datacollector.execution.manager.PipelineManagerException;
@@ -42,6 +43,7 @@ import com.streamsets.datacollector.util.AuthzRole;
 import com.streamsets.datacollector.util.ContainerError;
 import com.streamsets.datacollector.util.PipelineException;
 import com.streamsets.pipeline.api.ExecutionMode;
+import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.impl.Utils;
 
@@ -68,6 +70,7 @@ import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
+import java.io.IOException;
 import java.security.Principal;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -371,6 +374,40 @@ public class ManagerResource {
     return Response.noContent().build();
   }
 
+  @Path("/pipeline/{pipelineName}/snapshot/{snapshotName}/records")
+  @GET
+  @ApiOperation(value = "Returns a page of the records of a stage in a Snapshot batch, the error records if no lane " +
+    "is given", response = RecordJson.class, responseContainer = "List", authorizations = @Authorization(value = "basic"))
+  @Produces(MediaType.APPLICATION_JSON)
+  @RolesAllowed({
+      AuthzRole.MANAGER,
+      AuthzRole.CREATOR,
+      AuthzRole.ADMIN,
+      AuthzRole.MANAGER_REMOTE,
+      AuthzRole.CREATOR_REMOTE,
+      AuthzRole.ADMIN_REMOTE
+  })
+  public Response getSnapshotRecords(
+      @PathParam("pipelineName") String pipelineName,
+      @PathParam("snapshotName") String snapshotName,
+      @QueryParam("rev") @DefaultValue("0") String rev,
+      @QueryParam("batch") @DefaultValue("0") int batch,
+      @QueryParam("stageInstanceName") String stageInstanceName,
+      @QueryParam("lane") String lane,
+      @QueryParam("offset") @DefaultValue("0") int offset,
+      @QueryParam("size") @DefaultValue("100") int size) throws PipelineException, IOException {
+    RestAPIUtils.injectPipelineInMDC(pipelineName);
+    size = size > 1000 ? 1000 : size;
+    Runner runner = manager.getRunner(user, pipelineName, rev);
+    if(runner != null) {
+      try (Snapshot snapshot = runner.getSnapshot(snapshotName)) {
+        return Response.ok().type(MediaType.APPLICATION_JSON).entity(
+          BeanHelper.wrapRecords(snapshot.getRecords(batch, stageInstanceName, lane, offset, size))).build();
+      }
+    }
+    return Response.noContent().build();
+  }
+
   @Path("/pipeline/{pipelineName}/snapshot/{snapshotName}")
   @DELETE
   @ApiOperation(value = "Delete Snapshot data", authorizations = @Authorization(value = "basic"))
@@ -433,13 +470,20 @@ public class ManagerResource {
       @PathParam("pipelineName") String pipelineName,
       @QueryParam("rev") @DefaultValue("0") String rev,
       @QueryParam ("stageInstanceName") @DefaultValue("") String stageInstanceName,
-      @QueryParam ("size") @DefaultValue("10") int size) throws PipelineException {
+      @QueryParam ("size") @DefaultValue("10") int size,
+      @QueryParam ("offset") @DefaultValue("0") int offset,
+      @QueryParam ("errorCode") String errorCode) throws PipelineException {
     RestAPIUtils.injectPipelineInMDC(pipelineName);
     size = size > 100 ? 100 : size;
     Runner runner = manager.getRunner(user, pipelineName, rev);
     if(runner != null) {
-      return Response.ok().type(MediaType.APPLICATION_JSON).entity(
-        BeanHelper.wrapRecords(runner.getErrorRecords(stageInstanceName, size))).build();
+      List<Record> errorRecords;
+      if (offset > 0 || errorCode != null) {
+        errorRecords = runner.getErrorRecords(stageInstanceName, errorCode, offset, size);
+      } else {
+        errorRecords = runner.getErrorRecords(stageInstanceName, size);
+      }
+      return Response.ok().type(MediaType.APPLICATION_JSON).entity(BeanHelper.wrapRecords(errorRecords)).build();
     }
     return Response.noContent().build();
   }
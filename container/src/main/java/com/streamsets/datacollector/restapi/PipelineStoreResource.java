@@ -42,10 +42,12 @@ import com.streamsets.datacollector.stagelibrary.StageLibraryTask;
 import com.streamsets.datacollector.store.PipelineStoreException;
 import com.streamsets.datacollector.store.PipelineStoreTask;
 import com.streamsets.datacollector.util.AuthzRole;
+import com.streamsets.datacollector.util.Configuration;
 import com.streamsets.datacollector.util.ContainerError;
 import com.streamsets.datacollector.util.PipelineException;
 import com.streamsets.datacollector.validation.PipelineConfigurationValidator;
 import com.streamsets.datacollector.validation.RuleDefinitionValidator;
+import com.streamsets.datacollector.validation.StageValidationCache;
 import com.streamsets.pipeline.api.impl.Utils;
 
 import io.swagger.annotations.Api;
@@ -117,6 +119,7 @@ public class PipelineStoreResource {
 
 
   private final RuntimeInfo runtimeInfo;
+  private final Configuration configuration;
   private final PipelineStoreTask store;
   private final StageLibraryTask stageLibrary;
   private final URI uri;
@@ -124,12 +127,22 @@ public class PipelineStoreResource {
 
   @Inject
   public PipelineStoreResource(URI uri, Principal user, StageLibraryTask stageLibrary, PipelineStoreTask store,
-                               RuntimeInfo runtimeInfo) {
+                               RuntimeInfo runtimeInfo, Configuration configuration) {
     this.uri = uri;
     this.user = user.getName();
     this.stageLibrary = stageLibrary;
     this.store = store;
     this.runtimeInfo = runtimeInfo;
+    this.configuration = configuration;
+  }
+
+  private PipelineConfigurationValidator createValidator(String name, PipelineConfiguration pipelineConfig) {
+    return new PipelineConfigurationValidator(
+        stageLibrary,
+        name,
+        pipelineConfig,
+        StageValidationCache.get(runtimeInfo, configuration)
+    );
   }
 
   @Path("/pipelines")
@@ -181,7 +194,7 @@ public class PipelineStoreResource {
     Object data;
     if (get.equals("pipeline")) {
       PipelineConfiguration pipeline = store.load(name, rev);
-      PipelineConfigurationValidator validator = new PipelineConfigurationValidator(stageLibrary, name, pipeline);
+      PipelineConfigurationValidator validator = createValidator(name, pipeline);
       pipeline = validator.validate();
       data = BeanHelper.wrapPipelineConfiguration(pipeline);
     } else if (get.equals("info")) {
@@ -254,7 +267,7 @@ public class PipelineStoreResource {
     );
     store.storeRules(name, "0", ruleDefinitions);
 
-    PipelineConfigurationValidator validator = new PipelineConfigurationValidator(stageLibrary, name, pipeline);
+    PipelineConfigurationValidator validator = createValidator(name, pipeline);
     pipeline = validator.validate();
     return Response.created(UriBuilder.fromUri(uri).path(name).build()).entity(
       BeanHelper.wrapPipelineConfiguration(pipeline)).build();
@@ -299,7 +312,7 @@ public class PipelineStoreResource {
     }
     RestAPIUtils.injectPipelineInMDC(name);
     PipelineConfiguration pipelineConfig = BeanHelper.unwrapPipelineConfiguration(pipeline);
-    PipelineConfigurationValidator validator = new PipelineConfigurationValidator(stageLibrary, name, pipelineConfig);
+    PipelineConfigurationValidator validator = createValidator(name, pipelineConfig);
     pipelineConfig = validator.validate();
     pipelineConfig = store.save(user, name, rev, description, pipelineConfig);
     return Response.ok().entity(BeanHelper.wrapPipelineConfiguration(pipelineConfig)).build();
@@ -385,7 +398,7 @@ public class PipelineStoreResource {
   ) throws PipelineStoreException, URISyntaxException {
     RestAPIUtils.injectPipelineInMDC(name);
     PipelineConfiguration pipelineConfig = store.load(name, rev);
-    PipelineConfigurationValidator validator = new PipelineConfigurationValidator(stageLibrary, name, pipelineConfig);
+    PipelineConfigurationValidator validator = createValidator(name, pipelineConfig);
     pipelineConfig = validator.validate();
 
     RuleDefinitions ruleDefinitions = store.retrieveRules(name, rev);
@@ -19,9 +19,13 @@
  */
 package com.streamsets.datacollector.restapi.bean;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.streamsets.pipeline.api.impl.Utils;
 
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class ErrorMessageJson {
 
   private final com.streamsets.pipeline.api.impl.ErrorMessage errorMessage;
@@ -31,6 +35,14 @@ public class ErrorMessageJson {
     this.errorMessage = errorMessage;
   }
 
+  @JsonCreator
+  public ErrorMessageJson(
+    @JsonProperty("errorCode") String errorCode,
+    @JsonProperty("nonLocalized") String nonLocalized,
+    @JsonProperty("timestamp") long timestamp) {
+    this(new com.streamsets.pipeline.api.impl.ErrorMessage(errorCode, nonLocalized, timestamp));
+  }
+
   public String getErrorCode() {
     return errorMessage.getErrorCode();
   }
@@ -65,6 +65,7 @@ public class Pipeline {
   private final ResourceControlledScheduledExecutor scheduledExecutorService;
   private volatile boolean running;
   private boolean shouldStopOnStageError = false;
+  private Set<String> skippedStages = Collections.emptySet();
 
   private Pipeline(
       String name,
@@ -134,8 +135,17 @@ public class Pipeline {
     }
   }
 
-  @SuppressWarnings("unchecked")
   public List<Issue> init() {
+    return init(Collections.<String>emptySet());
+  }
+
+  /**
+   * Initializes the pipeline except for the given stages. Preview uses it for the stages whose output is replayed
+   * from a previous preview, as they never run. Skipped stages are not destroyed either.
+   */
+  @SuppressWarnings("unchecked")
+  public List<Issue> init(Set<String> stagesToSkip) {
+    skippedStages = stagesToSkip;
     PipeContext pipeContext = new PipeContext();
     List<Issue> issues = new ArrayList<>();
     try {
@@ -155,6 +165,9 @@ public class Pipeline {
       }
     }
     for (Pipe pipe : pipes) {
+      if (isSkipped(pipe)) {
+        continue;
+      }
       try {
         issues.addAll(pipe.init(pipeContext));
       } catch (Exception ex) {
@@ -183,6 +196,10 @@ public class Pipeline {
       LOG.warn(msg, ex);
     }
     for (Pipe pipe : pipes) {
+      if (isSkipped(pipe)) {
+        pipe.getStage().releaseClassLoader();
+        continue;
+      }
       try {
         pipe.destroy();
       } catch (RuntimeException ex) {
@@ -195,6 +212,10 @@ public class Pipeline {
     }
   }
 
+  private boolean isSkipped(Pipe pipe) {
+    return pipe instanceof StagePipe && skippedStages.contains(pipe.getStage().getInfo().getInstanceName());
+  }
+
   public void run() throws StageException, PipelineRuntimeException {
     this.running = true;
     try {
@@ -31,12 +31,13 @@ import com.streamsets.datacollector.config.StageType;
 import com.streamsets.datacollector.memory.MemoryMonitor;
 import com.streamsets.datacollector.memory.MemoryUsageCollector;
 import com.streamsets.datacollector.memory.MemoryUsageCollectorResourceBundle;
+import com.streamsets.datacollector.memory.RecordSizeEstimator;
+import com.streamsets.datacollector.memory.ThreadAllocationCounter;
 import com.streamsets.datacollector.metrics.MetricsConfigurator;
 import com.streamsets.datacollector.restapi.bean.CounterJson;
 import com.streamsets.datacollector.restapi.bean.HistogramJson;
 import com.streamsets.datacollector.restapi.bean.MeterJson;
 import com.streamsets.datacollector.restapi.bean.MetricRegistryJson;
-import com.streamsets.datacollector.util.AggregatorUtil;
 import com.streamsets.datacollector.util.Configuration;
 import com.streamsets.datacollector.validation.Issue;
 import com.streamsets.pipeline.api.Batch;
@@ -55,7 +56,20 @@ public class StagePipe extends Pipe<StagePipe.Context> {
   private static final Logger LOG = LoggerFactory.getLogger(StagePipe.class);
   //Runtime stat gauge name
   public static final String RUNTIME_STATS_GAUGE = "RuntimeStatsGauge";
+  // Walks the heap reachable from the stage, expensive
+  public static final String MONITOR_MEMORY_KEY = "monitor.memory";
+  // Samples allocated bytes and estimates the size of the produced records, cheap enough to leave on
+  public static final String MEMORY_ACCOUNTING_KEY = "monitor.memory.accounting";
+  public static final boolean MEMORY_ACCOUNTING_DEFAULT = true;
+  // Percentage of the stage processing time that record size estimation may take
+  public static final String MEMORY_ACCOUNTING_OVERHEAD_KEY = "monitor.memory.accounting.overhead.percent";
+  public static final int MEMORY_ACCOUNTING_OVERHEAD_DEFAULT = 1;
+  private static final int MEMORY_ACCOUNTING_MAX_SAMPLES = 100;
+  // Records stage latencies in bucketed histograms that keep the tail of the last minute
+  public static final String LATENCY_HISTOGRAMS_KEY = "monitor.latency.histograms";
+  public static final boolean LATENCY_HISTOGRAMS_DEFAULT = false;
   private Timer processingTimer;
+  private Timer latencyTimer;
   private Counter memoryConsumedCounter;
   private Meter inputRecordsMeter;
   private Meter outputRecordsMeter;
@@ -74,7 +88,17 @@ public class StagePipe extends Pipe<StagePipe.Context> {
   private final String rev;
   private final Configuration configuration;
   private final MetricRegistryJson metricRegistryJson;
-  private Map<String, Object> batchMetrics;
+  // metrics of the last batch for the statistics aggregator, output records are in the order of the output lanes
+  private long batchProcessingTime;
+  private int batchInputRecords;
+  private int batchOutputRecords;
+  private int batchErrorRecords;
+  private int batchStageErrors;
+  private int[] batchOutputRecordsPerLane = new int[0];
+  private RecordSizeEstimator recordSizeEstimator;
+  private volatile long allocatedBytes;
+  private volatile long retainedBytes;
+  private long processingTimeNanos;
 
   @VisibleForTesting
   StagePipe(StageRuntime stage, List<String> inputLanes, List<String> outputLanes) {
@@ -92,7 +116,6 @@ public class StagePipe extends Pipe<StagePipe.Context> {
     this.scheduledExecutorService = scheduledExecutorService;
     this.memoryUsageCollectorResourceBundle = memoryUsageCollectorResourceBundle;
     this.metricRegistryJson = metricRegistryJson;
-    this.batchMetrics = new HashMap<>();
   }
 
   @Override
@@ -102,6 +125,9 @@ public class StagePipe extends Pipe<StagePipe.Context> {
       MetricRegistry metrics = getStage().getContext().getMetrics();
       String metricsKey = "stage." + getStage().getConfiguration().getInstanceName();
       processingTimer = MetricsConfigurator.createTimer(metrics, metricsKey + ".batchProcessing", name, rev);
+      if (configuration.get(LATENCY_HISTOGRAMS_KEY, LATENCY_HISTOGRAMS_DEFAULT)) {
+        latencyTimer = MetricsConfigurator.createLatencyTimer(metrics, metricsKey + ".latency", name, rev);
+      }
       memoryConsumedCounter = MetricsConfigurator.createCounter(metrics, metricsKey + ".memoryConsumed", name, rev);
       inputRecordsMeter = MetricsConfigurator.createMeter(metrics, metricsKey + ".inputRecords", name, rev);
       outputRecordsMeter = MetricsConfigurator.createMeter(metrics, metricsKey + ".outputRecords", name, rev);
@@ -169,7 +195,7 @@ public class StagePipe extends Pipe<StagePipe.Context> {
         }
       }
       this.context = pipeContext;
-      if (configuration.get("monitor.memory", false)) {
+      if (configuration.get(MONITOR_MEMORY_KEY, false)) {
         LOG.info("Starting memory collector for {}", getStage().getInfo().getInstanceName());
         scheduledExecutorService.submit(
           new MemoryMonitor(memoryConsumedCounter,
@@ -181,6 +207,12 @@ public class StagePipe extends Pipe<StagePipe.Context> {
                   .setStageRuntime(getStage()).build();
               }
             }));
+      } else if (configuration.get(MEMORY_ACCOUNTING_KEY, MEMORY_ACCOUNTING_DEFAULT)) {
+        recordSizeEstimator = new RecordSizeEstimator(
+            configuration.get(MEMORY_ACCOUNTING_OVERHEAD_KEY, MEMORY_ACCOUNTING_OVERHEAD_DEFAULT) / 100.0,
+            MEMORY_ACCOUNTING_MAX_SAMPLES
+        );
+        createMemoryAccountingGauges(metrics, metricsKey);
       }
       createRuntimeStatsGauge(metrics);
     }
@@ -208,14 +240,22 @@ public class StagePipe extends Pipe<StagePipe.Context> {
 
     Batch batch = new FilterRecordBatch(batchImpl, predicates, instanceErrorSink);
 
-    long start = System.currentTimeMillis();
+    long allocatedAtStart = recordSizeEstimator != null ? ThreadAllocationCounter.getAllocatedBytes() : -1;
+    long startNanos = System.nanoTime();
     String newOffset = getStage().execute(previousOffset, pipeBatch.getBatchSize(), batch, batchMaker, errorSink);
     if (isSource()) {
       pipeBatch.setNewOffset(newOffset);
     }
 
-    long processingTime = System.currentTimeMillis() - start;
-    processingTimer.update(processingTime, TimeUnit.MILLISECONDS);
+    processingTimeNanos = System.nanoTime() - startNanos;
+    long processingTime = TimeUnit.NANOSECONDS.toMillis(processingTimeNanos);
+    processingTimer.update(processingTimeNanos, TimeUnit.NANOSECONDS);
+    if (latencyTimer != null) {
+      latencyTimer.update(processingTimeNanos, TimeUnit.NANOSECONDS);
+    }
+    if (recordSizeEstimator != null) {
+      accountMemory(allocatedAtStart, processingTimeNanos, batchMaker);
+    }
 
     int batchSize = batchImpl.getSize();
     inputRecordsMeter.mark(batchSize);
@@ -239,24 +279,24 @@ public class StagePipe extends Pipe<StagePipe.Context> {
     stageErrorMeter.mark(stageErrorsCount);
     stageErrorsHistogram.update(stageErrorsCount);
 
-    Map<String, Integer> outputRecordsPerLane = new HashMap<>();
-    if (getStage().getConfiguration().getOutputLanes().size() > 0) {
-      for (String lane : getStage().getConfiguration().getOutputLanes()) {
-        int outputRecords = batchMaker.getSize(lane);
-        outputRecordsPerLane.put(lane, outputRecords);
-        outputRecordsPerLaneCounter.get(lane).inc(outputRecords);
-        outputRecordsPerLaneMeter.get(lane).mark(outputRecords);
-      }
+    List<String> outputLanes = getStage().getConfiguration().getOutputLanes();
+    if (batchOutputRecordsPerLane.length != outputLanes.size()) {
+      batchOutputRecordsPerLane = new int[outputLanes.size()];
+    }
+    for (int i = 0; i < outputLanes.size(); i++) {
+      String lane = outputLanes.get(i);
+      int outputRecords = batchMaker.getSize(lane);
+      batchOutputRecordsPerLane[i] = outputRecords;
+      outputRecordsPerLaneCounter.get(lane).inc(outputRecords);
+      outputRecordsPerLaneMeter.get(lane).mark(outputRecords);
     }
 
     // capture stage metrics for this batch
-    batchMetrics.clear();
-    batchMetrics.put(AggregatorUtil.PROCESSING_TIME, processingTime);
-    batchMetrics.put(AggregatorUtil.INPUT_RECORDS, batchSize);
-    batchMetrics.put(AggregatorUtil.ERROR_RECORDS, stageErrorRecordCount);
-    batchMetrics.put(AggregatorUtil.OUTPUT_RECORDS, outputRecordsCount);
-    batchMetrics.put(AggregatorUtil.STAGE_ERROR, stageErrorsCount);
-    batchMetrics.put(AggregatorUtil.OUTPUT_RECORDS_PER_LANE, outputRecordsPerLane);
+    batchProcessingTime = processingTime;
+    batchInputRecords = batchSize;
+    batchErrorRecords = stageErrorRecordCount;
+    batchOutputRecords = outputRecordsCount;
+    batchStageErrors = stageErrorsCount;
 
     pipeBatch.completeStage(batchMaker);
 
@@ -279,8 +319,78 @@ public class StagePipe extends Pipe<StagePipe.Context> {
     return memoryConsumedCounter.getCount();
   }
 
-  public Map<String, Object> getBatchMetrics() {
-    return batchMetrics;
+  /**
+   * Bytes allocated by the stage while processing the last batch, -1 if not known.
+   */
+  public long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  /**
+   * Estimated size in bytes of the records the stage produced in the last batch.
+   */
+  public long getRetainedBytes() {
+    return retainedBytes;
+  }
+
+  /**
+   * Time in nanoseconds the stage took to process the last batch. For an origin this includes waiting for data.
+   */
+  public long getProcessingTimeNanos() {
+    return processingTimeNanos;
+  }
+
+  public long getBatchProcessingTime() {
+    return batchProcessingTime;
+  }
+
+  public int getBatchInputRecords() {
+    return batchInputRecords;
+  }
+
+  public int getBatchOutputRecords() {
+    return batchOutputRecords;
+  }
+
+  public int getBatchErrorRecords() {
+    return batchErrorRecords;
+  }
+
+  public int getBatchStageErrors() {
+    return batchStageErrors;
+  }
+
+  /**
+   * Records the stage wrote to each output lane in the last batch, in the order of the stage output lanes.
+   * The array is reused across batches.
+   */
+  public int[] getBatchOutputRecordsPerLane() {
+    return batchOutputRecordsPerLane;
+  }
+
+  private void accountMemory(long allocatedAtStart, long processingTimeNanos, BatchMakerImpl batchMaker) {
+    allocatedBytes = allocatedAtStart < 0 ? -1 : ThreadAllocationCounter.getAllocatedBytes() - allocatedAtStart;
+    retainedBytes = recordSizeEstimator.estimate(batchMaker.getStageOutput().values(), processingTimeNanos);
+    // memory consumed is reported in MB, as done by the memory monitor
+    memoryConsumedCounter.inc(retainedBytes / 1000000 - memoryConsumedCounter.getCount());
+  }
+
+  private void createMemoryAccountingGauges(MetricRegistry metrics, String metricsKey) {
+    // the gauges read the latest pipe, replace the ones left behind by a previous run
+    MetricsConfigurator.removeGauge(metrics, metricsKey + ".allocatedBytes", name, rev);
+    MetricsConfigurator.createGauge(metrics, metricsKey + ".allocatedBytes", new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return allocatedBytes;
+      }
+    }, name, rev);
+    MetricsConfigurator.removeGauge(metrics, metricsKey + ".retainedBytes", name, rev);
+    MetricsConfigurator.createGauge(metrics, metricsKey + ".retainedBytes", new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return retainedBytes;
+      }
+    }, name, rev);
   }
 
   private Gauge<Object> createRuntimeStatsGauge(MetricRegistry metricRegistry) {
@@ -205,6 +205,13 @@ public class StageRuntime {
     }
   }
 
+  /**
+   * Releases the stage classloader of a stage that has not been initialized, instead of {@link #destroy()}.
+   */
+  public void releaseClassLoader() {
+    stageBean.releaseClassLoader();
+  }
+
   public Stage.Info getInfo() {
     return info;
   }
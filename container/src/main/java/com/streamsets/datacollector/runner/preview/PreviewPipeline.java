@@ -19,6 +19,7 @@
  */
 package com.streamsets.datacollector.runner.preview;
 
+import com.streamsets.datacollector.config.PipelineConfiguration;
 import com.streamsets.datacollector.runner.Pipeline;
 import com.streamsets.datacollector.runner.PipelineRuntimeException;
 import com.streamsets.datacollector.runner.StageOutput;
@@ -27,19 +28,28 @@ import com.streamsets.datacollector.validation.Issues;
 import com.streamsets.pipeline.api.StageException;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class PreviewPipeline {
   private final String name;
   private final String rev;
   private final Pipeline pipeline;
   private final Issues issues;
+  private final PipelineConfiguration pipelineConf;
 
-  public PreviewPipeline(String name, String rev, Pipeline pipeline, Issues issues) {
+  public PreviewPipeline(String name, String rev, Pipeline pipeline, Issues issues,
+                         PipelineConfiguration pipelineConf) {
     this.name = name;
     this.rev = rev;
     this.issues = issues;
     this.pipeline = pipeline;
+    this.pipelineConf = pipelineConf;
+  }
+
+  public PipelineConfiguration getPipelineConfiguration() {
+    return pipelineConf;
   }
 
   @SuppressWarnings("unchecked")
@@ -49,8 +59,26 @@ public class PreviewPipeline {
 
   public PreviewPipelineOutput run(List<StageOutput> stageOutputsToOverride)
       throws StageException, PipelineRuntimeException{
+    return run(stageOutputsToOverride, Collections.<String>emptySet());
+  }
+
+  /**
+   * Runs the preview replaying the given stage outputs of a previous preview. Unlike overridden stages, the stages
+   * whose output is replayed are not initialized.
+   */
+  public PreviewPipelineOutput replay(List<StageOutput> stageOutputsToReplay)
+      throws StageException, PipelineRuntimeException{
+    Set<String> replayedStages = new HashSet<>();
+    for (StageOutput stageOutput : stageOutputsToReplay) {
+      replayedStages.add(stageOutput.getInstanceName());
+    }
+    return run(stageOutputsToReplay, replayedStages);
+  }
+
+  private PreviewPipelineOutput run(List<StageOutput> stageOutputsToOverride, Set<String> stagesToSkipInit)
+      throws StageException, PipelineRuntimeException{
     try {
-      List<Issue> initIssues = pipeline.init();
+      List<Issue> initIssues = pipeline.init(stagesToSkipInit);
       if (initIssues.isEmpty()) {
         pipeline.run(stageOutputsToOverride);
       } else {
@@ -30,6 +30,7 @@ import com.streamsets.datacollector.util.ContainerError;
 import com.streamsets.datacollector.util.ValidationUtil;
 import com.streamsets.datacollector.validation.Issues;
 import com.streamsets.datacollector.validation.PipelineConfigurationValidator;
+import com.streamsets.datacollector.validation.StageValidationCache;
 import com.streamsets.pipeline.api.StageException;
 
 import java.util.ArrayList;
@@ -58,6 +59,7 @@ public class PreviewPipelineBuilder {
   private final String rev;
   private PipelineConfiguration pipelineConf;
   private final String endStageInstanceName;
+  private final StageValidationCache stageValidationCache;
 
   /**
    * Constructor
@@ -70,12 +72,29 @@ public class PreviewPipelineBuilder {
    */
   public PreviewPipelineBuilder(StageLibraryTask stageLib, Configuration configuration, String name, String rev,
                                 PipelineConfiguration pipelineConf, String endStageInstanceName) {
+    this(stageLib, configuration, name, rev, pipelineConf, endStageInstanceName, null);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param stageLib Stage Library Task
+   * @param name Name of pipeline
+   * @param pipelineConf Pipeline Configuration
+   * @param endStageInstanceName Optional parameter, if passed builder will generate a partial pipeline and
+   *                             endStage is exclusive
+   * @param stageValidationCache Optional parameter, cache of per-stage validation results of previous validations
+   */
+  public PreviewPipelineBuilder(StageLibraryTask stageLib, Configuration configuration, String name, String rev,
+                                PipelineConfiguration pipelineConf, String endStageInstanceName,
+                                StageValidationCache stageValidationCache) {
     this.stageLib = new PreviewStageLibraryTask(stageLib);
     this.configuration = configuration;
     this.name = name;
     this.rev = rev;
     this.pipelineConf = pipelineConf;
     this.endStageInstanceName = endStageInstanceName;
+    this.stageValidationCache = stageValidationCache;
   }
 
   public PreviewPipeline build(PipelineRunner runner) throws PipelineRuntimeException, StageException {
@@ -113,7 +132,12 @@ public class PreviewPipelineBuilder {
       pipelineConf.setStages(stages);
     }
 
-    PipelineConfigurationValidator validator = new PipelineConfigurationValidator(stageLib, name, pipelineConf);
+    PipelineConfigurationValidator validator = new PipelineConfigurationValidator(
+        stageLib,
+        name,
+        pipelineConf,
+        stageValidationCache
+    );
     pipelineConf = validator.validate();
     if (!validator.getIssues().hasIssues() || validator.canPreview()) {
       List<String> openLanes = validator.getOpenLanes();
@@ -127,7 +151,7 @@ public class PreviewPipelineBuilder {
      Pipeline.Builder builder = new Pipeline.Builder(stageLib, configuration, name + ":preview", name, rev, pipelineConf);
      Pipeline pipeline = builder.build(runner);
      if (pipeline != null) {
-       return new PreviewPipeline(name, rev, pipeline, validator.getIssues());
+       return new PreviewPipeline(name, rev, pipeline, validator.getIssues(), pipelineConf);
      } else {
        Issues issues = new Issues(builder.getIssues());
        throw new PipelineRuntimeException(issues);
@@ -22,6 +22,7 @@ package com.streamsets.datacollector.stagelibrary;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Splitter;
+import com.google.common.base.Throwables;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
@@ -36,13 +37,17 @@ import com.streamsets.datacollector.config.StageLibraryDefinition;
 import com.streamsets.datacollector.definition.StageDefinitionExtractor;
 import com.streamsets.datacollector.definition.StageLibraryDefinitionExtractor;
 import com.streamsets.datacollector.el.RuntimeEL;
+import com.streamsets.datacollector.io.DataStore;
 import com.streamsets.datacollector.json.ObjectMapperFactory;
+import com.streamsets.datacollector.main.BuildInfo;
+import com.streamsets.datacollector.main.DataCollectorBuildInfo;
 import com.streamsets.datacollector.main.RuntimeInfo;
 import com.streamsets.datacollector.task.AbstractTask;
 import com.streamsets.datacollector.util.Configuration;
 import com.streamsets.pipeline.api.Stage;
 import com.streamsets.pipeline.api.impl.LocaleInContext;
 import com.streamsets.pipeline.api.impl.Utils;
+import com.streamsets.pipeline.lib.executor.SafeScheduledExecutorService;
 
 import org.apache.commons.pool2.BaseKeyedPooledObjectFactory;
 import org.apache.commons.pool2.KeyedObjectPool;
@@ -55,8 +60,10 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.util.ArrayList;
@@ -69,11 +76,19 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class ClassLoaderStageLibraryTask extends AbstractTask implements StageLibraryTask {
   public static final String MAX_PRIVATE_STAGE_CLASS_LOADERS_KEY = "max.stage.private.classloaders";
   public static final int MAX_PRIVATE_STAGE_CLASS_LOADERS_DEFAULT = 50;
+  public static final String LOAD_THREADS_KEY = "stage.libraries.load.threads";
+  public static final int LOAD_THREADS_DEFAULT = Math.min(8, Runtime.getRuntime().availableProcessors());
+  public static final String INDEX_ENABLED_KEY = "stage.libraries.index.enabled";
+  public static final boolean INDEX_ENABLED_DEFAULT = true;
+  static final String INDEX_DIR = "stageLibraryIndex";
 
   private static final String CONFIG_LIBRARY_ALIAS_PREFIX = "library.alias.";
   private static final String CONFIG_STAGE_ALIAS_PREFIX = "stage.alias.";
@@ -85,8 +100,10 @@ public class ClassLoaderStageLibraryTask extends AbstractTask implements StageLi
   private final Map<String,String> stageNameAliases;
   private final Configuration configuration;
   private List<? extends ClassLoader> stageClassLoaders;
+  private List<LibraryStages> libraries;
+  private Map<String, LibraryStages> librariesByName;
   private Map<String, StageDefinition> stageMap;
-  private List<StageDefinition> stageList;
+  private volatile List<StageDefinition> stageList;
   private LoadingCache<Locale, List<StageDefinition>> localizedStageList;
   private ObjectMapper json;
   private KeyedObjectPool<String, ClassLoader> privateClassLoaderPool;
@@ -182,30 +199,27 @@ public class ClassLoaderStageLibraryTask extends AbstractTask implements StageLi
       resolveClassLoaderMethods(stageClassLoaders.get(0));
     }
     json = ObjectMapperFactory.get();
-    stageList = new ArrayList<>();
-    stageMap = new HashMap<>();
-    loadStages();
-    stageList = ImmutableList.copyOf(stageList);
-    stageMap = ImmutableMap.copyOf(stageMap);
+    stageMap = new ConcurrentHashMap<>();
+    List<StageLibraryIndex.Stage> indexStages = loadStages();
 
     // localization cache for definitions
     localizedStageList = CacheBuilder.newBuilder().build(new CacheLoader<Locale, List<StageDefinition>>() {
       @Override
       public List<StageDefinition> load(Locale key) throws Exception {
         List<StageDefinition> list = new ArrayList<>();
-        for (StageDefinition stage : stageList) {
+        for (StageDefinition stage : getAllStages()) {
           list.add(stage.localize());
         }
         return list;
       }
     });
-    validateStageVersions(stageList);
+    validateIndexedStageVersions(indexStages);
 
     // initializing the list of targets that can be used for error handling
-    ErrorHandlingChooserValues.setErrorHandlingOptions(this);
+    ErrorHandlingChooserValues.setErrorHandlingOptions(indexStages);
 
     // initializing the list of targets that can be used as aggregating sink
-    StatsTargetChooserValues.setStatsTargetOptions(this);
+    StatsTargetChooserValues.setStatsTargetOptions(indexStages);
 
     // initializing the pool of private stage classloaders
     GenericKeyedObjectPoolConfig poolConfig = new GenericKeyedObjectPoolConfig();
@@ -261,8 +275,49 @@ public class ClassLoaderStageLibraryTask extends AbstractTask implements StageLi
     return list;
   }
 
+  /**
+   * Stage definitions of a stage library. Libraries found unchanged in the stage library index are only extracted,
+   * loading their stage classes, the first time one of their stages is needed.
+   */
+  private class LibraryStages {
+    private final ClassLoader classLoader;
+    private final String name;
+    private String checksum;
+    private StageLibraryIndex index;
+    private volatile List<StageDefinition> stages;
+
+    LibraryStages(ClassLoader classLoader) {
+      this.classLoader = classLoader;
+      name = StageLibraryUtils.getLibraryName(classLoader);
+    }
+
+    boolean isLoaded() {
+      return stages != null;
+    }
+
+    List<StageDefinition> get() {
+      if (stages == null) {
+        synchronized (this) {
+          if (stages == null) {
+            List<StageDefinition> loaded = loadLibrary(classLoader);
+            for (StageDefinition stage : loaded) {
+              stageMap.put(createKey(stage.getLibrary(), stage.getName()), stage);
+            }
+            stages = ImmutableList.copyOf(loaded);
+          }
+        }
+      }
+      return stages;
+    }
+  }
+
+  /**
+   * Resolves the stages of all libraries, returning the index stages of every library in classloader order. Only the
+   * libraries missing from the stage library index, or whose jars, Data Collector build or locale changed since the
+   * index was written, are extracted here; their index is written again.
+   */
   @VisibleForTesting
-  void loadStages() {
+  List<StageLibraryIndex.Stage> loadStages() {
     if (LOG.isDebugEnabled()) {
       for (ClassLoader cl : stageClassLoaders) {
         LOG.debug("About to load stages from library '{}'", StageLibraryUtils.getLibraryName(cl));
@@ -276,58 +331,241 @@ public class ClassLoaderStageLibraryTask extends AbstractTask implements StageLi
         Utils.format("Could not load runtime configuration, '{}'", e.toString()), e);
     }
 
+    long start = System.currentTimeMillis();
+    File indexDir = getIndexDir();
+    String sdcBuild = getSdcBuild();
+    libraries = new ArrayList<>(stageClassLoaders.size());
+    librariesByName = new HashMap<>();
+    List<LibraryStages> toLoad = new ArrayList<>();
+    for (ClassLoader cl : stageClassLoaders) {
+      LibraryStages library = new LibraryStages(cl);
+      libraries.add(library);
+      librariesByName.put(library.name, library);
+      if (indexDir != null) {
+        library.checksum = computeChecksum(library);
+        if (library.checksum != null) {
+          library.index = readIndex(indexDir, library, sdcBuild);
+        }
+      }
+      if (library.index == null) {
+        toLoad.add(library);
+      }
+    }
+    loadLibraries(toLoad);
+
+    List<StageLibraryIndex.Stage> indexStages = new ArrayList<>();
+    for (LibraryStages library : toLoad) {
+      library.index = createIndex(library, sdcBuild);
+      if (library.checksum != null) {
+        writeIndex(indexDir, library.index);
+      }
+    }
+    for (LibraryStages library : libraries) {
+      indexStages.addAll(library.index.getStages());
+    }
+    if (toLoad.size() == libraries.size()) {
+      getAllStages();
+    }
+    LOG.debug("Loaded '{}' libraries, '{}' from the index, with a total of '{}' stages in '{}ms'", libraries.size(),
+              libraries.size() - toLoad.size(), indexStages.size(), System.currentTimeMillis() - start);
+    return indexStages;
+  }
+
+  private File getIndexDir() {
+    if (!configuration.get(INDEX_ENABLED_KEY, INDEX_ENABLED_DEFAULT) || runtimeInfo.getDataDir() == null) {
+      return null;
+    }
+    return new File(runtimeInfo.getDataDir(), INDEX_DIR);
+  }
+
+  private String getSdcBuild() {
+    BuildInfo buildInfo = new DataCollectorBuildInfo();
+    return buildInfo.getVersion() + "-" + buildInfo.getSourceMd5Checksum();
+  }
+
+  private String computeChecksum(LibraryStages library) {
+    try {
+      return StageLibraryIndex.computeChecksum(library.classLoader);
+    } catch (IOException ex) {
+      LOG.warn("Could not compute the checksum of library '{}', it won't be indexed: {}", library.name, ex.toString(),
+               ex);
+      return null;
+    }
+  }
+
+  private File getIndexFile(File indexDir, String library) {
+    return new File(indexDir, library + ".json");
+  }
+
+  private StageLibraryIndex readIndex(File indexDir, LibraryStages library, String sdcBuild) {
+    File indexFile = getIndexFile(indexDir, library.name);
+    if (indexFile.exists()) {
+      try (InputStream is = new DataStore(indexFile).getInputStream()) {
+        StageLibraryIndex index = json.readValue(is, StageLibraryIndex.class);
+        if (library.name.equals(index.getLibrary()) && library.checksum.equals(index.getChecksum()) &&
+            sdcBuild.equals(index.getSdcBuild()) && Locale.getDefault().toString().equals(index.getLocale())) {
+          return index;
+        }
+        LOG.debug("Index of library '{}' is out of date", library.name);
+      } catch (IOException ex) {
+        LOG.warn("Could not read index of library '{}', loading the library: {}", library.name, ex.toString(), ex);
+      }
+    }
+    return null;
+  }
+
+  private StageLibraryIndex createIndex(LibraryStages library, String sdcBuild) {
+    StageLibraryIndex index = new StageLibraryIndex();
+    index.setLibrary(library.name);
+    index.setChecksum(library.checksum);
+    index.setSdcBuild(sdcBuild);
+    index.setLocale(Locale.getDefault().toString());
+    for (StageDefinition stage : library.get()) {
+      index.getStages().add(new StageLibraryIndex.Stage(stage));
+    }
+    return index;
+  }
+
+  private void writeIndex(File indexDir, StageLibraryIndex index) {
+    if (!indexDir.exists() && !indexDir.mkdirs()) {
+      LOG.warn("Could not create stage library index directory '{}'", indexDir);
+      return;
+    }
+    DataStore dataStore = new DataStore(getIndexFile(indexDir, index.getLibrary()));
+    try (OutputStream os = dataStore.getOutputStream()) {
+      json.writeValue(os, index);
+      dataStore.commit(os);
+    } catch (IOException ex) {
+      LOG.warn("Could not write index of library '{}': {}", index.getLibrary(), ex.toString(), ex);
+    } finally {
+      dataStore.release();
+    }
+  }
+
+  @VisibleForTesting
+  boolean isLibraryLoaded(String library) {
+    return librariesByName.get(library).isLoaded();
+  }
+
+  /**
+   * Returns the stage definitions of all libraries in classloader order, extracting the libraries that were not
+   * needed so far.
+   */
+  private List<StageDefinition> getAllStages() {
+    if (stageList == null) {
+      synchronized (this) {
+        if (stageList == null) {
+          loadLibraries(libraries);
+          List<StageDefinition> list = new ArrayList<>();
+          for (LibraryStages library : libraries) {
+            list.addAll(library.get());
+          }
+          stageList = ImmutableList.copyOf(list);
+        }
+      }
+    }
+    return stageList;
+  }
+
+  /**
+   * Extracts the stage definitions of the given libraries, each library has its own classloader so up to
+   * <code>stage.libraries.load.threads</code> of them are loaded at the same time.
+   */
+  private void loadLibraries(List<LibraryStages> toLoad) {
+    final List<LibraryStages> pending = new ArrayList<>();
+    for (LibraryStages library : toLoad) {
+      if (!library.isLoaded()) {
+        pending.add(library);
+      }
+    }
+    int threads = Math.min(pending.size(), configuration.get(LOAD_THREADS_KEY, LOAD_THREADS_DEFAULT));
+    if (threads <= 1) {
+      for (LibraryStages library : pending) {
+        library.get();
+      }
+      return;
+    }
+    SafeScheduledExecutorService executor = new SafeScheduledExecutorService(threads, "StageLibraryLoader");
+    try {
+      List<Future<List<StageDefinition>>> futures = new ArrayList<>(pending.size());
+      for (final LibraryStages library : pending) {
+        futures.add(executor.submit(new Callable<List<StageDefinition>>() {
+          @Override
+          public List<StageDefinition> call() {
+            return library.get();
+          }
+        }));
+      }
+      for (Future<List<StageDefinition>> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(Utils.format("Interrupted while loading stage libraries, {}", ex.toString()), ex);
+    } catch (ExecutionException ex) {
+      Throwables.propagateIfPossible(ex.getCause());
+      throw new RuntimeException(Utils.format("Could not load stage libraries, {}", ex.toString()), ex);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<StageDefinition> loadLibrary(ClassLoader cl) {
+    List<StageDefinition> libraryStages = new ArrayList<>();
+    // libraries may be extracted lazily while serving a request, keep the locale of the request
+    Locale requestLocale = LocaleInContext.get();
     try {
-      int libs = 0;
-      int stages = 0;
-      long start = System.currentTimeMillis();
       LocaleInContext.set(Locale.getDefault());
-      for (ClassLoader cl : stageClassLoaders) {
-        libs++;
-        StageLibraryDefinition libDef = StageLibraryDefinitionExtractor.get().extract(cl);
-        LOG.debug("Loading stages from library '{}'", libDef.getName());
-        try {
-          Enumeration<URL> resources = cl.getResources(STAGES_DEFINITION_RESOURCE);
-          while (resources.hasMoreElements()) {
-            Map<String, String> stagesInLibrary = new HashMap<>();
-            URL url = resources.nextElement();
-            try (InputStream is = url.openStream()) {
-              List<String> stageList = json.readValue(is, List.class);
-              stageList = removeIgnoreStagesFromList(libDef, stageList);
-              for (String className : stageList) {
-                stages++;
-                Class<? extends Stage> klass = (Class<? extends Stage>) cl.loadClass(className);
-                StageDefinition stage = StageDefinitionExtractor.get().
-                    extract(libDef, klass, Utils.formatL("Library='{}'", libDef.getName()));
-                String key = createKey(libDef.getName(), stage.getName());
-                LOG.debug("Loaded stage '{}' (library:name)", key);
-                if (stagesInLibrary.containsKey(key)) {
-                  throw new IllegalStateException(Utils.format(
-                      "Library '{}' contains more than one definition for stage '{}', class '{}' and class '{}'",
-                      libDef.getName(), key, stagesInLibrary.get(key), stage.getStageClass()));
-                }
-                stagesInLibrary.put(key, stage.getClassName());
-                this.stageList.add(stage);
-                stageMap.put(key, stage);
-                computeDependsOnChain(stage);
+      StageLibraryDefinition libDef = StageLibraryDefinitionExtractor.get().extract(cl);
+      LOG.debug("Loading stages from library '{}'", libDef.getName());
+      try {
+        Enumeration<URL> resources = cl.getResources(STAGES_DEFINITION_RESOURCE);
+        while (resources.hasMoreElements()) {
+          Map<String, String> stagesInLibrary = new HashMap<>();
+          URL url = resources.nextElement();
+          try (InputStream is = url.openStream()) {
+            List<String> stageList = json.readValue(is, List.class);
+            stageList = removeIgnoreStagesFromList(libDef, stageList);
+            for (String className : stageList) {
+              Class<? extends Stage> klass = (Class<? extends Stage>) cl.loadClass(className);
+              StageDefinition stage = StageDefinitionExtractor.get().
+                  extract(libDef, klass, Utils.formatL("Library='{}'", libDef.getName()));
+              String key = createKey(libDef.getName(), stage.getName());
+              LOG.debug("Loaded stage '{}' (library:name)", key);
+              if (stagesInLibrary.containsKey(key)) {
+                throw new IllegalStateException(Utils.format(
+                    "Library '{}' contains more than one definition for stage '{}', class '{}' and class '{}'",
+                    libDef.getName(), key, stagesInLibrary.get(key), stage.getStageClass()));
               }
+              stagesInLibrary.put(key, stage.getClassName());
+              libraryStages.add(stage);
+              computeDependsOnChain(stage);
             }
           }
-        } catch (IOException | ClassNotFoundException ex) {
-          throw new RuntimeException(
-              Utils.format("Could not load stages definition from '{}', {}", cl, ex.toString()), ex);
         }
+      } catch (IOException | ClassNotFoundException ex) {
+        throw new RuntimeException(
+            Utils.format("Could not load stages definition from '{}', {}", cl, ex.toString()), ex);
       }
-      LOG.debug("Loaded '{}' libraries with a total of '{}' stages in '{}ms'", libs, stages,
-                System.currentTimeMillis() - start);
     } finally {
-      LocaleInContext.set(null);
+      LocaleInContext.set(requestLocale);
     }
+    return libraryStages;
   }
 
   void validateStageVersions(List<StageDefinition> stageList) {
+    List<StageLibraryIndex.Stage> stages = new ArrayList<>();
+    for (StageDefinition stage : stageList) {
+      stages.add(new StageLibraryIndex.Stage(stage));
+    }
+    validateIndexedStageVersions(stages);
+  }
+
+  void validateIndexedStageVersions(List<StageLibraryIndex.Stage> stageList) {
     boolean err = false;
     Map<String, Set<Integer>> stageVersions = new HashMap<>();
-    for (StageDefinition stage : stageList) {
+    for (StageLibraryIndex.Stage stage : stageList) {
       Set<Integer> versions = stageVersions.get(stage.getName());
       if (versions == null) {
         versions = new HashSet<>();
@@ -340,7 +578,7 @@ public class ClassLoaderStageLibraryTask extends AbstractTask implements StageLi
       List<String> errors = new ArrayList<>();
       for (Map.Entry<String, Set<Integer>> entry : stageVersions.entrySet()) {
         if (entry.getValue().size() > 1) {
-          for (StageDefinition stage : stageList) {
+          for (StageLibraryIndex.Stage stage : stageList) {
             if (stage.getName().equals(entry.getKey())) {
               errors.add(Utils.format("Stage='{}' Version='{}' Library='{}'", stage.getName(), stage.getVersion(),
                 stage.getLibrary()));
@@ -387,10 +625,10 @@ public class ClassLoaderStageLibraryTask extends AbstractTask implements StageLi
   @Override
   public List<StageDefinition> getStages() {
     try {
-      return (LocaleInContext.get() == null) ? stageList : localizedStageList.get(LocaleInContext.get());
+      return (LocaleInContext.get() == null) ? getAllStages() : localizedStageList.get(LocaleInContext.get());
     } catch (ExecutionException ex) {
       LOG.warn("Error loading locale '{}', {}", LocaleInContext.get(), ex.toString(), ex);
-      return stageList;
+      return getAllStages();
     }
   }
 
@@ -398,6 +636,10 @@ public class ClassLoaderStageLibraryTask extends AbstractTask implements StageLi
   @SuppressWarnings("unchecked")
   public StageDefinition getStage(String library, String name, boolean forExecution) {
     StageDefinition def = stageMap.get(createKey(library, name));
+    if (def == null && librariesByName.containsKey(library)) {
+      librariesByName.get(library).get();
+      def = stageMap.get(createKey(library, name));
+    }
     if (forExecution &&  def.isPrivateClassLoader()) {
       def = new StageDefinition(def, getStageClassLoader(def));
     }
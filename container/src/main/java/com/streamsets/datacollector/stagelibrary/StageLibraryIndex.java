@@ -0,0 +1,226 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.stagelibrary;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.streamsets.datacollector.config.StageDefinition;
+import com.streamsets.datacollector.config.StageType;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Summary of the stages of a stage library, it is stored as JSON in the data directory so the next start up can tell
+ * which stages a library has without loading its classes. The index is only valid for the library jars, the Data
+ * Collector build and the locale it was created with.
+ */
+public class StageLibraryIndex {
+  private String library;
+  private String checksum;
+  private String sdcBuild;
+  private String locale;
+  private List<Stage> stages = new ArrayList<>();
+
+  public String getLibrary() {
+    return library;
+  }
+
+  public void setLibrary(String library) {
+    this.library = library;
+  }
+
+  public String getChecksum() {
+    return checksum;
+  }
+
+  public void setChecksum(String checksum) {
+    this.checksum = checksum;
+  }
+
+  public String getSdcBuild() {
+    return sdcBuild;
+  }
+
+  public void setSdcBuild(String sdcBuild) {
+    this.sdcBuild = sdcBuild;
+  }
+
+  public String getLocale() {
+    return locale;
+  }
+
+  public void setLocale(String locale) {
+    this.locale = locale;
+  }
+
+  public List<Stage> getStages() {
+    return stages;
+  }
+
+  public void setStages(List<Stage> stages) {
+    this.stages = stages;
+  }
+
+  /**
+   * Returns the checksum of the jars of the given stage library classloader, or <code>null</code> if the library
+   * can't be indexed because it is not made of jar files only. The checksum is computed from the name, CRC and size
+   * of every jar entry, which are read from the jar central directory without reading the entries themselves.
+   */
+  public static String computeChecksum(ClassLoader cl) throws IOException {
+    if (!(cl instanceof URLClassLoader)) {
+      return null;
+    }
+    URL[] urls = ((URLClassLoader) cl).getURLs();
+    if (urls.length == 0) {
+      return null;
+    }
+    Hasher hasher = Hashing.sha256().newHasher();
+    for (URL url : urls) {
+      if (!"file".equals(url.getProtocol()) || !url.getPath().endsWith(".jar")) {
+        return null;
+      }
+      File jar;
+      try {
+        jar = new File(url.toURI());
+      } catch (URISyntaxException ex) {
+        throw new IOException(ex);
+      }
+      hasher.putString(jar.getName(), Charsets.UTF_8);
+      try (ZipFile zip = new ZipFile(jar)) {
+        Enumeration<? extends ZipEntry> entries = zip.entries();
+        while (entries.hasMoreElements()) {
+          ZipEntry entry = entries.nextElement();
+          hasher.putString(entry.getName(), Charsets.UTF_8).putLong(entry.getCrc()).putLong(entry.getSize());
+        }
+      }
+    }
+    return hasher.hash().toString();
+  }
+
+  public static class Stage {
+    private String className;
+    private String library;
+    private String libraryLabel;
+    private String name;
+    private int version;
+    private String label;
+    private StageType type;
+    private boolean errorStage;
+    private boolean statsAggregatorStage;
+
+    public Stage() {
+    }
+
+    public Stage(StageDefinition def) {
+      className = def.getClassName();
+      library = def.getLibrary();
+      libraryLabel = def.getLibraryLabel();
+      name = def.getName();
+      version = def.getVersion();
+      label = def.getLabel();
+      type = def.getType();
+      errorStage = def.isErrorStage();
+      statsAggregatorStage = def.isStatsAggregatorStage();
+    }
+
+    public String getClassName() {
+      return className;
+    }
+
+    public void setClassName(String className) {
+      this.className = className;
+    }
+
+    public String getLibrary() {
+      return library;
+    }
+
+    public void setLibrary(String library) {
+      this.library = library;
+    }
+
+    public String getLibraryLabel() {
+      return libraryLabel;
+    }
+
+    public void setLibraryLabel(String libraryLabel) {
+      this.libraryLabel = libraryLabel;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public int getVersion() {
+      return version;
+    }
+
+    public void setVersion(int version) {
+      this.version = version;
+    }
+
+    public String getLabel() {
+      return label;
+    }
+
+    public void setLabel(String label) {
+      this.label = label;
+    }
+
+    public StageType getType() {
+      return type;
+    }
+
+    public void setType(StageType type) {
+      this.type = type;
+    }
+
+    public boolean isErrorStage() {
+      return errorStage;
+    }
+
+    public void setErrorStage(boolean errorStage) {
+      this.errorStage = errorStage;
+    }
+
+    public boolean isStatsAggregatorStage() {
+      return statsAggregatorStage;
+    }
+
+    public void setStatsAggregatorStage(boolean statsAggregatorStage) {
+      this.statsAggregatorStage = statsAggregatorStage;
+    }
+  }
+
+}
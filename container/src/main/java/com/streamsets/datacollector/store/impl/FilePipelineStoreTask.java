@@ -19,8 +19,11 @@
  */
 package com.streamsets.datacollector.store.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.streamsets.datacollector.config.DriftRuleDefinition;
 import com.streamsets.datacollector.config.StageConfiguration;
@@ -68,9 +71,12 @@ import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -85,6 +91,8 @@ public class FilePipelineStoreTask extends AbstractTask implements PipelineStore
   public static final String UI_INFO_FILE = "uiinfo.json";
   public static final String RULES_FILE = "rules.json";
   public static final String STATE = "state";
+  // maximum number of parsed pipeline definitions kept in memory
+  private static final int MAX_CACHED_DEFINITIONS = 100;
 
   private final StageLibraryTask stageLibrary;
   private final RuntimeInfo runtimeInfo;
@@ -92,6 +100,10 @@ public class FilePipelineStoreTask extends AbstractTask implements PipelineStore
   private final ObjectMapper json;
   private final PipelineStateStore pipelineStateStore;
   private final ConcurrentMap<String, RuleDefinitions> pipelineToRuleDefinitionMap;
+  // pipeline infos by pipeline directory name, loaded at init and refreshed when the info file changes on disk
+  private final ConcurrentMap<String, CatalogEntry<PipelineInfo>> catalog;
+  // parsed pipeline and ui info files, refreshed when the file changes on disk
+  private final Cache<File, CatalogEntry<JsonNode>> definitions;
 
   @Inject
   public FilePipelineStoreTask(RuntimeInfo runtimeInfo, StageLibraryTask stageLibrary,
@@ -101,6 +113,8 @@ public class FilePipelineStoreTask extends AbstractTask implements PipelineStore
     this.runtimeInfo = runtimeInfo;
     json = ObjectMapperFactory.get();
     pipelineToRuleDefinitionMap = new ConcurrentHashMap<>();
+    catalog = new ConcurrentHashMap<>();
+    definitions = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_DEFINITIONS).softValues().build();
     this.pipelineStateStore = pipelineStateStore;
     this.lockCache = lockCache;
   }
@@ -121,6 +135,12 @@ public class FilePipelineStoreTask extends AbstractTask implements PipelineStore
     if (pipelineStateStore != null) {
       pipelineStateStore.init();
     }
+    try {
+      // loads the catalog
+      getPipelines();
+    } catch (PipelineStoreException ex) {
+      LOG.warn("Could not load the pipeline catalog, pipelines will be loaded on first use: {}", ex.toString(), ex);
+    }
   }
 
   @Override
@@ -128,6 +148,68 @@ public class FilePipelineStoreTask extends AbstractTask implements PipelineStore
     if (pipelineStateStore != null) {
       pipelineStateStore.destroy();
     }
+    catalog.clear();
+    definitions.invalidateAll();
+  }
+
+  /**
+   * A value read from a file together with the modification time and length of the file before it was read, a
+   * change made while reading makes the entry stale instead of going unnoticed.
+   */
+  private static class CatalogEntry<T> {
+    private final T value;
+    private final long lastModified;
+    private final long length;
+
+    CatalogEntry(T value, long lastModified, long length) {
+      this.value = value;
+      this.lastModified = lastModified;
+      this.length = length;
+    }
+
+    boolean isCurrent(File file) {
+      return lastModified == file.lastModified() && length == file.length();
+    }
+  }
+
+  private String getCatalogKey(String name) {
+    return getPipelineDir(name).getName();
+  }
+
+  // returns the info from the catalog, reading the info file if it is not in the catalog or it changed on disk
+  private PipelineInfo readInfo(String key, File infoFile) throws IOException {
+    CatalogEntry<PipelineInfo> entry = catalog.get(key);
+    if (entry == null || !entry.isCurrent(infoFile)) {
+      long lastModified = infoFile.lastModified();
+      long length = infoFile.length();
+      PipelineInfo info = json.readValue(infoFile, PipelineInfoJson.class).getPipelineInfo();
+      entry = new CatalogEntry<>(info, lastModified, length);
+      catalog.put(key, entry);
+    }
+    return entry.value;
+  }
+
+  private void writeInfo(String name, PipelineInfo info) throws IOException {
+    File infoFile = getInfoFile(name);
+    json.writeValue(infoFile, BeanHelper.wrapPipelineInfo(info));
+    catalog.put(getCatalogKey(name), new CatalogEntry<>(info, infoFile.lastModified(), infoFile.length()));
+  }
+
+  // returns the parsed file from the cache, parsing it if it is not cached or it changed on disk
+  private JsonNode readDefinition(File file) throws IOException {
+    CatalogEntry<JsonNode> entry = definitions.getIfPresent(file);
+    if (entry == null || !entry.isCurrent(file)) {
+      long lastModified = file.lastModified();
+      long length = file.length();
+      entry = new CatalogEntry<>(json.readTree(file), lastModified, length);
+      definitions.put(file, entry);
+    }
+    return entry.value;
+  }
+
+  private void invalidateDefinitions(String name) {
+    definitions.invalidate(getPipelineFile(name));
+    definitions.invalidate(getPipelineUiInfoFile(name));
   }
 
   public File getPipelineDir(String name) {
@@ -175,8 +257,9 @@ public class FilePipelineStoreTask extends AbstractTask implements PipelineStore
           .getPipeline().getPipelineDefaultConfigs(), Collections.EMPTY_MAP, Collections.EMPTY_LIST, null, null);
 
       try {
-        json.writeValue(getInfoFile(name), BeanHelper.wrapPipelineInfo(info));
+        writeInfo(name, info);
         json.writeValue(getPipelineFile(name), BeanHelper.wrapPipelineConfiguration(pipeline));
+        invalidateDefinitions(name);
       } catch (Exception ex) {
         throw new PipelineStoreException(ContainerError.CONTAINER_0202, name, ex.toString(), ex);
       }
@@ -189,6 +272,8 @@ public class FilePipelineStoreTask extends AbstractTask implements PipelineStore
   }
 
   private boolean cleanUp(String name) throws PipelineStoreException {
+    catalog.remove(getCatalogKey(name));
+    invalidateDefinitions(name);
     boolean deleted = PipelineDirectoryUtil.deleteAll(getPipelineDir(name));
     deleted &= PipelineDirectoryUtil.deletePipelineDir(runtimeInfo, name);
     if(deleted) {
@@ -233,14 +318,16 @@ public class FilePipelineStoreTask extends AbstractTask implements PipelineStore
       throw new PipelineStoreException(ContainerError.CONTAINER_0213, storeDir.getPath());
     }
 
+    // drop the pipelines deleted out of band
+    Set<String> names = new HashSet<>(Arrays.asList(filenames));
+    catalog.keySet().retainAll(names);
+
     for (String name : filenames) {
-      PipelineInfoJson pipelineInfoJsonBean;
       try {
-        pipelineInfoJsonBean = json.readValue(getInfoFile(name), PipelineInfoJson.class);
+        pipelineInfoList.add(readInfo(name, getInfoFile(name)));
       } catch (IOException e) {
         throw new PipelineStoreException(ContainerError.CONTAINER_0206, name);
       }
-      pipelineInfoList.add(pipelineInfoJsonBean.getPipelineInfo());
     }
     return Collections.unmodifiableList(pipelineInfoList);
   }
@@ -256,8 +343,7 @@ public class FilePipelineStoreTask extends AbstractTask implements PipelineStore
         throw new PipelineStoreException(ContainerError.CONTAINER_0200, name);
       }
       try {
-        PipelineInfoJson pipelineInfoJsonBean = json.readValue(getInfoFile(name), PipelineInfoJson.class);
-        return pipelineInfoJsonBean.getPipelineInfo();
+        return readInfo(getCatalogKey(name), getInfoFile(name));
       } catch (Exception ex) {
         throw new PipelineStoreException(ContainerError.CONTAINER_0206, name);
       }
@@ -294,8 +380,9 @@ public class FilePipelineStoreTask extends AbstractTask implements PipelineStore
       );
       try {
         pipeline.setUuid(uuid);
-        json.writeValue(getInfoFile(name), BeanHelper.wrapPipelineInfo(info));
+        writeInfo(name, info);
         json.writeValue(getPipelineFile(name), BeanHelper.wrapPipelineConfiguration(pipeline));
+        invalidateDefinitions(name);
         if (pipelineStateStore != null) {
           List<Issue> errors = new ArrayList<>();
           PipelineBeanCreator.get().create(pipeline, errors);
@@ -331,14 +418,15 @@ public class FilePipelineStoreTask extends AbstractTask implements PipelineStore
       }
       try {
         PipelineInfo info = getInfo(name);
+        // the cached trees are bound to new beans on every load as callers modify the returned pipeline
         PipelineConfigurationJson pipelineConfigBean =
-          json.readValue(getPipelineFile(name), PipelineConfigurationJson.class);
+          json.treeToValue(readDefinition(getPipelineFile(name)), PipelineConfigurationJson.class);
         PipelineConfiguration pipeline = pipelineConfigBean.getPipelineConfiguration();
         pipeline.setPipelineInfo(info);
 
         Map<String, Map> uiInfo;
         if (getPipelineUiInfoFile(name).exists()) {
-          uiInfo = json.readValue(getPipelineUiInfoFile(name), Map.class);
+          uiInfo = json.treeToValue(readDefinition(getPipelineUiInfoFile(name)), Map.class);
           pipeline = injectUiInfo(uiInfo, pipeline);
         }
 
@@ -436,6 +524,7 @@ public class FilePipelineStoreTask extends AbstractTask implements PipelineStore
   public void saveUiInfo(String name, String rev, Map<String, Object> uiInfo) throws PipelineStoreException {
     try {
       json.writeValue(getPipelineUiInfoFile(name), uiInfo);
+      definitions.invalidate(getPipelineUiInfoFile(name));
     } catch (Exception ex) {
       throw new PipelineStoreException(ContainerError.CONTAINER_0405, name, ex.toString(), ex);
     }
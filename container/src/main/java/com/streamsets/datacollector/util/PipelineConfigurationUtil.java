@@ -20,8 +20,11 @@
 package com.streamsets.datacollector.util;
 
 import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
 import com.streamsets.datacollector.config.PipelineConfiguration;
 import com.streamsets.datacollector.config.StageConfiguration;
 import com.streamsets.datacollector.json.ObjectMapperFactory;
@@ -30,7 +33,9 @@ import com.streamsets.datacollector.restapi.bean.PipelineConfigurationJson;
 import com.streamsets.pipeline.api.Config;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -78,4 +83,31 @@ public class PipelineConfigurationUtil {
     return null;
   }
 
+  /**
+   * Returns a hash of the given stage configuration, ignoring its UI info, together with the given context values.
+   * Returns <code>null</code> if the configuration values cannot be serialized.
+   */
+  public static String getStageHash(StageConfiguration stageConf, Map<String, Object> context) {
+    List<Object> configs = new ArrayList<>(stageConf.getConfiguration().size());
+    for (Config config : stageConf.getConfiguration()) {
+      configs.add(new Object[]{config.getName(), config.getValue()});
+    }
+    Map<String, Object> fingerprint = new LinkedHashMap<>();
+    fingerprint.put("library", stageConf.getLibrary());
+    fingerprint.put("stageName", stageConf.getStageName());
+    fingerprint.put("stageVersion", stageConf.getStageVersion());
+    fingerprint.put("instanceName", stageConf.getInstanceName());
+    fingerprint.put("systemGenerated", stageConf.isSystemGenerated());
+    fingerprint.put("inputLanes", stageConf.getInputLanes());
+    fingerprint.put("outputLanes", stageConf.getOutputLanes());
+    fingerprint.put("configuration", configs);
+    fingerprint.put("context", context);
+    try {
+      String json = ObjectMapperFactory.getOneLine().writeValueAsString(fingerprint);
+      return Hashing.sha256().hashString(json, Charsets.UTF_8).toString();
+    } catch (JsonProcessingException ex) {
+      return null;
+    }
+  }
+
 }
@@ -78,11 +78,25 @@ public class PipelineConfigurationValidator {
   private boolean canPreview;
   private final Map<String, Object> constants;
   private PipelineBean pipelineBean;
+  private final StageValidationCache stageValidationCache;
 
   public PipelineConfigurationValidator(
       StageLibraryTask stageLibrary,
       String name,
       PipelineConfiguration pipelineConfiguration
+  ) {
+    this(stageLibrary, name, pipelineConfiguration, null);
+  }
+
+  /**
+   * Creates a validator that reuses the per-stage check results of previous validations from the given cache, for
+   * the validations done on behalf of the pipeline editor and preview. The cache may be <code>null</code>.
+   */
+  public PipelineConfigurationValidator(
+      StageLibraryTask stageLibrary,
+      String name,
+      PipelineConfiguration pipelineConfiguration,
+      StageValidationCache stageValidationCache
   ) {
     Preconditions.checkNotNull(stageLibrary, "stageLibrary cannot be null");
     Preconditions.checkNotNull(name, "name cannot be null");
@@ -93,6 +107,7 @@ public class PipelineConfigurationValidator {
     issues = new Issues();
     openLanes = new ArrayList<>();
     this.constants = ElUtil.getConstants(pipelineConfiguration);
+    this.stageValidationCache = stageValidationCache;
   }
 
   boolean sortStages() {
@@ -430,6 +445,47 @@ public class PipelineConfigurationValidator {
       boolean errorStage,
       boolean statsAggregatorStage,
       IssueCreator issueCreator
+  ) {
+    String key = null;
+    if (stageValidationCache != null) {
+      key = StageValidationCache.getKey(stageConf, shouldBeSource, errorStage, statsAggregatorStage, constants);
+    }
+    if (key == null) {
+      return validateStageConfigurationUncached(
+          shouldBeSource,
+          stageConf,
+          errorStage,
+          statsAggregatorStage,
+          issueCreator
+      );
+    }
+    StageValidationCache.Result result = stageValidationCache.get(key);
+    if (result == null) {
+      // the checks of a stage only add issues of that stage, they are the tail of the issues list
+      int priorIssues = issues.getIssueCount();
+      boolean preview = validateStageConfigurationUncached(
+          shouldBeSource,
+          stageConf,
+          errorStage,
+          statsAggregatorStage,
+          issueCreator
+      );
+      List<Issue> all = issues.getIssues();
+      result = new StageValidationCache.Result(preview, all.subList(priorIssues, all.size()));
+      stageValidationCache.put(key, result);
+    } else {
+      LOG.trace("Pipeline '{}' stage '{}' validation result from cache", name, stageConf.getInstanceName());
+      issues.addAll(result.getIssues());
+    }
+    return result.canPreview();
+  }
+
+  private boolean validateStageConfigurationUncached(
+      boolean shouldBeSource,
+      StageConfiguration stageConf,
+      boolean errorStage,
+      boolean statsAggregatorStage,
+      IssueCreator issueCreator
   ) {
     boolean preview = true;
     StageDefinition stageDef = stageLibrary.getStage(
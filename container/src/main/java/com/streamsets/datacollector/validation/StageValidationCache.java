@@ -0,0 +1,173 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.validation;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import com.streamsets.datacollector.config.StageConfiguration;
+import com.streamsets.datacollector.main.RuntimeInfo;
+import com.streamsets.datacollector.util.Configuration;
+import com.streamsets.datacollector.util.PipelineConfigurationUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Cache of the results of the per-stage checks done by the {@link PipelineConfigurationValidator}.
+ * <p/>
+ * Entries are keyed by a hash of everything the per-stage checks look at: the stage configuration (without its UI
+ * info), the position flags of the stage and the pipeline constants. Editing a stage changes its hash, so only the
+ * edited stages are checked again, while the pipeline wide checks (lanes, stage order, error stage) always run.
+ * <p/>
+ * The cache is meant for the validations done on behalf of the pipeline editor and preview, the validation done when
+ * a pipeline starts does not use it.
+ */
+public class StageValidationCache {
+  private static final Logger LOG = LoggerFactory.getLogger(StageValidationCache.class);
+
+  public static final String CACHE_SIZE_KEY = "pipeline.validation.cache.size";
+  public static final int CACHE_SIZE_DEFAULT = 1000;
+
+  static final String HITS_GAUGE = "pipeline.validation.cache.hits.gauge";
+  static final String MISSES_GAUGE = "pipeline.validation.cache.misses.gauge";
+  static final String HIT_RATE_GAUGE = "pipeline.validation.cache.hitRate.gauge";
+
+  private static final String CACHE_ATTR = "pipeline.validation.cache";
+
+  /**
+   * Outcome of the checks of one stage: whether the stage allows preview and the issues it reported.
+   */
+  public static class Result {
+    private final boolean canPreview;
+    private final List<Issue> issues;
+
+    public Result(boolean canPreview, List<Issue> issues) {
+      this.canPreview = canPreview;
+      this.issues = ImmutableList.copyOf(issues);
+    }
+
+    public boolean canPreview() {
+      return canPreview;
+    }
+
+    public List<Issue> getIssues() {
+      return issues;
+    }
+  }
+
+  private final Cache<String, Result> cache;
+
+  public StageValidationCache(int maxSize) {
+    cache = CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
+  }
+
+  /**
+   * Returns the cache shared by all the editor and preview validations of this Data Collector, it is created the
+   * first time and kept as a RuntimeInfo attribute. Returns <code>null</code> if the cache is disabled, size zero.
+   */
+  public static StageValidationCache get(RuntimeInfo runtimeInfo, Configuration configuration) {
+    synchronized (StageValidationCache.class) {
+      StageValidationCache validationCache = runtimeInfo.getAttribute(CACHE_ATTR);
+      if (validationCache == null) {
+        int size = configuration.get(CACHE_SIZE_KEY, CACHE_SIZE_DEFAULT);
+        if (size <= 0) {
+          return null;
+        }
+        validationCache = new StageValidationCache(size);
+        validationCache.registerMetrics(runtimeInfo.getMetrics());
+        runtimeInfo.setAttribute(CACHE_ATTR, validationCache);
+      }
+      return validationCache;
+    }
+  }
+
+  /**
+   * Returns the key for the checks of the given stage, or <code>null</code> if the stage configuration cannot be
+   * hashed, in which case the stage must be validated without the cache.
+   */
+  public static String getKey(
+      StageConfiguration stageConf,
+      boolean shouldBeSource,
+      boolean errorStage,
+      boolean statsAggregatorStage,
+      Map<String, Object> constants
+  ) {
+    Map<String, Object> context = new LinkedHashMap<>();
+    context.put("flags", new boolean[]{shouldBeSource, errorStage, statsAggregatorStage});
+    context.put("constants", new TreeMap<>(constants));
+    String key = PipelineConfigurationUtil.getStageHash(stageConf, context);
+    if (key == null) {
+      LOG.debug("Stage '{}' configuration cannot be hashed, validating it uncached", stageConf.getInstanceName());
+    }
+    return key;
+  }
+
+  public Result get(String key) {
+    return cache.getIfPresent(key);
+  }
+
+  public void put(String key, Result result) {
+    cache.put(key, result);
+  }
+
+  public CacheStats getStats() {
+    return cache.stats();
+  }
+
+  @VisibleForTesting
+  long size() {
+    return cache.size();
+  }
+
+  void registerMetrics(MetricRegistry metrics) {
+    // replaces the gauges of a previous cache, if any
+    metrics.remove(HITS_GAUGE);
+    metrics.remove(MISSES_GAUGE);
+    metrics.remove(HIT_RATE_GAUGE);
+    metrics.register(HITS_GAUGE, new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return cache.stats().hitCount();
+      }
+    });
+    metrics.register(MISSES_GAUGE, new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return cache.stats().missCount();
+      }
+    });
+    metrics.register(HIT_RATE_GAUGE, new Gauge<Double>() {
+      @Override
+      public Double getValue() {
+        return cache.stats().hitRate();
+      }
+    });
+  }
+
+}
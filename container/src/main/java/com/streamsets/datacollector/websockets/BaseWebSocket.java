@@ -66,11 +66,23 @@ public class BaseWebSocket extends WebSocketAdapter {
   }
 
   public void notification(String message) {
+    send(message);
+  }
+
+  /**
+   * Queues a message for the client.
+   *
+   * @return false if the message was discarded.
+   */
+  protected boolean send(String message) {
     if(webSocketSession != null && webSocketSession.isOpen()) {
       if (!queue.offer(new WebSocketMessage(webSocketSession, message))) {
         LOG.warn("WebSocket queue is full, discarding '{}' message", type);
+        return false;
       }
+      return true;
     }
+    return false;
   }
 
 }
\ No newline at end of file
@@ -19,15 +19,85 @@
  */
 package com.streamsets.datacollector.websockets;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.metrics.MetricsEventListener;
+import com.streamsets.datacollector.metrics.MetricsPayload;
+import com.streamsets.datacollector.metrics.MetricsSubscriber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Queue;
 
-public class MetricsWebSocket extends BaseWebSocket implements MetricsEventListener {
+/**
+ * Streams the metrics of a pipeline.
+ * <p/>
+ * Clients can restrict the stream to metrics whose names start with given prefixes and ask for deltas, in which
+ * case they get all the subscribed metrics first and then only the ones that changed. The subscription is set
+ * with the <code>metrics</code> (comma separated prefixes) and <code>delta</code> request parameters, and can be
+ * changed by sending <code>{"metrics": [...], "delta": true}</code> over the socket.
+ */
+public class MetricsWebSocket extends BaseWebSocket implements MetricsSubscriber {
+  private static final Logger LOG = LoggerFactory.getLogger(MetricsWebSocket.class);
   public static final String TYPE = "metrics";
+  public static final String METRICS_PARAM = "metrics";
+  public static final String DELTA_PARAM = "delta";
+
+  private volatile List<String> metricPrefixes;
+  private volatile boolean delta;
+  // the next notification must carry all the subscribed metrics
+  private volatile boolean sendFull;
 
   public MetricsWebSocket(ListenerManager<MetricsEventListener> listenerManager, Queue<WebSocketMessage> queue) {
+    this(listenerManager, queue, Collections.<String>emptyList(), false);
+  }
+
+  public MetricsWebSocket(
+      ListenerManager<MetricsEventListener> listenerManager,
+      Queue<WebSocketMessage> queue,
+      List<String> metricPrefixes,
+      boolean delta
+  ) {
     super(TYPE, listenerManager, queue);
+    this.metricPrefixes = metricPrefixes;
+    this.delta = delta;
+    this.sendFull = true;
+  }
+
+  @Override
+  public void notification(MetricsPayload payload) {
+    try {
+      boolean full = !delta || sendFull;
+      String message = full ? payload.getJson(metricPrefixes) : payload.getDeltaJson(metricPrefixes);
+      // a lost delta leaves the client out of sync, resend everything next time
+      sendFull = !send(message);
+    } catch (IOException ex) {
+      LOG.warn("Error while serializing metrics, {}", ex.toString(), ex);
+    }
+  }
+
+  @Override
+  public void onWebSocketText(String message) {
+    super.onWebSocketText(message);
+    try {
+      JsonNode subscription = ObjectMapperFactory.get().readTree(message);
+      List<String> prefixes = new ArrayList<>();
+      JsonNode metrics = subscription.get(METRICS_PARAM);
+      if (metrics != null) {
+        for (JsonNode prefix : metrics) {
+          prefixes.add(prefix.asText());
+        }
+      }
+      metricPrefixes = prefixes;
+      delta = subscription.path(DELTA_PARAM).asBoolean(false);
+      sendFull = true;
+    } catch (IOException ex) {
+      LOG.warn("Invalid metrics subscription '{}': {}", message, ex.toString());
+    }
   }
 
-}
\ No newline at end of file
+}
@@ -19,6 +19,7 @@
  */
 package com.streamsets.datacollector.websockets;
 
+import com.google.common.base.Splitter;
 import com.streamsets.datacollector.alerts.AlertEventListener;
 import com.streamsets.datacollector.execution.EventListenerManager;
 import com.streamsets.datacollector.execution.StateEventListener;
@@ -40,6 +41,8 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
@@ -133,7 +136,7 @@ public class SDCWebSocketServlet extends WebSocketServlet implements WebSocketCr
             public void unregister(MetricsEventListener listener) {
               eventListenerManager.removeMetricsEventListener(pipelineName, listener);
             }
-          }, queue);
+          }, queue, getMetricPrefixes(httpRequest), isDelta(httpRequest));
         case AlertsWebSocket.TYPE:
           return new AlertsWebSocket(new ListenerManager<AlertEventListener>() {
             @Override
@@ -151,6 +154,18 @@ public class SDCWebSocketServlet extends WebSocketServlet implements WebSocketCr
     return null;
   }
 
+  private static List<String> getMetricPrefixes(HttpServletRequest request) {
+    String metrics = request.getParameter(MetricsWebSocket.METRICS_PARAM);
+    if (metrics == null) {
+      return Collections.emptyList();
+    }
+    return Splitter.on(',').trimResults().omitEmptyStrings().splitToList(metrics);
+  }
+
+  private static boolean isDelta(HttpServletRequest request) {
+    return Boolean.parseBoolean(request.getParameter(MetricsWebSocket.DELTA_PARAM));
+  }
+
   @Override
   protected void service(HttpServletRequest request, HttpServletResponse response) throws ServletException,
       IOException {
@@ -31,7 +31,13 @@ import com.streamsets.pipeline.api.ElParam;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class TestELDefinitionExtractor {
 
@@ -50,6 +56,15 @@ public class TestELDefinitionExtractor {
 
   }
 
+  public static class Concurrent {
+
+    @ElFunction(prefix = "concurrent", name = "f", description = "ff")
+    public static String f(@ElParam("x") int x) {
+      return null;
+    }
+
+  }
+
   public static class Fail1 {
 
     @ElFunction(prefix = "p", name = "f")
@@ -138,4 +153,37 @@ public class TestELDefinitionExtractor {
     Assert.assertEquals("CC", constants.get(0).getDescription());
     Assert.assertEquals(String.class.getSimpleName(), constants.get(0).getReturnType());
   }
+
+  @Test
+  public void testConcurrentExtraction() throws Exception {
+    final CountDownLatch start = new CountDownLatch(1);
+    List<Future<List<ElFunctionDefinition>>> futures = new ArrayList<>();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      for (int i = 0; i < 8; i++) {
+        futures.add(executor.submit(new Callable<List<ElFunctionDefinition>>() {
+          @Override
+          public List<ElFunctionDefinition> call() throws Exception {
+            start.await();
+            return ELDefinitionExtractor.get().extractFunctions(ImmutableSet.<Class>of(Concurrent.class), "x");
+          }
+        }));
+      }
+      start.countDown();
+      ElFunctionDefinition first = futures.get(0).get().get(0);
+      for (Future<List<ElFunctionDefinition>> future : futures) {
+        Assert.assertSame(first, future.get().get(0));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    int inCatalog = 0;
+    for (ElFunctionDefinition fDef : ELDefinitionExtractor.get().getElFunctionsCatalog().values()) {
+      if (fDef.getName().equals("concurrent:f")) {
+        inCatalog++;
+      }
+    }
+    Assert.assertEquals(1, inCatalog);
+  }
 }
@@ -302,6 +302,12 @@ public class TestRemoteDataCollector {
       return null;
     }
 
+    @Override
+    public List<Record> getErrorRecords(String stage, String errorCode, int offset, int max)
+        throws PipelineRunnerException, PipelineStoreException {
+      return null;
+    }
+
     @Override
     public List<ErrorMessage> getErrorMessages(String stage, int max) throws PipelineRunnerException, PipelineStoreException {
       // TODO Auto-generated method stub
@@ -20,6 +20,7 @@
 package com.streamsets.datacollector.execution.manager.standalone;
 
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.streamsets.datacollector.execution.EventListenerManager;
 import com.streamsets.datacollector.execution.Manager;
 import com.streamsets.datacollector.execution.PipelineState;
@@ -82,9 +83,10 @@ public class TestStandalonePipelineManager {
   private PipelineStoreTask pipelineStoreTask;
   private Manager pipelineManager;
   private PipelineStateStore pipelineStateStore;
+  private RuntimeInfo runtimeInfo;
 
   @Module(injects = {StandaloneAndClusterPipelineManager.class, PipelineStoreTask.class, PipelineStateStore.class,
-    StandaloneRunner.class, EventListenerManager.class, LockCache.class},  includes = LockCacheModule.class,
+    StandaloneRunner.class, EventListenerManager.class, LockCache.class, RuntimeInfo.class},  includes = LockCacheModule.class,
     library = true)
   public static class TestPipelineManagerModule {
     private static Logger LOG = LoggerFactory.getLogger(TestPipelineManagerModule.class);
@@ -192,6 +194,7 @@ public class TestStandalonePipelineManager {
     ObjectGraph objectGraph = ObjectGraph.create(new TestPipelineManagerModule(expiry));
     pipelineStoreTask = objectGraph.get(PipelineStoreTask.class);
     pipelineStateStore = objectGraph.get(PipelineStateStore.class);
+    runtimeInfo = objectGraph.get(RuntimeInfo.class);
     pipelineManager = new StandaloneAndClusterPipelineManager(objectGraph);
     pipelineManager.init();
   }
@@ -288,6 +291,28 @@ public class TestStandalonePipelineManager {
     assertFalse(((StandaloneAndClusterPipelineManager) pipelineManager).isRunnerPresent("aaaa", "0"));
   }
 
+  @Test
+  public void testParallelRecovery() throws Exception {
+    for (String name : Arrays.asList("aaaa", "bbbb", "cccc", "dddd", "eeee")) {
+      pipelineStoreTask.create("user", name, "blah", false);
+      pipelineStateStore.saveState("user", name, "0", PipelineStatus.CONNECTING, "blah", null, ExecutionMode.STANDALONE,
+        null, 0, 0);
+    }
+    pipelineStoreTask.create("user", "ffff", "blah", false);
+
+    pipelineManager.stop();
+    pipelineStoreTask.stop();
+
+    setUpManager(StandaloneAndClusterPipelineManager.DEFAULT_RUNNER_EXPIRY_INTERVAL);
+    Timer timer = runtimeInfo.getMetrics().getTimers().get(StandaloneAndClusterPipelineManager.RECOVERY_TIMER);
+    assertNotNull(timer);
+    assertEquals(5, timer.getCount());
+    for (String name : Arrays.asList("aaaa", "bbbb", "cccc", "dddd", "eeee")) {
+      assertTrue(((StandaloneAndClusterPipelineManager) pipelineManager).isRunnerPresent(name, "0"));
+    }
+    assertFalse(((StandaloneAndClusterPipelineManager) pipelineManager).isRunnerPresent("ffff", "0"));
+  }
+
   @Test
   public void testExpiry() throws Exception {
     pipelineStoreTask.create("user", "aaaa", "blah", false);
@@ -22,11 +22,13 @@ package com.streamsets.datacollector.execution.preview;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.ImmutableList;
 import com.streamsets.datacollector.config.PipelineConfiguration;
+import com.streamsets.datacollector.config.StageConfiguration;
 import com.streamsets.datacollector.execution.PreviewOutput;
 import com.streamsets.datacollector.execution.PreviewStatus;
 import com.streamsets.datacollector.execution.Previewer;
 import com.streamsets.datacollector.execution.PreviewerListener;
 import com.streamsets.datacollector.execution.RawPreview;
+import com.streamsets.datacollector.execution.preview.common.PreviewSessionCache;
 import com.streamsets.datacollector.execution.preview.sync.SyncPreviewer;
 import com.streamsets.datacollector.main.RuntimeInfo;
 import com.streamsets.datacollector.main.RuntimeModule;
@@ -40,6 +42,7 @@ import com.streamsets.datacollector.store.PipelineStoreTask;
 import com.streamsets.datacollector.util.Configuration;
 import com.streamsets.datacollector.util.ContainerError;
 import com.streamsets.pipeline.api.Batch;
+import com.streamsets.pipeline.api.Config;
 import com.streamsets.pipeline.api.BatchMaker;
 import com.streamsets.pipeline.api.ErrorCode;
 import com.streamsets.pipeline.api.Field;
@@ -71,6 +74,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class TestPreviewer {
 
@@ -111,6 +115,11 @@ public abstract class TestPreviewer {
       return MockStages.createStageLibrary(new URLClassLoader(new URL[0]));
     }
 
+    @Provides @Singleton
+    public PreviewSessionCache providePreviewSessionCache(Configuration configuration) {
+      return new PreviewSessionCache(configuration);
+    }
+
   }
 
   //Mock Error Code implementation
@@ -492,6 +501,91 @@ public abstract class TestPreviewer {
     Assert.assertEquals(20, output.get(1).getOutput().get("p").get(0).get().getValue());
   }
 
+  @Test
+  public void testPreviewSessionReplay() throws Throwable {
+    configuration.set(PreviewSessionCache.TTL_KEY, 60000L);
+    final AtomicInteger sourceInits = new AtomicInteger();
+    final AtomicInteger sourceBatches = new AtomicInteger();
+    final AtomicInteger processedRecords = new AtomicInteger();
+    MockStages.setSourceCapture(new BaseSource() {
+      @Override
+      public List<ConfigIssue> init(Info info, Source.Context context) {
+        sourceInits.incrementAndGet();
+        return super.init(info, context);
+      }
+
+      @Override
+      public String produce(String lastSourceOffset, int maxBatchSize, BatchMaker batchMaker) throws StageException {
+        sourceBatches.incrementAndGet();
+        Record record = getContext().createRecord("x");
+        record.set(Field.create(1));
+        batchMaker.addRecord(record);
+        return "1";
+      }
+    });
+    MockStages.setProcessorCapture(new SingleLaneRecordProcessor() {
+      @Override
+      protected void process(Record record, SingleLaneBatchMaker batchMaker) throws StageException {
+        processedRecords.incrementAndGet();
+        record.set(Field.create(record.get().getValueAsInteger() * 2));
+        batchMaker.addRecord(record);
+      }
+    });
+    MockStages.setTargetCapture(new BaseTarget() {
+      @Override
+      public void write(Batch batch) throws StageException {
+      }
+    });
+
+    // the third preview adds a processor between 'p' and the target
+    PipelineConfiguration edited = MockStages.createPipelineConfigurationSourceProcessorTarget();
+    List<StageConfiguration> stages = new ArrayList<>(edited.getStages());
+    stages.add(2, new StageConfiguration("p2", "default", "processorName", 1, Collections.<Config>emptyList(), null,
+        ImmutableList.of("p"), ImmutableList.of("p2")));
+    stages.set(3, new StageConfiguration("t", "default", "targetName", 1, Collections.<Config>emptyList(), null,
+        ImmutableList.of("p2"), Collections.<String>emptyList()));
+    edited.setStages(stages);
+    Mockito.when(pipelineStore.load(Mockito.anyString(), Mockito.anyString())).thenReturn(
+        MockStages.createPipelineConfigurationSourceProcessorTarget(),
+        MockStages.createPipelineConfigurationSourceProcessorTarget(),
+        edited
+    );
+
+    Previewer previewer = createPreviewer();
+    previewer.start(1, 10, true, null, new ArrayList<StageOutput>(), 5000);
+    previewer.waitForCompletion(5000);
+    Assert.assertEquals(PreviewStatus.FINISHED.name(), previewer.getStatus().name());
+    List<StageOutput> output = previewer.getOutput().getOutput().get(0);
+    Assert.assertEquals(2, output.get(1).getOutput().get("p").get(0).get().getValue());
+    Assert.assertEquals(1, sourceInits.get());
+    Assert.assertEquals(1, sourceBatches.get());
+    Assert.assertEquals(1, processedRecords.get());
+
+    // nothing changed, the origin and the processor are replayed
+    previewer = createPreviewer();
+    previewer.start(1, 10, true, null, new ArrayList<StageOutput>(), 5000);
+    previewer.waitForCompletion(5000);
+    Assert.assertEquals(PreviewStatus.FINISHED.name(), previewer.getStatus().name());
+    output = previewer.getOutput().getOutput().get(0);
+    Assert.assertEquals(1, output.get(0).getOutput().get("s").get(0).get().getValue());
+    Assert.assertEquals(2, output.get(1).getOutput().get("p").get(0).get().getValue());
+    Assert.assertEquals(1, sourceInits.get());
+    Assert.assertEquals(1, sourceBatches.get());
+    Assert.assertEquals(1, processedRecords.get());
+
+    // only the new processor runs, on the replayed output of 'p'
+    previewer = createPreviewer();
+    previewer.start(1, 10, true, null, new ArrayList<StageOutput>(), 5000);
+    previewer.waitForCompletion(5000);
+    Assert.assertEquals(PreviewStatus.FINISHED.name(), previewer.getStatus().name());
+    output = previewer.getOutput().getOutput().get(0);
+    Assert.assertEquals(2, output.get(1).getOutput().get("p").get(0).get().getValue());
+    Assert.assertEquals(4, output.get(2).getOutput().get("p2").get(0).get().getValue());
+    Assert.assertEquals(1, sourceInits.get());
+    Assert.assertEquals(1, sourceBatches.get());
+    Assert.assertEquals(2, processedRecords.get());
+  }
+
   @Test
   public void testPreviewException() throws Throwable {
 
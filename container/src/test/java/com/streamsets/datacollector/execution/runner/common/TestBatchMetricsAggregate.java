@@ -0,0 +1,103 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.runner.common;
+
+import com.google.common.collect.ImmutableList;
+import com.streamsets.datacollector.config.StageConfiguration;
+import com.streamsets.datacollector.runner.StagePipe;
+import com.streamsets.datacollector.runner.StageRuntime;
+import com.streamsets.datacollector.util.AggregatorUtil;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.Stage;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+
+public class TestBatchMetricsAggregate {
+
+  private static StagePipe createStagePipe(String instanceName, String... lanes) {
+    Stage.Info info = Mockito.mock(Stage.Info.class);
+    Mockito.when(info.getInstanceName()).thenReturn(instanceName);
+    StageConfiguration stageConfiguration = Mockito.mock(StageConfiguration.class);
+    Mockito.when(stageConfiguration.getOutputLanes()).thenReturn(ImmutableList.copyOf(lanes));
+    StageRuntime stageRuntime = Mockito.mock(StageRuntime.class);
+    Mockito.when(stageRuntime.getInfo()).thenReturn(info);
+    Mockito.when(stageRuntime.getConfiguration()).thenReturn(stageConfiguration);
+    StagePipe pipe = Mockito.mock(StagePipe.class);
+    Mockito.when(pipe.getStage()).thenReturn(stageRuntime);
+    return pipe;
+  }
+
+  @Test
+  public void testCoalesceBatches() {
+    StagePipe source = createStagePipe("source", "lane");
+    Mockito.when(source.getBatchProcessingTime()).thenReturn(10L);
+    Mockito.when(source.getBatchInputRecords()).thenReturn(0);
+    Mockito.when(source.getBatchOutputRecords()).thenReturn(100);
+    Mockito.when(source.getBatchOutputRecordsPerLane()).thenReturn(new int[] {100});
+    StagePipe target = createStagePipe("target");
+    Mockito.when(target.getBatchProcessingTime()).thenReturn(5L);
+    Mockito.when(target.getBatchInputRecords()).thenReturn(100);
+    Mockito.when(target.getBatchOutputRecords()).thenReturn(98);
+    Mockito.when(target.getBatchErrorRecords()).thenReturn(2);
+    Mockito.when(target.getBatchOutputRecordsPerLane()).thenReturn(new int[0]);
+
+    BatchMetricsAggregate aggregate = new BatchMetricsAggregate(ImmutableList.of(source, target));
+    Assert.assertNull(aggregate.toRecord());
+
+    aggregate.addBatch(20, 100, 98, 2, 1);
+    aggregate.addBatch(30, 100, 98, 2, 1);
+    Assert.assertEquals(2, aggregate.getBatchCount());
+    Assert.assertTrue(aggregate.getFirstBatchTime() > 0);
+
+    Record record = aggregate.toRecord();
+    Assert.assertNotNull(record);
+    Assert.assertEquals(2, record.get("/" + AggregatorUtil.BATCH_COUNT).getValueAsInteger());
+    Assert.assertEquals(50, record.get("/" + AggregatorUtil.PIPELINE_BATCH_DURATION).getValueAsLong());
+    Assert.assertEquals(200, record.get("/" + AggregatorUtil.BATCH_INPUT_RECORDS).getValueAsInteger());
+    Assert.assertEquals(4, record.get("/" + AggregatorUtil.BATCH_ERROR_RECORDS).getValueAsInteger());
+    Assert.assertEquals(2, record.get("/" + AggregatorUtil.BATCH_ERRORS).getValueAsInteger());
+
+    String sourcePath = "/" + AggregatorUtil.STAGE_BATCH_METRICS + "/source/";
+    Assert.assertEquals(20, record.get(sourcePath + AggregatorUtil.PROCESSING_TIME).getValueAsLong());
+    Assert.assertEquals(200, record.get(sourcePath + AggregatorUtil.OUTPUT_RECORDS).getValueAsInteger());
+    Assert.assertEquals(
+        200,
+        record.get(sourcePath + AggregatorUtil.OUTPUT_RECORDS_PER_LANE + "/lane").getValueAsInteger()
+    );
+    String targetPath = "/" + AggregatorUtil.STAGE_BATCH_METRICS + "/target/";
+    Assert.assertEquals(196, record.get(targetPath + AggregatorUtil.OUTPUT_RECORDS).getValueAsInteger());
+    Assert.assertEquals(4, record.get(targetPath + AggregatorUtil.ERROR_RECORDS).getValueAsInteger());
+    Assert.assertEquals(
+        Collections.emptyMap(),
+        record.get(targetPath + AggregatorUtil.OUTPUT_RECORDS_PER_LANE).getValueAsMap()
+    );
+
+    // converted batches are not sent again
+    Assert.assertEquals(0, aggregate.getBatchCount());
+    Assert.assertNull(aggregate.toRecord());
+    aggregate.addBatch(20, 100, 98, 2, 1);
+    record = aggregate.toRecord();
+    Assert.assertEquals(1, record.get("/" + AggregatorUtil.BATCH_COUNT).getValueAsInteger());
+    Assert.assertEquals(10, record.get(sourcePath + AggregatorUtil.PROCESSING_TIME).getValueAsLong());
+  }
+}
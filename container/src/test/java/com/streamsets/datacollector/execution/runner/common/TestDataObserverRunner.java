@@ -109,6 +109,23 @@ public class TestDataObserverRunner {
     Assert.assertEquals(3, meter.getCount());
   }
 
+  @Test
+  public void testDataRuleEvaluatorReuse() {
+    dataObserverRunner.handleConfigurationChangeRequest(createRulesConfigurationChangeRequest(false, true));
+    dataObserverRunner.handleDataRulesEvaluationRequest(createProductionObserverRequest());
+    Assert.assertEquals(1, dataObserverRunner.getDataRuleEvaluatorCount());
+    dataObserverRunner.handleDataRulesEvaluationRequest(createProductionObserverRequest());
+    Assert.assertEquals(1, dataObserverRunner.getDataRuleEvaluatorCount());
+
+    Meter meter = MetricsConfigurator.getMeter(metrics, AlertsUtil.getUserMetricName("myId"));
+    Assert.assertNotNull(meter);
+    Assert.assertEquals(6, meter.getCount());
+
+    // a configuration change discards the evaluators
+    dataObserverRunner.handleConfigurationChangeRequest(createRulesConfigurationChangeRequest(false, true));
+    Assert.assertEquals(0, dataObserverRunner.getDataRuleEvaluatorCount());
+  }
+
   private DataRulesEvaluationRequest createProductionObserverRequest() {
     DataRulesEvaluationRequest request = new DataRulesEvaluationRequest(TestUtil.createSnapshot(LANE, ID),
       TestUtil.createLaneToRecordSizeMap(LANE));
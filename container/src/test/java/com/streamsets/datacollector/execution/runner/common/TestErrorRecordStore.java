@@ -0,0 +1,155 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.runner.common;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.datacollector.util.ContainerError;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.impl.ErrorMessage;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class TestErrorRecordStore {
+  private File dir;
+
+  @Before
+  public void setUp() {
+    dir = new File(new File("target", UUID.randomUUID().toString()), ErrorRecordStore.ERRORS_DIR + "/run");
+  }
+
+  private static Record createErrorRecord(int value, ContainerError errorCode) {
+    RecordImpl record = new RecordImpl("s", "id" + value, null, null);
+    record.set(Field.create(value));
+    record.getHeader().setError("s", new ErrorMessage(errorCode, "error"));
+    return record;
+  }
+
+  private static Map<String, List<Record>> records(int from, int to) {
+    List<Record> records = new ArrayList<>();
+    for (int i = from; i < to; i++) {
+      records.add(createErrorRecord(i, i % 2 == 0 ? ContainerError.CONTAINER_0001 : ContainerError.CONTAINER_0002));
+    }
+    return ImmutableMap.of("s", records);
+  }
+
+  @Test
+  public void testPagination() throws IOException {
+    ErrorRecordStore store = new ErrorRecordStore(dir, 1024, Long.MAX_VALUE, Long.MAX_VALUE, 1000);
+    store.init();
+    store.append(records(0, 100), ImmutableMap.<String, List<ErrorMessage>>of(
+        "s",
+        ImmutableList.of(new ErrorMessage(ContainerError.CONTAINER_0001, "error"))
+    ));
+
+    Assert.assertEquals(100, store.getErrorRecordCount("s"));
+    List<Record> page = store.getErrorRecords("s", null, 0, 10);
+    Assert.assertEquals(10, page.size());
+    Assert.assertEquals(90, page.get(0).get().getValueAsInteger());
+    Assert.assertEquals(99, page.get(9).get().getValueAsInteger());
+
+    page = store.getErrorRecords("s", null, 95, 10);
+    Assert.assertEquals(5, page.size());
+    Assert.assertEquals(0, page.get(0).get().getValueAsInteger());
+
+    page = store.getErrorRecords("s", ContainerError.CONTAINER_0002.name(), 0, 100);
+    Assert.assertEquals(50, page.size());
+    for (Record record : page) {
+      Assert.assertEquals(ContainerError.CONTAINER_0002.name(), record.getHeader().getErrorCode());
+    }
+
+    Assert.assertTrue(store.getErrorRecords("s", null, 100, 10).isEmpty());
+    Assert.assertTrue(store.getErrorRecords("x", null, 0, 10).isEmpty());
+
+    List<ErrorMessage> messages = store.getErrorMessages("s", 10);
+    Assert.assertEquals(1, messages.size());
+    Assert.assertEquals(ContainerError.CONTAINER_0001.name(), messages.get(0).getErrorCode());
+  }
+
+  @Test
+  public void testSizeRetention() throws IOException {
+    ErrorRecordStore store = new ErrorRecordStore(dir, 64 * 1024, 128 * 1024, Long.MAX_VALUE, 1000);
+    store.init();
+    for (int i = 0; i < 10; i++) {
+      store.append(records(i * 100, (i + 1) * 100), Collections.<String, List<ErrorMessage>>emptyMap());
+      store.flush();
+    }
+    int count = store.getErrorRecordCount("s");
+    Assert.assertTrue(count > 0 && count < 1000);
+    List<Record> page = store.getErrorRecords("s", null, 0, count);
+    Assert.assertEquals(count, page.size());
+    Assert.assertEquals(999, page.get(count - 1).get().getValueAsInteger());
+    Assert.assertTrue(dir.listFiles().length <= 3);
+  }
+
+  @Test
+  public void testDropWhenBehind() throws IOException {
+    ErrorRecordStore store = new ErrorRecordStore(dir, 1024, Long.MAX_VALUE, Long.MAX_VALUE, 10);
+    store.init();
+    store.append(records(0, 100), Collections.<String, List<ErrorMessage>>emptyMap());
+    Assert.assertEquals(90, store.getDroppedCount());
+    Assert.assertEquals(10, store.getErrorRecordCount("s"));
+  }
+
+  @Test
+  public void testPreviousRunsRemoved() throws IOException {
+    ErrorRecordStore store = new ErrorRecordStore(dir, 1024, Long.MAX_VALUE, Long.MAX_VALUE, 1000);
+    store.init();
+    store.append(records(0, 10), Collections.<String, List<ErrorMessage>>emptyMap());
+    store.flush();
+    File newRun = new File(dir.getParentFile(), "newRun");
+    ErrorRecordStore newStore = new ErrorRecordStore(newRun, 1024, Long.MAX_VALUE, Long.MAX_VALUE, 1000);
+    newStore.init();
+    Assert.assertFalse(dir.exists());
+    Assert.assertEquals(0, newStore.getErrorRecordCount("s"));
+
+    // the previous store no longer writes
+    store.append(records(10, 20), Collections.<String, List<ErrorMessage>>emptyMap());
+    store.flush();
+    Assert.assertFalse(dir.exists());
+  }
+
+  @Test
+  public void testCloseWritesQueuedErrors() throws IOException {
+    ErrorRecordStore store = new ErrorRecordStore(dir, 1024, Long.MAX_VALUE, Long.MAX_VALUE, 1000);
+    Assert.assertFalse(dir.exists());
+    store.init();
+    store.append(records(0, 10), Collections.<String, List<ErrorMessage>>emptyMap());
+    store.close();
+    Assert.assertTrue(dir.listFiles().length > 0);
+
+    // still readable after close
+    Assert.assertEquals(10, store.getErrorRecordCount("s"));
+    store.append(records(10, 20), Collections.<String, List<ErrorMessage>>emptyMap());
+    Assert.assertEquals(20, store.getErrorRecordCount("s"));
+  }
+
+}
@@ -136,4 +136,22 @@ public class TestProductionObserver {
     System.out.println("Records for rule myID4 : " + ruleIdToSampledRecordsSize.get(ID + 4));
     System.out.println("Records for rule myID5 : " + ruleIdToSampledRecordsSize.get(ID + 5));*/
   }
+
+  @Test
+  public void testDisabledRulesAreNotSampled() {
+    long timestamp = System.currentTimeMillis();
+    List<DataRuleDefinition> dataRuleDefinitions = new ArrayList<>();
+    dataRuleDefinitions.add(new DataRuleDefinition(ID+1, "myRule", LANE + "::s", 100 /*Sampling %*/, 5,
+      "${record:value(\"/name\")==null}", true, "alertText", ThresholdType.COUNT, "2", 5, true, false, false,
+      timestamp));
+    dataRuleDefinitions.add(new DataRuleDefinition(ID+2, "myRule", LANE + "::s", 50 /*Sampling %*/, 5,
+      "${record:value(\"/name\")==null}", true, "alertText", ThresholdType.COUNT, "2", 5, true, false, true,
+      timestamp));
+
+    List<Record> allRecords = TestUtil.createRecords(100);
+    Map<String, List<Record>> sampleRecords = productionObserver.getSampleRecords(dataRuleDefinitions, allRecords,
+      LANE);
+    Assert.assertFalse(sampleRecords.containsKey(ID + 1));
+    Assert.assertEquals(50, sampleRecords.get(ID + 2).size());
+  }
 }
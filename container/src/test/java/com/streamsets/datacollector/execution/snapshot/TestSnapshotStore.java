@@ -19,10 +19,13 @@
  */
 package com.streamsets.datacollector.execution.snapshot;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.streamsets.datacollector.execution.Snapshot;
 import com.streamsets.datacollector.execution.SnapshotInfo;
 import com.streamsets.datacollector.execution.SnapshotStore;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.datacollector.restapi.bean.StageOutputJson;
 import com.streamsets.datacollector.runner.ErrorSink;
 import com.streamsets.datacollector.runner.StageOutput;
 import com.streamsets.datacollector.util.PipelineException;
@@ -219,6 +222,92 @@ public abstract class TestSnapshotStore {
 
   }
 
+  @Test
+  public void testAppendBatchAndPage() throws Exception {
+    snapshotStore.create(USER, PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, SNAPSHOT_LABEL);
+    snapshotStore.appendBatch(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, createSnapshotData());
+
+    List<Record> records = new ArrayList<>();
+    for (int i = 0; i < 2500; i++) {
+      Record record = new RecordImpl("s", "s:" + i, null, null);
+      record.set(Field.create(i));
+      records.add(record);
+    }
+    Map<String, List<Record>> output = new HashMap<>();
+    output.put("lane", records);
+    List<StageOutput> batch = new ArrayList<>();
+    batch.add(new StageOutput("source", output, new ErrorSink()));
+    snapshotStore.appendBatch(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, batch);
+    Assert.assertTrue(snapshotStore.getInfo(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID).isInProgress());
+
+    snapshotStore.save(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, new ArrayList<List<StageOutput>>());
+    Assert.assertFalse(snapshotStore.getInfo(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID).isInProgress());
+
+    try (Snapshot snapshot = snapshotStore.get(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID)) {
+      List<Record> page = snapshot.getRecords(0, "processor", "lane", 0, 10);
+      Assert.assertEquals(1, page.size());
+      Assert.assertEquals("s:3", page.get(0).getHeader().getSourceId());
+
+      // page across compressed chunks
+      page = snapshot.getRecords(1, "source", "lane", 998, 4);
+      Assert.assertEquals(4, page.size());
+      for (int i = 0; i < 4; i++) {
+        Assert.assertEquals(998 + i, page.get(i).get().getValueAsInteger());
+      }
+      Assert.assertEquals(500, snapshot.getRecords(1, "source", "lane", 2000, 1000).size());
+      Assert.assertTrue(snapshot.getRecords(1, "source", null, 0, 10).isEmpty());
+      Assert.assertTrue(snapshot.getRecords(2, "source", "lane", 0, 10).isEmpty());
+
+      // JSON export
+      Map<String, List<List<StageOutputJson>>> export = ObjectMapperFactory.get().readValue(
+          snapshot.getOutput(),
+          new TypeReference<Map<String, List<List<StageOutputJson>>>>() {}
+      );
+      List<List<StageOutputJson>> batches = export.get("snapshotBatches");
+      Assert.assertEquals(2, batches.size());
+      Assert.assertEquals(2, batches.get(0).size());
+      Assert.assertEquals(2500, batches.get(1).get(0).getOutput().get("lane").size());
+      Assert.assertEquals(
+          2499,
+          batches.get(1).get(0).getOutput().get("lane").get(2499).getRecord().get().getValueAsInteger()
+      );
+    }
+  }
+
+  @Test
+  public void testRecaptureDiscardsPreviousBatches() throws Exception {
+    snapshotStore.create(USER, PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, SNAPSHOT_LABEL);
+    snapshotStore.save(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, getSnapshotData());
+    try (Snapshot snapshot = snapshotStore.get(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID)) {
+      Assert.assertEquals(2, getExportedBatches(snapshot).size());
+    }
+
+    // cancelled capture: created and one batch appended, never saved
+    snapshotStore.create(USER, PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, SNAPSHOT_LABEL);
+    snapshotStore.appendBatch(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, createSnapshotData());
+
+    // recapture with the same id
+    snapshotStore.create(USER, PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, SNAPSHOT_LABEL);
+    Assert.assertTrue(snapshotStore.getInfo(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID).isInProgress());
+    List<List<StageOutput>> batches = new ArrayList<>();
+    batches.add(createSnapshotData());
+    snapshotStore.save(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, batches);
+
+    try (Snapshot snapshot = snapshotStore.get(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID)) {
+      Assert.assertEquals(1, getExportedBatches(snapshot).size());
+      Assert.assertEquals(1, snapshot.getRecords(0, "processor", "lane", 0, 10).size());
+      Assert.assertTrue(snapshot.getRecords(1, "source", "lane", 0, 10).isEmpty());
+    }
+  }
+
+  private List<List<StageOutputJson>> getExportedBatches(Snapshot snapshot) throws IOException {
+    Map<String, List<List<StageOutputJson>>> export = ObjectMapperFactory.get().readValue(
+        snapshot.getOutput(),
+        new TypeReference<Map<String, List<List<StageOutputJson>>>>() {}
+    );
+    return export.get("snapshotBatches");
+  }
+
   private List<List<StageOutput>> getSnapshotData() {
     List<List<StageOutput>> snapshotBatches = new ArrayList<>();
     snapshotBatches.add(createSnapshotData());
@@ -26,16 +26,20 @@ import com.streamsets.datacollector.event.handler.remote.RemoteDataCollector;
 import com.streamsets.datacollector.execution.PipelineState;
 import com.streamsets.datacollector.execution.PipelineStateStore;
 import com.streamsets.datacollector.execution.PipelineStatus;
+import com.streamsets.datacollector.execution.manager.PipelineStateImpl;
 import com.streamsets.datacollector.execution.store.CachePipelineStateStore;
 import com.streamsets.datacollector.execution.store.FilePipelineStateStore;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.main.RuntimeInfo;
 import com.streamsets.datacollector.main.RuntimeModule;
+import com.streamsets.datacollector.restapi.bean.BeanHelper;
 import com.streamsets.datacollector.runner.MockStages;
 import com.streamsets.datacollector.store.PipelineStoreException;
 import com.streamsets.datacollector.store.PipelineStoreTask;
 import com.streamsets.datacollector.store.impl.FilePipelineStoreTask;
 import com.streamsets.datacollector.util.Configuration;
 import com.streamsets.datacollector.util.LockCacheModule;
+import com.streamsets.datacollector.util.PipelineDirectoryUtil;
 import com.streamsets.datacollector.util.TestUtil;
 import com.streamsets.pipeline.api.ExecutionMode;
 
@@ -54,7 +58,9 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -66,6 +72,7 @@ public class TestPipelineStateStore {
 
   private static PipelineStateStore pipelineStateStore;
   private static PipelineStoreTask pipelineStoreTask;
+  private static RuntimeInfo runtimeInfo;
 
   static class MockFilePipelineStateStore extends CachePipelineStateStore {
 
@@ -97,7 +104,7 @@ public class TestPipelineStateStore {
 
   }
 
-  @Module(injects = {PipelineStateStore.class, PipelineStoreTask.class}, library = true,
+  @Module(injects = {PipelineStateStore.class, PipelineStoreTask.class, RuntimeInfo.class}, library = true,
     includes = {TestUtil.TestStageLibraryModule.class, LockCacheModule.class})
   static class TestPipelineStateStoreModule {
 
@@ -141,6 +148,7 @@ public class TestPipelineStateStore {
     ObjectGraph objectGraph = ObjectGraph.create(TestPipelineStateStoreModule.class);
     pipelineStateStore = objectGraph.get(PipelineStateStore.class);
     pipelineStoreTask = objectGraph.get(PipelineStoreTask.class);
+    runtimeInfo = objectGraph.get(RuntimeInfo.class);
     pipelineStoreTask.init();
   }
 
@@ -229,6 +237,42 @@ public class TestPipelineStateStore {
     }
   }
 
+  @Test
+  public void testRecentStateHistory() throws Exception {
+    for (int i = 0; i < 120; i++) {
+      pipelineStateStore.saveState("user1", "recent", "0", PipelineStatus.STOPPED, "m" + i, null,
+          ExecutionMode.STANDALONE, null, 0, 0);
+    }
+    List<PipelineState> history = pipelineStateStore.getHistory("recent", "0", false);
+    assertEquals(100, history.size());
+    assertEquals("m119", history.get(0).getMessage());
+    assertEquals("m20", history.get(99).getMessage());
+    assertEquals(120, pipelineStateStore.getHistory("recent", "0", true).size());
+  }
+
+  @Test
+  public void testRecentStateHistoryIndented() throws Exception {
+    pipelineStateStore.saveState("user1", "indented", "0", PipelineStatus.STOPPED, "m0", null,
+        ExecutionMode.STANDALONE, null, 0, 0);
+    // states written by previous versions span multiple lines
+    File historyFile = new File(PipelineDirectoryUtil.getPipelineDir(runtimeInfo, "indented", "0"),
+        FilePipelineStateStore.STATE_FILE_HISTORY);
+    try (Writer writer = new FileWriter(historyFile, true)) {
+      for (int i = 1; i < 3; i++) {
+        PipelineState state = new PipelineStateImpl("user1", "indented", "0", PipelineStatus.STOPPED, "m" + i,
+            System.currentTimeMillis(), null, ExecutionMode.STANDALONE, "{\n}", 0, 0);
+        writer.write(ObjectMapperFactory.get().writeValueAsString(BeanHelper.wrapPipelineState(state)));
+        writer.write("\n");
+      }
+    }
+    List<PipelineState> history = pipelineStateStore.getHistory("indented", "0", false);
+    assertEquals(3, history.size());
+    assertEquals("m2", history.get(0).getMessage());
+    assertEquals("{\n}", history.get(0).getMetrics());
+    assertEquals("m1", history.get(1).getMessage());
+    assertEquals("m0", history.get(2).getMessage());
+  }
+
   @Test
   public void stateChangeExecutionMode() throws Exception {
     pipelineStateStore.saveState("user1", "aaa", "0", PipelineStatus.STOPPED, "Pipeline stopped", null, ExecutionMode.CLUSTER_BATCH, null, 0, 0);
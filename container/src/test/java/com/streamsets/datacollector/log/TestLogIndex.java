@@ -0,0 +1,143 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.log;
+
+import com.streamsets.pipeline.lib.parser.shaded.org.aicer.grok.util.Grok;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+public class TestLogIndex {
+  private static final int BLOCK_SIZE = 1024;
+
+  private File dir;
+  private File log;
+  private File indexFile;
+  private Grok grok;
+
+  @Before
+  public void setup() throws Exception {
+    dir = new File("target", UUID.randomUUID().toString());
+    Assert.assertTrue(dir.mkdirs());
+    log = new File(dir, "sdc.log");
+    indexFile = new File(new File(dir, "log-index"), "sdc.log.json");
+    grok = LogUtils.compileLogGrok(LogUtils.LOG4J_CONVERSION_PATTERN);
+  }
+
+  private static String message(int i, String pipeline, String severity) {
+    return String.format("2016-05-10 10:11:%02d,123 [user:*admin] [pipeline:%s] [thread:main] %-5s Foo - message %d\n",
+                         i % 60, pipeline, severity, i);
+  }
+
+  private void write(int from, int to, boolean append) throws IOException {
+    try (OutputStream os = new FileOutputStream(log, append)) {
+      for (int i = from; i < to; i++) {
+        if (i >= 100 && i < 105) {
+          os.write(message(i, "quiet", "ERROR").getBytes(StandardCharsets.UTF_8));
+          os.write("java.lang.Exception: quiet\n\tat Foo.bar(Foo.java:1)\n".getBytes(StandardCharsets.UTF_8));
+        } else {
+          os.write(message(i, (i % 2 == 0) ? "even" : "odd", "INFO").getBytes(StandardCharsets.UTF_8));
+        }
+      }
+    }
+  }
+
+  private String read(List<LogIndex.Block> blocks) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    try (RandomAccessFile raf = new RandomAccessFile(log, "r")) {
+      for (LogIndex.Block block : blocks) {
+        byte[] data = new byte[(int) (block.getEnd() - block.getStart())];
+        raf.seek(block.getStart());
+        raf.readFully(data);
+        sb.insert(0, new String(data, StandardCharsets.UTF_8));
+      }
+    }
+    return sb.toString();
+  }
+
+  @Test
+  public void testFilteredBlocks() throws Exception {
+    write(0, 500, false);
+    LogIndex index = new LogIndex(log, grok, indexFile, BLOCK_SIZE);
+
+    List<LogIndex.Block> blocks = index.getBlocks("quiet", null, log.length());
+    Assert.assertTrue(index.getIndexedLength() > 0);
+    String data = read(blocks);
+    for (int i = 100; i < 105; i++) {
+      Assert.assertTrue(data.contains(message(i, "quiet", "ERROR")));
+    }
+    Assert.assertTrue(data.contains("\tat Foo.bar(Foo.java:1)"));
+    // only the blocks with the quiet pipeline and the tail not yet indexed are read
+    Assert.assertTrue(data.length() < 4 * BLOCK_SIZE);
+
+    // newest first and before the ending offset
+    long previousStart = Long.MAX_VALUE;
+    for (LogIndex.Block block : index.getBlocks(null, "ERROR", log.length() / 2)) {
+      Assert.assertTrue(block.getEnd() <= log.length() / 2);
+      Assert.assertTrue(block.getEnd() <= previousStart);
+      previousStart = block.getStart();
+    }
+
+    // nothing matches, only the tail is read
+    Assert.assertTrue(read(index.getBlocks("none", null, log.length())).length() < 2 * BLOCK_SIZE);
+  }
+
+  @Test
+  public void testIncrementalAndPersisted() throws Exception {
+    write(0, 200, false);
+    LogIndex index = new LogIndex(log, grok, indexFile, BLOCK_SIZE);
+    index.getBlocks(null, null, log.length());
+    long indexedLength = index.getIndexedLength();
+    Assert.assertTrue(indexedLength > 0);
+    Assert.assertTrue(indexFile.exists());
+
+    write(200, 400, true);
+    index.getBlocks(null, null, log.length());
+    Assert.assertTrue(index.getIndexedLength() > indexedLength);
+
+    // a new index, as after a restart, picks up the persisted one
+    indexedLength = index.getIndexedLength();
+    LogIndex reloaded = new LogIndex(log, grok, indexFile, BLOCK_SIZE);
+    Assert.assertEquals(read(index.getBlocks("quiet", null, log.length())),
+                        read(reloaded.getBlocks("quiet", null, log.length())));
+    Assert.assertEquals(indexedLength, reloaded.getIndexedLength());
+  }
+
+  @Test
+  public void testRotation() throws Exception {
+    write(0, 300, false);
+    LogIndex index = new LogIndex(log, grok, indexFile, BLOCK_SIZE);
+    Assert.assertTrue(read(index.getBlocks("quiet", null, log.length())).contains("quiet"));
+
+    // the log rolls over, the new file has no quiet messages
+    write(200, 300, false);
+    Assert.assertFalse(read(index.getBlocks("quiet", null, log.length())).contains("quiet"));
+  }
+
+}
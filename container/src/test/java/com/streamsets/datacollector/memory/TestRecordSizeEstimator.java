@@ -0,0 +1,91 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.memory;
+
+import com.google.common.collect.ImmutableList;
+import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestRecordSizeEstimator {
+
+  private static Record createRecord(String value) {
+    Record record = new RecordImpl("stage", "source", null, null);
+    Map<String, Field> map = new HashMap<>();
+    map.put("a", Field.create(value));
+    map.put("b", Field.create(1));
+    record.set(Field.create(map));
+    return record;
+  }
+
+  @Test
+  public void testFieldEstimate() {
+    Assert.assertEquals(RecordSizeEstimator.FIELD_OVERHEAD + RecordSizeEstimator.BOXED_SIZE,
+        RecordSizeEstimator.estimate(Field.create(1)));
+    Assert.assertEquals(RecordSizeEstimator.FIELD_OVERHEAD + RecordSizeEstimator.STRING_OVERHEAD + 6,
+        RecordSizeEstimator.estimate(Field.create("abc")));
+    Assert.assertEquals(RecordSizeEstimator.FIELD_OVERHEAD + RecordSizeEstimator.ARRAY_OVERHEAD + 10,
+        RecordSizeEstimator.estimate(Field.create(new byte[10])));
+    Assert.assertEquals(RecordSizeEstimator.FIELD_OVERHEAD, RecordSizeEstimator.estimate(Field.create((String) null)));
+  }
+
+  @Test
+  public void testLargerRecordsHaveLargerEstimates() {
+    long small = RecordSizeEstimator.estimate(createRecord("x"));
+    long large = RecordSizeEstimator.estimate(createRecord(new String(new char[1000])));
+    Assert.assertEquals(2 * 999, large - small);
+  }
+
+  @Test
+  public void testBatchEstimate() {
+    List<Record> records = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      records.add(createRecord("value"));
+    }
+    long recordSize = RecordSizeEstimator.estimate(records.get(0));
+
+    // a generous budget keeps the sample size and the extrapolated estimate is exact for same shaped records
+    RecordSizeEstimator estimator = new RecordSizeEstimator(1000, 10);
+    Assert.assertEquals(1000 * recordSize, estimator.estimate(ImmutableList.of(records), 1000000000L));
+    Assert.assertEquals(10, estimator.getSamples());
+    Assert.assertEquals(0, estimator.estimate(ImmutableList.<List<Record>>of(), 1000000000L));
+  }
+
+  @Test
+  public void testOverheadBudgetShrinksSample() {
+    List<Record> records = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      records.add(createRecord("value"));
+    }
+    RecordSizeEstimator estimator = new RecordSizeEstimator(0.01, 64);
+    // no processing time so any estimation exceeds the budget
+    estimator.estimate(ImmutableList.of(records), 0);
+    Assert.assertEquals(32, estimator.getSamples());
+    estimator.estimate(ImmutableList.of(records), 0);
+    Assert.assertEquals(16, estimator.getSamples());
+  }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.metrics;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Snapshot;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class TestLatencyReservoir {
+
+  private static class ManualClock extends Clock {
+    long tick;
+
+    @Override
+    public long getTick() {
+      return tick;
+    }
+  }
+
+  @Test
+  public void testBuckets() {
+    int previous = -1;
+    for (long value = 0; value < 1000000; value += 7) {
+      int index = LatencyReservoir.bucketIndex(value);
+      Assert.assertTrue(index >= previous);
+      previous = index;
+      long bucketValue = LatencyReservoir.bucketValue(index);
+      Assert.assertTrue(Math.abs(bucketValue - value) <= value / 64.0);
+    }
+    Assert.assertEquals(LatencyReservoir.BUCKET_COUNT - 1, LatencyReservoir.bucketIndex(Long.MAX_VALUE));
+    Assert.assertEquals(0, LatencyReservoir.bucketIndex(-1));
+  }
+
+  @Test
+  public void testPercentiles() {
+    LatencyReservoir reservoir = new LatencyReservoir(60, TimeUnit.SECONDS, 4, new ManualClock());
+    // sub millisecond latencies are not lost
+    for (int i = 1; i <= 1000; i++) {
+      reservoir.update(i * 1000);
+    }
+    reservoir.update(TimeUnit.SECONDS.toNanos(2));
+
+    Snapshot snapshot = reservoir.getSnapshot();
+    Assert.assertEquals(1001, snapshot.size());
+    Assert.assertEquals(TimeUnit.SECONDS.toNanos(2), snapshot.getMax());
+    Assert.assertEquals(1000, snapshot.getMin(), 1000 / 64.0);
+    Assert.assertEquals(500000, snapshot.getMedian(), 500000 / 64.0);
+    Assert.assertEquals(991000, snapshot.get99thPercentile(), 991000 / 64.0);
+    Assert.assertEquals(TimeUnit.SECONDS.toNanos(2), snapshot.getValue(1.0), 0);
+    Assert.assertEquals(1001, snapshot.getValues().length);
+  }
+
+  @Test
+  public void testWindow() {
+    ManualClock clock = new ManualClock();
+    LatencyReservoir reservoir = new LatencyReservoir(60, TimeUnit.SECONDS, 4, clock);
+    reservoir.update(TimeUnit.SECONDS.toNanos(10));
+
+    clock.tick = TimeUnit.SECONDS.toNanos(30);
+    reservoir.update(100);
+    Assert.assertEquals(2, reservoir.size());
+    Assert.assertEquals(TimeUnit.SECONDS.toNanos(10), reservoir.getSnapshot().getMax());
+
+    // the slice with the first value fell out of the window
+    clock.tick = TimeUnit.SECONDS.toNanos(61);
+    Snapshot snapshot = reservoir.getSnapshot();
+    Assert.assertEquals(1, snapshot.size());
+    Assert.assertEquals(100, snapshot.getMax());
+
+    clock.tick = TimeUnit.MINUTES.toNanos(10);
+    Assert.assertEquals(0, reservoir.size());
+    Assert.assertEquals(0, reservoir.getSnapshot().get999thPercentile(), 0);
+  }
+
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestMetricsPayload {
+  private ObjectMapper objectMapper;
+  private MetricRegistry metrics;
+  private Counter counter2;
+
+  @Before
+  public void setUp() {
+    objectMapper = ObjectMapperFactory.get();
+    metrics = new MetricRegistry();
+    metrics.counter("stage.s1.outputRecords.counter");
+    counter2 = metrics.counter("stage.s2.outputRecords.counter");
+  }
+
+  private ObjectNode snapshot() {
+    return objectMapper.valueToTree(metrics);
+  }
+
+  @Test
+  public void testFullPayload() throws Exception {
+    MetricsPayload payload = new MetricsPayload(objectMapper, snapshot(), null);
+    Assert.assertEquals(objectMapper.writer().writeValueAsString(metrics), payload.getJson());
+    // serialized once per tick
+    Assert.assertSame(payload.getJson(), payload.getJson());
+  }
+
+  @Test
+  public void testFilteredPayload() throws Exception {
+    MetricsPayload payload = new MetricsPayload(objectMapper, snapshot(), null);
+    JsonNode json = objectMapper.readTree(payload.getJson(ImmutableList.of("stage.s1")));
+    Assert.assertTrue(json.get("counters").has("stage.s1.outputRecords.counter"));
+    Assert.assertFalse(json.get("counters").has("stage.s2.outputRecords.counter"));
+  }
+
+  @Test
+  public void testDeltaPayload() throws Exception {
+    ObjectNode first = snapshot();
+    // without a previous tick the delta is the full payload
+    MetricsPayload payload = new MetricsPayload(objectMapper, first, null);
+    Assert.assertEquals(payload.getJson(), payload.getDeltaJson(null));
+
+    counter2.inc();
+    metrics.remove("stage.s1.outputRecords.counter");
+    metrics.counter("stage.s3.outputRecords.counter");
+    payload = new MetricsPayload(objectMapper, snapshot(), first);
+
+    JsonNode delta = objectMapper.readTree(payload.getDeltaJson(null));
+    Assert.assertTrue(delta.get(MetricsPayload.DELTA).asBoolean());
+    JsonNode counters = delta.get("counters");
+    Assert.assertEquals(1, counters.get("stage.s2.outputRecords.counter").get("count").asLong());
+    Assert.assertTrue(counters.has("stage.s3.outputRecords.counter"));
+    Assert.assertEquals(2, counters.size());
+    Assert.assertEquals(1, delta.get(MetricsPayload.REMOVED).size());
+    Assert.assertEquals("stage.s1.outputRecords.counter", delta.get(MetricsPayload.REMOVED).get(0).asText());
+
+    delta = objectMapper.readTree(payload.getDeltaJson(ImmutableList.of("stage.s3")));
+    Assert.assertEquals(1, delta.get("counters").size());
+    Assert.assertEquals(0, delta.get(MetricsPayload.REMOVED).size());
+  }
+}
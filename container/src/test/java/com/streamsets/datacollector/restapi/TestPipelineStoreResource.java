@@ -39,6 +39,7 @@ import com.streamsets.datacollector.runner.MockStages;
 import com.streamsets.datacollector.stagelibrary.StageLibraryTask;
 import com.streamsets.datacollector.store.PipelineStoreException;
 import com.streamsets.datacollector.store.PipelineStoreTask;
+import com.streamsets.datacollector.util.Configuration;
 import com.streamsets.datacollector.util.ContainerError;
 import com.streamsets.datacollector.validation.RuleIssue;
 import com.streamsets.datacollector.validation.ValidationError;
@@ -214,6 +215,7 @@ public class TestPipelineStoreResource extends JerseyTest {
       bindFactory(TestUtil.StageLibraryTestInjector.class).to(StageLibraryTask.class);
       bindFactory(TestUtil.PrincipalTestInjector.class).to(Principal.class);
       bindFactory(TestUtil.URITestInjector.class).to(URI.class);
+      bindFactory(TestUtil.ConfigurationTestInjector.class).to(Configuration.class);
       bindFactory(TestUtil.RuntimeInfoTestInjector.class).to(RuntimeInfo.class);
     }
   }
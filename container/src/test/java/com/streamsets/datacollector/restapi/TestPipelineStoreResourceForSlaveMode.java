@@ -27,6 +27,7 @@ import com.streamsets.datacollector.stagelibrary.StageLibraryTask;
 import com.streamsets.datacollector.store.PipelineStoreException;
 import com.streamsets.datacollector.store.PipelineStoreTask;
 import com.streamsets.datacollector.store.impl.SlavePipelineStoreTask;
+import com.streamsets.datacollector.util.Configuration;
 import com.streamsets.datacollector.util.ContainerError;
 import com.streamsets.datacollector.validation.RuleIssue;
 import com.streamsets.datacollector.validation.ValidationError;
@@ -118,6 +119,7 @@ public class TestPipelineStoreResourceForSlaveMode extends JerseyTest {
       bindFactory(TestUtil.StageLibraryTestInjector.class).to(StageLibraryTask.class);
       bindFactory(TestUtil.PrincipalTestInjector.class).to(Principal.class);
       bindFactory(TestUtil.URITestInjector.class).to(URI.class);
+      bindFactory(TestUtil.ConfigurationTestInjector.class).to(Configuration.class);
       bindFactory(TestUtil.RuntimeInfoTestInjectorForSlaveMode.class).to(RuntimeInfo.class);
     }
   }
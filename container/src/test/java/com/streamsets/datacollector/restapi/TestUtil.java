@@ -19,6 +19,7 @@
  */
 package com.streamsets.datacollector.restapi;
 
+import com.codahale.metrics.MetricRegistry;
 import com.streamsets.datacollector.config.ConfigDefinition;
 import com.streamsets.datacollector.config.PipelineDefinition;
 import com.streamsets.datacollector.config.StageDefinition;
@@ -28,6 +29,7 @@ import com.streamsets.datacollector.el.ElConstantDefinition;
 import com.streamsets.datacollector.el.ElFunctionDefinition;
 import com.streamsets.datacollector.main.RuntimeInfo;
 import com.streamsets.datacollector.stagelibrary.StageLibraryTask;
+import com.streamsets.datacollector.util.Configuration;
 import com.streamsets.pipeline.api.Batch;
 import com.streamsets.pipeline.api.BatchMaker;
 import com.streamsets.pipeline.api.ConfigDef;
@@ -217,11 +219,25 @@ public class TestUtil {
 
   }
 
+  public static class ConfigurationTestInjector implements Factory<Configuration> {
+    @Singleton
+    @Override
+    public Configuration provide() {
+      return new Configuration();
+    }
+
+    @Override
+    public void dispose(Configuration configuration) {
+    }
+
+  }
+
   public static class RuntimeInfoTestInjector implements Factory<RuntimeInfo> {
     @Singleton
     @Override
     public RuntimeInfo provide() {
       RuntimeInfo runtimeInfo = Mockito.mock(RuntimeInfo.class);
+      Mockito.when(runtimeInfo.getMetrics()).thenReturn(new MetricRegistry());
       return runtimeInfo;
     }
 
@@ -236,6 +252,7 @@ public class TestUtil {
     @Override
     public RuntimeInfo provide() {
       RuntimeInfo runtimeInfo = Mockito.mock(RuntimeInfo.class);
+      Mockito.when(runtimeInfo.getMetrics()).thenReturn(new MetricRegistry());
       return runtimeInfo;
     }
 
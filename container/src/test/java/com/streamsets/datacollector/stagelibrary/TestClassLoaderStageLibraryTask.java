@@ -36,12 +36,18 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.UUID;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
 
 public class TestClassLoaderStageLibraryTask {
 
@@ -113,6 +119,78 @@ public class TestClassLoaderStageLibraryTask {
     Assert.assertTrue(foundAutoC);
   }
 
+  @Test
+  public void testLoadLibrariesInParallel() {
+    List<ClassLoader> classLoaders = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      classLoaders.add(new SDCClassLoader("library", "lib" + i, Collections.<URL>emptyList(),
+                                          getClass().getClassLoader(), new String[0], new SystemPackage(new String[0]),
+                                          new ApplicationPackage(new TreeSet<String>()), false, false));
+    }
+    RuntimeInfo runtimeInfo = Mockito.mock(RuntimeInfo.class);
+    Mockito.when(runtimeInfo.getStageLibraryClassLoaders()).thenReturn((List) classLoaders);
+
+    Configuration configuration = new Configuration();
+    configuration.set(ClassLoaderStageLibraryTask.LOAD_THREADS_KEY, 3);
+    ClassLoaderStageLibraryTask library = new ClassLoaderStageLibraryTask(runtimeInfo, configuration);
+    library.initTask();
+
+    // same order as the classloaders regardless of which library finished loading first
+    Assert.assertEquals(5, library.getStages().size());
+    for (int i = 0; i < 5; i++) {
+      StageDefinition sDef = library.getStages().get(i);
+      Assert.assertEquals("lib" + i, sDef.getLibrary());
+      Assert.assertEquals(sDef, library.getStage("lib" + i, sDef.getName(), false));
+    }
+  }
+
+  private static void writeJar(File jar, String entry) throws IOException {
+    try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(jar))) {
+      jos.putNextEntry(new ZipEntry(entry));
+      jos.write(entry.getBytes());
+      jos.closeEntry();
+    }
+  }
+
+  private ClassLoader createClassLoader(File jar) throws IOException {
+    return new SDCClassLoader("library", "lib", ImmutableList.of(jar.toURI().toURL()), getClass().getClassLoader(),
+                              new String[0], new SystemPackage(new String[0]),
+                              new ApplicationPackage(new TreeSet<String>()), false, false);
+  }
+
+  @Test
+  public void testIndexedLibraryLoadedLazily() throws Exception {
+    File dir = new File("target", UUID.randomUUID().toString()).getAbsoluteFile();
+    Assert.assertTrue(dir.mkdirs());
+    File jar = new File(dir, "lib.jar");
+    writeJar(jar, "a");
+    RuntimeInfo runtimeInfo = Mockito.mock(RuntimeInfo.class);
+    Mockito.when(runtimeInfo.getDataDir()).thenReturn(dir.getAbsolutePath());
+    Mockito.when(runtimeInfo.getStageLibraryClassLoaders()).thenReturn((List) ImmutableList.of(createClassLoader(jar)));
+
+    // first start extracts the library and indexes it
+    ClassLoaderStageLibraryTask library = new ClassLoaderStageLibraryTask(runtimeInfo, new Configuration());
+    library.initTask();
+    Assert.assertTrue(library.isLibraryLoaded("lib"));
+    Assert.assertTrue(new File(new File(dir, ClassLoaderStageLibraryTask.INDEX_DIR), "lib.json").exists());
+    StageDefinition sDef = library.getStages().get(0);
+
+    // an unchanged library is extracted the first time one of its stages is needed
+    library = new ClassLoaderStageLibraryTask(runtimeInfo, new Configuration());
+    library.initTask();
+    Assert.assertFalse(library.isLibraryLoaded("lib"));
+    Assert.assertEquals(sDef.getClassName(), library.getStage("lib", sDef.getName(), false).getClassName());
+    Assert.assertTrue(library.isLibraryLoaded("lib"));
+    Assert.assertEquals(1, library.getStages().size());
+
+    // a changed library is extracted again at start up
+    writeJar(jar, "b");
+    Mockito.when(runtimeInfo.getStageLibraryClassLoaders()).thenReturn((List) ImmutableList.of(createClassLoader(jar)));
+    library = new ClassLoaderStageLibraryTask(runtimeInfo, new Configuration());
+    library.initTask();
+    Assert.assertTrue(library.isLibraryLoaded("lib"));
+  }
+
   @Test
   public void testIgnoreStages() throws Exception {
     ClassLoaderStageLibraryTask library = new ClassLoaderStageLibraryTask(null, new Configuration());
@@ -30,7 +30,9 @@ import com.streamsets.datacollector.config.RuleDefinitions;
 import com.streamsets.datacollector.config.StageConfiguration;
 import com.streamsets.datacollector.config.ThresholdType;
 import com.streamsets.datacollector.execution.PipelineStateStore;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.main.RuntimeInfo;
+import com.streamsets.datacollector.restapi.bean.BeanHelper;
 import com.streamsets.datacollector.runner.MockStages;
 import com.streamsets.datacollector.stagelibrary.StageLibraryTask;
 import com.streamsets.datacollector.store.PipelineInfo;
@@ -39,6 +41,7 @@ import com.streamsets.datacollector.store.PipelineStoreTask;
 import com.streamsets.datacollector.util.ContainerError;
 import com.streamsets.datacollector.util.LockCache;
 import com.streamsets.datacollector.util.LockCacheModule;
+import com.streamsets.datacollector.util.PipelineDirectoryUtil;
 import dagger.ObjectGraph;
 import dagger.Provides;
 import org.junit.After;
@@ -48,6 +51,7 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import javax.inject.Singleton;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -418,4 +422,37 @@ public class TestFilePipelineStoreTask {
     }
   }
 
+  @Test
+  public void testCatalog() throws Exception {
+    FilePipelineStoreTask fileStore = ObjectGraph.create(new Module()).get(FilePipelineStoreTask.class);
+    try {
+      fileStore.init();
+      fileStore.create("foo", "a", "A", false);
+      fileStore.create("foo", "b", "B", false);
+      Assert.assertEquals(2, fileStore.getPipelines().size());
+
+      // loaded pipelines are independent copies
+      PipelineConfiguration pc1 = fileStore.load("a", FilePipelineStoreTask.REV);
+      pc1.getUiInfo().put("x", "X");
+      PipelineConfiguration pc2 = fileStore.load("a", FilePipelineStoreTask.REV);
+      Assert.assertNotSame(pc1, pc2);
+      Assert.assertFalse(pc2.getUiInfo().containsKey("x"));
+
+      // out of band changes are picked up
+      File infoFile = fileStore.getInfoFile("a");
+      PipelineInfo info = fileStore.getInfo("a");
+      PipelineInfo changed = new PipelineInfo(info, "changed", info.getLastModified(), info.getLastModifier(),
+          info.getLastRev(), info.getUuid(), info.isValid(), info.getMetadata());
+      ObjectMapperFactory.get().writeValue(infoFile, BeanHelper.wrapPipelineInfo(changed));
+      Assert.assertTrue(infoFile.setLastModified(infoFile.lastModified() + 2000));
+      Assert.assertEquals("changed", fileStore.getInfo("a").getDescription());
+
+      Assert.assertTrue(PipelineDirectoryUtil.deleteAll(fileStore.getPipelineDir("b")));
+      Assert.assertEquals(1, fileStore.getPipelines().size());
+      Assert.assertEquals("a", fileStore.getPipelines().get(0).getName());
+    } finally {
+      fileStore.stop();
+    }
+  }
+
 }
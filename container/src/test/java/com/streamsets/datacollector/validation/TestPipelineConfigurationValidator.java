@@ -78,6 +78,49 @@ public class TestPipelineConfigurationValidator {
     Assert.assertTrue(validator.getOpenLanes().isEmpty());
   }
 
+  @Test
+  public void testStageValidationCache() {
+    StageLibraryTask lib = MockStages.createStageLibrary();
+    StageValidationCache cache = new StageValidationCache(100);
+
+    PipelineConfiguration conf = MockStages.createPipelineWithRequiredDependentConfig();
+    conf.getStages().get(0).setConfig(
+        Lists.newArrayList(new Config("dependencyConfName", 1),
+                           new Config("triggeredConfName", null)));
+    PipelineConfigurationValidator validator = new PipelineConfigurationValidator(lib, "name", conf, cache);
+    validator.validate();
+    Assert.assertFalse(validator.canPreview());
+    int issueCount = validator.getIssues().getIssueCount();
+    Assert.assertTrue(issueCount > 0);
+    long misses = cache.getStats().missCount();
+    Assert.assertEquals(0, cache.getStats().hitCount());
+    Assert.assertEquals(misses, cache.size());
+
+    // same pipeline again, all stage checks come from the cache with the same outcome
+    conf = MockStages.createPipelineWithRequiredDependentConfig();
+    conf.getStages().get(0).setConfig(
+        Lists.newArrayList(new Config("dependencyConfName", 1),
+                           new Config("triggeredConfName", null)));
+    validator = new PipelineConfigurationValidator(lib, "name", conf, cache);
+    validator.validate();
+    Assert.assertFalse(validator.canPreview());
+    Assert.assertEquals(issueCount, validator.getIssues().getIssueCount());
+    Assert.assertEquals(misses, cache.getStats().hitCount());
+    Assert.assertEquals(misses, cache.getStats().missCount());
+
+    // fixing the stage only validates that stage again
+    conf = MockStages.createPipelineWithRequiredDependentConfig();
+    conf.getStages().get(0).setConfig(
+        Lists.newArrayList(new Config("dependencyConfName", 0),
+                           new Config("triggeredConfName", null)));
+    validator = new PipelineConfigurationValidator(lib, "name", conf, cache);
+    validator.validate();
+    Assert.assertTrue(validator.canPreview());
+    Assert.assertFalse(validator.getIssues().hasIssues());
+    Assert.assertEquals(misses + 1, cache.getStats().missCount());
+    Assert.assertEquals(2 * misses - 1, cache.getStats().hitCount());
+  }
+
   @Test
   public void testSpaceInName() {
     Assert.assertTrue(TextUtils.isValidName("Hello World"));
@@ -34,6 +34,7 @@ public enum CompressionMode implements Label {
   BZIP2("Bzip2", BZip2Codec.class),
   SNAPPY("Snappy", SnappyCodec.class),
   LZ4("LZ4", Lz4Codec.class),
+  ZSTD("Zstandard", ZstdCodec.class),
   OTHER("Other...", null),
 
   ;
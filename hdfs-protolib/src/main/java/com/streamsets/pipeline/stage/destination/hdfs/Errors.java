@@ -84,6 +84,9 @@ public enum Errors implements ErrorCode {
 
   HADOOPFS_49("HDFS URI is not set and is also not available through 'fs.defaultFS' config"),
   HADOOPFS_50("Directory template header '" + HdfsTarget.TARGET_DIRECTORY_HEADER + "' missing"),
+  HADOOPFS_51("Parquet files require the '{}' data format"),
+  HADOOPFS_52("Compression codec '{}' is not supported for Parquet files"),
+  HADOOPFS_53("Compression '{}' is not supported for sequence files"),
 
   ;
 
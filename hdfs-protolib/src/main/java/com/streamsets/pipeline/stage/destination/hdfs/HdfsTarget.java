@@ -115,6 +115,9 @@ public class HdfsTarget extends BaseTarget {
               }
             }
             hdfsTargetConfigBean.getCurrentWriters().flushAll();
+            if (hdfsTargetConfigBean.getLateWriters() != null) {
+              hdfsTargetConfigBean.getLateWriters().flushAll();
+            }
           } else {
             emptyBatch();
           }
@@ -55,6 +55,8 @@ import org.apache.hadoop.io.SequenceFile;
 import org.apache.hadoop.io.compress.CompressionCodec;
 import org.apache.hadoop.security.UserGroupInformation;
 import org.apache.hadoop.security.authentication.util.KerberosUtil;
+import org.apache.parquet.hadoop.codec.CompressionCodecNotSupportedException;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -286,6 +288,52 @@ public class HdfsTargetConfigBean {
   @ValueChooserModel(HdfsSequenceFileCompressionTypeChooserValues.class)
   public HdfsSequenceFileCompressionType seqFileCompressionType;
 
+  @ConfigDef(
+    required = true,
+    type = ConfigDef.Type.NUMBER,
+    defaultValue = "128",
+    label = "Row Group Size (MB)",
+    description = "Size of the row groups buffered in memory before they are written to a Parquet file",
+    displayPosition = 192,
+    group = "OUTPUT_FILES",
+    dependsOn = "fileType",
+    triggeredByValue = "PARQUET",
+    min = 1
+  )
+  public int parquetRowGroupSize;
+
+  @ConfigDef(
+    required = true,
+    type = ConfigDef.Type.NUMBER,
+    defaultValue = "512",
+    label = "Max Buffer Memory (MB)",
+    description = "Memory shared by the row groups of all open Parquet files. The row group size of new files " +
+      "is reduced when many files are open at the same time, and the files with the largest row groups are " +
+      "closed when the open files go over it",
+    displayPosition = 194,
+    group = "OUTPUT_FILES",
+    dependsOn = "fileType",
+    triggeredByValue = "PARQUET",
+    min = 1
+  )
+  public int parquetBufferMemory;
+
+  @ConfigDef(
+    required = false,
+    type = ConfigDef.Type.BOOLEAN,
+    defaultValue = "false",
+    label = "Commit Files at Batch End",
+    description = "Closes the open Parquet files at the end of every batch, so the records of a committed batch are " +
+      "always in readable files. Creates at least one file per batch and directory. When disabled, files are closed " +
+      "on the file limits and the idle timeout, and the buffered row group of a file that was open when the Data " +
+      "Collector stopped unexpectedly can't be read",
+    displayPosition = 196,
+    group = "OUTPUT_FILES",
+    dependsOn = "fileType",
+    triggeredByValue = "PARQUET"
+  )
+  public boolean parquetCommitOnBatchEnd;
+
   @ConfigDef(
     required = true,
     type = ConfigDef.Type.STRING,
@@ -453,6 +501,21 @@ public class HdfsTargetConfigBean {
       issues.add(context.createConfigIssue(Groups.OUTPUT_FILES.name(), null, ex.getErrorCode(), ex.toString(), ex));
     }
 
+    if (compression == CompressionMode.ZSTD && fileType == HdfsFileType.SEQUENCE_FILE) {
+      issues.add(
+          context.createConfigIssue(
+              Groups.OUTPUT_FILES.name(),
+              HDFS_TARGET_CONFIG_BEAN_PREFIX + "compression",
+              Errors.HADOOPFS_53,
+              compression.getLabel()
+          )
+      );
+    }
+
+    if (fileType == HdfsFileType.PARQUET) {
+      validateParquet(context, issues);
+    }
+
     if(hadoopFSValidated){
       try {
         // Creating RecordWriterManager for dirPathTemplate
@@ -464,6 +527,10 @@ public class HdfsTargetConfigBean {
         if (idleTimeSecs > 0) {
           mgr.setIdleTimeoutSeconds(idleTimeSecs);
         }
+        if (fileType == HdfsFileType.PARQUET) {
+          mgr.setParquetConfig(dataGeneratorFormatConfig.avroSchema, parquetRowGroupSize * MEGA_BYTE,
+              (long) parquetBufferMemory * MEGA_BYTE, parquetCommitOnBatchEnd);
+        }
 
         // We're skipping all hdfs-target-directory related validations if we're getting the configuration from header
         if(dirPathTemplateInHeader) {
@@ -516,6 +583,10 @@ public class HdfsTargetConfigBean {
           if (idleTimeSecs > 0) {
             mgr.setIdleTimeoutSeconds(idleTimeSecs);
           }
+          if (fileType == HdfsFileType.PARQUET) {
+            mgr.setParquetConfig(dataGeneratorFormatConfig.avroSchema, parquetRowGroupSize * MEGA_BYTE,
+                (long) parquetBufferMemory * MEGA_BYTE, parquetCommitOnBatchEnd);
+          }
 
           // validate if the lateRecordsDirPathTemplate can be resolved by Els constants
           if (mgr.validateDirTemplate(
@@ -789,6 +860,34 @@ public class HdfsTargetConfigBean {
     return conf;
   }
 
+  private void validateParquet(Stage.Context context, List<Stage.ConfigIssue> issues) {
+    // Parquet files are written through the Avro object model, the schema comes from the Avro data format config
+    if (dataFormat != DataFormat.AVRO) {
+      issues.add(
+          context.createConfigIssue(
+              Groups.OUTPUT_FILES.name(),
+              HDFS_TARGET_CONFIG_BEAN_PREFIX + "dataFormat",
+              Errors.HADOOPFS_51,
+              DataFormat.AVRO.getLabel()
+          )
+      );
+    }
+    if (compressionCodec != null) {
+      try {
+        CompressionCodecName.fromCompressionCodec(compressionCodec.getClass());
+      } catch (CompressionCodecNotSupportedException ex) {
+        issues.add(
+            context.createConfigIssue(
+                Groups.OUTPUT_FILES.name(),
+                HDFS_TARGET_CONFIG_BEAN_PREFIX + "compression",
+                Errors.HADOOPFS_52,
+                compressionCodec.getClass().getName()
+            )
+        );
+      }
+    }
+  }
+
   private boolean validateHadoopFS(Stage.Context context, List<Stage.ConfigIssue> issues) {
     hdfsConfiguration = getHadoopConfiguration(context, issues);
 
@@ -44,6 +44,12 @@ public class HdfsTargetUpgrader implements StageUpgrader {
         // fall through
       case 2:
         upgradeV2ToV3(configs);
+        if (toVersion == 3) {
+          break;
+        }
+        // fall through
+      case 3:
+        upgradeV3ToV4(configs);
         break;
       default:
         throw new IllegalStateException(Utils.format("Unexpected fromVersion {}", fromVersion));
@@ -130,4 +136,10 @@ public class HdfsTargetUpgrader implements StageUpgrader {
 
     configs.add(new Config("hdfsTargetConfigBean.dirPathTemplateInHeader", false));
   }
+
+  private void upgradeV3ToV4(List<Config> configs) {
+    configs.add(new Config("hdfsTargetConfigBean.parquetRowGroupSize", 128));
+    configs.add(new Config("hdfsTargetConfigBean.parquetBufferMemory", 512));
+    configs.add(new Config("hdfsTargetConfigBean.parquetCommitOnBatchEnd", false));
+  }
 }
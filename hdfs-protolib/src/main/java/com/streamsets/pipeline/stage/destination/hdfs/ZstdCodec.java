@@ -0,0 +1,136 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.destination.hdfs;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import com.streamsets.pipeline.lib.compression.StreamCompressor;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionInputStream;
+import org.apache.hadoop.io.compress.CompressionOutputStream;
+import org.apache.hadoop.io.compress.Compressor;
+import org.apache.hadoop.io.compress.Decompressor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Stream only Zstandard codec, the Hadoop version we build against doesn't have one. It writes standard Zstandard
+ * frames readable by the zstd tools. It does not provide compressors, so it can't be used for sequence files.
+ */
+public class ZstdCodec implements CompressionCodec {
+
+  @Override
+  public CompressionOutputStream createOutputStream(OutputStream out) throws IOException {
+    return new ZstdCompressionOutputStream(out);
+  }
+
+  @Override
+  public CompressionOutputStream createOutputStream(OutputStream out, Compressor compressor) throws IOException {
+    return createOutputStream(out);
+  }
+
+  @Override
+  public Class<? extends Compressor> getCompressorType() {
+    return null;
+  }
+
+  @Override
+  public Compressor createCompressor() {
+    return null;
+  }
+
+  @Override
+  public CompressionInputStream createInputStream(InputStream in) throws IOException {
+    return new ZstdCompressionInputStream(in);
+  }
+
+  @Override
+  public CompressionInputStream createInputStream(InputStream in, Decompressor decompressor) throws IOException {
+    return createInputStream(in);
+  }
+
+  @Override
+  public Class<? extends Decompressor> getDecompressorType() {
+    return null;
+  }
+
+  @Override
+  public Decompressor createDecompressor() {
+    return null;
+  }
+
+  @Override
+  public String getDefaultExtension() {
+    return ".zst";
+  }
+
+  private static class ZstdCompressionOutputStream extends CompressionOutputStream {
+
+    ZstdCompressionOutputStream(OutputStream out) throws IOException {
+      // closing the Zstandard stream writes the end of the frame and closes the file stream
+      super(new ZstdOutputStream(out, StreamCompressor.DEFAULT_ZSTD_LEVEL));
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+    }
+
+    @Override
+    public void finish() throws IOException {
+      out.flush();
+    }
+
+    @Override
+    public void resetState() throws IOException {
+      throw new UnsupportedOperationException("Zstandard streams cannot be reset");
+    }
+  }
+
+  private static class ZstdCompressionInputStream extends CompressionInputStream {
+
+    ZstdCompressionInputStream(InputStream in) throws IOException {
+      super(new ZstdInputStream(in));
+    }
+
+    @Override
+    public int read() throws IOException {
+      return in.read();
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      return in.read(b, off, len);
+    }
+
+    @Override
+    public void resetState() throws IOException {
+      throw new UnsupportedOperationException("Zstandard streams cannot be reset");
+    }
+  }
+
+}
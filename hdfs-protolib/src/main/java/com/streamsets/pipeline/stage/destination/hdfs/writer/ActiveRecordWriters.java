@@ -30,9 +30,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.DelayQueue;
 import java.util.concurrent.Delayed;
@@ -136,7 +138,7 @@ public class ActiveRecordWriters {
   public void release(RecordWriter writer) throws IOException {
     writer.closeLock();
     try {
-      if (writer.isIdleClosed() || manager.isOverThresholds(writer)) {
+      if (writer.isIdleClosed() || manager.isOverThresholds(writer) || isOverParquetBufferMemory(writer)) {
         if (IS_TRACE_ENABLED) {
           LOG.trace("Release '{}'", writer.getPath());
         }
@@ -149,12 +151,19 @@ public class ActiveRecordWriters {
     purge();
   }
 
-  public void flushAll() {
+  public void flushAll() throws IOException {
     if (IS_TRACE_ENABLED) {
       LOG.trace("Flush all '{}'", toString());
     }
+    List<RecordWriter> parquetWriters = new ArrayList<>();
     for (RecordWriter writer : writers.values()) {
       if (!writer.isClosed()) {
+        if (writer.isParquetFile()) {
+          if (manager.isParquetCommitOnBatchEnd()) {
+            parquetWriters.add(writer);
+          }
+          continue;
+        }
         try {
           writer.flush();
         } catch (IOException ex) {
@@ -163,6 +172,41 @@ public class ActiveRecordWriters {
         }
       }
     }
+    // A Parquet file keeps its current row group in memory and is only readable once its footer is written on
+    // close. When configured, Parquet files are committed at the end of every batch so the records of a committed
+    // batch are always in a complete file. Errors are not swallowed, the batch must fail if its records could not
+    // be written.
+    for (RecordWriter writer : parquetWriters) {
+      writers.remove(writer.getPath().toString());
+      manager.commitWriter(writer);
+    }
+  }
+
+  // The row groups of all open Parquet files share the buffer memory, a file buffers up to its row group size.
+  // Once the row groups of the open files go over the buffer memory the files with the largest row groups are
+  // rolled, the files that replace them get smaller row groups.
+  private boolean isOverParquetBufferMemory(RecordWriter writer) {
+    if (!writer.isParquetFile()) {
+      return false;
+    }
+    List<RecordWriter> openWriters;
+    synchronized (writers) {
+      openWriters = new ArrayList<>(writers.values());
+    }
+    // writers are removed before they are committed, their close locks are not taken as the caller holds one
+    long rowGroups = 0;
+    long largestRowGroup = 0;
+    for (RecordWriter openWriter : openWriters) {
+      if (openWriter.isParquetFile()) {
+        rowGroups += openWriter.getParquetRowGroupSize();
+        largestRowGroup = Math.max(largestRowGroup, openWriter.getParquetRowGroupSize());
+      }
+    }
+    boolean over = rowGroups > manager.getParquetBufferMemory() && writer.getParquetRowGroupSize() >= largestRowGroup;
+    if (over) {
+      LOG.debug("Path[{}] - Open Parquet files over buffer memory, row groups={}", writer.getPath(), rowGroups);
+    }
+    return over;
   }
 
   public void closeAll() {
@@ -29,11 +29,15 @@ import com.streamsets.pipeline.api.impl.Utils;
 import com.streamsets.pipeline.lib.el.RecordEL;
 import com.streamsets.pipeline.lib.generator.DataGenerator;
 import com.streamsets.pipeline.lib.generator.DataGeneratorFactory;
+import com.streamsets.pipeline.lib.util.AvroTypeUtil;
 import com.streamsets.pipeline.stage.destination.hdfs.IdleClosedException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
 import org.apache.commons.io.output.CountingOutputStream;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.SequenceFile;
 import org.apache.hadoop.io.Text;
+import org.apache.parquet.hadoop.ParquetWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,11 +45,13 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -69,6 +75,14 @@ public class RecordWriter {
   private Text key;
   private Text value;
   private boolean seqFile;
+
+  private ParquetWriter<GenericRecord> parquetWriter;
+  private int parquetRowGroupSize;
+  private Schema parquetSchema;
+  private Map<String, Object> parquetDefaultValues;
+  private AtomicInteger openParquetWriters;
+  private boolean parquetFile;
+
   private boolean idleClosed;
   private Future<Void> currentIdleCloseFuture = null;
   private ActiveRecordWriters writers = null;
@@ -120,6 +134,23 @@ public class RecordWriter {
     this.idleTimeout = idleTimeout;
   }
 
+  /**
+   * Writer for Parquet files, the Parquet writer buffers the current row group in memory and writes it out once it
+   * reaches the row group size. {@code openParquetWriters} counts the open Parquet files, it is incremented here and
+   * decremented when the writer is closed.
+   */
+  public RecordWriter(Path path, long timeToLiveMillis, ParquetWriter<GenericRecord> parquetWriter, int rowGroupSize,
+      Schema schema, Map<String, Object> defaultValues, AtomicInteger openParquetWriters) {
+    this(path, timeToLiveMillis, null);
+    this.parquetWriter = parquetWriter;
+    this.parquetRowGroupSize = rowGroupSize;
+    this.parquetSchema = schema;
+    this.parquetDefaultValues = defaultValues;
+    this.openParquetWriters = openParquetWriters;
+    openParquetWriters.incrementAndGet();
+    parquetFile = true;
+  }
+
   public Path getPath() {
     return path;
   }
@@ -158,6 +189,8 @@ public class RecordWriter {
         dg.close();
         value.set(new String(baos.toByteArray(), StandardCharsets.UTF_8));
         seqWriter.append(key, value);
+      } else if (parquetWriter != null) {
+        parquetWriter.write((GenericRecord) AvroTypeUtil.sdcRecordToAvro(record, parquetSchema, parquetDefaultValues));
       } else {
         throw new IOException(Utils.format("RecordWriter '{}' is closed", path));
       }
@@ -181,6 +214,7 @@ public class RecordWriter {
       } else if (seqWriter != null) {
         seqWriter.hflush();
       }
+      // Parquet row groups can't be flushed partially, they are written once full or when the file is closed
     } finally {
       closeLock.readLock().unlock();
     }
@@ -194,6 +228,9 @@ public class RecordWriter {
       length = textOutputStream.getByteCount();
     } else if (seqWriter != null) {
       length = seqWriter.getLength();
+    } else if (parquetWriter != null) {
+      // written row groups plus the buffered one
+      length = parquetWriter.getDataSize();
     }
     return length;
   }
@@ -217,6 +254,8 @@ public class RecordWriter {
         generator.close();
       } else if (seqWriter != null) {
         seqWriter.close();
+      } else if (parquetWriter != null) {
+        parquetWriter.close();
       }
       this.idleClosed = idleClosed;
       // writers can never be null, except in tests
@@ -226,6 +265,10 @@ public class RecordWriter {
     } finally {
       generator = null;
       seqWriter = null;
+      if (parquetWriter != null) {
+        parquetWriter = null;
+        openParquetWriters.decrementAndGet();
+      }
       closeLock.writeLock().unlock();
       this.idleCloseExecutor.shutdownNow();
     }
@@ -250,9 +293,18 @@ public class RecordWriter {
     return seqFile;
   }
 
+  public boolean isParquetFile() {
+    return parquetFile;
+  }
+
+  // the memory the Parquet writer buffers before it writes a row group out
+  int getParquetRowGroupSize() {
+    return parquetRowGroupSize;
+  }
+
   public boolean isClosed() {
     closeLock.readLock().lock();
-    boolean isClosed = (generator == null && seqWriter == null);
+    boolean isClosed = (generator == null && seqWriter == null && parquetWriter == null);
     closeLock.readLock().unlock();
     return isClosed;
   }
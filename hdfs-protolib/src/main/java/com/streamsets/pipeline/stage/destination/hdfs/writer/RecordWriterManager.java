@@ -33,17 +33,25 @@ import com.streamsets.pipeline.api.impl.Utils;
 import com.streamsets.pipeline.lib.el.FakeRecordEL;
 import com.streamsets.pipeline.lib.el.TimeEL;
 import com.streamsets.pipeline.lib.generator.DataGeneratorFactory;
+import com.streamsets.pipeline.lib.util.AvroTypeUtil;
 import com.streamsets.pipeline.stage.destination.hdfs.Errors;
 import com.streamsets.pipeline.stage.destination.hdfs.HdfsFileType;
 import com.streamsets.pipeline.stage.destination.hdfs.HdfsTarget;
 import com.streamsets.pipeline.stage.destination.hdfs.IdleClosedException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.SequenceFile;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,16 +59,23 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.TimeZone;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class RecordWriterManager {
   private final static Logger LOG = LoggerFactory.getLogger(RecordWriterManager.class);
+  private static final String PARQUET_EXTENSION = ".parquet";
+  private static final int MIN_PARQUET_ROW_GROUP_SIZE = 1024 * 1024;
+  private static final String INCOMPLETE_PARQUET_PREFIX = "_incomplete_";
 
   private URI hdfsUri;;
   private Configuration hdfsConf;
@@ -81,6 +96,13 @@ public class RecordWriterManager {
   private final Path tempFilePath;
   private final LoadingCache<String, Path> dirPathCache;
   private long idleTimeoutSeconds = -1L;
+  private Schema parquetSchema;
+  private Map<String, Object> parquetDefaultValues;
+  private int parquetRowGroupSize;
+  private long parquetBufferMemory;
+  private boolean parquetCommitOnBatchEnd;
+  // Parquet writers buffer a whole row group in memory, the open ones share the buffer memory
+  private final AtomicInteger openParquetWriters = new AtomicInteger();
 
   public RecordWriterManager(URI hdfsUri, Configuration hdfsConf, String uniquePrefix, boolean dirPathTemplateInHeader,
       String dirPathTemplate, TimeZone timeZone, long cutOffSecs, long cutOffSizeBytes, long cutOffRecords,
@@ -127,6 +149,33 @@ public class RecordWriterManager {
     this.idleTimeoutSeconds = idleTimeoutSeconds;
   }
 
+  /**
+   * Sets the Avro schema used to write Parquet files, the row group size, the memory shared by the row groups
+   * of all the Parquet files open at the same time and if Parquet files are committed at the end of every batch.
+   */
+  public void setParquetConfig(String avroSchema, int rowGroupSize, long bufferMemory, boolean commitOnBatchEnd)
+      throws IOException {
+    parquetSchema = new Schema.Parser().parse(avroSchema);
+    parquetDefaultValues = AvroTypeUtil.getDefaultValuesFromSchema(parquetSchema, new HashSet<String>());
+    parquetRowGroupSize = rowGroupSize;
+    parquetBufferMemory = bufferMemory;
+    parquetCommitOnBatchEnd = commitOnBatchEnd;
+  }
+
+  boolean isParquetCommitOnBatchEnd() {
+    return parquetCommitOnBatchEnd;
+  }
+
+  long getParquetBufferMemory() {
+    return parquetBufferMemory;
+  }
+
+  int getParquetRowGroupSize() {
+    // the new writer has to fit in the buffer memory together with the ones already open
+    long budget = parquetBufferMemory / (openParquetWriters.get() + 1);
+    return (int) Math.max(MIN_PARQUET_ROW_GROUP_SIZE, Math.min(parquetRowGroupSize, budget));
+  }
+
   public long getCutOffMillis() {
     return cutOffMillis;
   }
@@ -152,6 +201,10 @@ public class RecordWriterManager {
   }
 
   String getExtension() {
+    if (fileType == HdfsFileType.PARQUET) {
+      // Parquet compresses the column chunks, the file itself keeps the Parquet extension
+      return PARQUET_EXTENSION;
+    }
     return (compressionCodec == null) ? "" : compressionCodec.getDefaultExtension();
   }
 
@@ -236,6 +289,30 @@ public class RecordWriterManager {
           throw new StageException(Errors.HADOOPFS_46, compressionType.name(), unsatisfiedLinkError,
             unsatisfiedLinkError);
         }
+      case PARQUET:
+        Utils.checkNotNull(parquetSchema, "parquetSchema");
+        try {
+          CompressionCodecName codecName = (compressionCodec == null)
+              ? CompressionCodecName.UNCOMPRESSED : CompressionCodecName.fromCompressionCodec(compressionCodec.getClass());
+          int rowGroupSize = getParquetRowGroupSize();
+          ParquetWriter<GenericRecord> parquetWriter = AvroParquetWriter.<GenericRecord>builder(fs.makeQualified(path))
+              .withSchema(parquetSchema)
+              .withConf(hdfsConf)
+              .withCompressionCodec(codecName)
+              .withRowGroupSize(rowGroupSize)
+              .build();
+          LOG.debug("Path[{}] - Parquet row group size '{}'", path, rowGroupSize);
+          RecordWriter parquetRecordWriter = new RecordWriter(path, timeToLiveMillis, parquetWriter, rowGroupSize,
+              parquetSchema, parquetDefaultValues, openParquetWriters);
+          if (idleTimeoutSeconds != -1) {
+            parquetRecordWriter.setIdleTimeout(idleTimeoutSeconds);
+          }
+          return parquetRecordWriter;
+        } catch (UnsatisfiedLinkError unsatisfiedLinkError) {
+          String codec = (compressionCodec == null) ? CompressionCodecName.UNCOMPRESSED.name()
+              : compressionCodec.getClass().getName();
+          throw new StageException(Errors.HADOOPFS_46, codec, unsatisfiedLinkError, unsatisfiedLinkError);
+        }
       default:
         throw new UnsupportedOperationException(Utils.format("Unsupported file Type '{}'", fileType));
     }
@@ -248,8 +325,7 @@ public class RecordWriterManager {
     if (writerTimeToLive >= 0) {
       FileSystem fs = FileSystem.get(hdfsUri, hdfsConf);
       if (fs.exists(tempPath)) {
-        Path path = renameToFinalName(fs, tempPath);
-        LOG.warn("Path[{}] - Found previous file '{}', committing it", tempPath, path);
+        commitPreviousFile(fs, tempPath);
       }
       LOG.debug("Path[{}] - Create writer,  time to live '{}ms'", tempPath, writerTimeToLive);
       writer = createWriter(fs, tempPath, writerTimeToLive);
@@ -346,13 +422,52 @@ public class RecordWriterManager {
         if (globStatus != null) {
           for (FileStatus status : globStatus) {
             LOG.debug("Found uncommitted file '{}'", status.getPath());
-            renameToFinalName(fs, status.getPath());
+            commitPreviousFile(fs, status.getPath());
           }
         }
       }
     }
   }
 
+  private void commitPreviousFile(FileSystem fs, Path tempPath) throws IOException {
+    if (fileType == HdfsFileType.PARQUET) {
+      if (parquetCommitOnBatchEnd) {
+        // Parquet files are committed at the end of every batch, an uncommitted one was left by a batch that did not
+        // complete. Its records are written again when the batch is retried.
+        if (!fs.delete(tempPath, false)) {
+          throw new IOException(Utils.format("Could not delete '{}'", tempPath));
+        }
+        LOG.warn("Path[{}] - Found Parquet file from a batch that was not committed, deleted it", tempPath);
+        return;
+      }
+      if (!isCompleteParquetFile(fs, tempPath)) {
+        // the file was not closed, it has no footer and can't be read. It is kept aside, out of the final names
+        Path incompletePath = new Path(tempPath.getParent(),
+            INCOMPLETE_PARQUET_PREFIX + uniquePrefix + "_" + UUID.randomUUID().toString() + PARQUET_EXTENSION);
+        if (!fs.rename(tempPath, incompletePath)) {
+          throw new IOException(Utils.format("Could not rename '{}' to '{}'", tempPath, incompletePath));
+        }
+        LOG.error("Path[{}] - Found Parquet file that was not closed, moved it to '{}'", tempPath, incompletePath);
+        return;
+      }
+    }
+    Path path = renameToFinalName(fs, tempPath);
+    LOG.warn("Path[{}] - Found previous file '{}', committing it", tempPath, path);
+  }
+
+  // a Parquet file ends with its footer, its length and the magic bytes, they are written when the file is closed
+  private boolean isCompleteParquetFile(FileSystem fs, Path path) throws IOException {
+    long length = fs.getFileStatus(path).getLen();
+    byte[] magic = new byte[ParquetFileWriter.MAGIC.length];
+    if (length < 2 * magic.length + 4) {
+      return false;
+    }
+    try (FSDataInputStream is = fs.open(path)) {
+      is.readFully(length - magic.length, magic);
+    }
+    return Arrays.equals(ParquetFileWriter.MAGIC, magic);
+  }
+
   private long preventOverflow(long valueToVerify) {
     return (valueToVerify > 0) ? valueToVerify : Long.MAX_VALUE;
   }
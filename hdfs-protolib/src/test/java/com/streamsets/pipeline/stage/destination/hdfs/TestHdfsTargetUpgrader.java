@@ -200,4 +200,20 @@ public class TestHdfsTargetUpgrader {
     Assert.assertEquals("hdfsTargetConfigBean.idleTimeout", configs.get(0).getName());
     Assert.assertEquals("10", configs.get(0).getValue());
   }
+
+  @Test
+  public void testUpgradeV3ToV4() throws StageException {
+    List<Config> configs = new ArrayList<>();
+
+    HdfsTargetUpgrader hdfsTargetUpgrader = new HdfsTargetUpgrader();
+    hdfsTargetUpgrader.upgrade("a", "b", "c", 3, 4, configs);
+
+    Assert.assertEquals(3, configs.size());
+    Assert.assertEquals("hdfsTargetConfigBean.parquetRowGroupSize", configs.get(0).getName());
+    Assert.assertEquals(128, configs.get(0).getValue());
+    Assert.assertEquals("hdfsTargetConfigBean.parquetBufferMemory", configs.get(1).getName());
+    Assert.assertEquals(512, configs.get(1).getValue());
+    Assert.assertEquals("hdfsTargetConfigBean.parquetCommitOnBatchEnd", configs.get(2).getName());
+    Assert.assertEquals(false, configs.get(2).getValue());
+  }
 }
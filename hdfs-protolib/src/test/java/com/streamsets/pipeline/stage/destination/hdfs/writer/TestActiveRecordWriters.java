@@ -30,6 +30,7 @@ import com.streamsets.pipeline.sdk.ContextInfoCreator;
 import com.streamsets.pipeline.sdk.RecordCreator;
 import com.streamsets.pipeline.stage.destination.hdfs.HdfsDTarget;
 import com.streamsets.pipeline.stage.destination.hdfs.HdfsFileType;
+import com.streamsets.pipeline.stage.destination.hdfs.HdfsTarget;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hdfs.HdfsConfiguration;
@@ -47,6 +48,8 @@ import java.io.OutputStream;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.TimeZone;
 import java.util.UUID;
 
@@ -206,4 +209,127 @@ public class TestActiveRecordWriters {
     Assert.assertEquals(0, files.length);
   }
 
+  private RecordWriterManager createParquetManager(String name, boolean dirPathTemplateInHeader, int rowGroupSize,
+      long bufferMemory, boolean commitOnBatchEnd) throws Exception {
+    String schema = "{\"type\":\"record\",\"name\":\"r\",\"fields\":[{\"name\":\"a\",\"type\":\"string\"}]}";
+    RecordWriterManager mgr = new RecordWriterManager(new URI("file:///"), new HdfsConfiguration(), "prefix",
+        dirPathTemplateInHeader, getTestDir().toString(), TimeZone.getTimeZone("UTC"), 3600, 0, 0,
+        HdfsFileType.PARQUET, null, null, null, null,
+        ContextInfoCreator.createTargetContext(HdfsDTarget.class, name, false, OnRecordError.TO_ERROR, null),
+        "dirPathTemplate");
+    mgr.setParquetConfig(schema, rowGroupSize, bufferMemory, commitOnBatchEnd);
+    Assert.assertTrue(mgr.validateDirTemplate("g", "dirPathTemplate", "dirPathTemplate", new ArrayList<Stage.ConfigIssue>()));
+    return mgr;
+  }
+
+  private Record createParquetRecord(String dir) {
+    Record record = RecordCreator.create();
+    Map<String, Field> map = new HashMap<>();
+    map.put("a", Field.create("hello"));
+    record.set(Field.create(map));
+    if (dir != null) {
+      record.getHeader().setAttribute(HdfsTarget.TARGET_DIRECTORY_HEADER, dir);
+    }
+    return record;
+  }
+
+  private int getParquetFilesCount(String dir) {
+    File[] files = new File(dir).listFiles(new FilenameFilter() {
+      @Override
+      public boolean accept(File dir, String name) {
+        return name.startsWith("prefix") && name.endsWith(".parquet");
+      }
+    });
+    return (files == null) ? 0 : files.length;
+  }
+
+  @Test
+  public void testParquetKeptOpenAcrossBatches() throws Exception {
+    RecordWriterManager mgr = createParquetManager("testParquetKeptOpenAcrossBatches", false, 8 * 1024 * 1024,
+        16 * 1024 * 1024, false);
+    ActiveRecordWriters writers = new ActiveRecordWriters(mgr);
+
+    Date now = new Date();
+    Record record = createParquetRecord(null);
+    RecordWriter writer = writers.get(now, now, record);
+    writer.write(record);
+    writers.release(writer);
+    writers.flushAll();
+
+    // the file is not rolled at the end of the batch, the next batch writes to the same file
+    Assert.assertFalse(writer.isClosed());
+    Assert.assertEquals(0, getParquetFilesCount(getTestDir().toString()));
+    Assert.assertSame(writer, writers.get(now, now, record));
+    writer.write(record);
+    writers.release(writer);
+    writers.flushAll();
+    Assert.assertFalse(writer.isClosed());
+
+    writers.closeAll();
+    Assert.assertTrue(writer.isClosed());
+    Assert.assertEquals(1, getParquetFilesCount(getTestDir().toString()));
+  }
+
+  @Test
+  public void testParquetCommittedOnFlush() throws Exception {
+    RecordWriterManager mgr = createParquetManager("testParquetCommittedOnFlush", false, 8 * 1024 * 1024,
+        16 * 1024 * 1024, true);
+    ActiveRecordWriters writers = new ActiveRecordWriters(mgr);
+
+    Date now = new Date();
+    Record record = createParquetRecord(null);
+    RecordWriter writer = writers.get(now, now, record);
+    writer.write(record);
+    writers.release(writer);
+    Assert.assertFalse(writer.isClosed());
+
+    // the end of the batch commits the Parquet file, so its records are readable once the batch is committed
+    writers.flushAll();
+    Assert.assertTrue(writer.isClosed());
+    Assert.assertEquals(1, getParquetFilesCount(getTestDir().toString()));
+
+    // the next batch gets a new file
+    writer = writers.get(now, now, record);
+    Assert.assertNotNull(writer);
+    Assert.assertFalse(writer.isClosed());
+    writers.closeAll();
+  }
+
+  @Test
+  public void testParquetRolledOverBufferMemory() throws Exception {
+    RecordWriterManager mgr = createParquetManager("testParquetRolledOverBufferMemory", true, 2 * 1024 * 1024,
+        2 * 1024 * 1024, false);
+    ActiveRecordWriters writers = new ActiveRecordWriters(mgr);
+
+    Date now = new Date();
+    String dir1 = getTestDir().toString() + "/1";
+    String dir2 = getTestDir().toString() + "/2";
+    Record record1 = createParquetRecord(dir1);
+    Record record2 = createParquetRecord(dir2);
+
+    // the first file gets the whole buffer memory, the second one the minimum row group size
+    RecordWriter writer1 = writers.get(now, now, record1);
+    Assert.assertEquals(2 * 1024 * 1024, writer1.getParquetRowGroupSize());
+    RecordWriter writer2 = writers.get(now, now, record2);
+    Assert.assertEquals(1024 * 1024, writer2.getParquetRowGroupSize());
+    writer1.write(record1);
+    writer2.write(record2);
+
+    // the row groups are over the buffer memory, only the file with the largest row group is rolled
+    writers.release(writer2);
+    Assert.assertFalse(writer2.isClosed());
+    writers.release(writer1);
+    Assert.assertTrue(writer1.isClosed());
+    Assert.assertEquals(1, getParquetFilesCount(dir1));
+    Assert.assertEquals(0, getParquetFilesCount(dir2));
+
+    // the file that replaces it shares the buffer memory with the open one
+    RecordWriter writer3 = writers.get(now, now, record1);
+    Assert.assertEquals(1024 * 1024, writer3.getParquetRowGroupSize());
+    writer3.write(record1);
+    writers.release(writer3);
+    Assert.assertFalse(writer3.isClosed());
+    writers.closeAll();
+  }
+
 }
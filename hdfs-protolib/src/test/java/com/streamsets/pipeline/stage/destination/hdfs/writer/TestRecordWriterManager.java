@@ -33,6 +33,7 @@ import com.streamsets.pipeline.sdk.ContextInfoCreator;
 import com.streamsets.pipeline.sdk.RecordCreator;
 import com.streamsets.pipeline.stage.destination.hdfs.HdfsDTarget;
 import com.streamsets.pipeline.stage.destination.hdfs.HdfsFileType;
+import org.apache.avro.generic.GenericRecord;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
@@ -43,6 +44,8 @@ import org.apache.hadoop.io.SequenceFile;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.compress.CompressionCodec;
 import org.apache.hadoop.io.compress.DefaultCodec;
+import org.apache.parquet.avro.AvroParquetReader;
+import org.apache.parquet.hadoop.ParquetReader;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -63,8 +66,10 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.UUID;
@@ -308,6 +313,83 @@ public class TestRecordWriterManager {
     testSeqFile(codec, SequenceFile.CompressionType.BLOCK);
   }
 
+  @Test
+  public void testParquetFile() throws Exception {
+    URI uri = new URI("file:///");
+    Configuration conf = new HdfsConfiguration();
+    String prefix = "prefix";
+    String template = getTestDir().toString() + "/${YYYY()}";
+    TimeZone timeZone = TimeZone.getTimeZone("UTC");
+    String schema = "{\"type\":\"record\",\"name\":\"r\",\"fields\":[{\"name\":\"a\",\"type\":\"string\"}]}";
+    RecordWriterManager mgr = new RecordWriterManager(uri, conf, prefix, false, template, timeZone, 10, 0, 0,
+      HdfsFileType.PARQUET, null, null, null, null, targetContext, "dirPathTemplate");
+    mgr.setParquetConfig(schema, 8 * 1024 * 1024, 16 * 1024 * 1024, false);
+    Assert.assertEquals(".parquet", mgr.getExtension());
+    Assert.assertEquals(8 * 1024 * 1024, mgr.getParquetRowGroupSize());
+
+    FileSystem fs = FileSystem.get(uri, conf);
+    Path file1 = new Path(getTestDir(), UUID.randomUUID().toString());
+    RecordWriter writer1 = mgr.createWriter(fs, file1, 50000);
+    Assert.assertTrue(writer1.isParquetFile());
+    // the second file shares the buffer memory with the first one
+    Assert.assertEquals(8 * 1024 * 1024, mgr.getParquetRowGroupSize());
+    Path file2 = new Path(getTestDir(), UUID.randomUUID().toString());
+    RecordWriter writer2 = mgr.createWriter(fs, file2, 50000);
+    Assert.assertEquals(16 * 1024 * 1024 / 3, mgr.getParquetRowGroupSize());
+
+    Map<String, Field> map = new HashMap<>();
+    map.put("a", Field.create("x"));
+    Record record = RecordCreator.create();
+    record.set(Field.create(map));
+    writer1.write(record);
+    writer1.close();
+    writer2.close();
+    Assert.assertTrue(writer1.isClosed());
+    Assert.assertEquals(8 * 1024 * 1024, mgr.getParquetRowGroupSize());
+
+    ParquetReader<GenericRecord> reader = AvroParquetReader.<GenericRecord>builder(file1).withConf(conf).build();
+    GenericRecord avroRecord = reader.read();
+    Assert.assertEquals("x", avroRecord.get("a").toString());
+    Assert.assertNull(reader.read());
+    reader.close();
+  }
+
+  @Test
+  public void testIncompleteParquetFileKeptAside() throws Exception {
+    URI uri = new URI("file:///");
+    Configuration conf = new HdfsConfiguration();
+    String prefix = "prefix";
+    String template = getTestDir().toString() + "/" + UUID.randomUUID().toString();
+    TimeZone timeZone = TimeZone.getTimeZone("UTC");
+    String schema = "{\"type\":\"record\",\"name\":\"r\",\"fields\":[{\"name\":\"a\",\"type\":\"string\"}]}";
+    RecordWriterManager mgr = new RecordWriterManager(uri, conf, prefix, false, template, timeZone, 3600, 0, 0,
+      HdfsFileType.PARQUET, null, null, null, null, targetContext, "dirPathTemplate");
+    mgr.setParquetConfig(schema, 8 * 1024 * 1024, 16 * 1024 * 1024, false);
+    Assert.assertTrue(mgr.validateDirTemplate("g", "dirPathTemplate", "dirPathTemplate", new ArrayList<Stage.ConfigIssue>()));
+
+    // a Parquet file that was not closed has no footer
+    Date now = new Date();
+    Record record = RecordCreator.create();
+    FileSystem fs = FileSystem.get(uri, conf);
+    Path tempPath = mgr.getPath(now, record);
+    OutputStream os = fs.create(tempPath, false);
+    os.write("PAR1 row group".getBytes());
+    os.close();
+
+    RecordWriter writer = mgr.getWriter(now, now, record);
+    Assert.assertNotNull(writer);
+    writer.close();
+    FileStatus[] incomplete = fs.globStatus(new Path(tempPath.getParent(), "_incomplete_" + prefix + "_*.parquet"));
+    Assert.assertEquals(1, incomplete.length);
+    Assert.assertEquals(14, incomplete[0].getLen());
+
+    // a Parquet file that was closed but not renamed is committed
+    writer = mgr.getWriter(now, now, record);
+    Assert.assertNotNull(writer);
+    writer.close();
+    Assert.assertEquals(1, fs.globStatus(new Path(tempPath.getParent(), prefix + "_*.parquet")).length);
+  }
+
   @Test
   public void testGetWriter() throws Exception {
     URI uri = new URI("file:///");
@@ -64,6 +64,8 @@ public class JdbcMultiRowRecordWriter extends JdbcBaseRecordWriter {
   };
 
   public static final int UNLIMITED_PARAMETERS = -1;
+  // Number of multi-row statements sent to the database in one round trip
+  private static final int MAX_PENDING_STATEMENTS = 100;
   private int maxPrepStmtParameters;
 
   /**
@@ -144,76 +146,80 @@ public class JdbcMultiRowRecordWriter extends JdbcBaseRecordWriter {
     int maxRowsPerBatch = maxPrepStmtParameters / columnsToParameters.size();
 
     PreparedStatement statement = null;
+    int statementRows = 0;
+    int pendingStatements = 0;
 
     // parameters are indexed starting with 1
     int paramIdx = 1;
     int rowCount = 0;
-    while (!queue.isEmpty()) {
-      // we're at the start of a batch.
-      if (statement == null) {
-        // instantiate the new statement
-        statement = generatePreparedStatement(
-            columnsToParameters,
-            // the next batch will have either the max number of records, or however many are left.
-            Math.min(maxRowsPerBatch, queue.size()),
-            getTableName(),
-            connection
-        );
-      }
+    try {
+      while (!queue.isEmpty()) {
+        // we're at the start of a batch.
+        if (statement == null) {
+          // the next batch will have either the max number of records, or however many are left. Full size
+          // statements are reused for every following group of the same size.
+          statementRows = Math.min(maxRowsPerBatch, queue.size());
+          statement = generatePreparedStatement(columnsToParameters, statementRows, getTableName(), connection);
+        }
 
-      // process the next record into the current statement
-      Record record = queue.removeFirst();
-      for (String column : columnsToParameters.keySet()) {
-        Field field = record.get(getColumnsToFields().get(column));
-        Field.Type fieldType = field.getType();
-        Object value = field.getValue();
+        // process the next record into the current statement
+        Record record = queue.removeFirst();
+        for (String column : columnsToParameters.keySet()) {
+          Field field = record.get(getColumnsToFields().get(column));
+          Field.Type fieldType = field.getType();
+          Object value = field.getValue();
 
-        try {
-          switch (fieldType) {
-            case LIST:
-              List<Object> unpackedList = unpackList((List<Field>) value);
-              Array array = connection.createArrayOf(getSQLTypeName(fieldType), unpackedList.toArray());
-              statement.setArray(paramIdx, array);
-              break;
-            case DATE:
-            case DATETIME:
-              // Java Date types are not accepted by JDBC drivers, so we need to convert to java.sql.Date
-              java.util.Date date = field.getValueAsDatetime();
-              statement.setObject(paramIdx, new java.sql.Date(date.getTime()));
-              break;
-            default:
-              statement.setObject(paramIdx, value, getColumnType(column));
-              break;
+          try {
+            switch (fieldType) {
+              case LIST:
+                List<Object> unpackedList = unpackList((List<Field>) value);
+                Array array = connection.createArrayOf(getSQLTypeName(fieldType), unpackedList.toArray());
+                statement.setArray(paramIdx, array);
+                break;
+              case DATE:
+              case DATETIME:
+                // Java Date types are not accepted by JDBC drivers, so we need to convert to java.sql.Date
+                java.util.Date date = field.getValueAsDatetime();
+                statement.setObject(paramIdx, new java.sql.Date(date.getTime()));
+                break;
+              default:
+                statement.setObject(paramIdx, value, getColumnType(column));
+                break;
+            }
+          } catch (SQLException e) {
+            LOG.error(Errors.JDBCDEST_23.getMessage(), column, fieldType.toString(), e);
+            throw new OnRecordErrorException(record, Errors.JDBCDEST_23, column, fieldType.toString());
           }
-        } catch (SQLException e) {
-          LOG.error(Errors.JDBCDEST_23.getMessage(), column, fieldType.toString(), e);
-          throw new OnRecordErrorException(record, Errors.JDBCDEST_23, column, fieldType.toString());
+          ++paramIdx;
         }
-        ++paramIdx;
-      }
 
-      rowCount++;
+        rowCount++;
 
-      // check if we've filled up the current batch
-      if (rowCount == maxRowsPerBatch) {
-        // time to execute the current batch
-        statement.addBatch();
-        statement.executeBatch();
-        statement.close();
-        statement = null;
+        // check if we've filled up the current statement
+        if (rowCount == statementRows) {
+          statement.addBatch();
+          pendingStatements++;
 
-        // reset our counters
-        rowCount = 0;
-        paramIdx = 1;
-      }
-    }
+          // reset our counters
+          rowCount = 0;
+          paramIdx = 1;
 
-    // check if there are any records left. this should occur whenever there isn't *exactly* maxRowsPerBatch records in
-    // this partition.
-    if (statement != null) {
-      statement.addBatch();
-      statement.executeBatch();
-      statement.close();
+          // execute once the statement can't be reused for the remaining records or enough groups are queued
+          if (queue.size() < statementRows) {
+            statement.executeBatch();
+            statement.close();
+            statement = null;
+            pendingStatements = 0;
+          } else if (pendingStatements == MAX_PENDING_STATEMENTS) {
+            statement.executeBatch();
+            pendingStatements = 0;
+          }
+        }
+      }
+    } finally {
+      if (statement != null) {
+        statement.close();
+      }
     }
   }
 
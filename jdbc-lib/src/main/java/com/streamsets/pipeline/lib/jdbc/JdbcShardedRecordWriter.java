@@ -0,0 +1,205 @@
+/**
+ * Copyright 2015 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.jdbc;
+
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.api.base.OnRecordErrorException;
+import com.streamsets.pipeline.stage.destination.jdbc.Errors;
+import com.streamsets.pipeline.stage.destination.jdbc.JdbcFieldMappingConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Record writer that splits a batch into shards and writes them in parallel through another writer.
+ * <p/>
+ * Records are assigned to shards by the hash of their primary key fields so that all changes to a row are
+ * written in order by the same shard. If the table has no primary key the batch is split into contiguous
+ * chunks. Each shard is written on its own connection and committed in its own transaction.
+ */
+public class JdbcShardedRecordWriter implements JdbcRecordWriter {
+  private static final Logger LOG = LoggerFactory.getLogger(JdbcShardedRecordWriter.class);
+
+  private final JdbcRecordWriter delegate;
+  private final List<String> keyFieldPaths;
+  private final int numShards;
+  private final int minShardSize;
+  private final ExecutorService executor;
+
+  /**
+   * Class constructor
+   * @param delegate writer used to write each shard, must be safe to use from several threads
+   * @param keyFieldPaths field paths mapped to the primary key columns, empty if the table has no primary key
+   * @param numShards maximum number of shards written in parallel
+   * @param minShardSize batches are not split into shards smaller than this
+   * @param executor executor running the shard writes
+   */
+  public JdbcShardedRecordWriter(
+      JdbcRecordWriter delegate,
+      List<String> keyFieldPaths,
+      int numShards,
+      int minShardSize,
+      ExecutorService executor
+  ) {
+    this.delegate = delegate;
+    this.keyFieldPaths = keyFieldPaths;
+    this.numShards = numShards;
+    this.minShardSize = Math.max(1, minShardSize);
+    this.executor = executor;
+  }
+
+  /**
+   * Looks up the field paths holding the primary key columns of a table, the same way the record writer of the
+   * change log format locates the column values.
+   * @param dataSource a JDBC {@link DataSource} to get a connection from
+   * @param tableName the name of the table to write to
+   * @param changeLogFormat the change log format of the records
+   * @param customMappings any custom mappings the user provided, only used by plain records
+   * @return field paths of the primary key columns, empty if the table has no primary key
+   * @throws StageException
+   */
+  public static List<String> getKeyFieldPaths(
+      DataSource dataSource,
+      String tableName,
+      ChangeLogFormat changeLogFormat,
+      List<JdbcFieldMappingConfig> customMappings
+  ) throws StageException {
+    List<String> keyFieldPaths = new ArrayList<>();
+    try (Connection connection = dataSource.getConnection()) {
+      for (String column : JdbcUtil.getPrimaryKeys(connection, tableName)) {
+        keyFieldPaths.add(getKeyFieldPath(column, changeLogFormat, customMappings));
+      }
+    } catch (SQLException e) {
+      String formattedError = JdbcUtil.formatSqlException(e);
+      LOG.error(formattedError);
+      LOG.debug(formattedError, e);
+      throw new StageException(Errors.JDBCDEST_17, tableName, formattedError);
+    }
+    return keyFieldPaths;
+  }
+
+  static String getKeyFieldPath(
+      String column,
+      ChangeLogFormat changeLogFormat,
+      List<JdbcFieldMappingConfig> customMappings
+  ) {
+    switch (changeLogFormat) {
+      case NONE:
+        String fieldPath = "/" + column;
+        for (JdbcFieldMappingConfig mapping : customMappings) {
+          if (column.equals(mapping.columnName)) {
+            fieldPath = mapping.field;
+          }
+        }
+        return fieldPath;
+      case MSSQL:
+        return MicrosoftJdbcRecordWriter.getColumnFieldPath(column);
+      default:
+        throw new IllegalStateException("Unrecognized format specified: " + changeLogFormat);
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public List<OnRecordErrorException> writeBatch(Collection<Record> batch) throws StageException {
+    int shardCount = Math.min(numShards, batch.size() / minShardSize);
+    if (shardCount <= 1) {
+      return delegate.writeBatch(batch);
+    }
+
+    List<Callable<List<OnRecordErrorException>>> tasks = new ArrayList<>(shardCount);
+    for (final List<Record> shard : shard(batch, shardCount)) {
+      if (!shard.isEmpty()) {
+        tasks.add(new Callable<List<OnRecordErrorException>>() {
+          @Override
+          public List<OnRecordErrorException> call() throws StageException {
+            return delegate.writeBatch(shard);
+          }
+        });
+      }
+    }
+
+    List<OnRecordErrorException> errorRecords = new LinkedList<>();
+    StageException failure = null;
+    try {
+      // Wait for every shard before reporting a failure so no write is left running
+      for (Future<List<OnRecordErrorException>> future : executor.invokeAll(tasks)) {
+        try {
+          errorRecords.addAll(future.get());
+        } catch (ExecutionException e) {
+          if (failure == null) {
+            failure = e.getCause() instanceof StageException ?
+                (StageException) e.getCause() :
+                new StageException(Errors.JDBCDEST_14, e.getCause().toString(), e.getCause());
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new StageException(Errors.JDBCDEST_14, e.toString(), e);
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    return errorRecords;
+  }
+
+  List<List<Record>> shard(Collection<Record> batch, int shardCount) {
+    List<List<Record>> shards = new ArrayList<>(shardCount);
+    for (int i = 0; i < shardCount; i++) {
+      shards.add(new ArrayList<Record>(batch.size() / shardCount + 1));
+    }
+    int index = 0;
+    for (Record record : batch) {
+      int shard;
+      if (keyFieldPaths.isEmpty()) {
+        shard = (int) ((long) index * shardCount / batch.size());
+      } else {
+        shard = (getKeyHash(record) & Integer.MAX_VALUE) % shardCount;
+      }
+      shards.get(shard).add(record);
+      index++;
+    }
+    return shards;
+  }
+
+  private int getKeyHash(Record record) {
+    int hash = 1;
+    for (String fieldPath : keyFieldPaths) {
+      Field field = record.get(fieldPath);
+      Object value = field == null ? null : field.getValue();
+      hash = 31 * hash + (value == null ? 0 : value.toString().hashCode());
+    }
+    return hash;
+  }
+}
@@ -96,6 +96,16 @@ public class MicrosoftJdbcRecordWriter implements JdbcRecordWriter {
 
   }
 
+  /**
+   * Returns the path of the field holding the value of a column in a change record, change records have a field
+   * named after each column of the table next to the <code>__$</code> change data capture fields.
+   * @param column the name of the column
+   * @return the field path of the column value
+   */
+  public static String getColumnFieldPath(String column) {
+    return "/" + column;
+  }
+
   /** {@inheritDoc} */
   @Override
   public List<OnRecordErrorException> writeBatch(Collection<Record> batch) throws StageException {
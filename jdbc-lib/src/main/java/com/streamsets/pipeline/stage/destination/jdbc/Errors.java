@@ -48,6 +48,8 @@ public enum Errors implements ErrorCode {
   JDBCDEST_20("Invalid table name template expression '{}': {}"),
   JDBCDEST_22("The record had no fields that matched the columns in the destination table."),
   JDBCDEST_23("The field '{}' of type '{}' doesn't match the destination column's type."),
+  JDBCDEST_24("Write Threads must be at least 1, got {}"),
+  JDBCDEST_25("Write Threads ({}) must be less than or equal to Maximum Pool Size ({})"),
   ;
   private final String msg;
 
@@ -40,7 +40,7 @@ import java.util.List;
 @HideConfigs(value = {"hikariConfigBean.readOnly"})
 @GenerateResourceBundle
 @StageDef(
-    version = 5,
+    version = 6,
     label = "JDBC Producer",
     description = "Writes data to a JDBC destination.",
     upgrader = JdbcTargetUpgrader.class,
@@ -125,6 +125,21 @@ public class JdbcDTarget extends DTarget {
   )
   public int maxPrepStmtParameters;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "1",
+      min = 1,
+      label = "Write Threads",
+      description = "Number of connections used to write a batch in parallel. Records are distributed by primary " +
+          "key so that changes to the same row are written in order. Each connection commits separately, so " +
+          "Rollback Batch on Error applies to each part of the batch. Batches are not split into parts of less than " +
+          "100 records.",
+      displayPosition = 70,
+      group = "JDBC"
+  )
+  public int writeThreads;
+
   @ConfigDefBean()
   public HikariPoolConfigBean hikariConfigBean;
 
@@ -136,6 +151,7 @@ public class JdbcDTarget extends DTarget {
         rollbackOnError,
         useMultiRowInsert,
         maxPrepStmtParameters,
+        writeThreads,
         changeLogFormat,
         hikariConfigBean
     );
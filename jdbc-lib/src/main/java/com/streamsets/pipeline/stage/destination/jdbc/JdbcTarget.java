@@ -23,6 +23,7 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.streamsets.pipeline.api.Batch;
 import com.streamsets.pipeline.api.ErrorCode;
 import com.streamsets.pipeline.api.Record;
@@ -41,6 +42,7 @@ import com.streamsets.pipeline.lib.jdbc.HikariPoolConfigBean;
 import com.streamsets.pipeline.lib.jdbc.JdbcGenericRecordWriter;
 import com.streamsets.pipeline.lib.jdbc.JdbcMultiRowRecordWriter;
 import com.streamsets.pipeline.lib.jdbc.JdbcRecordWriter;
+import com.streamsets.pipeline.lib.jdbc.JdbcShardedRecordWriter;
 import com.streamsets.pipeline.lib.jdbc.JdbcUtil;
 import com.streamsets.pipeline.lib.jdbc.MicrosoftJdbcRecordWriter;
 import com.streamsets.pipeline.stage.destination.lib.DefaultErrorRecordHandler;
@@ -56,6 +58,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import static com.streamsets.pipeline.lib.jdbc.HikariPoolConfigBean.MILLISECONDS;
@@ -70,11 +74,15 @@ public class JdbcTarget extends BaseTarget {
   private static final String CUSTOM_MAPPINGS = "columnNames";
   private static final String TABLE_NAME = "tableNameTemplate";
   private static final String CONNECTION_STRING = HIKARI_CONFIG_PREFIX + "connectionString";
+  private static final String WRITE_THREADS = "writeThreads";
   private static final String EL_PREFIX = "${";
+  // Batches are not split into shards smaller than this
+  private static final int MIN_SHARD_SIZE = 100;
 
   private final boolean rollbackOnError;
   private final boolean useMultiRowInsert;
   private final int maxPrepStmtParameters;
+  private final int writeThreads;
 
   private final String tableNameTemplate;
   private final List<JdbcFieldMappingConfig> customMappings;
@@ -88,6 +96,7 @@ public class JdbcTarget extends BaseTarget {
   private ELVars tableNameVars = null;
 
   private Connection connection = null;
+  private ExecutorService writeExecutor = null;
 
   class RecordWriterLoader extends CacheLoader<String, JdbcRecordWriter> {
     @Override
@@ -109,12 +118,35 @@ public class JdbcTarget extends BaseTarget {
       int maxPrepStmtParameters,
       final ChangeLogFormat changeLogFormat,
       final HikariPoolConfigBean hikariConfigBean
+  ) {
+    this(
+        tableNameTemplate,
+        customMappings,
+        rollbackOnError,
+        useMultiRowInsert,
+        maxPrepStmtParameters,
+        1,
+        changeLogFormat,
+        hikariConfigBean
+    );
+  }
+
+  public JdbcTarget(
+      final String tableNameTemplate,
+      final List<JdbcFieldMappingConfig> customMappings,
+      final boolean rollbackOnError,
+      final boolean useMultiRowInsert,
+      int maxPrepStmtParameters,
+      int writeThreads,
+      final ChangeLogFormat changeLogFormat,
+      final HikariPoolConfigBean hikariConfigBean
   ) {
     this.tableNameTemplate = tableNameTemplate;
     this.customMappings = customMappings;
     this.rollbackOnError = rollbackOnError;
     this.useMultiRowInsert = useMultiRowInsert;
     this.maxPrepStmtParameters = maxPrepStmtParameters;
+    this.writeThreads = writeThreads;
     this.driverProperties.putAll(hikariConfigBean.driverProperties);
     this.changeLogFormat = changeLogFormat;
     this.hikariConfigBean = hikariConfigBean;
@@ -142,10 +174,29 @@ public class JdbcTarget extends BaseTarget {
         issues
     );
 
+    if (writeThreads < 1) {
+      issues.add(context.createConfigIssue(Groups.JDBC.name(), WRITE_THREADS, Errors.JDBCDEST_24, writeThreads));
+    } else if (writeThreads > hikariConfigBean.maximumPoolSize) {
+      issues.add(context.createConfigIssue(
+          Groups.JDBC.name(),
+          WRITE_THREADS,
+          Errors.JDBCDEST_25,
+          writeThreads,
+          hikariConfigBean.maximumPoolSize
+      ));
+    }
+
     if (issues.isEmpty()) {
       createDataSource(issues);
     }
 
+    if (issues.isEmpty() && writeThreads > 1) {
+      writeExecutor = Executors.newFixedThreadPool(
+          writeThreads,
+          new ThreadFactoryBuilder().setNameFormat("JDBC Writer-%d").setDaemon(true).build()
+      );
+    }
+
     return issues;
   }
 
@@ -153,6 +204,10 @@ public class JdbcTarget extends BaseTarget {
   public void destroy() {
     closeQuietly(connection);
 
+    if (null != writeExecutor) {
+      writeExecutor.shutdownNow();
+    }
+
     if (null != dataSource) {
       dataSource.close();
     }
@@ -198,6 +253,22 @@ public class JdbcTarget extends BaseTarget {
       default:
         throw new IllegalStateException("Unrecognized format specified: " + changeLogFormat);
     }
+
+    if (writeExecutor != null) {
+      List<String> keyFieldPaths = JdbcShardedRecordWriter.getKeyFieldPaths(
+          dataSource,
+          tableName,
+          changeLogFormat,
+          customMappings
+      );
+      recordWriter = new JdbcShardedRecordWriter(
+          recordWriter,
+          keyFieldPaths,
+          writeThreads,
+          MIN_SHARD_SIZE,
+          writeExecutor
+      );
+    }
     return recordWriter;
   }
 
@@ -44,6 +44,9 @@ public class JdbcTargetUpgrader extends JdbcBaseUpgrader{
         // fall through
       case 4:
         upgradeV4toV5(configs);
+        // fall through
+      case 5:
+        upgradeV5toV6(configs);
         break;
       default:
         throw new IllegalStateException(Utils.format("Unexpected fromVersion {}", fromVersion));
@@ -56,6 +59,10 @@ public class JdbcTargetUpgrader extends JdbcBaseUpgrader{
     configs.add(new Config("maxPrepStmtParameters", "-1"));
   }
 
+  private void upgradeV5toV6(List<Config> configs) {
+    configs.add(new Config("writeThreads", 1));
+  }
+
   @SuppressWarnings("unchecked")
   private void upgradeV1toV2(List<Config> configs) {
     configs.add(new Config("changeLogFormat", "NONE"));
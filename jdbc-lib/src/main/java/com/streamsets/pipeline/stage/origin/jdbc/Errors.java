@@ -41,6 +41,11 @@ public enum Errors implements ErrorCode {
       "which are required when Transaction ID Column Name is specified."),
   JDBC_13("Failed to convert CLOB to string: {}"),
   JDBC_14("Parsed record had {} columns but SDC expected {}."),
+  JDBC_15("Initial load partitions require Incremental Mode and cannot be used with a Transaction ID Column Name."),
+  JDBC_16("Initial Load Partitions ({}) must be less than or equal to Maximum Pool Size ({})"),
+  JDBC_17("Boundary Query is required when Initial Load Partitions is greater than 1."),
+  JDBC_18("Boundary Query must return exactly two columns, the minimum and maximum offset column values."),
+  JDBC_19("Initial Offset '{}' must be a number when Initial Load Partitions is greater than 1."),
   ;
   private final String msg;
 
@@ -32,7 +32,7 @@ import com.streamsets.pipeline.lib.el.TimeEL;
 import com.streamsets.pipeline.lib.jdbc.HikariPoolConfigBean;
 
 @StageDef(
-    version = 6,
+    version = 7,
     label = "JDBC Consumer",
     description = "Reads data from a JDBC source.",
     icon = "rdbms.png",
@@ -157,6 +157,32 @@ public class JdbcDSource extends DSource {
   )
   public int txnMaxSize;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "1",
+      min = 1,
+      label = "Initial Load Partitions",
+      description = "Number of offset column ranges read in parallel, each on its own connection, when the " +
+          "pipeline starts without an offset. Requires a numeric offset column. Once the initial load completes, " +
+          "the origin continues with a single incremental query. Use 1 to disable.",
+      displayPosition = 200,
+      group = "ADVANCED"
+  )
+  public int numPartitions;
+
+  @ConfigDef(
+      required = false,
+      type = ConfigDef.Type.TEXT,
+      mode = ConfigDef.Mode.SQL,
+      label = "Boundary Query",
+      description = "Query returning the minimum and maximum offset column values used to split the initial load, " +
+          "for example SELECT MIN(<offset column>), MAX(<offset column>) FROM <table name>",
+      displayPosition = 210,
+      group = "ADVANCED"
+  )
+  public String boundaryQuery;
+
   @ConfigDefBean()
   public HikariPoolConfigBean hikariConfigBean;
 
@@ -173,6 +199,8 @@ public class JdbcDSource extends DSource {
         jdbcRecordType,
         maxBatchSize,
         maxClobSize,
+        numPartitions,
+        boundaryQuery,
         hikariConfigBean
       );
   }
@@ -19,7 +19,9 @@
  */
 package com.streamsets.pipeline.stage.origin.jdbc;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.streamsets.pipeline.api.BatchMaker;
+import com.streamsets.pipeline.api.ErrorCode;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.Source;
@@ -38,6 +40,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.math.BigDecimal;
 import java.sql.Clob;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
@@ -53,6 +56,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 
 import static com.streamsets.pipeline.lib.jdbc.HikariPoolConfigBean.MILLISECONDS;
@@ -70,6 +78,10 @@ public class JdbcSource extends BaseSource {
   private static final String TXN_MAX_SIZE = "txnMaxSize";
   private static final String MAX_BATCH_SIZE = "maxBatchSize";
   private static final String MAX_CLOB_SIZE = "maxClobSize";
+  private static final String NUM_PARTITIONS = "numPartitions";
+  private static final String BOUNDARY_QUERY = "boundaryQuery";
+  private static final String INITIAL_OFFSET = "initialOffset";
+  private static final String OFFSET_PLACEHOLDER = "${offset}";
 
   private final boolean isIncrementalMode;
   private final String query;
@@ -82,6 +94,8 @@ public class JdbcSource extends BaseSource {
   private final int maxBatchSize;
   private final int maxClobSize;
   private final HikariPoolConfigBean hikariConfigBean;
+  private final int numPartitions;
+  private final String boundaryQuery;
 
   private ErrorRecordHandler errorRecordHandler;
 
@@ -93,6 +107,41 @@ public class JdbcSource extends BaseSource {
   private ResultSet resultSet = null;
   private long lastQueryCompletedTime = 0L;
 
+  private ExecutorService partitionExecutor = null;
+  private PartitionedOffset partitionedOffset = null;
+  private List<PartitionReader> partitionReaders = null;
+  private int nextPartitionReader = 0;
+
+  public JdbcSource(
+      boolean isIncrementalMode,
+      String query,
+      String initialOffset,
+      String offsetColumn,
+      long queryInterval,
+      String txnColumnName,
+      int txnMaxSize,
+      JdbcRecordType jdbcRecordType,
+      int maxBatchSize,
+      int maxClobSize,
+      HikariPoolConfigBean hikariConfigBean
+  ) {
+    this(
+        isIncrementalMode,
+        query,
+        initialOffset,
+        offsetColumn,
+        queryInterval,
+        txnColumnName,
+        txnMaxSize,
+        jdbcRecordType,
+        maxBatchSize,
+        maxClobSize,
+        1,
+        "",
+        hikariConfigBean
+    );
+  }
+
   public JdbcSource(
       boolean isIncrementalMode,
       String query,
@@ -104,6 +153,8 @@ public class JdbcSource extends BaseSource {
       JdbcRecordType jdbcRecordType,
       int maxBatchSize,
       int maxClobSize,
+      int numPartitions,
+      String boundaryQuery,
       HikariPoolConfigBean hikariConfigBean
   ) {
     this.isIncrementalMode = isIncrementalMode;
@@ -118,6 +169,8 @@ public class JdbcSource extends BaseSource {
     this.maxBatchSize = maxBatchSize;
     this.maxClobSize = maxClobSize;
     this.hikariConfigBean = hikariConfigBean;
+    this.numPartitions = numPartitions;
+    this.boundaryQuery = boundaryQuery == null ? "" : boundaryQuery.trim();
   }
 
   @Override
@@ -161,6 +214,30 @@ public class JdbcSource extends BaseSource {
     if (maxClobSize < 0) {
       issues.add(context.createConfigIssue(Groups.ADVANCED.name(), MAX_CLOB_SIZE, Errors.JDBC_10, maxClobSize, 0));
     }
+    if (numPartitions < 1) {
+      issues.add(context.createConfigIssue(Groups.ADVANCED.name(), NUM_PARTITIONS, Errors.JDBC_10, numPartitions, 1));
+    } else if (numPartitions > 1) {
+      if (!isIncrementalMode || !txnColumnName.isEmpty()) {
+        issues.add(context.createConfigIssue(Groups.ADVANCED.name(), NUM_PARTITIONS, Errors.JDBC_15));
+      }
+      if (numPartitions > hikariConfigBean.maximumPoolSize) {
+        issues.add(context.createConfigIssue(
+            Groups.ADVANCED.name(),
+            NUM_PARTITIONS,
+            Errors.JDBC_16,
+            numPartitions,
+            hikariConfigBean.maximumPoolSize
+        ));
+      }
+      if (boundaryQuery.isEmpty()) {
+        issues.add(context.createConfigIssue(Groups.ADVANCED.name(), BOUNDARY_QUERY, Errors.JDBC_17));
+      }
+      try {
+        new BigDecimal(initialOffset);
+      } catch (NumberFormatException ex) {
+        issues.add(context.createConfigIssue(Groups.JDBC.name(), INITIAL_OFFSET, Errors.JDBC_19, initialOffset));
+      }
+    }
 
     if (issues.isEmpty()) {
       try {
@@ -171,6 +248,9 @@ public class JdbcSource extends BaseSource {
           if (!txnColumnName.isEmpty() && !dbMetadata.supportsResultSetType(ResultSet.TYPE_SCROLL_INSENSITIVE)) {
             issues.add(context.createConfigIssue(Groups.CDC.name(), TXN_ID_COLUMN_NAME, Errors.JDBC_12));
           }
+          if (isPartitionedLoad()) {
+            validateBoundaryQuery(connection, issues);
+          }
           try (Statement statement = connection.createStatement()) {
             statement.setFetchSize(1);
             statement.setMaxRows(1);
@@ -221,8 +301,35 @@ public class JdbcSource extends BaseSource {
     return issues;
   }
 
+  private void validateBoundaryQuery(Connection connection, List<ConfigIssue> issues) {
+    try (
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(boundaryQuery)
+    ) {
+      if (resultSet.getMetaData().getColumnCount() != 2) {
+        issues.add(getContext().createConfigIssue(Groups.ADVANCED.name(), BOUNDARY_QUERY, Errors.JDBC_18));
+      } else if (resultSet.next()) {
+        // Offset column values must be numeric to be split into ranges
+        resultSet.getBigDecimal(1);
+        resultSet.getBigDecimal(2);
+      }
+    } catch (SQLException e) {
+      String formattedError = JdbcUtil.formatSqlException(e);
+      LOG.error(formattedError);
+      LOG.debug(formattedError, e);
+      issues.add(getContext().createConfigIssue(
+          Groups.ADVANCED.name(),
+          BOUNDARY_QUERY,
+          Errors.JDBC_04,
+          boundaryQuery,
+          formattedError
+      ));
+    }
+  }
+
   @Override
   public void destroy() {
+    closePartitions();
     closeQuietly(connection);
     closeQuietly(dataSource);
     super.destroy();
@@ -231,6 +338,17 @@ public class JdbcSource extends BaseSource {
   @Override
   public String produce(String lastSourceOffset, int maxBatchSize, BatchMaker batchMaker) throws StageException {
     int batchSize = Math.min(this.maxBatchSize, maxBatchSize);
+
+    if (isPartitionedLoad() && (lastSourceOffset == null || PartitionedOffset.isPartitionedOffset(lastSourceOffset))) {
+      if (partitionedOffset == null) {
+        partitionedOffset = lastSourceOffset == null ? createPartitionedOffset() : PartitionedOffset.parse(lastSourceOffset);
+      }
+      if (partitionedOffset != null) {
+        return producePartitioned(batchSize, batchMaker);
+      }
+      // Nothing to load, continue with a single incremental query.
+    }
+
     String nextSourceOffset = lastSourceOffset == null ? initialOffset : lastSourceOffset;
 
     long now = System.currentTimeMillis();
@@ -253,14 +371,7 @@ public class JdbcSource extends BaseSource {
             statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
           }
 
-          int fetchSize = batchSize;
-          // MySQL does not support cursors or fetch size except 0 and "streaming" (1 at a time).
-          if (hikariConfigBean.connectionString.toLowerCase().contains("mysql")) {
-            // Enable MySQL streaming mode.
-            fetchSize = Integer.MIN_VALUE;
-          }
-          LOG.debug("Using query fetch size: {}", fetchSize);
-          statement.setFetchSize(fetchSize);
+          statement.setFetchSize(getFetchSize(batchSize));
 
           if (getContext().isPreview()) {
             statement.setMaxRows(batchSize);
@@ -273,7 +384,7 @@ public class JdbcSource extends BaseSource {
         int rowCount = 0;
         String lastTransactionId = "";
         while (continueReading(rowCount, batchSize) && resultSet.next()) {
-          final Record record = processRow(resultSet);
+          final Record record = processRow(resultSet, errorRecordHandler);
 
           if (null != record) {
             if (!txnColumnName.isEmpty()) {
@@ -324,6 +435,154 @@ public class JdbcSource extends BaseSource {
     return nextSourceOffset;
   }
 
+  private boolean isPartitionedLoad() {
+    return numPartitions > 1 && isIncrementalMode && txnColumnName.isEmpty();
+  }
+
+  /**
+   * Splits the offset column range returned by the boundary query into partitions, returns null if there
+   * is nothing to read past the initial offset.
+   */
+  private PartitionedOffset createPartitionedOffset() throws StageException {
+    try (
+        Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(boundaryQuery)
+    ) {
+      if (!resultSet.next()) {
+        return null;
+      }
+      BigDecimal min = resultSet.getBigDecimal(1);
+      BigDecimal max = resultSet.getBigDecimal(2);
+      if (min == null || max == null) {
+        return null;
+      }
+      // Partitions are exclusive of their lower bound, start just below the minimum value.
+      BigDecimal lowerBound = new BigDecimal(initialOffset).max(min.subtract(BigDecimal.ONE));
+      if (lowerBound.compareTo(max) >= 0) {
+        return null;
+      }
+      PartitionedOffset offset = PartitionedOffset.split(lowerBound, max, numPartitions);
+      LOG.info("Reading initial load in {} partitions: {}", offset.getPartitions().size(), offset);
+      return offset;
+    } catch (SQLException e) {
+      String formattedError = JdbcUtil.formatSqlException(e);
+      LOG.error(formattedError);
+      LOG.debug(formattedError, e);
+      throw new StageException(Errors.JDBC_04, boundaryQuery, formattedError);
+    }
+  }
+
+  private String producePartitioned(int batchSize, BatchMaker batchMaker) throws StageException {
+    if (partitionReaders == null) {
+      partitionReaders = new ArrayList<>();
+      for (PartitionedOffset.Partition partition : partitionedOffset.getPartitions()) {
+        partitionReaders.add(new PartitionReader(partition));
+      }
+      partitionExecutor = Executors.newFixedThreadPool(
+          partitionReaders.size(),
+          new ThreadFactoryBuilder().setNameFormat("JDBC Partition Reader-%d").setDaemon(true).build()
+      );
+    }
+
+    List<PartitionReader> activeReaders = new ArrayList<>();
+    for (PartitionReader reader : partitionReaders) {
+      if (!reader.partition.isComplete()) {
+        activeReaders.add(reader);
+      }
+    }
+    // Share the batch between the partitions that still have rows to read, the first readers of the round take the
+    // rows left over by the division. With more partitions than rows in the batch only batchSize partitions are read,
+    // the next batch starts with the partition after the last one read.
+    int readers = Math.min(batchSize, activeReaders.size());
+    int quota = batchSize / readers;
+    int remainder = batchSize % readers;
+    List<PartitionReader> roundReaders = new ArrayList<>(readers);
+    int first = nextPartitionReader % activeReaders.size();
+    for (int i = 0; i < readers; i++) {
+      PartitionReader reader = activeReaders.get((first + i) % activeReaders.size());
+      reader.quota = i < remainder ? quota + 1 : quota;
+      roundReaders.add(reader);
+    }
+    nextPartitionReader = (first + readers) % activeReaders.size();
+
+    List<Future<List<Record>>> futures;
+    try {
+      futures = partitionExecutor.invokeAll(roundReaders);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      for (PartitionReader reader : roundReaders) {
+        reader.close();
+      }
+      return partitionedOffset.toString();
+    }
+
+    for (int i = 0; i < roundReaders.size(); i++) {
+      PartitionReader reader = roundReaders.get(i);
+      try {
+        for (Record record : futures.get(i).get()) {
+          batchMaker.addRecord(record);
+        }
+        // Only move the partition past the rows once they are in the batch
+        reader.commitOffset();
+        reader.errors.replay(errorRecordHandler);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        // The rows read are dropped, read them again from the committed offset
+        reader.close();
+      } catch (ExecutionException e) {
+        reader.close();
+        reader.errors.replay(errorRecordHandler);
+        Throwable cause = e.getCause();
+        if (cause instanceof SQLException) {
+          String formattedError = JdbcUtil.formatSqlException((SQLException) cause);
+          LOG.error(formattedError);
+          LOG.debug(formattedError, cause);
+          errorRecordHandler.onError(Errors.JDBC_04, reader.getQuery(), formattedError);
+        } else if (cause instanceof StageException) {
+          throw (StageException) cause;
+        } else {
+          throw new StageException(Errors.JDBC_04, reader.getQuery(), cause.toString(), cause);
+        }
+      }
+    }
+
+    if (partitionedOffset.isComplete()) {
+      String nextSourceOffset = partitionedOffset.getUpperBound();
+      LOG.info("Initial load completed, continuing incremental reads from offset {}", nextSourceOffset);
+      closePartitions();
+      partitionedOffset = null;
+      lastQueryCompletedTime = System.currentTimeMillis();
+      return nextSourceOffset;
+    }
+    return partitionedOffset.toString();
+  }
+
+  private void closePartitions() {
+    if (partitionReaders != null) {
+      for (PartitionReader reader : partitionReaders) {
+        reader.close();
+      }
+      partitionReaders = null;
+      nextPartitionReader = 0;
+    }
+    if (partitionExecutor != null) {
+      partitionExecutor.shutdownNow();
+      partitionExecutor = null;
+    }
+  }
+
+  private int getFetchSize(int batchSize) {
+    int fetchSize = batchSize;
+    // MySQL does not support cursors or fetch size except 0 and "streaming" (1 at a time).
+    if (hikariConfigBean.connectionString.toLowerCase().contains("mysql")) {
+      // Enable MySQL streaming mode.
+      fetchSize = Integer.MIN_VALUE;
+    }
+    LOG.debug("Using query fetch size: {}", fetchSize);
+    return fetchSize;
+  }
+
   private boolean continueReading(int rowCount, int batchSize) {
     if (txnColumnName.isEmpty()) {
       return rowCount < batchSize;
@@ -375,7 +634,7 @@ public class JdbcSource extends BaseSource {
 
   private String prepareQuery(String query, String lastSourceOffset) {
     final String offset = null == lastSourceOffset ? initialOffset : lastSourceOffset;
-    return query.replaceAll("\\$\\{offset\\}", offset);
+    return query.replace(OFFSET_PLACEHOLDER, offset);
   }
 
   private String getClobString(Clob data) throws IOException, SQLException {
@@ -403,7 +662,8 @@ public class JdbcSource extends BaseSource {
     return sb.toString();
   }
 
-  private Record processRow(ResultSet resultSet) throws SQLException, StageException {
+  private Record processRow(ResultSet resultSet, ErrorRecordHandler errorRecordHandler)
+      throws SQLException, StageException {
     Source.Context context = getContext();
     ResultSetMetaData md = resultSet.getMetaData();
     int numColumns = md.getColumnCount();
@@ -450,4 +710,116 @@ public class JdbcSource extends BaseSource {
     }
     return record;
   }
+
+  /**
+   * Reads the rows of one offset range on its own connection. Runs on the partition executor, so errors are
+   * collected and reported from the pipeline thread.
+   */
+  private class PartitionReader implements Callable<List<Record>> {
+    private final PartitionedOffset.Partition partition;
+    private final CollectingErrorRecordHandler errors = new CollectingErrorRecordHandler();
+    private int quota;
+    private Connection connection;
+    private ResultSet resultSet;
+    private int rowsSinceQuery;
+    private BigDecimal readOffset;
+
+    PartitionReader(PartitionedOffset.Partition partition) {
+      this.partition = partition;
+    }
+
+    String getQuery() {
+      return prepareQuery(query, partition.getOffset().toPlainString());
+    }
+
+    /**
+     * Advances the partition offset past the rows returned by the last call, once they have been added to the batch.
+     */
+    void commitOffset() {
+      if (readOffset != null) {
+        partition.setOffset(readOffset);
+        readOffset = null;
+      }
+    }
+
+    @Override
+    public List<Record> call() throws SQLException, StageException {
+      List<Record> records = new ArrayList<>(quota);
+      readOffset = null;
+      BigDecimal offset = partition.getOffset();
+      if (resultSet == null) {
+        connection = dataSource.getConnection();
+        Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(getFetchSize(quota));
+        if (getContext().isPreview()) {
+          statement.setMaxRows(quota);
+        }
+        String preparedQuery = getQuery();
+        LOG.debug("Executing partition query: {}", preparedQuery);
+        resultSet = statement.executeQuery(preparedQuery);
+        rowsSinceQuery = 0;
+      }
+
+      int rowCount = 0;
+      while (rowCount < quota) {
+        if (!resultSet.next()) {
+          // An empty result means there are no rows left in this range, otherwise the query may have been
+          // limited and is run again from the last offset.
+          if (rowsSinceQuery == 0) {
+            offset = partition.getUpperBound();
+          }
+          close();
+          break;
+        }
+        BigDecimal value = resultSet.getBigDecimal(offsetColumn);
+        if (value == null || !partition.contains(value)) {
+          offset = partition.getUpperBound();
+          close();
+          break;
+        }
+        Record record = processRow(resultSet, errors);
+        if (record != null) {
+          records.add(record);
+        }
+        offset = value;
+        rowCount++;
+        rowsSinceQuery++;
+        if (offset.compareTo(partition.getUpperBound()) >= 0) {
+          close();
+          break;
+        }
+      }
+      // The partition itself is only advanced by commitOffset(), after the records are in the batch
+      readOffset = offset;
+      return records;
+    }
+
+    void close() {
+      closeQuietly(connection);
+      connection = null;
+      resultSet = null;
+    }
+  }
+
+  private static class CollectingErrorRecordHandler implements ErrorRecordHandler {
+    private final List<ErrorCode> errorCodes = new ArrayList<>();
+    private final List<Object[]> errorParams = new ArrayList<>();
+
+    @Override
+    public void onError(ErrorCode errorCode, Object... params) {
+      errorCodes.add(errorCode);
+      errorParams.add(params);
+    }
+
+    void replay(ErrorRecordHandler handler) throws StageException {
+      try {
+        for (int i = 0; i < errorCodes.size(); i++) {
+          handler.onError(errorCodes.get(i), errorParams.get(i));
+        }
+      } finally {
+        errorCodes.clear();
+        errorParams.clear();
+      }
+    }
+  }
 }
@@ -0,0 +1,153 @@
+/**
+ * Copyright 2015 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.jdbc;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Source offset used while the initial load is read as several offset column ranges in parallel.
+ * <p/>
+ * Each partition covers the range (offset, upperBound] of the offset column, where offset is the last value
+ * read for the partition. The offset is serialized as
+ * <code>partitioned::offset0:upper0,offset1:upper1,...</code>.
+ */
+public class PartitionedOffset {
+  static final String PREFIX = "partitioned::";
+  private static final String PARTITION_SEPARATOR = ",";
+  private static final String BOUND_SEPARATOR = ":";
+
+  private final List<Partition> partitions;
+
+  public PartitionedOffset(List<Partition> partitions) {
+    this.partitions = partitions;
+  }
+
+  public List<Partition> getPartitions() {
+    return partitions;
+  }
+
+  public boolean isComplete() {
+    for (Partition partition : partitions) {
+      if (!partition.isComplete()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Offset to continue from in single query incremental mode once all partitions have been read.
+   */
+  public String getUpperBound() {
+    return partitions.get(partitions.size() - 1).getUpperBound().toPlainString();
+  }
+
+  @Override
+  public String toString() {
+    List<String> values = new ArrayList<>(partitions.size());
+    for (Partition partition : partitions) {
+      values.add(partition.getOffset().toPlainString() + BOUND_SEPARATOR + partition.getUpperBound().toPlainString());
+    }
+    return PREFIX + Joiner.on(PARTITION_SEPARATOR).join(values);
+  }
+
+  public static boolean isPartitionedOffset(String offset) {
+    return offset != null && offset.startsWith(PREFIX);
+  }
+
+  public static PartitionedOffset parse(String offset) {
+    List<Partition> partitions = new ArrayList<>();
+    for (String value : Splitter.on(PARTITION_SEPARATOR).split(offset.substring(PREFIX.length()))) {
+      List<String> bounds = Splitter.on(BOUND_SEPARATOR).splitToList(value);
+      if (bounds.size() != 2) {
+        throw new IllegalArgumentException("Invalid partitioned offset: " + offset);
+      }
+      partitions.add(new Partition(new BigDecimal(bounds.get(0)), new BigDecimal(bounds.get(1))));
+    }
+    return new PartitionedOffset(partitions);
+  }
+
+  /**
+   * Splits the range (lowerBound, upperBound] into the given number of partitions of equal width. Boundaries are
+   * rounded down to the scale of the bounds so that integer offset columns get integer boundaries.
+   */
+  public static PartitionedOffset split(BigDecimal lowerBound, BigDecimal upperBound, int numPartitions) {
+    int scale = Math.max(0, Math.max(lowerBound.scale(), upperBound.scale()));
+    BigDecimal width = upperBound.subtract(lowerBound);
+    List<Partition> partitions = new ArrayList<>(numPartitions);
+    BigDecimal start = lowerBound;
+    for (int i = 1; i <= numPartitions; i++) {
+      BigDecimal end = i == numPartitions ? upperBound : lowerBound.add(
+          width.multiply(BigDecimal.valueOf(i)).divide(BigDecimal.valueOf(numPartitions), scale, RoundingMode.FLOOR)
+      );
+      if (end.compareTo(start) > 0) {
+        partitions.add(new Partition(start, end));
+        start = end;
+      }
+    }
+    if (partitions.isEmpty()) {
+      partitions.add(new Partition(lowerBound, upperBound));
+    }
+    return new PartitionedOffset(partitions);
+  }
+
+  public static class Partition {
+    private BigDecimal offset;
+    private final BigDecimal upperBound;
+
+    public Partition(BigDecimal offset, BigDecimal upperBound) {
+      this.offset = offset;
+      this.upperBound = upperBound;
+    }
+
+    public BigDecimal getOffset() {
+      return offset;
+    }
+
+    public void setOffset(BigDecimal offset) {
+      this.offset = offset;
+    }
+
+    public BigDecimal getUpperBound() {
+      return upperBound;
+    }
+
+    public boolean isComplete() {
+      return offset.compareTo(upperBound) >= 0;
+    }
+
+    /**
+     * Marks all rows up to the upper bound as read.
+     */
+    public void setComplete() {
+      offset = upperBound;
+    }
+
+    public boolean contains(BigDecimal value) {
+      return value.compareTo(upperBound) <= 0;
+    }
+  }
+}
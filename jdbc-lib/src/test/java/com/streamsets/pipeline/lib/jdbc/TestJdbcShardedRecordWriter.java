@@ -0,0 +1,171 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.jdbc;
+
+import com.google.common.collect.ImmutableList;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.sdk.RecordCreator;
+import com.streamsets.pipeline.stage.destination.jdbc.JdbcFieldMappingConfig;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestJdbcShardedRecordWriter {
+
+  private static Record createRecord(int id, String value) {
+    Record record = RecordCreator.create();
+    Map<String, Field> fields = new HashMap<>();
+    fields.put("ID", Field.create(id));
+    fields.put("VALUE", Field.create(value));
+    record.set(Field.create(fields));
+    return record;
+  }
+
+  @Test
+  public void testShardByKey() {
+    JdbcShardedRecordWriter writer = new JdbcShardedRecordWriter(null, ImmutableList.of("/ID"), 4, 1, null);
+
+    List<Record> batch = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      // every key appears twice, changes to the same key must end up in the same shard in order
+      batch.add(createRecord(i % 50, "first"));
+    }
+    for (int i = 0; i < 100; i++) {
+      batch.add(createRecord(i % 50, "second"));
+    }
+
+    List<List<Record>> shards = writer.shard(batch, 4);
+    assertEquals(4, shards.size());
+
+    int total = 0;
+    Map<Integer, Integer> keyToShard = new HashMap<>();
+    for (int i = 0; i < shards.size(); i++) {
+      String lastValue = "first";
+      for (Record record : shards.get(i)) {
+        int id = record.get("/ID").getValueAsInteger();
+        if (keyToShard.containsKey(id)) {
+          assertEquals(i, (int) keyToShard.get(id));
+        }
+        keyToShard.put(id, i);
+        String value = record.get("/VALUE").getValueAsString();
+        // batch order is kept within a shard
+        assertTrue(lastValue.compareTo(value) <= 0);
+        lastValue = value;
+        total++;
+      }
+    }
+    assertEquals(200, total);
+  }
+
+  @Test
+  public void testKeyFieldPath() {
+    List<JdbcFieldMappingConfig> mappings = ImmutableList.of(new JdbcFieldMappingConfig("/id", "ID"));
+    assertEquals("/id", JdbcShardedRecordWriter.getKeyFieldPath("ID", ChangeLogFormat.NONE, mappings));
+    assertEquals("/OTHER", JdbcShardedRecordWriter.getKeyFieldPath("OTHER", ChangeLogFormat.NONE, mappings));
+    // change records hold each column in a field of the same name, custom mappings don't apply
+    assertEquals("/ID", JdbcShardedRecordWriter.getKeyFieldPath("ID", ChangeLogFormat.MSSQL, mappings));
+  }
+
+  @Test
+  public void testShardChangeLogByKey() {
+    JdbcShardedRecordWriter writer = new JdbcShardedRecordWriter(
+        null,
+        ImmutableList.of(JdbcShardedRecordWriter.getKeyFieldPath(
+            "ID",
+            ChangeLogFormat.MSSQL,
+            ImmutableList.<JdbcFieldMappingConfig>of()
+        )),
+        4,
+        1,
+        null
+    );
+
+    List<Record> batch = new ArrayList<>();
+    // insert, before update and after update of every row
+    for (int op : new int[]{2, 3, 4}) {
+      for (int i = 0; i < 50; i++) {
+        Record record = RecordCreator.create();
+        Map<String, Field> fields = new HashMap<>();
+        fields.put(MicrosoftJdbcRecordWriter.OP_FIELD.substring(1), Field.create(op));
+        fields.put("ID", Field.create(i));
+        fields.put("VALUE", Field.create("op" + op));
+        record.set(Field.create(fields));
+        batch.add(record);
+      }
+    }
+
+    List<List<Record>> shards = writer.shard(batch, 4);
+    Map<Integer, Integer> keyToShard = new HashMap<>();
+    int nonEmpty = 0;
+    for (int i = 0; i < shards.size(); i++) {
+      String lastValue = "op2";
+      for (Record record : shards.get(i)) {
+        int id = record.get("/ID").getValueAsInteger();
+        if (keyToShard.containsKey(id)) {
+          assertEquals(i, (int) keyToShard.get(id));
+        }
+        keyToShard.put(id, i);
+        String value = record.get("/VALUE").getValueAsString();
+        assertTrue(lastValue.compareTo(value) <= 0);
+        lastValue = value;
+      }
+      if (!shards.get(i).isEmpty()) {
+        nonEmpty++;
+      }
+    }
+    assertEquals(50, keyToShard.size());
+    // rows are spread across shards rather than all hashing to a missing key
+    assertTrue(nonEmpty > 1);
+  }
+
+  @Test
+  public void testShardWithoutKey() {
+    JdbcShardedRecordWriter writer = new JdbcShardedRecordWriter(
+        null,
+        ImmutableList.<String>of(),
+        3,
+        1,
+        null
+    );
+
+    List<Record> batch = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      batch.add(createRecord(i, "value"));
+    }
+
+    List<List<Record>> shards = writer.shard(batch, 3);
+    assertEquals(3, shards.size());
+    int expectedId = 0;
+    for (List<Record> shard : shards) {
+      assertTrue(shard.size() >= 3);
+      for (Record record : shard) {
+        assertEquals(expectedId++, record.get("/ID").getValueAsInteger());
+      }
+    }
+    assertEquals(10, expectedId);
+  }
+}
@@ -646,6 +646,66 @@ public class TestJdbcTarget {
     }
   }
 
+  @Test
+  public void testParallelWrite() throws Exception {
+    List<JdbcFieldMappingConfig> fieldMappings = ImmutableList.of(
+        new JdbcFieldMappingConfig("[0]", "P_ID"),
+        new JdbcFieldMappingConfig("[1]", "FIRST_NAME"),
+        new JdbcFieldMappingConfig("[2]", "LAST_NAME"),
+        new JdbcFieldMappingConfig("[3]", "TS")
+    );
+
+    Target target = new JdbcTarget(
+        tableName,
+        fieldMappings,
+        false,
+        true,
+        40,
+        4,
+        ChangeLogFormat.NONE,
+        createConfigBean(h2ConnectionString, username, password)
+    );
+    TargetRunner targetRunner = new TargetRunner.Builder(JdbcDTarget.class, target).build();
+
+    List<Record> records = new ArrayList<>();
+    for (int i = 0; i < 1005; i++) {
+      records.add(generateRecord(i, "First" + i, "Last" + i, tableName));
+    }
+    targetRunner.runInit();
+    targetRunner.runWrite(records);
+    targetRunner.runDestroy();
+
+    assertEquals(0, targetRunner.getErrorRecords().size());
+
+    connection = DriverManager.getConnection(h2ConnectionString, username, password);
+    try (Statement statement = connection.createStatement()) {
+      ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM TEST.TEST_TABLE");
+      rs.next();
+      assertEquals(1005, rs.getInt(1));
+    }
+  }
+
+  @Test
+  public void testWriteThreadsExceedPoolSize() throws Exception {
+    HikariPoolConfigBean configBean = createConfigBean(h2ConnectionString, username, password);
+    configBean.maximumPoolSize = 2;
+
+    Target target = new JdbcTarget(
+        tableName,
+        ImmutableList.<JdbcFieldMappingConfig>of(),
+        false,
+        false,
+        JdbcMultiRowRecordWriter.UNLIMITED_PARAMETERS,
+        4,
+        ChangeLogFormat.NONE,
+        configBean
+    );
+    TargetRunner targetRunner = new TargetRunner.Builder(JdbcDTarget.class, target).build();
+
+    List<Stage.ConfigIssue> issues = targetRunner.runValidateConfigs();
+    assertEquals(1, issues.size());
+  }
+
   private Record generateRecord(int id, String first, String last, String tableName) {
     Record record = RecordCreator.create();
     List<Field> fields = new ArrayList<>();
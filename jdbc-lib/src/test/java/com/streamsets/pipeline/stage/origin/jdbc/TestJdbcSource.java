@@ -173,6 +173,155 @@ public class TestJdbcSource {
     }
   }
 
+  private JdbcSource createPartitionedSource(int numPartitions) {
+    return new JdbcSource(
+        true,
+        query,
+        initialOffset,
+        "P_ID",
+        queryInterval,
+        "",
+        1000,
+        JdbcRecordType.LIST_MAP,
+        BATCH_SIZE,
+        CLOB_SIZE,
+        numPartitions,
+        "SELECT MIN(P_ID), MAX(P_ID) FROM TEST.TEST_TABLE",
+        createConfigBean(h2ConnectionString, username, password)
+    );
+  }
+
+  @Test
+  public void testPartitionedInitialLoad() throws Exception {
+    SourceRunner runner = new SourceRunner.Builder(JdbcDSource.class, createPartitionedSource(2))
+        .addOutputLane("lane")
+        .build();
+
+    runner.runInit();
+
+    try {
+      // Each partition reads one row of its range.
+      StageRunner.Output output = runner.runProduce(null, 2);
+      List<Record> parsedRecords = output.getRecords().get("lane");
+      assertEquals(2, parsedRecords.size());
+      assertEquals(1, parsedRecords.get(0).get("/P_ID").getValueAsInteger());
+      assertEquals(3, parsedRecords.get(1).get("/P_ID").getValueAsInteger());
+      assertEquals("partitioned::1:2,3:4", output.getNewOffset());
+
+      // Once all partitions are read the offset is the upper bound of the initial load.
+      output = runner.runProduce(output.getNewOffset(), 100);
+      parsedRecords = output.getRecords().get("lane");
+      assertEquals(2, parsedRecords.size());
+      assertEquals("4", output.getNewOffset());
+
+      // New rows are read by a single incremental query.
+      runInsertNewRows();
+      output = runner.runProduce(output.getNewOffset(), 100);
+      parsedRecords = output.getRecords().get("lane");
+      assertEquals(2, parsedRecords.size());
+      assertEquals("10", output.getNewOffset());
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
+  @Test
+  public void testPartitionedInitialLoadSmallerBatchThanPartitions() throws Exception {
+    SourceRunner runner = new SourceRunner.Builder(JdbcDSource.class, createPartitionedSource(2))
+        .addOutputLane("lane")
+        .build();
+
+    runner.runInit();
+
+    try {
+      // A batch of one row only reads the first partition
+      StageRunner.Output output = runner.runProduce(null, 1);
+      List<Record> parsedRecords = output.getRecords().get("lane");
+      assertEquals(1, parsedRecords.size());
+      assertEquals(1, parsedRecords.get(0).get("/P_ID").getValueAsInteger());
+      assertEquals("partitioned::1:2,2:4", output.getNewOffset());
+
+      // The next batch reads the second partition
+      output = runner.runProduce(output.getNewOffset(), 1);
+      parsedRecords = output.getRecords().get("lane");
+      assertEquals(1, parsedRecords.size());
+      assertEquals(3, parsedRecords.get(0).get("/P_ID").getValueAsInteger());
+      assertEquals("partitioned::1:2,3:4", output.getNewOffset());
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
+  @Test
+  public void testPartitionedInitialLoadResume() throws Exception {
+    SourceRunner runner = new SourceRunner.Builder(JdbcDSource.class, createPartitionedSource(2))
+        .addOutputLane("lane")
+        .build();
+
+    runner.runInit();
+
+    try {
+      StageRunner.Output output = runner.runProduce("partitioned::1:2,4:4", 100);
+      List<Record> parsedRecords = output.getRecords().get("lane");
+      assertEquals(1, parsedRecords.size());
+      assertEquals(2, parsedRecords.get(0).get("/P_ID").getValueAsInteger());
+      assertEquals("4", output.getNewOffset());
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
+  @Test
+  public void testPartitionedInitialLoadRequiresBoundaryQuery() throws Exception {
+    JdbcSource origin = new JdbcSource(
+        true,
+        query,
+        initialOffset,
+        "P_ID",
+        queryInterval,
+        "",
+        1000,
+        JdbcRecordType.LIST_MAP,
+        BATCH_SIZE,
+        CLOB_SIZE,
+        2,
+        "",
+        createConfigBean(h2ConnectionString, username, password)
+    );
+    SourceRunner runner = new SourceRunner.Builder(JdbcDSource.class, origin)
+        .addOutputLane("lane")
+        .build();
+
+    List<Stage.ConfigIssue> issues = runner.runValidateConfigs();
+    assertEquals(1, issues.size());
+  }
+
+  @Test
+  public void testPartitionedInitialLoadRequiresNumericInitialOffset() throws Exception {
+    JdbcSource origin = new JdbcSource(
+        true,
+        query,
+        "abc",
+        "P_ID",
+        queryInterval,
+        "",
+        1000,
+        JdbcRecordType.LIST_MAP,
+        BATCH_SIZE,
+        CLOB_SIZE,
+        2,
+        "SELECT MIN(P_ID), MAX(P_ID) FROM TEST.TEST_TABLE",
+        createConfigBean(h2ConnectionString, username, password)
+    );
+    SourceRunner runner = new SourceRunner.Builder(JdbcDSource.class, origin)
+        .addOutputLane("lane")
+        .build();
+
+    List<Stage.ConfigIssue> issues = runner.runValidateConfigs();
+    assertEquals(1, issues.size());
+    assertTrue(issues.get(0).toString().contains("JDBC_19"));
+  }
+
   @Test
   public void testNonIncrementalMode() throws Exception {
     JdbcSource origin = new JdbcSource(
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2015 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.jdbc;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestPartitionedOffset {
+
+  @Test
+  public void testSplit() {
+    PartitionedOffset offset = PartitionedOffset.split(BigDecimal.ZERO, new BigDecimal(10), 3);
+    assertEquals("partitioned::0:3,3:6,6:10", offset.toString());
+    assertFalse(offset.isComplete());
+    assertEquals("10", offset.getUpperBound());
+  }
+
+  @Test
+  public void testSplitSmallRange() {
+    PartitionedOffset offset = PartitionedOffset.split(BigDecimal.ZERO, new BigDecimal(2), 4);
+    assertEquals("partitioned::0:1,1:2", offset.toString());
+  }
+
+  @Test
+  public void testParse() {
+    PartitionedOffset offset = PartitionedOffset.parse("partitioned::5:5,7:10");
+    assertEquals(2, offset.getPartitions().size());
+    assertTrue(offset.getPartitions().get(0).isComplete());
+    assertFalse(offset.getPartitions().get(1).isComplete());
+
+    offset.getPartitions().get(1).setComplete();
+    assertTrue(offset.isComplete());
+    assertEquals("partitioned::5:5,10:10", offset.toString());
+  }
+
+  @Test
+  public void testIsPartitionedOffset() {
+    assertTrue(PartitionedOffset.isPartitionedOffset("partitioned::0:1"));
+    assertFalse(PartitionedOffset.isPartitionedOffset("10"));
+    assertFalse(PartitionedOffset.isPartitionedOffset(null));
+  }
+}
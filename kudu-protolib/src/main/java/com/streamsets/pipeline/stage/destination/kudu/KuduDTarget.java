@@ -36,7 +36,7 @@ import java.util.List;
 
 @GenerateResourceBundle
 @StageDef(
-    version = 2,
+    version = 3,
     label = "Kudu",
     description = "Writes data to Kudu",
     icon = "kudu.png",
@@ -105,9 +105,41 @@ public class KuduDTarget extends DTarget {
   )
   public int operationTimeout;
 
+  @ConfigDef(
+    required = true,
+    type = ConfigDef.Type.NUMBER,
+    defaultValue = "1",
+    min = 1,
+    label = "Number of Sessions",
+    description = "Number of Kudu sessions that write and flush disjoint sets of rows of a batch in parallel",
+    displayPosition = 30,
+    group = "ADVANCED"
+  )
+  public int numSessions;
+
+  @ConfigDef(
+    required = true,
+    type = ConfigDef.Type.NUMBER,
+    defaultValue = "1000",
+    min = 1,
+    label = "Mutation Buffer Space (records)",
+    description = "Maximum number of operations buffered by a session before it is flushed",
+    displayPosition = 40,
+    group = "ADVANCED"
+  )
+  public int mutationBufferSpace;
+
   @Override
   protected Target createTarget() {
-    return new KuduTarget(kuduMaster, tableNameTemplate, consistencyMode, fieldMappingConfigs, operationTimeout);
+    return new KuduTarget(
+        kuduMaster,
+        tableNameTemplate,
+        consistencyMode,
+        fieldMappingConfigs,
+        operationTimeout,
+        numSessions,
+        mutationBufferSpace
+    );
 
   }
 
@@ -20,7 +20,9 @@
 
 package com.streamsets.pipeline.stage.destination.kudu;
 
-
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
@@ -29,6 +31,7 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableBiMap;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.streamsets.pipeline.api.Batch;
 import com.streamsets.pipeline.api.Field;
@@ -57,11 +60,17 @@ import org.kududb.client.SessionConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 public class KuduTarget extends BaseTarget {
@@ -91,6 +100,8 @@ public class KuduTarget extends BaseTarget {
   private final ConsistencyMode consistencyMode;
   private final List<KuduFieldMappingConfig> fieldMappingConfigs;
   private final int operationTimeout;
+  private final int numSessions;
+  private final int mutationBufferSpace;
   private final LoadingCache<String, KuduTable> kuduTables = CacheBuilder.newBuilder()
       .maximumSize(500)
       .expireAfterAccess(1, TimeUnit.HOURS)
@@ -109,7 +120,10 @@ public class KuduTarget extends BaseTarget {
   private ELVars tableNameVars;
   private ELEval tableNameEval;
   private KuduClient kuduClient;
-  private KuduSession kuduSession;
+  private List<KuduSession> kuduSessions;
+  private ExecutorService flushExecutor;
+  private Timer flushTimer;
+  private Counter pendingOperations;
 
   public KuduTarget(
     String kuduMaster,
@@ -117,6 +131,18 @@ public class KuduTarget extends BaseTarget {
     ConsistencyMode consistencyMode,
     List<KuduFieldMappingConfig> fieldMappingConfigs,
     int operationTimeout
+  ) {
+    this(kuduMaster, tableNameTemplate, consistencyMode, fieldMappingConfigs, operationTimeout, 1, 1000);
+  }
+
+  public KuduTarget(
+    String kuduMaster,
+    String tableNameTemplate,
+    ConsistencyMode consistencyMode,
+    List<KuduFieldMappingConfig> fieldMappingConfigs,
+    int operationTimeout,
+    int numSessions,
+    int mutationBufferSpace
   ) {
     this.kuduMaster = Strings.nullToEmpty(kuduMaster).trim();
     this.tableNameTemplate = Strings.nullToEmpty(tableNameTemplate).trim();
@@ -124,6 +150,8 @@ public class KuduTarget extends BaseTarget {
     this.fieldMappingConfigs = fieldMappingConfigs == null ? Collections.<KuduFieldMappingConfig>emptyList() :
       fieldMappingConfigs;
     this.operationTimeout = operationTimeout;
+    this.numSessions = numSessions;
+    this.mutationBufferSpace = mutationBufferSpace;
   }
 
   @Override
@@ -132,7 +160,15 @@ public class KuduTarget extends BaseTarget {
     tableNameVars = getContext().createELVars();
     tableNameEval = getContext().createELEval(TABLE_NAME_TEMPLATE);
     errorRecordHandler = new DefaultErrorRecordHandler(getContext());
+    flushTimer = getContext().createTimer("flushLatency");
+    pendingOperations = getContext().createCounter("pendingOperations");
     validateServerSideConfig(issues);
+    if (issues.isEmpty() && numSessions > 1) {
+      flushExecutor = Executors.newFixedThreadPool(
+          numSessions,
+          new ThreadFactoryBuilder().setNameFormat("Kudu Session Writer-%d").setDaemon(true).build()
+      );
+    }
     return issues;
   }
 
@@ -148,7 +184,10 @@ public class KuduTarget extends BaseTarget {
 
     kuduClient = new KuduClient.KuduClientBuilder(kuduMaster).defaultOperationTimeoutMs(operationTimeout).build();
     if (issues.isEmpty()) {
-      kuduSession = openKuduSession(issues);
+      kuduSessions = new ArrayList<>(numSessions);
+      for (int i = 0; i < numSessions && issues.isEmpty(); i++) {
+        kuduSessions.add(openKuduSession(issues));
+      }
     }
 
     if (tableNameTemplate.contains(EL_PREFIX)) {
@@ -207,6 +246,7 @@ public class KuduTarget extends BaseTarget {
         issues.add(getContext().createConfigIssue(Groups.KUDU.name(), CONSISTENCY_MODE, Errors.KUDU_02));
       }
       session.setFlushMode(SessionConfiguration.FlushMode.MANUAL_FLUSH);
+      session.setMutationBufferSpace(mutationBufferSpace);
     } catch (KuduException ex) {
       issues.add(getContext().createConfigIssue(Groups.KUDU.name(), KUDU_MASTER, Errors.KUDU_00, ex.toString(), ex));
     }
@@ -282,7 +322,7 @@ public class KuduTarget extends BaseTarget {
         batch
     );
 
-    KuduSession session = Preconditions.checkNotNull(kuduSession, KUDU_SESSION);
+    List<KuduSession> sessions = Preconditions.checkNotNull(kuduSessions, KUDU_SESSION);
 
     for (String tableName : partitions.keySet()) {
       Map<String, Record> keyToRecordMap = new HashMap<>();
@@ -306,38 +346,34 @@ public class KuduTarget extends BaseTarget {
       KuduRecordConverter recordConverter = kuduRecordConverter.get();
 
       try {
+        // rows are assigned to sessions by row key so each session writes a disjoint set of rows
+        List<List<Insert>> shards = new ArrayList<>(sessions.size());
+        for (int i = 0; i < sessions.size(); i++) {
+          shards.add(new ArrayList<Insert>());
+        }
         while (it.hasNext()) {
           try {
             Record record = it.next();
             Insert insert = table.newInsert();
             PartialRow row = insert.getRow();
             recordConverter.convert(record, row);
-            keyToRecordMap.put(insert.getRow().stringifyRowKey(), record);
-            session.apply(insert);
+            String rowKey = insert.getRow().stringifyRowKey();
+            keyToRecordMap.put(rowKey, record);
+            shards.get((rowKey.hashCode() & Integer.MAX_VALUE) % sessions.size()).add(insert);
           } catch (OnRecordErrorException onRecordError) {
             errorRecordHandler.onError(onRecordError);
           }
         }
-        List<RowError> rowErrors = Collections.emptyList();
-        List<OperationResponse> responses = session.flush(); // can return null
-        if (responses != null) {
-          rowErrors = OperationResponse.collectErrors(responses);
-        }
+
+        List<RowError> rowErrors = applyAndFlush(sessions, shards);
         // log ALL errors then process them
         for (RowError error : rowErrors) {
           LOG.warn(Errors.KUDU_03.getMessage(), error.toString());
         }
         for (RowError error : rowErrors) {
           Insert insert = (Insert) error.getOperation();
-          // TODO SDC-2701 - support update on duplicate key
-          if ("ALREADY_PRESENT".equals(error.getStatus())) {
-            // duplicate row key
-            String rowKey = insert.getRow().stringifyRowKey();
-            Record record = keyToRecordMap.get(rowKey);
-            errorRecordHandler.onError(new OnRecordErrorException(record, Errors.KUDU_08, rowKey));
-          } else {
-            throw new StageException(Errors.KUDU_03, error.toString());
-          }
+          String rowKey = insert.getRow().stringifyRowKey();
+          handleRowError(error.getStatus(), error.toString(), rowKey, keyToRecordMap.get(rowKey), errorRecordHandler);
         }
       } catch (Exception ex) {
         LOG.error(Errors.KUDU_03.getMessage(), ex.toString(), ex);
@@ -346,6 +382,119 @@ public class KuduTarget extends BaseTarget {
     }
   }
 
+  /**
+   * Sends the record of a failed row to error, or stops the pipeline when the failure is not caused by the row.
+   *
+   * @param status status of the row error, may be null.
+   * @param description description of the row error.
+   */
+  @VisibleForTesting
+  static void handleRowError(
+      String status,
+      String description,
+      String rowKey,
+      Record record,
+      ErrorRecordHandler errorRecordHandler
+  ) throws StageException {
+    if (status == null) {
+      throw new StageException(Errors.KUDU_03, description);
+    }
+    switch (status) {
+      // TODO SDC-2701 - support update on duplicate key
+      case "ALREADY_PRESENT":
+        // duplicate row key
+        errorRecordHandler.onError(new OnRecordErrorException(record, Errors.KUDU_08, rowKey));
+        break;
+      case "INVALID_ARGUMENT":
+      case "NOT_FOUND":
+        errorRecordHandler.onError(new OnRecordErrorException(record, Errors.KUDU_13, rowKey, description));
+        break;
+      default:
+        throw new StageException(Errors.KUDU_03, description);
+    }
+  }
+
+  /**
+   * Applies each shard of operations to its own session and flushes the sessions, in parallel when there is
+   * more than one session.
+   *
+   * @return the row errors of all the sessions.
+   */
+  private List<RowError> applyAndFlush(List<KuduSession> sessions, List<List<Insert>> shards) throws Exception {
+    List<RowError> rowErrors = new ArrayList<>();
+    if (flushExecutor == null) {
+      for (int i = 0; i < sessions.size(); i++) {
+        rowErrors.addAll(applyAndFlush(sessions.get(i), shards.get(i)));
+      }
+      return rowErrors;
+    }
+
+    List<Callable<List<RowError>>> tasks = new ArrayList<>(sessions.size());
+    for (int i = 0; i < sessions.size(); i++) {
+      final KuduSession session = sessions.get(i);
+      final List<Insert> shard = shards.get(i);
+      if (!shard.isEmpty()) {
+        tasks.add(new Callable<List<RowError>>() {
+          @Override
+          public List<RowError> call() throws Exception {
+            return applyAndFlush(session, shard);
+          }
+        });
+      }
+    }
+    Exception failure = null;
+    // wait for every session before reporting a failure so no session is left flushing
+    for (Future<List<RowError>> future : flushExecutor.invokeAll(tasks)) {
+      try {
+        rowErrors.addAll(future.get());
+      } catch (ExecutionException ex) {
+        if (failure == null) {
+          failure = ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex;
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    return rowErrors;
+  }
+
+  private List<RowError> applyAndFlush(KuduSession session, List<Insert> inserts) throws Exception {
+    List<RowError> rowErrors = new ArrayList<>();
+    int buffered = 0;
+    try {
+      for (Insert insert : inserts) {
+        session.apply(insert);
+        pendingOperations.inc();
+        buffered++;
+        if (buffered == mutationBufferSpace) {
+          rowErrors.addAll(flush(session));
+          pendingOperations.dec(buffered);
+          buffered = 0;
+        }
+      }
+      if (buffered > 0) {
+        rowErrors.addAll(flush(session));
+      }
+    } finally {
+      pendingOperations.dec(buffered);
+    }
+    return rowErrors;
+  }
+
+  private List<RowError> flush(KuduSession session) throws Exception {
+    Timer.Context timerContext = flushTimer.time();
+    try {
+      List<OperationResponse> responses = session.flush(); // can return null
+      if (responses == null) {
+        return Collections.emptyList();
+      }
+      return OperationResponse.collectErrors(responses);
+    } finally {
+      timerContext.stop();
+    }
+  }
+
   @Override
   public void destroy() {
     if (kuduClient != null) {
@@ -355,8 +504,12 @@ public class KuduTarget extends BaseTarget {
         LOG.warn("Error closing Kudu connection: {}", ex.toString(), ex);
       }
     }
+    if (flushExecutor != null) {
+      flushExecutor.shutdownNow();
+      flushExecutor = null;
+    }
     kuduClient = null;
-    kuduSession = null;
+    kuduSessions = null;
     kuduTables.invalidateAll();
     super.destroy();
   }
@@ -36,6 +36,9 @@ public class KuduTargetUpgrader implements StageUpgrader {
     switch (fromVersion) {
       case 1:
         upgradeV1ToV2(configs);
+        // fall through
+      case 2:
+        upgradeV2ToV3(configs);
         break;
       default:
         throw new IllegalStateException(Utils.format("Unexpected fromVersion {}", fromVersion));
@@ -57,4 +60,9 @@ public class KuduTargetUpgrader implements StageUpgrader {
     configs.addAll(configsToAdd);
     configs.removeAll(configsToRemove);
   }
+
+  private void upgradeV2ToV3(List<Config> configs) {
+    configs.add(new Config("numSessions", 1));
+    configs.add(new Config("mutationBufferSpace", 1000));
+  }
 }
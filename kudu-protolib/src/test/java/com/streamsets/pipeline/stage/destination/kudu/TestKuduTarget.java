@@ -0,0 +1,98 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.streamsets.pipeline.stage.destination.kudu;
+
+import com.streamsets.pipeline.api.OnRecordError;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.Stage;
+import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.api.base.OnRecordErrorException;
+import com.streamsets.pipeline.sdk.ContextInfoCreator;
+import com.streamsets.pipeline.stage.destination.lib.ErrorRecordHandler;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class TestKuduTarget {
+
+  private Record record;
+  private List<OnRecordErrorException> errors;
+  private ErrorRecordHandler errorRecordHandler;
+
+  @Before
+  public void setup() {
+    Stage.Context context = ContextInfoCreator.createTargetContext("i", false, OnRecordError.TO_ERROR);
+    record = context.createRecord("123");
+    errors = new ArrayList<>();
+    errorRecordHandler = new ErrorRecordHandler() {
+      @Override
+      public void onError(OnRecordErrorException error) throws StageException {
+        errors.add(error);
+      }
+    };
+  }
+
+  @Test
+  public void testDuplicateRowToError() throws Exception {
+    KuduTarget.handleRowError("ALREADY_PRESENT", "row error", "key1", record, errorRecordHandler);
+    Assert.assertEquals(1, errors.size());
+    Assert.assertEquals(Errors.KUDU_08, errors.get(0).getErrorCode());
+    Assert.assertSame(record, errors.get(0).getRecord());
+  }
+
+  @Test
+  public void testRejectedRowToError() throws Exception {
+    KuduTarget.handleRowError("INVALID_ARGUMENT", "row error", "key1", record, errorRecordHandler);
+    KuduTarget.handleRowError("NOT_FOUND", "row error", "key1", record, errorRecordHandler);
+    Assert.assertEquals(2, errors.size());
+    for (OnRecordErrorException error : errors) {
+      Assert.assertEquals(Errors.KUDU_13, error.getErrorCode());
+      Assert.assertSame(record, error.getRecord());
+    }
+  }
+
+  @Test
+  public void testOtherStatusStopsPipeline() throws Exception {
+    try {
+      KuduTarget.handleRowError("TIMED_OUT", "row error", "key1", record, errorRecordHandler);
+      Assert.fail();
+    } catch (StageException ex) {
+      Assert.assertEquals(Errors.KUDU_03, ex.getErrorCode());
+    }
+    Assert.assertTrue(errors.isEmpty());
+  }
+
+  @Test
+  public void testMissingStatusStopsPipeline() throws Exception {
+    try {
+      KuduTarget.handleRowError(null, "row error", "key1", record, errorRecordHandler);
+      Assert.fail();
+    } catch (StageException ex) {
+      Assert.assertEquals(Errors.KUDU_03, ex.getErrorCode());
+    }
+    Assert.assertTrue(errors.isEmpty());
+  }
+
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.streamsets.pipeline.stage.destination.kudu;
+
+import com.streamsets.pipeline.api.Config;
+import com.streamsets.pipeline.api.StageException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestKuduTargetUpgrader {
+
+  private static Map<String, Object> toMap(List<Config> configs) {
+    Map<String, Object> map = new HashMap<>();
+    for (Config config : configs) {
+      map.put(config.getName(), config.getValue());
+    }
+    return map;
+  }
+
+  @Test
+  public void testUpgradeV1ToV3() throws StageException {
+    List<Config> configs = new ArrayList<>();
+    configs.add(new Config("kuduMaster", "localhost:7051"));
+    configs.add(new Config("tableName", "t"));
+
+    new KuduTargetUpgrader().upgrade("a", "b", "c", 1, 3, configs);
+
+    Map<String, Object> upgraded = toMap(configs);
+    Assert.assertEquals(4, upgraded.size());
+    Assert.assertFalse(upgraded.containsKey("tableName"));
+    Assert.assertEquals("t", upgraded.get("tableNameTemplate"));
+    Assert.assertEquals(1, upgraded.get("numSessions"));
+    Assert.assertEquals(1000, upgraded.get("mutationBufferSpace"));
+  }
+
+  @Test
+  public void testUpgradeV2ToV3() throws StageException {
+    List<Config> configs = new ArrayList<>();
+    configs.add(new Config("kuduMaster", "localhost:7051"));
+    configs.add(new Config("tableNameTemplate", "t"));
+
+    new KuduTargetUpgrader().upgrade("a", "b", "c", 2, 3, configs);
+
+    Map<String, Object> upgraded = toMap(configs);
+    Assert.assertEquals(4, upgraded.size());
+    Assert.assertEquals("localhost:7051", upgraded.get("kuduMaster"));
+    Assert.assertEquals("t", upgraded.get("tableNameTemplate"));
+    Assert.assertEquals(1, upgraded.get("numSessions"));
+    Assert.assertEquals(1000, upgraded.get("mutationBufferSpace"));
+  }
+
+}
@@ -20,8 +20,11 @@
 package com.streamsets.pipeline.stage.processor.kv;
 
 import com.streamsets.pipeline.api.ConfigDef;
+import com.streamsets.pipeline.api.Stage;
 import com.streamsets.pipeline.api.ValueChooserModel;
 
+import java.io.File;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 public class CacheConfig {
@@ -88,4 +91,103 @@ public class CacheConfig {
   )
   @ValueChooserModel(TimeUnitChooserValues.class)
   public TimeUnit timeUnit;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      label = "Maximum Cache Weight",
+      min = -1,
+      defaultValue = "-1",
+      description = "Maximum approximate number of characters held by cached keys and values. When set, this " +
+          "limit is used instead of Maximum Cache Size. Default value is -1 which disables weighing",
+      dependsOn = "enabled",
+      triggeredByValue = "true",
+      displayPosition = 80,
+      group = "#0"
+  )
+  public long maxWeight = -1;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      label = "Refresh Time",
+      min = 0,
+      defaultValue = "0",
+      description = "Time after the last write at which a value is reloaded in the background. The cached value " +
+          "is returned until the reload completes. Use 0 to disable background refresh",
+      dependsOn = "enabled",
+      triggeredByValue = "true",
+      displayPosition = 90,
+      group = "#0"
+  )
+  public long refreshTime = 0;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      label = "Refresh Threads",
+      min = 1,
+      defaultValue = "2",
+      description = "Number of threads used to reload values in the background",
+      dependsOn = "enabled",
+      triggeredByValue = "true",
+      displayPosition = 100,
+      group = "#0"
+  )
+  public int refreshThreads = 2;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      label = "Missing Key Expiration Time",
+      min = -1,
+      defaultValue = "-1",
+      description = "Expiration time for keys that were not found in the store. " +
+          "Default value is -1 which uses the expiration time of found keys",
+      dependsOn = "enabled",
+      triggeredByValue = "true",
+      displayPosition = 110,
+      group = "#0"
+  )
+  public long missingKeyExpirationTime = -1;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.BOOLEAN,
+      label = "Persist Cached Keys",
+      description = "Save the cached keys when the pipeline stops and load their values when it starts again",
+      defaultValue = "false",
+      dependsOn = "enabled",
+      triggeredByValue = "true",
+      displayPosition = 120,
+      group = "#0"
+  )
+  public boolean snapshotEnabled = false;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.STRING,
+      label = "Cached Keys File",
+      description = "File used to persist the cached keys. Relative paths are resolved against the " +
+          "Data Collector resources directory. Use a different file for each lookup stage",
+      dependsOn = "snapshotEnabled",
+      triggeredByValue = "true",
+      displayPosition = 130,
+      group = "#0"
+  )
+  public String snapshotFile;
+
+  public void init(Stage.Context context, String configPrefix, List<Stage.ConfigIssue> issues) {
+    if (enabled && snapshotEnabled && (snapshotFile == null || snapshotFile.trim().isEmpty())) {
+      issues.add(context.createConfigIssue("LOOKUP", configPrefix + "snapshotFile", Errors.LOOKUP_03));
+    }
+  }
+
+  public File getSnapshotFile(Stage.Context context) {
+    File file = new File(snapshotFile);
+    if (!file.isAbsolute()) {
+      file = new File(context.getResourcesDirectory(), snapshotFile);
+    }
+    return file.getAbsoluteFile();
+  }
 }
@@ -0,0 +1,44 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.kv;
+
+import com.streamsets.pipeline.api.Config;
+
+import java.util.List;
+
+/**
+ * Shared upgrade steps for {@link CacheConfig}, used by the lookup processor upgraders.
+ */
+public final class CacheConfigUpgrader {
+
+  private CacheConfigUpgrader() {}
+
+  /**
+   * Adds the background refresh, missing key expiration, weight and cached keys persistence configs.
+   */
+  public static void upgradeV1ToV2(String prefix, List<Config> configs) {
+    configs.add(new Config(prefix + "maxWeight", -1));
+    configs.add(new Config(prefix + "refreshTime", 0));
+    configs.add(new Config(prefix + "refreshThreads", 2));
+    configs.add(new Config(prefix + "missingKeyExpirationTime", -1));
+    configs.add(new Config(prefix + "snapshotEnabled", false));
+    configs.add(new Config(prefix + "snapshotFile", ""));
+  }
+}
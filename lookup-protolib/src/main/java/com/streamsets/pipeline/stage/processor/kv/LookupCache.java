@@ -0,0 +1,316 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.kv;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.ForwardingLoadingCache;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.streamsets.pipeline.api.impl.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading cache shared by the lookup processors.
+ * <p/>
+ * On top of the expiration policy of {@link CacheConfig} it supports reloading values in the background on a
+ * bounded executor, a separate expiration time for keys that are missing from the store, a weight based size
+ * limit and persisting the cached keys so that a restarted pipeline starts with a warm cache.
+ */
+public class LookupCache<K, V> extends ForwardingLoadingCache<K, V> implements AutoCloseable {
+  private static final Logger LOG = LoggerFactory.getLogger(LookupCache.class);
+  private static final int REFRESH_QUEUE_SIZE = 1000;
+  private static final int WARM_UP_BATCH_SIZE = 1000;
+
+  private final CacheConfig conf;
+  private final Predicate<V> isMissing;
+  private final LoadingCache<K, V> delegate;
+  // Keys recently loaded as missing, null if missing keys share the expiration time of found keys
+  private final Cache<K, Boolean> missingKeys;
+  // Executor for background reloads, null if refresh is disabled
+  private final ThreadPoolExecutor refreshExecutor;
+
+  public LookupCache(CacheConfig conf, CacheLoader<K, V> loader, Predicate<V> isMissing, Weigher<K, V> weigher) {
+    this.conf = conf;
+    this.isMissing = isMissing;
+
+    if (conf.enabled && conf.missingKeyExpirationTime >= 0) {
+      missingKeys = CacheBuilder.newBuilder()
+          .expireAfterWrite(conf.missingKeyExpirationTime, conf.timeUnit)
+          .build();
+    } else {
+      missingKeys = null;
+    }
+
+    if (conf.enabled && conf.refreshTime > 0) {
+      refreshExecutor = new ThreadPoolExecutor(
+          conf.refreshThreads,
+          conf.refreshThreads,
+          60,
+          TimeUnit.SECONDS,
+          new ArrayBlockingQueue<Runnable>(REFRESH_QUEUE_SIZE),
+          new ThreadFactoryBuilder().setNameFormat("Lookup Cache Refresh-%d").setDaemon(true).build()
+      );
+      refreshExecutor.allowCoreThreadTimeOut(true);
+    } else {
+      refreshExecutor = null;
+    }
+
+    delegate = buildCache(new TrackingCacheLoader(loader), weigher);
+  }
+
+  @SuppressWarnings("unchecked")
+  private LoadingCache<K, V> buildCache(CacheLoader<K, V> loader, Weigher<K, V> weigher) {
+    CacheBuilder build = CacheBuilder.newBuilder();
+    if (!conf.enabled) {
+      return build.maximumSize(0).build(loader);
+    }
+
+    // CacheBuilder doesn't support specifying type thus suffers from erasure, so
+    // we build it with this if / else logic.
+    if (conf.maxWeight > -1) {
+      build.maximumWeight(conf.maxWeight).weigher(weigher);
+    } else if (conf.maxSize > -1) {
+      build.maximumSize(conf.maxSize);
+    }
+
+    if (conf.evictionPolicyType == EvictionPolicyType.EXPIRE_AFTER_ACCESS) {
+      build.expireAfterAccess(conf.expirationTime, conf.timeUnit);
+    } else if (conf.evictionPolicyType == EvictionPolicyType.EXPIRE_AFTER_WRITE) {
+      build.expireAfterWrite(conf.expirationTime, conf.timeUnit);
+    } else {
+      throw new IllegalArgumentException(
+          Utils.format("Unrecognized EvictionPolicyType: '{}'", conf.evictionPolicyType)
+      );
+    }
+
+    if (refreshExecutor != null) {
+      build.refreshAfterWrite(conf.refreshTime, conf.timeUnit);
+    }
+    return build.build(loader);
+  }
+
+  @Override
+  protected LoadingCache<K, V> delegate() {
+    return delegate;
+  }
+
+  @Override
+  public V get(K key) throws ExecutionException {
+    V value = delegate.get(key);
+    if (isExpiredMissingKey(key, value)) {
+      delegate.invalidate(key);
+      value = delegate.get(key);
+    }
+    return value;
+  }
+
+  @Override
+  public V getUnchecked(K key) {
+    V value = delegate.getUnchecked(key);
+    if (isExpiredMissingKey(key, value)) {
+      delegate.invalidate(key);
+      value = delegate.getUnchecked(key);
+    }
+    return value;
+  }
+
+  @Override
+  public V apply(K key) {
+    return getUnchecked(key);
+  }
+
+  @Override
+  public ImmutableMap<K, V> getAll(Iterable<? extends K> keys) throws ExecutionException {
+    ImmutableMap<K, V> values = delegate.getAll(keys);
+    List<K> expired = new ArrayList<>();
+    for (Map.Entry<K, V> entry : values.entrySet()) {
+      if (isExpiredMissingKey(entry.getKey(), entry.getValue())) {
+        expired.add(entry.getKey());
+      }
+    }
+    if (expired.isEmpty()) {
+      return values;
+    }
+
+    delegate.invalidateAll(expired);
+    Map<K, V> result = new LinkedHashMap<>(values);
+    result.putAll(delegate.getAll(expired));
+    return ImmutableMap.copyOf(result);
+  }
+
+  private boolean isExpiredMissingKey(K key, V value) {
+    if (missingKeys == null || !isMissing.apply(value)) {
+      return false;
+    }
+    if (conf.missingKeyExpirationTime == 0) {
+      // Missing keys are not cached, the value was just loaded and is dropped so the next lookup loads it again
+      delegate.invalidate(key);
+      return false;
+    }
+    return missingKeys.getIfPresent(key) == null;
+  }
+
+  /**
+   * Loads the values of the keys saved by {@link #saveKeys(File, Function)}. Failures are logged and leave the
+   * cache partially populated, the remaining keys are loaded on first use.
+   *
+   * @param file file written by a previous run, ignored if it does not exist.
+   * @param parser converts a line of the file back into a key.
+   */
+  public void loadKeys(File file, Function<String, K> parser) {
+    if (!conf.enabled || !file.exists()) {
+      return;
+    }
+    List<K> keys = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(file.toPath(), Charsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.isEmpty()) {
+          keys.add(parser.apply(URLDecoder.decode(line, Charsets.UTF_8.name())));
+        }
+      }
+      for (List<K> partition : Iterables.partition(keys, WARM_UP_BATCH_SIZE)) {
+        delegate.getAll(partition);
+      }
+      LOG.debug("Loaded {} cached keys from '{}'", keys.size(), file);
+    } catch (IOException | ExecutionException | RuntimeException e) {
+      LOG.warn("Failed to load cached keys from '{}': {}", file, e.toString(), e);
+    }
+  }
+
+  /**
+   * Saves the keys currently cached with a value so that {@link #loadKeys(File, Function)} can load them on the
+   * next start. The file is replaced atomically.
+   *
+   * @param file file to write.
+   * @param formatter converts a key into a single line of text.
+   */
+  public void saveKeys(File file, Function<K, String> formatter) {
+    if (!conf.enabled) {
+      return;
+    }
+    File tmpFile = new File(file.getAbsolutePath() + ".tmp");
+    int count = 0;
+    try {
+      if (file.getParentFile() != null) {
+        Files.createDirectories(file.getParentFile().toPath());
+      }
+      try (BufferedWriter writer = Files.newBufferedWriter(tmpFile.toPath(), Charsets.UTF_8)) {
+        for (Map.Entry<K, V> entry : delegate.asMap().entrySet()) {
+          if (!isMissing.apply(entry.getValue())) {
+            writer.write(URLEncoder.encode(formatter.apply(entry.getKey()), Charsets.UTF_8.name()));
+            writer.newLine();
+            count++;
+          }
+        }
+      }
+      Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      LOG.debug("Saved {} cached keys to '{}'", count, file);
+    } catch (IOException | RuntimeException e) {
+      LOG.warn("Failed to save cached keys to '{}': {}", file, e.toString(), e);
+    }
+  }
+
+  @Override
+  public void close() {
+    if (refreshExecutor != null) {
+      refreshExecutor.shutdownNow();
+    }
+  }
+
+  /**
+   * Records missing keys and runs reloads on the refresh executor.
+   */
+  private class TrackingCacheLoader extends CacheLoader<K, V> {
+    private final CacheLoader<K, V> loader;
+
+    TrackingCacheLoader(CacheLoader<K, V> loader) {
+      this.loader = loader;
+    }
+
+    @Override
+    public V load(K key) throws Exception {
+      V value = loader.load(key);
+      track(key, value);
+      return value;
+    }
+
+    @Override
+    public Map<K, V> loadAll(Iterable<? extends K> keys) throws Exception {
+      Map<K, V> values = loader.loadAll(keys);
+      for (Map.Entry<K, V> entry : values.entrySet()) {
+        track(entry.getKey(), entry.getValue());
+      }
+      return values;
+    }
+
+    @Override
+    public ListenableFuture<V> reload(final K key, V oldValue) throws Exception {
+      if (refreshExecutor == null) {
+        return super.reload(key, oldValue);
+      }
+      ListenableFutureTask<V> task = ListenableFutureTask.create(new Callable<V>() {
+        @Override
+        public V call() throws Exception {
+          return load(key);
+        }
+      });
+      // If the refresh queue is full this throws RejectedExecutionException, the cache then keeps serving
+      // the old value until it expires or the next refresh is triggered.
+      refreshExecutor.execute(task);
+      return task;
+    }
+
+    private void track(K key, V value) {
+      if (missingKeys != null && value != null && isMissing.apply(value)) {
+        missingKeys.put(key, Boolean.TRUE);
+      }
+    }
+  }
+}
@@ -19,9 +19,10 @@
  */
 package com.streamsets.pipeline.stage.processor.kv;
 
+import com.google.common.base.Functions;
 import com.google.common.base.Optional;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.LoadingCache;
+import com.google.common.base.Predicate;
+import com.google.common.cache.Weigher;
 import com.streamsets.pipeline.api.Batch;
 import com.streamsets.pipeline.api.BatchMaker;
 import com.streamsets.pipeline.api.Field;
@@ -54,11 +55,25 @@ import static com.streamsets.pipeline.stage.processor.kv.LookupMode.RECORD;
 public class LookupProcessor extends BaseProcessor {
   private static final Logger LOG = LoggerFactory.getLogger(LookupProcessor.class);
 
+  private static final Predicate<Optional<String>> IS_MISSING = new Predicate<Optional<String>>() {
+    @Override
+    public boolean apply(Optional<String> value) {
+      return !value.isPresent();
+    }
+  };
+
+  private static final Weigher<String, Optional<String>> WEIGHER = new Weigher<String, Optional<String>>() {
+    @Override
+    public int weigh(String key, Optional<String> value) {
+      return 1 + key.length() + (value.isPresent() ? value.get().length() : 0);
+    }
+  };
+
   private final LookupProcessorConfig conf;
 
   private ErrorRecordHandler error;
   private ELEval keyExprEval;
-  private LoadingCache<String, Optional<String>> cache;
+  private LookupCache<String, Optional<String>> cache;
 
   protected Store store;
 
@@ -71,6 +86,7 @@ public class LookupProcessor extends BaseProcessor {
     List<ConfigIssue> issues = super.init();
 
     conf.init(getContext(), issues);
+    conf.cache.init(getContext(), "conf.cache.", issues);
 
     if (issues.isEmpty()) {
       error = new DefaultErrorRecordHandler(getContext());
@@ -83,29 +99,17 @@ public class LookupProcessor extends BaseProcessor {
     return issues;
   }
 
-  private LoadingCache<String, Optional<String>> buildCache() {
-    CacheBuilder build = CacheBuilder.newBuilder();
-    if (!conf.cache.enabled) {
-      return build.maximumSize(0)
-          .build(new StoreCacheLoader(store));
-    }
-
-    // CacheBuilder doesn't support specifying type thus suffers from erasure, so
-    // we build it with this if / else logic.
-    if(conf.cache.maxSize == -1) {
-      conf.cache.maxSize = Long.MAX_VALUE;
-    }
-    build.maximumSize(conf.cache.maxSize);
-    if (conf.cache.evictionPolicyType == EvictionPolicyType.EXPIRE_AFTER_ACCESS) {
-          build.expireAfterAccess(conf.cache.expirationTime, conf.cache.timeUnit);
-    } else if (conf.cache.evictionPolicyType == EvictionPolicyType.EXPIRE_AFTER_WRITE) {
-          build.expireAfterWrite(conf.cache.expirationTime, conf.cache.timeUnit);
-    } else {
-      throw new IllegalArgumentException(
-          Utils.format("Unrecognized EvictionPolicyType: '{}'", conf.cache.evictionPolicyType)
-      );
+  private LookupCache<String, Optional<String>> buildCache() {
+    LookupCache<String, Optional<String>> lookupCache = new LookupCache<>(
+        conf.cache,
+        new StoreCacheLoader(store),
+        IS_MISSING,
+        WEIGHER
+    );
+    if (conf.cache.enabled && conf.cache.snapshotEnabled) {
+      lookupCache.loadKeys(conf.cache.getSnapshotFile(getContext()), Functions.<String>identity());
     }
-    return build.build(new StoreCacheLoader(store));
+    return lookupCache;
   }
 
   @Override
@@ -228,6 +232,12 @@ public class LookupProcessor extends BaseProcessor {
   @Override
   public void destroy() {
     super.destroy();
+    if (cache != null) {
+      if (conf.cache.enabled && conf.cache.snapshotEnabled) {
+        cache.saveKeys(conf.cache.getSnapshotFile(getContext()), Functions.<String>identity());
+      }
+      cache.close();
+    }
     if (store != null) {
       try {
         store.close();
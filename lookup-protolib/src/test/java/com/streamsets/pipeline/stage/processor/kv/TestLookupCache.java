@@ -0,0 +1,177 @@
+/**
+ * Copyright 2016 StreamSets Inc.
+ *
+ * Licensed under the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.kv;
+
+import com.google.common.base.Functions;
+import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestLookupCache {
+
+  private static final Predicate<Optional<String>> IS_MISSING = new Predicate<Optional<String>>() {
+    @Override
+    public boolean apply(Optional<String> value) {
+      return !value.isPresent();
+    }
+  };
+
+  private static final Weigher<String, Optional<String>> WEIGHER = new Weigher<String, Optional<String>>() {
+    @Override
+    public int weigh(String key, Optional<String> value) {
+      return 1;
+    }
+  };
+
+  private static class CountingLoader extends CacheLoader<String, Optional<String>> {
+    private final Map<String, String> values = new HashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Override
+    public Optional<String> load(String key) throws Exception {
+      loads.incrementAndGet();
+      return Optional.fromNullable(values.get(key));
+    }
+  }
+
+  private static CacheConfig createConfig() {
+    CacheConfig conf = new CacheConfig();
+    conf.enabled = true;
+    conf.evictionPolicyType = EvictionPolicyType.EXPIRE_AFTER_WRITE;
+    conf.expirationTime = 1;
+    conf.timeUnit = TimeUnit.HOURS;
+    return conf;
+  }
+
+  @Test
+  public void testMissingKeyExpiration() throws Exception {
+    CacheConfig conf = createConfig();
+    conf.timeUnit = TimeUnit.MILLISECONDS;
+    conf.expirationTime = TimeUnit.HOURS.toMillis(1);
+    conf.missingKeyExpirationTime = 50;
+    CountingLoader loader = new CountingLoader();
+
+    try (LookupCache<String, Optional<String>> cache = new LookupCache<>(conf, loader, IS_MISSING, WEIGHER)) {
+      Assert.assertFalse(cache.getUnchecked("key").isPresent());
+      Assert.assertFalse(cache.getUnchecked("key").isPresent());
+      Assert.assertEquals(1, loader.loads.get());
+
+      loader.values.put("key", "value");
+      Thread.sleep(100);
+      Assert.assertEquals("value", cache.getUnchecked("key").get());
+      Assert.assertEquals(2, loader.loads.get());
+
+      // found keys keep the regular expiration time
+      Thread.sleep(100);
+      Assert.assertEquals("value", cache.getAll(ImmutableList.of("key")).get("key").get());
+      Assert.assertEquals(2, loader.loads.get());
+    }
+  }
+
+  @Test
+  public void testMissingKeysNotCached() throws Exception {
+    CacheConfig conf = createConfig();
+    conf.missingKeyExpirationTime = 0;
+    CountingLoader loader = new CountingLoader();
+
+    try (LookupCache<String, Optional<String>> cache = new LookupCache<>(conf, loader, IS_MISSING, WEIGHER)) {
+      Assert.assertFalse(cache.getUnchecked("key").isPresent());
+      Assert.assertFalse(cache.getUnchecked("key").isPresent());
+      Assert.assertEquals(2, loader.loads.get());
+    }
+  }
+
+  @Test
+  public void testBackgroundRefresh() throws Exception {
+    CacheConfig conf = createConfig();
+    conf.timeUnit = TimeUnit.MILLISECONDS;
+    conf.expirationTime = TimeUnit.HOURS.toMillis(1);
+    conf.refreshTime = 50;
+    CountingLoader loader = new CountingLoader();
+    loader.values.put("key", "old");
+
+    try (LookupCache<String, Optional<String>> cache = new LookupCache<>(conf, loader, IS_MISSING, WEIGHER)) {
+      Assert.assertEquals("old", cache.getUnchecked("key").get());
+
+      loader.values.put("key", "new");
+      Thread.sleep(100);
+      // The stale value is served while the reload runs in the background
+      Assert.assertEquals("old", cache.getUnchecked("key").get());
+
+      long timeout = System.currentTimeMillis() + 5000;
+      while (!"new".equals(cache.getUnchecked("key").get()) && System.currentTimeMillis() < timeout) {
+        Thread.sleep(10);
+      }
+      Assert.assertEquals("new", cache.getUnchecked("key").get());
+    }
+  }
+
+  @Test
+  public void testMaxWeight() throws Exception {
+    CacheConfig conf = createConfig();
+    conf.maxWeight = 2;
+    CountingLoader loader = new CountingLoader();
+
+    try (LookupCache<String, Optional<String>> cache = new LookupCache<>(conf, loader, IS_MISSING, WEIGHER)) {
+      for (int i = 0; i < 10; i++) {
+        cache.getUnchecked("key" + i);
+      }
+      Assert.assertTrue(cache.size() <= 2);
+    }
+  }
+
+  @Test
+  public void testSaveAndLoadKeys() throws Exception {
+    File file = new File("target", UUID.randomUUID().toString());
+    CacheConfig conf = createConfig();
+    CountingLoader loader = new CountingLoader();
+    loader.values.put("key1", "value1");
+    loader.values.put("key:2\nwith newline", "value2");
+
+    try (LookupCache<String, Optional<String>> cache = new LookupCache<>(conf, loader, IS_MISSING, WEIGHER)) {
+      cache.getUnchecked("key1");
+      cache.getUnchecked("key:2\nwith newline");
+      cache.getUnchecked("missing");
+      cache.saveKeys(file, Functions.<String>identity());
+    }
+    Assert.assertTrue(file.exists());
+
+    loader = new CountingLoader();
+    loader.values.put("key1", "value1");
+    loader.values.put("key:2\nwith newline", "value2");
+    try (LookupCache<String, Optional<String>> cache = new LookupCache<>(conf, loader, IS_MISSING, WEIGHER)) {
+      cache.loadKeys(file, Functions.<String>identity());
+      Assert.assertEquals(2, cache.size());
+      Assert.assertEquals("value2", cache.getIfPresent("key:2\nwith newline").get());
+      Assert.assertNull(cache.getIfPresent("missing"));
+    }
+  }
+}
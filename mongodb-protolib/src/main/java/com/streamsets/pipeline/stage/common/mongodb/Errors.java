@@ -42,6 +42,8 @@ public enum Errors implements ErrorCode {
   MONGODB_16("Record {} does not contain the expected unique key field {}"),
   MONGODB_17("Error writing records to Mongo : {}"),
   MONGODB_18("Operation '{}' requires unique key to be configured"),
+  MONGODB_19("Record not written because an earlier record of the ordered bulk write failed"),
+  MONGODB_20("Write concern error: {}"),
   ;
   private final String msg;
 
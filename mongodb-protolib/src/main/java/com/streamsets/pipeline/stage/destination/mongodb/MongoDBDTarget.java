@@ -27,10 +27,11 @@ import com.streamsets.pipeline.api.Target;
 import com.streamsets.pipeline.configurablestage.DTarget;
 
 @StageDef(
-  version = 1,
+  version = 2,
   label = "MongoDB",
   description = "Writes data to MongoDB",
   icon="mongodb.png",
+  upgrader = MongoDBTargetUpgrader.class,
   onlineHelpRefUrl = "index.html#Destinations/MongoDB.html#task_mrc_k5n_4v"
 )
 @ConfigGroups(value = Groups.class)
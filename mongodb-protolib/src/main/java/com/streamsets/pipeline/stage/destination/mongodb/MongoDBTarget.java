@@ -19,12 +19,17 @@
  */
 package com.streamsets.pipeline.stage.destination.mongodb;
 
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.MongoClient;
 import com.mongodb.MongoClientURI;
 import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
 import com.mongodb.bulk.BulkWriteResult;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.DeleteOneModel;
 import com.mongodb.client.model.InsertOneModel;
 import com.mongodb.client.model.ReplaceOneModel;
@@ -51,8 +56,15 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class MongoDBTarget extends BaseTarget {
 
@@ -69,6 +81,8 @@ public class MongoDBTarget extends BaseTarget {
   private MongoCollection<Document> coll;
   private DataGeneratorFactory generatorFactory;
   private MongoClient mongoClient;
+  private BulkWriteOptions bulkWriteOptions;
+  private ExecutorService writeExecutor;
 
   public MongoDBTarget(MongoTargetConfigBean mongoTargetConfigBean) {
     this.mongoTargetConfigBean = mongoTargetConfigBean;
@@ -94,11 +108,23 @@ public class MongoDBTarget extends BaseTarget {
     builder.setMode(JsonMode.MULTIPLE_OBJECTS);
     generatorFactory = builder.build();
 
+    bulkWriteOptions = new BulkWriteOptions().ordered(mongoTargetConfigBean.orderedWrites);
+    if (!mongoTargetConfigBean.orderedWrites && mongoTargetConfigBean.writeThreads > 1) {
+      writeExecutor = Executors.newFixedThreadPool(
+          mongoTargetConfigBean.writeThreads,
+          new ThreadFactoryBuilder().setNameFormat("MongoDB Writer-%d").setDaemon(true).build()
+      );
+    }
+
     return issues;
   }
 
   @Override
   public void destroy() {
+    if (writeExecutor != null) {
+      writeExecutor.shutdownNow();
+      writeExecutor = null;
+    }
     if (mongoClient != null) {
       mongoClient.close();
       mongoClient = null;
@@ -181,32 +207,132 @@ public class MongoDBTarget extends BaseTarget {
     }
 
     if (!documentList.isEmpty()) {
-      try {
-        BulkWriteResult bulkWriteResult = coll.bulkWrite(documentList);
-        if (bulkWriteResult.wasAcknowledged()) {
-          LOG.trace(
-              "Wrote batch with {} inserts, {} updates and {} deletes",
-              bulkWriteResult.getInsertedCount(),
-              bulkWriteResult.getModifiedCount(),
-              bulkWriteResult.getDeletedCount()
-          );
-        }
-      } catch (MongoException e) {
-        for (Record record : recordList) {
-          errorRecordHandler.onError(
-              new OnRecordErrorException(
-                  record,
-                  Errors.MONGODB_17,
-                  e.toString(),
-                  e
-              )
-          );
+      List<List<WriteModel<Document>>> documentChunks =
+          Lists.partition(documentList, mongoTargetConfigBean.maxBulkWriteSize);
+      List<List<Record>> recordChunks = Lists.partition(recordList, mongoTargetConfigBean.maxBulkWriteSize);
+      List<OnRecordErrorException> errors;
+      if (writeExecutor != null && documentChunks.size() > 1) {
+        errors = writeParallel(documentChunks, recordChunks);
+      } else {
+        errors = writeSequential(documentChunks, recordChunks);
+      }
+      for (OnRecordErrorException error : errors) {
+        errorRecordHandler.onError(error);
+      }
+    }
+  }
+
+  private List<OnRecordErrorException> writeSequential(
+      List<List<WriteModel<Document>>> documentChunks,
+      List<List<Record>> recordChunks
+  ) {
+    List<OnRecordErrorException> errors = new ArrayList<>();
+    for (int i = 0; i < documentChunks.size(); i++) {
+      if (mongoTargetConfigBean.orderedWrites && !errors.isEmpty()) {
+        // an ordered write stops at the first failure, the remaining records are not attempted
+        for (Record record : recordChunks.get(i)) {
+          errors.add(new OnRecordErrorException(record, Errors.MONGODB_19));
         }
+      } else {
+        errors.addAll(writeChunk(documentChunks.get(i), recordChunks.get(i)));
       }
     }
+    return errors;
   }
 
+  private List<OnRecordErrorException> writeParallel(
+      List<List<WriteModel<Document>>> documentChunks,
+      final List<List<Record>> recordChunks
+  ) throws StageException {
+    List<Callable<List<OnRecordErrorException>>> tasks = new ArrayList<>(documentChunks.size());
+    for (int i = 0; i < documentChunks.size(); i++) {
+      final List<WriteModel<Document>> documents = documentChunks.get(i);
+      final List<Record> records = recordChunks.get(i);
+      tasks.add(new Callable<List<OnRecordErrorException>>() {
+        @Override
+        public List<OnRecordErrorException> call() {
+          return writeChunk(documents, records);
+        }
+      });
+    }
+
+    List<OnRecordErrorException> errors = new ArrayList<>();
+    try {
+      List<Future<List<OnRecordErrorException>>> futures = writeExecutor.invokeAll(tasks);
+      for (int i = 0; i < futures.size(); i++) {
+        try {
+          errors.addAll(futures.get(i).get());
+        } catch (ExecutionException e) {
+          for (Record record : recordChunks.get(i)) {
+            errors.add(new OnRecordErrorException(record, Errors.MONGODB_17, e.getCause().toString(), e.getCause()));
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new StageException(Errors.MONGODB_12, e.toString(), e);
+    }
+    return errors;
+  }
 
+  /**
+   * Writes a chunk of the batch with a single bulk write request.
+   *
+   * @return errors for the records that were not written, indexed back from the bulk write errors.
+   */
+  private List<OnRecordErrorException> writeChunk(List<WriteModel<Document>> documents, List<Record> records) {
+    List<OnRecordErrorException> errors = new ArrayList<>();
+    try {
+      BulkWriteResult bulkWriteResult = coll.bulkWrite(documents, bulkWriteOptions);
+      if (bulkWriteResult.wasAcknowledged()) {
+        LOG.trace(
+            "Wrote {} records with {} inserts, {} updates and {} deletes",
+            documents.size(),
+            bulkWriteResult.getInsertedCount(),
+            bulkWriteResult.getModifiedCount(),
+            bulkWriteResult.getDeletedCount()
+        );
+      }
+    } catch (MongoBulkWriteException e) {
+      Set<Integer> failed = new HashSet<>();
+      int firstFailure = records.size();
+      for (BulkWriteError writeError : e.getWriteErrors()) {
+        failed.add(writeError.getIndex());
+        firstFailure = Math.min(firstFailure, writeError.getIndex());
+        errors.add(
+            new OnRecordErrorException(
+                records.get(writeError.getIndex()),
+                Errors.MONGODB_17,
+                writeError.getMessage()
+            )
+        );
+      }
+      for (int i = 0; i < records.size(); i++) {
+        if (failed.contains(i)) {
+          continue;
+        }
+        if (mongoTargetConfigBean.orderedWrites && i > firstFailure) {
+          errors.add(new OnRecordErrorException(records.get(i), Errors.MONGODB_19));
+        } else if (e.getWriteConcernError() != null) {
+          errors.add(
+              new OnRecordErrorException(records.get(i), Errors.MONGODB_20, e.getWriteConcernError().getMessage())
+          );
+        }
+      }
+    } catch (MongoException e) {
+      for (Record record : records) {
+        errors.add(
+            new OnRecordErrorException(
+                record,
+                Errors.MONGODB_17,
+                e.toString(),
+                e
+            )
+        );
+      }
+    }
+    return errors;
+  }
 
   private void validateUniqueKey(String operation, Record record) throws OnRecordErrorException {
     if(mongoTargetConfigBean.uniqueKeyField == null || mongoTargetConfigBean.uniqueKeyField.isEmpty()) {
@@ -76,4 +76,42 @@ public class MongoTargetConfigBean {
   @ValueChooserModel(WriteConcernChooserValues.class)
   public WriteConcernLabel writeConcern = WriteConcernLabel.JOURNALED;
 
+  @ConfigDef(
+    type = ConfigDef.Type.BOOLEAN,
+    label = "Ordered Writes",
+    description = "Writes the records of a batch in order and stops at the first failed write. Unordered writes " +
+        "continue past failures and can be sent in parallel",
+    defaultValue = "true",
+    required = true,
+    group = "MONGODB",
+    displayPosition = 60
+  )
+  public boolean orderedWrites = true;
+
+  @ConfigDef(
+    type = ConfigDef.Type.NUMBER,
+    label = "Max Bulk Write Size",
+    description = "Maximum number of records sent to MongoDB in a single bulk write request",
+    defaultValue = "1000",
+    min = 1,
+    required = true,
+    group = "MONGODB",
+    displayPosition = 70
+  )
+  public int maxBulkWriteSize = 1000;
+
+  @ConfigDef(
+    type = ConfigDef.Type.NUMBER,
+    label = "Write Threads",
+    description = "Number of bulk write requests sent to MongoDB in parallel",
+    defaultValue = "1",
+    min = 1,
+    required = true,
+    dependsOn = "orderedWrites",
+    triggeredByValue = "false",
+    group = "MONGODB",
+    displayPosition = 80
+  )
+  public int writeThreads = 1;
+
 }
@@ -51,6 +51,7 @@ public class MongoDBTargetIT {
   private static final String DATABASE_NAME = "testDatabase1";
   private static final String TEST_WRITE_COLLECTION = "testWrite";
   private static final String UNIQUE_KEY_EXCEPTION_COLLECTION = "testRecordDoesNotContainUniqueKeyException";
+  private static final String UNORDERED_WRITE_COLLECTION = "testUnorderedWrite";
 
   private static MongoCollection<Document> testWriteCollection = null;
   private static MongoClient mongo = null;
@@ -65,6 +66,7 @@ public class MongoDBTargetIT {
     MongoDatabase db = mongo.getDatabase(DATABASE_NAME);
     db.createCollection(TEST_WRITE_COLLECTION);
     db.createCollection(UNIQUE_KEY_EXCEPTION_COLLECTION);
+    db.createCollection(UNORDERED_WRITE_COLLECTION);
     testWriteCollection = db.getCollection(TEST_WRITE_COLLECTION);
   }
 
@@ -157,6 +159,46 @@ public class MongoDBTargetIT {
 
   }
 
+  @Test
+  public void testUnorderedWrite() throws StageException, IOException {
+    MongoTargetConfigBean mongoTargetConfigBean = new MongoTargetConfigBean();
+    mongoTargetConfigBean.mongoClientURI = "mongodb://" + mongoContainer.getContainerIpAddress() + ":" + mongoContainer.getMappedPort(MONGO_PORT);
+    mongoTargetConfigBean.collection = UNORDERED_WRITE_COLLECTION;
+    mongoTargetConfigBean.database = DATABASE_NAME;
+    mongoTargetConfigBean.writeConcern = WriteConcernLabel.JOURNALED;
+    mongoTargetConfigBean.orderedWrites = false;
+    mongoTargetConfigBean.maxBulkWriteSize = 5;
+    mongoTargetConfigBean.writeThreads = 2;
+
+    TargetRunner targetRunner = new TargetRunner.Builder(
+      MongoDBDTarget.class,
+      new MongoDBTarget(mongoTargetConfigBean)
+    ).setOnRecordError(OnRecordError.TO_ERROR).build();
+
+    targetRunner.runInit();
+    // every other record reuses the _id of the previous one and fails with a duplicate key error
+    List<Record> records = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      Record record = RecordCreator.create();
+      record.getHeader().setAttribute(MongoDBTarget.OPERATION_KEY, MongoDBTarget.INSERT);
+      Map<String, Field> map = new HashMap<>();
+      map.put("_id", Field.create(i / 2));
+      map.put("index", Field.create(i));
+      record.set(Field.create(map));
+      records.add(record);
+    }
+    targetRunner.runWrite(records);
+
+    List<Record> errorRecords = targetRunner.getErrorRecords();
+    Assert.assertEquals(10, errorRecords.size());
+    for (Record errorRecord : errorRecords) {
+      Assert.assertEquals(1, errorRecord.get("/index").getValueAsInteger() % 2);
+    }
+    Assert.assertEquals(10, mongo.getDatabase(DATABASE_NAME).getCollection(UNORDERED_WRITE_COLLECTION).count());
+
+    targetRunner.runDestroy();
+  }
+
   private List<Record> createJsonRecords() throws IOException {
     List<Record> list = new ArrayList<>();
     for (int i = 0; i < 20; i++) {
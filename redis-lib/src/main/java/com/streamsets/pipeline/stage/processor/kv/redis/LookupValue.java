@@ -19,6 +19,9 @@
  */
 package com.streamsets.pipeline.stage.processor.kv.redis;
 
+import java.util.Collection;
+import java.util.Map;
+
 public class LookupValue{
   private DataType type;
   private Object value;
@@ -36,6 +39,39 @@ public class LookupValue{
     return value;
   }
 
+  /**
+   * Redis returns null for a missing string key and an empty collection for other missing keys.
+   */
+  public boolean isEmpty() {
+    if (value == null) {
+      return true;
+    } else if (value instanceof Collection) {
+      return ((Collection) value).isEmpty();
+    } else if (value instanceof Map) {
+      return ((Map) value).isEmpty();
+    }
+    return false;
+  }
+
+  /**
+   * Approximate number of characters held by this value, used to weigh cache entries.
+   */
+  public int getWeight() {
+    int weight = 0;
+    if (value instanceof String) {
+      weight = ((String) value).length();
+    } else if (value instanceof Collection) {
+      for (Object element : (Collection) value) {
+        weight += String.valueOf(element).length();
+      }
+    } else if (value instanceof Map) {
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        weight += String.valueOf(entry.getKey()).length() + String.valueOf(entry.getValue()).length();
+      }
+    }
+    return weight;
+  }
+
   @Override
   public boolean equals(Object other) {
     boolean result = false;
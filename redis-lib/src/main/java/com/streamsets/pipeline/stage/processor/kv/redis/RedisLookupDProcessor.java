@@ -28,9 +28,10 @@ import com.streamsets.pipeline.configurablestage.DProcessor;
 import com.streamsets.pipeline.stage.processor.kv.LookupProcessor;
 
 @StageDef(
-    version = 1,
+    version = 2,
     label = "Redis Lookup Processor",
     description = "Performs KV lookups to enrich records.",
+    upgrader = RedisLookupUpgrader.class,
     icon = "redis.png",
     onlineHelpRefUrl = "index.html#Processors/RedisLookup.html#task_gpv_npr_pv"
 )
@@ -19,9 +19,10 @@
  */
 package com.streamsets.pipeline.stage.processor.kv.redis;
 
+import com.google.common.base.Function;
 import com.google.common.base.Optional;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.LoadingCache;
+import com.google.common.base.Predicate;
+import com.google.common.cache.Weigher;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.streamsets.pipeline.api.Batch;
 import com.streamsets.pipeline.api.BatchMaker;
@@ -35,7 +36,7 @@ import com.streamsets.pipeline.api.el.ELEvalException;
 import com.streamsets.pipeline.api.el.ELVars;
 import com.streamsets.pipeline.api.impl.Utils;
 import com.streamsets.pipeline.lib.el.RecordEL;
-import com.streamsets.pipeline.stage.processor.kv.EvictionPolicyType;
+import com.streamsets.pipeline.stage.processor.kv.LookupCache;
 import com.streamsets.pipeline.stage.processor.lib.DefaultErrorRecordHandler;
 import com.streamsets.pipeline.stage.processor.lib.ErrorRecordHandler;
 import org.apache.commons.lang3.tuple.Pair;
@@ -61,11 +62,44 @@ import static com.streamsets.pipeline.stage.processor.kv.LookupMode.RECORD;
 public class RedisLookupProcessor extends BaseProcessor {
   private static final Logger LOG = LoggerFactory.getLogger(RedisLookupProcessor.class);
 
+  private static final Predicate<LookupValue> IS_MISSING = new Predicate<LookupValue>() {
+    @Override
+    public boolean apply(LookupValue value) {
+      return value.isEmpty();
+    }
+  };
+
+  private static final Weigher<Pair<String, DataType>, LookupValue> WEIGHER =
+      new Weigher<Pair<String, DataType>, LookupValue>() {
+        @Override
+        public int weigh(Pair<String, DataType> key, LookupValue value) {
+          return 1 + key.getLeft().length() + value.getWeight();
+        }
+      };
+
+  // Cached keys are persisted as <data type>:<key>
+  private static final Function<Pair<String, DataType>, String> KEY_FORMATTER =
+      new Function<Pair<String, DataType>, String>() {
+        @Override
+        public String apply(Pair<String, DataType> key) {
+          return key.getRight().name() + ":" + key.getLeft();
+        }
+      };
+
+  private static final Function<String, Pair<String, DataType>> KEY_PARSER =
+      new Function<String, Pair<String, DataType>>() {
+        @Override
+        public Pair<String, DataType> apply(String line) {
+          int separator = line.indexOf(':');
+          return Pair.of(line.substring(separator + 1), DataType.valueOf(line.substring(0, separator)));
+        }
+      };
+
   private final RedisLookupConfig conf;
 
   private ErrorRecordHandler error;
   private ELEval keyExprEval;
-  private LoadingCache<Pair<String, DataType>, LookupValue> cache;
+  private LookupCache<Pair<String, DataType>, LookupValue> cache;
 
   private RedisStore store;
 
@@ -96,6 +130,8 @@ public class RedisLookupProcessor extends BaseProcessor {
       }
     }
 
+    conf.cache.init(getContext(), "conf.cache.", issues);
+
     if (issues.isEmpty()) {
       error = new DefaultErrorRecordHandler(getContext());
       keyExprEval = getContext().createELEval("keyExpr");
@@ -106,32 +142,17 @@ public class RedisLookupProcessor extends BaseProcessor {
     return issues;
   }
 
-  @SuppressWarnings("unchecked")
-  private LoadingCache<Pair<String, DataType>, LookupValue> buildCache() {
-    CacheBuilder cacheBuilder = CacheBuilder.newBuilder();
-    if (!conf.cache.enabled) {
-      return cacheBuilder.maximumSize(0)
-                  .build(store);
+  private LookupCache<Pair<String, DataType>, LookupValue> buildCache() {
+    LookupCache<Pair<String, DataType>, LookupValue> lookupCache = new LookupCache<>(
+        conf.cache,
+        store,
+        IS_MISSING,
+        WEIGHER
+    );
+    if (conf.cache.enabled && conf.cache.snapshotEnabled) {
+      lookupCache.loadKeys(conf.cache.getSnapshotFile(getContext()), KEY_PARSER);
     }
-
-    if(conf.cache.maxSize == -1) {
-      conf.cache.maxSize = Long.MAX_VALUE;
-    }
-
-    // CacheBuilder doesn't support specifying type thus suffers from erasure, so
-    // we build it with this if / else logic.
-    if (conf.cache.evictionPolicyType == EvictionPolicyType.EXPIRE_AFTER_ACCESS) {
-      cacheBuilder.maximumSize(conf.cache.maxSize)
-          .expireAfterAccess(conf.cache.expirationTime, conf.cache.timeUnit);
-    } else if (conf.cache.evictionPolicyType == EvictionPolicyType.EXPIRE_AFTER_WRITE) {
-      cacheBuilder.maximumSize(conf.cache.maxSize)
-          .expireAfterWrite(conf.cache.expirationTime, conf.cache.timeUnit);
-    } else {
-      throw new IllegalArgumentException(
-          Utils.format("Unrecognized EvictionPolicyType: '{}'", conf.cache.evictionPolicyType)
-      );
-    }
-    return cacheBuilder.build(store);
+    return lookupCache;
   }
 
   @Override
@@ -323,6 +344,12 @@ public class RedisLookupProcessor extends BaseProcessor {
   @Override
   public void destroy() {
     super.destroy();
+    if (cache != null) {
+      if (conf.cache.enabled && conf.cache.snapshotEnabled) {
+        cache.saveKeys(conf.cache.getSnapshotFile(getContext()), KEY_FORMATTER);
+      }
+      cache.close();
+    }
     if (store != null) {
       try {
         store.close();
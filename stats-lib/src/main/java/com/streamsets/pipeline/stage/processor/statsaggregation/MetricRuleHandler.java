@@ -103,27 +103,35 @@ public class MetricRuleHandler {
   }
 
   void handleMetricRuleRecord(Record record) {
+    // a record may coalesce several batches, the totals are then spread evenly over them in timers and histograms
+    int batchCount = 1;
+    Field batchCountField = record.get(MetricAggregationConstants.ROOT_FIELD + AggregatorUtil.BATCH_COUNT);
+    if (batchCountField != null && batchCountField.getValue() != null && batchCountField.getValueAsInteger() > 1) {
+      batchCount = batchCountField.getValueAsInteger();
+    }
+
     // update all the counters, meters, histograms from this record
-    batchProcessingTimer.update(
+    updateTimer(
+      batchProcessingTimer,
       record.get(MetricAggregationConstants.ROOT_FIELD + AggregatorUtil.PIPELINE_BATCH_DURATION).getValueAsLong(),
-      TimeUnit.MILLISECONDS
+      batchCount
     );
-    batchCountMeter.mark();
+    batchCountMeter.mark(batchCount);
 
     int batchInputRecords = record.get(MetricAggregationConstants.ROOT_FIELD + AggregatorUtil.BATCH_INPUT_RECORDS).getValueAsInteger();
-    batchInputRecordsHistogram.update(batchInputRecords);
+    updateHistogram(batchInputRecordsHistogram, batchInputRecords, batchCount);
     batchInputRecordsMeter.mark(batchInputRecords);
 
     int batchOutputRecords = record.get(MetricAggregationConstants.ROOT_FIELD + AggregatorUtil.BATCH_OUTPUT_RECORDS).getValueAsInteger();
-    batchOutputRecordsHistogram.update(batchOutputRecords);
+    updateHistogram(batchOutputRecordsHistogram, batchOutputRecords, batchCount);
     batchOutputRecordsMeter.mark(batchOutputRecords);
 
     int batchErrorRecords = record.get(MetricAggregationConstants.ROOT_FIELD + AggregatorUtil.BATCH_ERROR_RECORDS).getValueAsInteger();
-    batchErrorRecordsHistogram.update(batchErrorRecords);
+    updateHistogram(batchErrorRecordsHistogram, batchErrorRecords, batchCount);
     batchErrorRecordsMeter.mark(batchErrorRecords);
 
     int batchErrors = record.get(MetricAggregationConstants.ROOT_FIELD + AggregatorUtil.BATCH_ERRORS).getValueAsInteger();
-    batchErrorsHistogram.update(batchErrors);
+    updateHistogram(batchErrorsHistogram, batchErrors, batchCount);
     batchErrorMessagesMeter.mark(batchErrors);
 
     Map<String, Field> stageBatchMetrics = record.get(MetricAggregationConstants.ROOT_FIELD + AggregatorUtil.STAGE_BATCH_METRICS)
@@ -138,28 +146,28 @@ public class MetricRuleHandler {
       // stats values can be null, guard against it
       Field field = stageMetrics.get(AggregatorUtil.PROCESSING_TIME);
       if (field.getValue() != null) {
-        stageProcessingTimer.get(stageInstanceName).update(field.getValueAsLong(), TimeUnit.MILLISECONDS);
+        updateTimer(stageProcessingTimer.get(stageInstanceName), field.getValueAsLong(), batchCount);
       }
 
       field = stageMetrics.get(AggregatorUtil.INPUT_RECORDS);
       if (field.getValue() != null) {
         int inputRecords = field.getValueAsInteger();
         inputRecordsMeter.get(stageInstanceName).mark(inputRecords);
-        inputRecordsHistogram.get(stageInstanceName).update(inputRecords);
+        updateHistogram(inputRecordsHistogram.get(stageInstanceName), inputRecords, batchCount);
       }
 
       field = stageMetrics.get(AggregatorUtil.OUTPUT_RECORDS);
       if (field.getValue() != null) {
         int outputRecords = field.getValueAsInteger();
         outputRecordsMeter.get(stageInstanceName).mark(outputRecords);
-        outputRecordsHistogram.get(stageInstanceName).update(outputRecords);
+        updateHistogram(outputRecordsHistogram.get(stageInstanceName), outputRecords, batchCount);
       }
 
       field = stageMetrics.get(AggregatorUtil.ERROR_RECORDS);
       if (field.getValue() != null) {
         int errorRecords = field.getValueAsInteger();
         errorRecordsMeter.get(stageInstanceName).mark(errorRecords);
-        errorRecordsHistogram.get(stageInstanceName).update(errorRecords);
+        updateHistogram(errorRecordsHistogram.get(stageInstanceName), errorRecords, batchCount);
       }
 
 
@@ -167,7 +175,7 @@ public class MetricRuleHandler {
       if (field.getValue() != null) {
         int stageErrors = field.getValueAsInteger();
         stageErrorMeter.get(stageInstanceName).mark(stageErrors);
-        stageErrorsHistogram.get(stageInstanceName).update(stageErrors);
+        updateHistogram(stageErrorsHistogram.get(stageInstanceName), stageErrors, batchCount);
       }
 
       // no output lanes present for destinations
@@ -190,6 +198,20 @@ public class MetricRuleHandler {
     }
   }
 
+  private static void updateTimer(Timer timer, long total, int batchCount) {
+    long perBatch = total / batchCount;
+    for (int i = 0; i < batchCount; i++) {
+      timer.update(perBatch, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private static void updateHistogram(Histogram histogram, long total, int batchCount) {
+    long perBatch = total / batchCount;
+    for (int i = 0; i < batchCount; i++) {
+      histogram.update(perBatch);
+    }
+  }
+
   void handleConfigChangeRecord(Record record) {
 
     List<Field> valueAsList = record.get(MetricAggregationConstants.ROOT_FIELD + AggregatorUtil.EMAILS).getValueAsList();